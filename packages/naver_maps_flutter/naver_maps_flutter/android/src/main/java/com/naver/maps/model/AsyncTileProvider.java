@@ -0,0 +1,18 @@
+package com.naver.maps.model;
+
+/**
+ * A {@link TileProvider} that delivers tiles asynchronously, so that a pending tile does not hold a
+ * thread. Requests complete with {@link TileProvider#NO_TILE} on error, timeout or cancellation.
+ */
+public interface AsyncTileProvider extends TileProvider {
+
+    interface Callback {
+        void onTile(Tile tile);
+    }
+
+    interface Request {
+        void cancel();
+    }
+
+    Request requestTile(int x, int y, int zoom, Callback callback);
+}
@@ -24,18 +24,45 @@ public final class BitmapDescriptor {
     private final Type mType;
 
     private final Bitmap mBitmap;
+    private final byte[] mBytes;
     final float mTintR;
     final float mTintG;
     final float mTintB;
 
     private final String mPathString;
     private final int mResourceId;
+    private final OverlayImage mImage;
+    private final String mCacheKey;
 
     BitmapDescriptor(Bitmap bitmap)
     {
         this(bitmap, -1, -1, -1);
     }
 
+    BitmapDescriptor(OverlayImage image, String cacheKey) {
+        mType = Type.OVERLAY_IMAGE;
+
+        mTintR = mTintG = mTintB = -1;
+        mBitmap = null;
+        mBytes = null;
+        mPathString = null;
+        mResourceId = 0;
+        mImage = image;
+        mCacheKey = cacheKey;
+    }
+
+    BitmapDescriptor(byte[] bytes, String cacheKey) {
+        mType = Type.BYTES;
+
+        mTintR = mTintG = mTintB = -1;
+        mBitmap = null;
+        mBytes = bytes;
+        mPathString = null;
+        mResourceId = 0;
+        mImage = null;
+        mCacheKey = cacheKey;
+    }
+
     BitmapDescriptor(Bitmap bitmap, float tintR, float tintG, float tintB)
     {
         mType = Type.BITMAP;
@@ -43,8 +70,11 @@ public final class BitmapDescriptor {
         mTintG = tintG;
         mTintB = tintB;
         mBitmap = bitmap;
+        mBytes = null;
         mPathString = null;
         mResourceId = 0;
+        mImage = null;
+        mCacheKey = null;
     }
 
     BitmapDescriptor(String pathString, Type type) {
@@ -52,8 +82,11 @@ public final class BitmapDescriptor {
 
         mTintR = mTintG = mTintB = -1;
         mBitmap = null;
+        mBytes = null;
         mPathString = pathString;
         mResourceId = 0;
+        mImage = null;
+        mCacheKey = type.name() + ":" + pathString;
     }
 
     BitmapDescriptor(int resourceId) {
@@ -61,8 +94,11 @@ public final class BitmapDescriptor {
 
         mTintR = mTintG = mTintB = -1;
         mBitmap = null;
+        mBytes = null;
         mPathString = null;
         mResourceId = resourceId;
+        mImage = null;
+        mCacheKey = mType.name() + ":" + resourceId;
     }
 
     Bitmap loadBitmap(Context context)
@@ -71,9 +107,12 @@ public final class BitmapDescriptor {
         try {
             switch (mType) {
                 case DEFAULT:
+                case OVERLAY_IMAGE:
                     return null;
                 case BITMAP:
                     return mBitmap;
+                case BYTES:
+                    return BitmapFactory.decodeByteArray(mBytes, 0, mBytes.length);
                 case PATH_ABSOLUTE:
                     return BitmapFactory.decodeFile(mPathString);
                 case PATH_ASSET:
@@ -102,10 +141,31 @@ public final class BitmapDescriptor {
     enum Type {
         DEFAULT,
         BITMAP,
+        BYTES,
         PATH_ABSOLUTE,
         PATH_ASSET,
         PATH_FILEINPUT,
         RESOURCE_ID,
+        OVERLAY_IMAGE,
+    }
+
+    /**
+     * Returns the key identifying this image in {@link OverlayImageCache}, or null if it is not
+     * cacheable.
+     */
+    public String getCacheKey() {
+        return mCacheKey;
+    }
+
+    /** Returns a content-addressed cache key for an encoded image payload. */
+    public static String cacheKeyForBytes(byte[] bytes) {
+        // 64-bit FNV-1a: collisions between the handful of distinct icons of an app are negligible.
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return "BYTES:" + bytes.length + ":" + Long.toHexString(hash);
     }
 
     @RequiresApi(api = Build.VERSION_CODES.O)
@@ -117,14 +177,22 @@ public final class BitmapDescriptor {
     }
 
     public OverlayImage toOverlayImage(Context context) {
+      if (mImage != null) {
+        return mImage;
+      }
       if (context == null) {
         return null;
       }
 
+      OverlayImageCache cache = OverlayImageCache.getInstance();
+      OverlayImage cached = cache.get(mCacheKey);
+      if (cached != null) {
+        return cached;
+      }
       Bitmap bitmap = loadBitmap(context);
       if (bitmap == null) {
         return null;
       }
-      return OverlayImage.fromBitmap(bitmap);
+      return cache.put(mCacheKey, bitmap);
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.naver.maps.model;
 
 import android.graphics.Bitmap;
 
+import com.naver.maps.map.overlay.OverlayImage;
+
 public class BitmapDescriptorFactory {
 
     public static BitmapDescriptor fromAsset(String asset) {
@@ -12,6 +14,15 @@ public class BitmapDescriptorFactory {
       return new BitmapDescriptor(bitmap);
     }
 
+    /** Returns a descriptor that decodes {@code bytes} lazily, when the image is first needed. */
+    public static BitmapDescriptor fromBytes(byte[] bytes, String cacheKey) {
+      return new BitmapDescriptor(bytes, cacheKey);
+    }
+
+    public static BitmapDescriptor fromOverlayImage(OverlayImage image, String cacheKey) {
+      return new BitmapDescriptor(image, cacheKey);
+    }
+
     public static BitmapDescriptor defaultMarker() {
       return null;
     }
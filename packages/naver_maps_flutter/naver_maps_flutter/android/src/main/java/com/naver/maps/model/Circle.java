@@ -1,44 +1,119 @@
 package com.naver.maps.model;
 
 import com.naver.maps.geometry.LatLng;
-
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.overlay.CircleOverlay;
+
+/**
+ * A circle drawn by a {@link CircleOverlay}.
+ *
+ * <p>The overlay can't be shown without a center, so the circle stays off the map until it has
+ * one. Taps are resolved by the plugin rather than by the overlay.
+ */
 public class Circle {
+    private static int nextId;
+
+    private final String id = "ci" + nextId++;
+    private final CircleOverlay overlay = new CircleOverlay();
+    private NaverMap map;
+    private LatLng center;
+    private double radius;
+    private boolean clickable;
+    private float strokeWidth;
+    private float zIndex;
+
+    public Circle(CircleOptions options) {
+        setFillColor(options.fillColor);
+        setStrokeColor(options.strokeColor);
+        setStrokeWidth(options.strokeWidth);
+        setZIndex(options.zIndex);
+        setVisible(options.visible);
+        setClickable(options.clickable);
+        setRadius(options.radius);
+        if (options.center != null) {
+            setCenter(options.center);
+        }
+    }
+
     public String getId() {
-        return null;
+        return id;
+    }
+
+    /** Shows the circle on {@code map}, or takes it off the map if {@code map} is null. */
+    public void setMap(NaverMap map) {
+        this.map = map;
+        updateMap();
     }
 
     public void remove() {
-        
+        setMap(null);
     }
 
     public void setClickable(boolean consumeTapEvents) {
+        this.clickable = consumeTapEvents;
     }
 
-    public void setStrokeColor(int strokeColor) {
+    public boolean isClickable() {
+        return clickable;
+    }
 
+    public void setStrokeColor(int strokeColor) {
+        overlay.setOutlineColor(strokeColor);
     }
 
     public void setFillColor(int fillColor) {
-
+        overlay.setColor(fillColor);
     }
 
     public void setCenter(LatLng center) {
+        this.center = center;
+        overlay.setCenter(center);
+        updateMap();
+    }
 
+    public LatLng getCenter() {
+        return center;
     }
 
     public void setRadius(double radius) {
+        this.radius = radius;
+        overlay.setRadius(radius);
+    }
 
+    public double getRadius() {
+        return radius;
     }
 
     public void setVisible(boolean visible) {
+        overlay.setVisible(visible);
+    }
 
+    public boolean isVisible() {
+        return overlay.isVisible();
     }
 
     public void setStrokeWidth(float v) {
+        this.strokeWidth = v;
+        overlay.setOutlineWidth(Math.round(v));
+    }
 
+    public float getStrokeWidth() {
+        return strokeWidth;
     }
 
     public void setZIndex(float zIndex) {
-        
+        this.zIndex = zIndex;
+        overlay.setZIndex(Math.round(zIndex));
+    }
+
+    public float getZIndex() {
+        return zIndex;
+    }
+
+    private void updateMap() {
+        final NaverMap shownOn = center != null ? map : null;
+        if (overlay.getMap() != shownOn) {
+            overlay.setMap(shownOn);
+        }
     }
 }
@@ -3,35 +3,44 @@ package com.naver.maps.model;
 import com.naver.maps.geometry.LatLng;
 
 public class CircleOptions {
+    int fillColor;
+    int strokeColor;
+    LatLng center;
+    double radius;
+    boolean clickable;
+    boolean visible = true;
+    float strokeWidth;
+    float zIndex;
+
     public void fillColor(int color) {
-        
+        this.fillColor = color;
     }
 
     public void strokeColor(int color) {
-        
+        this.strokeColor = color;
     }
 
     public void center(LatLng center) {
-        
+        this.center = center;
     }
 
     public void radius(double radius) {
-        
+        this.radius = radius;
     }
 
     public void clickable(boolean consumeTapEvents) {
-        
+        this.clickable = consumeTapEvents;
     }
 
     public void visible(boolean visible) {
-        
+        this.visible = visible;
     }
 
     public void strokeWidth(float v) {
-        
+        this.strokeWidth = v;
     }
 
     public void zIndex(float zIndex) {
-        
+        this.zIndex = zIndex;
     }
 }
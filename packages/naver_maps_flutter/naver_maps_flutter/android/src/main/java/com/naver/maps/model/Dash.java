@@ -1,7 +1,10 @@
 package com.naver.maps.model;
 
 public class Dash extends PatternItem {
-    public Dash(float toFloat) {
+    /** In pixels. */
+    public final float length;
 
+    public Dash(float toFloat) {
+        this.length = toFloat;
     }
 }
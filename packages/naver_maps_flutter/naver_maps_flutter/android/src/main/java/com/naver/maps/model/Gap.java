@@ -1,7 +1,10 @@
 package com.naver.maps.model;
 
 public class Gap extends PatternItem {
-    public Gap(float toFloat) {
+    /** In pixels. */
+    public final float length;
 
+    public Gap(float toFloat) {
+        this.length = toFloat;
     }
 }
@@ -3,19 +3,20 @@ package com.naver.maps.model;
 import com.naver.maps.geometry.LatLng;
 
 public class MarkerOptions {
-    private float alpha;
-    private float anchorU;
-    private float anchorV;
+    // Defaults are those of a new Marker, so that options left unset can be applied as they are.
+    private float alpha = 1;
+    private float anchorU = 0.5f;
+    private float anchorV = 1;
     private boolean draggable;
     private boolean flat;
     private BitmapDescriptor icon;
-    private float infoWindowAnchorU;
+    private float infoWindowAnchorU = 0.5f;
     private float infoWindowAnchorV;
     private String title;
     private String snippet;
     private LatLng position;
     private float rotation;
-    private boolean visible;
+    private boolean visible = true;
     private float zIndex;
 
     public void alpha(float alpha) {
@@ -0,0 +1,131 @@
+package com.naver.maps.model;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.naver.maps.map.overlay.OverlayImage;
+
+/**
+ * Process-wide LRU cache of decoded icons, shared by every map and marker. Entries are keyed by
+ * {@link BitmapDescriptor#getCacheKey()} and the cache is bounded by the byte size of the bitmaps.
+ *
+ * <p>A key can be pinned while markers wait for its icon: an image put or looked up under a pinned
+ * key outlives its eviction from the LRU until the key is unpinned, so that it is never decoded
+ * twice, on the main thread, in between.
+ */
+public final class OverlayImageCache {
+    private static final int DEFAULT_MAX_BYTES =
+            (int) Math.min(Runtime.getRuntime().maxMemory() / 16, Integer.MAX_VALUE);
+
+    private static final OverlayImageCache INSTANCE = new OverlayImageCache(DEFAULT_MAX_BYTES);
+
+    private final LruCache<String, Entry> cache;
+    private final Map<String, Pin> pins = new HashMap<>();
+
+    private OverlayImageCache(int maxBytes) {
+        cache = new LruCache<String, Entry>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Entry entry) {
+                return entry.byteCount;
+            }
+        };
+    }
+
+    public static OverlayImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized OverlayImage get(String key) {
+        if (key == null) {
+            return null;
+        }
+        Entry entry = cache.get(key);
+        Pin pin = pins.get(key);
+        if (entry == null && pin != null && pin.entry != null) {
+            entry = pin.entry;
+            cache.put(key, entry);
+        } else if (entry != null && pin != null) {
+            pin.entry = entry;
+        }
+        return entry != null ? entry.image : null;
+    }
+
+    public synchronized OverlayImage put(String key, Bitmap bitmap) {
+        OverlayImage image = OverlayImage.fromBitmap(bitmap);
+        if (key != null) {
+            Entry entry = new Entry(image, Math.max(1, bitmap.getByteCount()));
+            cache.put(key, entry);
+            Pin pin = pins.get(key);
+            if (pin != null) {
+                pin.entry = entry;
+            }
+        }
+        return image;
+    }
+
+    /** Keeps the image of {@code key} once it is cached, until as many {@link #unpin} calls. */
+    public synchronized void pin(String key) {
+        Pin pin = pins.get(key);
+        if (pin == null) {
+            pin = new Pin();
+            pins.put(key, pin);
+        }
+        pin.count++;
+    }
+
+    public synchronized void unpin(String key) {
+        Pin pin = pins.get(key);
+        if (pin != null && --pin.count == 0) {
+            pins.remove(key);
+        }
+    }
+
+    public void setMaxSize(int maxBytes) {
+        cache.resize(maxBytes);
+    }
+
+    public synchronized void clear() {
+        cache.evictAll();
+        for (Pin pin : pins.values()) {
+            pin.entry = null;
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    public int hitCount() {
+        return cache.hitCount();
+    }
+
+    public int missCount() {
+        return cache.missCount();
+    }
+
+    public int evictionCount() {
+        return cache.evictionCount();
+    }
+
+    private static final class Pin {
+        int count;
+        Entry entry;
+    }
+
+    private static final class Entry {
+        final OverlayImage image;
+        final int byteCount;
+
+        Entry(OverlayImage image, int byteCount) {
+            this.image = image;
+            this.byteCount = byteCount;
+        }
+    }
+}
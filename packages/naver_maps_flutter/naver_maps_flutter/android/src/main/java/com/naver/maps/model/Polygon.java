@@ -1,51 +1,142 @@
 package com.naver.maps.model;
 
 import com.naver.maps.geometry.LatLng;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.overlay.PolygonOverlay;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * A polygon drawn by a {@link PolygonOverlay}.
+ *
+ * <p>The overlay rejects rings of fewer than {@link #MIN_POINTS} points, so the polygon stays off
+ * the map while its outer ring is that short, and such holes are left out. Taps are resolved by
+ * the plugin rather than by the overlay, and geodesic edges are not supported by the SDK.
+ */
 public class Polygon {
+    static final int MIN_POINTS = 3;
+
+    private static int nextId;
+
+    private final String id = "pg" + nextId++;
+    private final PolygonOverlay overlay = new PolygonOverlay();
+    private NaverMap map;
+    private List<LatLng> points = Collections.emptyList();
+    private List<List<LatLng>> holes = Collections.emptyList();
+    private boolean clickable;
+    private boolean geodesic;
+    private float strokeWidth;
+    private float zIndex;
+
+    public Polygon(PolygonOptions options) {
+        setFillColor(options.fillColor);
+        setStrokeColor(options.strokeColor);
+        setStrokeWidth(options.strokeWidth);
+        setZIndex(options.zIndex);
+        setVisible(options.visible);
+        setClickable(options.clickable);
+        setGeodesic(options.geodesic);
+        setPoints(options.points);
+        setHoles(options.holes);
+    }
+
     public String getId() {
-        return null;
+        return id;
     }
 
-    public void remove() {
+    /** Shows the polygon on {@code map}, or takes it off the map if {@code map} is null. */
+    public void setMap(NaverMap map) {
+        this.map = map;
+        updateMap();
+    }
 
+    public void remove() {
+        setMap(null);
     }
 
     public void setClickable(boolean consumeTapEvents) {
+        this.clickable = consumeTapEvents;
+    }
 
+    public boolean isClickable() {
+        return clickable;
     }
 
     public void setFillColor(int color) {
-
+        overlay.setColor(color);
     }
 
     public void setStrokeColor(int color) {
-
+        overlay.setOutlineColor(color);
     }
 
     public void setGeodesic(boolean geodesic) {
+        this.geodesic = geodesic;
+    }
 
+    public boolean isGeodesic() {
+        return geodesic;
     }
 
     public void setPoints(List<LatLng> points) {
+        this.points = points;
+        if (points.size() >= MIN_POINTS) {
+            overlay.setCoords(points);
+        }
+        updateMap();
+    }
 
+    public List<LatLng> getPoints() {
+        return points;
     }
 
     public void setHoles(List<List<LatLng>> holes) {
+        this.holes = holes;
+        final List<List<LatLng>> validHoles = new ArrayList<>(holes.size());
+        for (List<LatLng> hole : holes) {
+            if (hole.size() >= MIN_POINTS) {
+                validHoles.add(hole);
+            }
+        }
+        overlay.setHoles(validHoles);
+    }
 
+    public List<List<LatLng>> getHoles() {
+        return holes;
     }
 
     public void setVisible(boolean visible) {
+        overlay.setVisible(visible);
+    }
 
+    public boolean isVisible() {
+        return overlay.isVisible();
     }
 
     public void setStrokeWidth(float v) {
+        this.strokeWidth = v;
+        overlay.setOutlineWidth(Math.round(v));
+    }
 
+    public float getStrokeWidth() {
+        return strokeWidth;
     }
 
     public void setZIndex(float zIndex) {
-        
+        this.zIndex = zIndex;
+        overlay.setZIndex(Math.round(zIndex));
+    }
+
+    public float getZIndex() {
+        return zIndex;
+    }
+
+    private void updateMap() {
+        final NaverMap shownOn = points.size() >= MIN_POINTS ? map : null;
+        if (overlay.getMap() != shownOn) {
+            overlay.setMap(shownOn);
+        }
     }
 }
@@ -2,42 +2,53 @@ package com.naver.maps.model;
 
 import com.naver.maps.geometry.LatLng;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class PolygonOptions {
+    int fillColor;
+    int strokeColor;
+    final List<LatLng> points = new ArrayList<>();
+    final List<List<LatLng>> holes = new ArrayList<>();
+    boolean clickable;
+    boolean geodesic;
+    boolean visible = true;
+    float strokeWidth;
+    float zIndex;
+
     public void fillColor(int color) {
-        
+        this.fillColor = color;
     }
 
     public void strokeColor(int color) {
-        
+        this.strokeColor = color;
     }
 
     public void addAll(List<LatLng> points) {
-        
+        this.points.addAll(points);
     }
 
     public void addHole(List<LatLng> hole) {
-        
+        this.holes.add(hole);
     }
 
     public void clickable(boolean consumeTapEvents) {
-        
+        this.clickable = consumeTapEvents;
     }
 
     public void geodesic(boolean geodisc) {
-        
+        this.geodesic = geodisc;
     }
 
     public void visible(boolean visible) {
-        
+        this.visible = visible;
     }
 
     public void strokeWidth(float v) {
-        
+        this.strokeWidth = v;
     }
 
     public void zIndex(float zIndex) {
-        
+        this.zIndex = zIndex;
     }
 }
@@ -1,50 +1,209 @@
 package com.naver.maps.model;
 
 import com.naver.maps.geometry.LatLng;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.overlay.PolylineOverlay;
 
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * A polyline drawn by a {@link PolylineOverlay}.
+ *
+ * <p>The overlay rejects paths of fewer than {@link #MIN_POINTS} points, so the polyline stays off
+ * the map while it is that short. The overlay has one cap for both ends, taken from the end cap
+ * unless only the start cap is set; custom caps are drawn as butt caps. Dots are drawn as dashes as
+ * long as the line is wide. Taps are resolved by the plugin rather than by the overlay, and
+ * geodesic segments are not supported by the SDK.
+ */
 public class Polyline {
+    static final int MIN_POINTS = 2;
+
+    // Joint types, as in the Dart API.
+    private static final int JOINT_TYPE_BEVEL = 1;
+    private static final int JOINT_TYPE_ROUND = 2;
+
+    private static int nextId;
+
+    private final String id = "pl" + nextId++;
+    private final PolylineOverlay overlay = new PolylineOverlay();
+    private NaverMap map;
+    private List<LatLng> points = Collections.emptyList();
+    private Cap startCap;
+    private Cap endCap;
+    private List<PatternItem> pattern;
+    private boolean clickable;
+    private boolean geodesic;
+    private float width;
+    private float zIndex;
+
+    public Polyline(PolylineOptions options) {
+        setColor(options.color);
+        setWidth(options.width);
+        setZIndex(options.zIndex);
+        setVisible(options.visible);
+        setClickable(options.clickable);
+        setGeodesic(options.geodesic);
+        setJointType(options.jointType);
+        setStartCap(options.startCap);
+        setEndCap(options.endCap);
+        setPattern(options.pattern);
+        setPoints(options.points);
+    }
+
     public String getId() {
-        return null;
+        return id;
+    }
+
+    /** Shows the polyline on {@code map}, or takes it off the map if {@code map} is null. */
+    public void setMap(NaverMap map) {
+        this.map = map;
+        updateMap();
     }
 
     public void remove() {
-        
+        setMap(null);
     }
 
     public void setClickable(boolean consumeTapEvents) {
+        this.clickable = consumeTapEvents;
+    }
+
+    public boolean isClickable() {
+        return clickable;
     }
 
     public void setColor(int color) {
+        overlay.setColor(color);
     }
 
     public void setEndCap(Cap endCap) {
+        this.endCap = endCap;
+        updateCap();
     }
 
     public void setGeodesic(boolean geodesic) {
+        this.geodesic = geodesic;
+    }
+
+    public boolean isGeodesic() {
+        return geodesic;
     }
 
     public void setJointType(int jointType) {
-        
+        switch (jointType) {
+            case JOINT_TYPE_BEVEL:
+                overlay.setJoinType(PolylineOverlay.LineJoin.Bevel);
+                break;
+            case JOINT_TYPE_ROUND:
+                overlay.setJoinType(PolylineOverlay.LineJoin.Round);
+                break;
+            default:
+                overlay.setJoinType(PolylineOverlay.LineJoin.Miter);
+        }
     }
 
     public void setPattern(List<PatternItem> pattern) {
-        
+        this.pattern = pattern;
+        updatePattern();
     }
 
     public void setPoints(List<LatLng> points) {
+        this.points = points;
+        if (points.size() >= MIN_POINTS) {
+            overlay.setCoords(points);
+        }
+        updateMap();
+    }
+
+    public List<LatLng> getPoints() {
+        return points;
     }
 
     public void setStartCap(Cap startCap) {
+        this.startCap = startCap;
+        updateCap();
     }
 
     public void setVisible(boolean visible) {
+        overlay.setVisible(visible);
+    }
+
+    public boolean isVisible() {
+        return overlay.isVisible();
     }
 
     public void setWidth(float v) {
+        this.width = v;
+        overlay.setWidth(Math.round(v));
+        if (pattern != null) {
+            // Dots are as long as the line is wide.
+            updatePattern();
+        }
+    }
+
+    public float getWidth() {
+        return width;
     }
 
     public void setZIndex(float zIndex) {
+        this.zIndex = zIndex;
+        overlay.setZIndex(Math.round(zIndex));
+    }
+
+    public float getZIndex() {
+        return zIndex;
+    }
+
+    private void updateMap() {
+        final NaverMap shownOn = points.size() >= MIN_POINTS ? map : null;
+        if (overlay.getMap() != shownOn) {
+            overlay.setMap(shownOn);
+        }
+    }
+
+    private void updateCap() {
+        final Cap cap = endCap != null ? endCap : startCap;
+        if (cap instanceof RoundCap) {
+            overlay.setCapType(PolylineOverlay.LineCap.Round);
+        } else if (cap instanceof SquareCap) {
+            overlay.setCapType(PolylineOverlay.LineCap.Square);
+        } else {
+            overlay.setCapType(PolylineOverlay.LineCap.Butt);
+        }
+    }
+
+    /**
+     * Converts the pattern to the overlay's alternating dash and gap lengths, merging runs of the
+     * same kind. An empty pattern draws a solid line.
+     */
+    private void updatePattern() {
+        if (pattern == null || pattern.isEmpty()) {
+            overlay.setPattern();
+            return;
+        }
+        final int[] lengths = new int[pattern.size() * 2 + 1];
+        int count = 0;
+        for (PatternItem item : pattern) {
+            final boolean gap = item instanceof Gap;
+            final float length =
+                    item instanceof Dash
+                            ? ((Dash) item).length
+                            : gap ? ((Gap) item).length : Math.max(1, width);
+            // Even slots hold dashes and odd slots gaps, so a leading gap follows an empty dash.
+            if (count == 0 && gap) {
+                count = 1;
+            } else if (count > 0 && ((count - 1) % 2 == 1) == gap) {
+                lengths[count - 1] += Math.round(length);
+                continue;
+            }
+            lengths[count++] = Math.round(length);
+        }
+        if (count % 2 == 1) {
+            count++;
+        }
+        final int[] alternating = new int[count];
+        System.arraycopy(lengths, 0, alternating, 0, count);
+        overlay.setPattern(alternating);
     }
 }
@@ -2,42 +2,63 @@ package com.naver.maps.model;
 
 import com.naver.maps.geometry.LatLng;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class PolylineOptions {
+    int color;
+    Cap startCap;
+    Cap endCap;
+    int jointType;
+    List<PatternItem> pattern;
+    final List<LatLng> points = new ArrayList<>();
+    boolean clickable;
+    boolean geodesic;
+    boolean visible = true;
+    float width;
+    float zIndex;
+
     public void color(int color) {
+        this.color = color;
     }
 
     public void endCap(Cap endCap) {
+        this.endCap = endCap;
     }
 
     public void jointType(int jointType) {
+        this.jointType = jointType;
     }
 
     public void pattern(List<PatternItem> pattern) {
-        
+        this.pattern = pattern;
     }
 
     public void addAll(List<LatLng> points) {
-        
+        this.points.addAll(points);
     }
 
     public void clickable(boolean consumeTapEvents) {
-        
+        this.clickable = consumeTapEvents;
     }
 
     public void geodesic(boolean geodisc) {
+        this.geodesic = geodisc;
     }
 
     public void startCap(Cap startCap) {
+        this.startCap = startCap;
     }
 
     public void visible(boolean visible) {
+        this.visible = visible;
     }
 
     public void width(float v) {
+        this.width = v;
     }
 
     public void zIndex(float zIndex) {
+        this.zIndex = zIndex;
     }
 }
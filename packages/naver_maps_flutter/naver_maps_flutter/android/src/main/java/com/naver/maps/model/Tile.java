@@ -1,7 +1,32 @@
 package com.naver.maps.model;
 
+import java.nio.ByteBuffer;
+
 public class Tile {
+    public final int width;
+    public final int height;
+    public final byte[] data;
+    public final int offset;
+    public final int length;
+
     public Tile(int width, int height, byte[] dataArray) {
-        
+        this(width, height, dataArray, 0, dataArray != null ? dataArray.length : 0);
+    }
+
+    /**
+     * Creates a tile backed by {@code length} bytes of {@code dataArray} starting at {@code offset}.
+     * The array is not copied, so several tiles can share one buffer.
+     */
+    public Tile(int width, int height, byte[] dataArray, int offset, int length) {
+        this.width = width;
+        this.height = height;
+        this.data = dataArray;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /** Returns a read-only view of the image bytes, or null if the tile has no data. */
+    public ByteBuffer getData() {
+        return data != null ? ByteBuffer.wrap(data, offset, length).slice().asReadOnlyBuffer() : null;
     }
 }
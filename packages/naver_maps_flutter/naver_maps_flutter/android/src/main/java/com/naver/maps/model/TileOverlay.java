@@ -1,44 +0,0 @@
-package com.naver.maps.model;
-
-public class TileOverlay {
-    public void remove() {
-
-    }
-
-    public void clearTileCache() {
-
-    }
-
-    public Object getFadeIn() {
-        return null;
-    }
-
-    public Object getTransparency() {
-        return null;
-    }
-
-    public Object getId() {
-        return null;
-    }
-
-    public Object getZIndex() {
-        return null;
-    }
-
-    public Object isVisible() {
-        return null;
-    }
-
-    public void setFadeIn(boolean fadeIn) {
-    }
-
-    public void setTransparency(float transparency) {
-    }
-
-    public void setZIndex(float zIndex) {
-    }
-
-    public void setVisible(boolean visible) {
-
-    }
-}
@@ -1,23 +0,0 @@
-package com.naver.maps.model;
-
-public class TileOverlayOptions {
-    public void tileProvider(TileProvider tileProvider) {
-
-    }
-
-    public void fadeIn(boolean fadeIn) {
-
-    }
-
-    public void transparency(float transparency) {
-
-    }
-
-    public void zIndex(float zIndex) {
-
-    }
-
-    public void visible(boolean visible) {
-        
-    }
-}
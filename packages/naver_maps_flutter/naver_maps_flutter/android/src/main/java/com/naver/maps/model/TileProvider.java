@@ -1,7 +1,8 @@
 package com.naver.maps.model;
 
 public interface TileProvider {
-    public static final Tile NO_TILE = null;
+    /** Stands for a tile that doesn't exist; distinct from null, which is never a valid tile. */
+    public static final Tile NO_TILE = new Tile(-1, -1, null);
 
     Tile getTile(final int x, final int y, final int zoom);
 }
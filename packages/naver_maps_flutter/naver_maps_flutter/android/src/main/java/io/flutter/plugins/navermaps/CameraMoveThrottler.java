@@ -0,0 +1,139 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.naver.maps.map.NaverMap;
+
+import java.util.Arrays;
+
+/**
+ * Sends {@code camera#onMove} at most {@code maxRateHz} times per second.
+ *
+ * <p>Camera changes arriving faster than that are coalesced so that only the latest position is
+ * sent, and positions that moved no more than the configured deltas from the last sent one are
+ * dropped. {@link #onCameraIdle()} flushes the final position, ignoring the deltas, before {@code
+ * camera#onIdle} so that Dart always ends up with the position the camera settled on.
+ *
+ * <p>Positions are sent through the {@link MapEventBus}. All methods must be called on the main
+ * thread.
+ */
+class CameraMoveThrottler {
+
+  static final double DEFAULT_MAX_RATE_HZ = 30;
+
+  private final MapEventBus eventBus;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable flush = () -> flush(false);
+  private NaverMap naverMap;
+  private long minIntervalMillis;
+  private double minTargetDelta;
+  private double minZoomDelta;
+  private double minBearingDelta;
+  private double[] lastSent;
+  private long lastSentAt;
+  private boolean moving;
+  private boolean flushScheduled;
+
+  CameraMoveThrottler(MapEventBus eventBus) {
+    this.eventBus = eventBus;
+    setMaxRate(DEFAULT_MAX_RATE_HZ);
+  }
+
+  void setNaverMap(NaverMap naverMap) {
+    this.naverMap = naverMap;
+  }
+
+  /** A non-positive rate sends every camera change. */
+  void setMaxRate(double maxRateHz) {
+    this.minIntervalMillis = maxRateHz > 0 ? (long) (1000 / maxRateHz) : 0;
+  }
+
+  /**
+   * Sets the changes, in degrees of latitude or longitude, zoom levels and degrees of bearing, that
+   * are too small to be sent while the camera moves. Tilt changes are always sent.
+   */
+  void setMinDeltas(double target, double zoom, double bearing) {
+    this.minTargetDelta = target;
+    this.minZoomDelta = zoom;
+    this.minBearingDelta = bearing;
+  }
+
+  void onCameraMove() {
+    moving = true;
+    long wait = lastSentAt + minIntervalMillis - now();
+    if (wait <= 0) {
+      flush(false);
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      handler.postDelayed(flush, wait);
+    }
+  }
+
+  void onCameraIdle() {
+    if (moving) {
+      flush(true);
+    }
+    moving = false;
+    lastSent = null;
+  }
+
+  void cancel() {
+    handler.removeCallbacks(flush);
+    flushScheduled = false;
+    moving = false;
+    lastSent = null;
+  }
+
+  private void flush(boolean force) {
+    handler.removeCallbacks(flush);
+    flushScheduled = false;
+    double[] position = cameraPosition();
+    if (position == null) {
+      return;
+    }
+    if (lastSent != null
+        && (force ? Arrays.equals(lastSent, position) : !movedEnough(lastSent, position))) {
+      return;
+    }
+    lastSent = position;
+    lastSentAt = now();
+    send(position);
+  }
+
+  /** Returns the camera position as sent, or null without a map. */
+  @VisibleForTesting
+  double[] cameraPosition() {
+    return naverMap != null ? Convert.cameraPositionToArray(naverMap.getCameraPosition()) : null;
+  }
+
+  @VisibleForTesting
+  long now() {
+    return SystemClock.uptimeMillis();
+  }
+
+  @VisibleForTesting
+  void send(double[] position) {
+    eventBus.onCameraMove(position);
+  }
+
+  private boolean movedEnough(double[] from, double[] to) {
+    return Math.abs(to[0] - from[0]) > minTargetDelta
+        || Math.abs(to[1] - from[1]) > minTargetDelta
+        || Math.abs(to[2] - from[2]) > minZoomDelta
+        || to[3] != from[3]
+        || bearingDelta(from[4], to[4]) > minBearingDelta;
+  }
+
+  private static double bearingDelta(double from, double to) {
+    double delta = Math.abs(to - from) % 360;
+    return delta > 180 ? 360 - delta : delta;
+  }
+}
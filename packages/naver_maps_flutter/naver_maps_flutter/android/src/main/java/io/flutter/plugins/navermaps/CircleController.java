@@ -13,6 +13,18 @@ class CircleController implements CircleOptionsSink {
   private final String naverMapsCircleId;
   private final float density;
   private boolean consumeTapEvents;
+  // Set while the circle is tappable on a map.
+  private OverlayHitIndex.CircleTarget hitTarget;
+
+  // Last applied values, to skip writes that change nothing.
+  private Boolean appliedClickable;
+  private Integer appliedStrokeColor;
+  private Integer appliedFillColor;
+  private LatLng appliedCenter;
+  private Double appliedRadius;
+  private Boolean appliedVisible;
+  private Float appliedStrokeWidth;
+  private Float appliedZIndex;
 
   CircleController(Circle circle, boolean consumeTapEvents, float density) {
     this.circle = circle;
@@ -21,49 +33,112 @@ class CircleController implements CircleOptionsSink {
     this.naverMapsCircleId = circle.getId();
   }
 
+  /** Makes the circle tappable through {@code hitIndex}, which taps resolve to {@code circleId}. */
+  void setHitTarget(OverlayHitIndex hitIndex, String circleId) {
+    hitTarget =
+        hitIndex.addCircle(
+            circleId,
+            consumeTapEvents,
+            Math.round(circle.getZIndex()),
+            circle.getCenter(),
+            circle.getRadius());
+    hitTarget.setVisible(circle.isVisible());
+  }
+
   void remove() {
+    if (hitTarget != null) {
+      hitTarget.index.remove(hitTarget);
+      hitTarget = null;
+    }
     circle.remove();
   }
 
   @Override
   public void setConsumeTapEvents(boolean consumeTapEvents) {
     this.consumeTapEvents = consumeTapEvents;
+    if (hitTarget != null) {
+      hitTarget.consumeTapEvents = consumeTapEvents;
+    }
+    if (PropertyWriteStats.unchanged(appliedClickable, consumeTapEvents)) {
+      return;
+    }
+    appliedClickable = consumeTapEvents;
     circle.setClickable(consumeTapEvents);
   }
 
   @Override
   public void setStrokeColor(int strokeColor) {
+    if (PropertyWriteStats.unchanged(appliedStrokeColor, strokeColor)) {
+      return;
+    }
+    appliedStrokeColor = strokeColor;
     circle.setStrokeColor(strokeColor);
   }
 
   @Override
   public void setFillColor(int fillColor) {
+    if (PropertyWriteStats.unchanged(appliedFillColor, fillColor)) {
+      return;
+    }
+    appliedFillColor = fillColor;
     circle.setFillColor(fillColor);
   }
 
   @Override
   public void setCenter(LatLng center) {
+    if (PropertyWriteStats.unchanged(appliedCenter, center)) {
+      return;
+    }
+    appliedCenter = center;
     circle.setCenter(center);
+    if (hitTarget != null) {
+      hitTarget.setCircle(center, circle.getRadius());
+    }
   }
 
   @Override
   public void setRadius(double radius) {
+    if (PropertyWriteStats.unchanged(appliedRadius, radius)) {
+      return;
+    }
+    appliedRadius = radius;
     circle.setRadius(radius);
+    if (hitTarget != null) {
+      hitTarget.setCircle(circle.getCenter(), radius);
+    }
   }
 
   @Override
   public void setVisible(boolean visible) {
+    if (PropertyWriteStats.unchanged(appliedVisible, visible)) {
+      return;
+    }
+    appliedVisible = visible;
     circle.setVisible(visible);
+    if (hitTarget != null) {
+      hitTarget.setVisible(visible);
+    }
   }
 
   @Override
   public void setStrokeWidth(float strokeWidth) {
+    if (PropertyWriteStats.unchanged(appliedStrokeWidth, strokeWidth)) {
+      return;
+    }
+    appliedStrokeWidth = strokeWidth;
     circle.setStrokeWidth(strokeWidth * density);
   }
 
   @Override
   public void setZIndex(float zIndex) {
+    if (PropertyWriteStats.unchanged(appliedZIndex, zIndex)) {
+      return;
+    }
+    appliedZIndex = zIndex;
     circle.setZIndex(zIndex);
+    if (hitTarget != null) {
+      hitTarget.zIndex = Math.round(zIndex);
+    }
   }
 
   String getNaverMapsCircleId() {
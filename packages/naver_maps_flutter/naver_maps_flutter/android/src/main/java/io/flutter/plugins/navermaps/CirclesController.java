@@ -8,7 +8,6 @@ import com.naver.maps.map.NaverMap;
 import com.naver.maps.model.Circle;
 import com.naver.maps.model.CircleOptions;
 
-import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,14 +16,22 @@ class CirclesController {
 
   private final Map<String, CircleController> circleIdToController;
   private final Map<String, String> naverMapsCircleIdToDartCircleId;
-  private final MethodChannel methodChannel;
+  private final MapEventBus eventBus;
+  private final OverlayQueryIndex queryIndex;
+  private final OverlayHitIndex hitIndex;
   private final float density;
   private NaverMap naverMap;
 
-  CirclesController(MethodChannel methodChannel, float density) {
+  CirclesController(
+      MapEventBus eventBus,
+      OverlayQueryIndex queryIndex,
+      OverlayHitIndex hitIndex,
+      float density) {
     this.circleIdToController = new HashMap<>();
     this.naverMapsCircleIdToDartCircleId = new HashMap<>();
-    this.methodChannel = methodChannel;
+    this.eventBus = eventBus;
+    this.queryIndex = queryIndex;
+    this.hitIndex = hitIndex;
     this.density = density;
   }
 
@@ -32,6 +39,15 @@ class CirclesController {
     this.naverMap = naverMap;
   }
 
+  /** Takes every circle off the map, which outlives this controller in the MapViewPool. */
+  void dispose() {
+    for (CircleController circleController : circleIdToController.values()) {
+      circleController.remove();
+    }
+    circleIdToController.clear();
+    naverMapsCircleIdToDartCircleId.clear();
+  }
+
   void addCircles(List<Object> circlesToAdd) {
     if (circlesToAdd != null) {
       for (Object circleToAdd : circlesToAdd) {
@@ -57,6 +73,7 @@ class CirclesController {
         continue;
       }
       String circleId = (String) rawCircleId;
+      queryIndex.remove(OverlayQueryIndex.CIRCLES, circleId);
       final CircleController circleController = circleIdToController.remove(circleId);
       if (circleController != null) {
         circleController.remove();
@@ -70,7 +87,7 @@ class CirclesController {
     if (circleId == null) {
       return false;
     }
-    methodChannel.invokeMethod("circle#onTap", Convert.circleIdToJson(circleId));
+    eventBus.onOverlayTap(MapEventBus.CIRCLE_TAP, circleId);
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
       return circleController.consumeTapEvents();
@@ -84,18 +101,18 @@ class CirclesController {
     }
     CircleBuilder circleBuilder = new CircleBuilder(density);
     String circleId = Convert.interpretCircleOptions(circle, circleBuilder);
+    queryIndex.putCircle(circleId, circle);
     CircleOptions options = circleBuilder.build();
     addCircle(circleId, options, circleBuilder.consumeTapEvents());
   }
 
-
   private void addCircle(String circleId, CircleOptions circleOptions, boolean consumeTapEvents) {
-      throw new UnsupportedOperationException();
-//TODO('Implement addCircle')
-//    final Circle circle = naverMap.addCircle(circleOptions);
-//    CircleController controller = new CircleController(circle, consumeTapEvents, density);
-//    circleIdToController.put(circleId, controller);
-//    naverMapsCircleIdToDartCircleId.put(circle.getId(), circleId);
+    final Circle circle = new Circle(circleOptions);
+    circle.setMap(naverMap);
+    CircleController controller = new CircleController(circle, consumeTapEvents, density);
+    controller.setHitTarget(hitIndex, circleId);
+    circleIdToController.put(circleId, controller);
+    naverMapsCircleIdToDartCircleId.put(circle.getId(), circleId);
   }
 
   private void changeCircle(Object circle) {
@@ -103,6 +120,7 @@ class CirclesController {
       return;
     }
     String circleId = getCircleId(circle);
+    queryIndex.putCircle(circleId, circle);
     CircleController circleController = circleIdToController.get(circleId);
     if (circleController != null) {
       Convert.interpretCircleOptions(circle, circleController);
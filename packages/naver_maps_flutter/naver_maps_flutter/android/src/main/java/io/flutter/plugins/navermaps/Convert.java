@@ -4,7 +4,6 @@
 
 package io.flutter.plugins.navermaps;
 
-import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Point;
 import android.graphics.PointF;
@@ -13,6 +12,7 @@ import com.naver.maps.geometry.LatLng;
 import com.naver.maps.geometry.LatLngBounds;
 import com.naver.maps.map.CameraPosition;
 import com.naver.maps.map.CameraUpdate;
+import com.naver.maps.map.overlay.OverlayImage;
 import com.naver.maps.model.BitmapDescriptor;
 import com.naver.maps.model.BitmapDescriptorFactory;
 import com.naver.maps.model.ButtCap;
@@ -22,12 +22,15 @@ import com.naver.maps.model.CustomCap;
 import com.naver.maps.model.Dash;
 import com.naver.maps.model.Dot;
 import com.naver.maps.model.Gap;
+import com.naver.maps.model.OverlayImageCache;
 import com.naver.maps.model.PatternItem;
 import com.naver.maps.model.RoundCap;
 import com.naver.maps.model.SquareCap;
 import com.naver.maps.model.Tile;
+import com.naver.maps.model.TileProvider;
 
 import io.flutter.view.FlutterMain;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -40,7 +43,7 @@ class Convert {
   // TODO(hamdikahloun): FlutterMain has been deprecated and should be replaced with FlutterLoader
   //  when it's available in Stable channel: https://github.com/flutter/flutter/issues/70923.
   @SuppressWarnings("deprecation")
-  private static BitmapDescriptor toBitmapDescriptor(Object o) {
+  static BitmapDescriptor toBitmapDescriptor(Object o) {
     final List<?> data = toList(o);
     switch (toString(data.get(0))) {
       case "defaultMarker":
@@ -75,8 +78,24 @@ class Convert {
   private static BitmapDescriptor getBitmapFromBytes(List<?> data) {
     if (data.size() == 2) {
       try {
-        Bitmap bitmap = toBitmap(data.get(1));
-        return BitmapDescriptorFactory.fromBitmap(bitmap);
+        // Identical payloads share one decoded image, so only the first marker pays for decoding.
+        // On a miss the bytes are decoded lazily, off the platform thread.
+        final byte[] bytes = (byte[]) data.get(1);
+        final String cacheKey = BitmapDescriptor.cacheKeyForBytes(bytes);
+        final OverlayImage overlayImage = OverlayImageCache.getInstance().get(cacheKey);
+        if (overlayImage != null) {
+          return BitmapDescriptorFactory.fromOverlayImage(overlayImage, cacheKey);
+        }
+        // Only the header is read here, so invalid bytes still fail the update that sent them.
+        final BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(bytes, 0, bytes.length, bounds);
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+          throw new IllegalArgumentException("Unable to interpret bytes as a valid image.");
+        }
+        return BitmapDescriptorFactory.fromBytes(bytes, cacheKey);
+      } catch (IllegalArgumentException e) {
+        throw e;
       } catch (Exception e) {
         throw new IllegalArgumentException("Unable to interpret bytes as a valid image.", e);
       }
@@ -87,6 +106,12 @@ class Convert {
     }
   }
 
+  /** Returns the icon of the given marker, or null if the marker does not set one. */
+  static BitmapDescriptor toMarkerIcon(Object o) {
+    final Object icon = toMap(o).get("icon");
+    return icon != null ? toBitmapDescriptor(icon) : null;
+  }
+
   private static boolean toBoolean(Object o) {
     return (Boolean) o;
   }
@@ -145,10 +170,25 @@ class Convert {
     return (o == null) ? null : toFloat(o);
   }
 
-  private static int toInt(Object o) {
+  static int toInt(Object o) {
     return ((Number) o).intValue();
   }
 
+  private static long toLong(Object o) {
+    return ((Number) o).longValue();
+  }
+
+  /** Packs a camera position as {@code [latitude, longitude, zoom, tilt, bearing]}. */
+  static double[] cameraPositionToArray(CameraPosition position) {
+    return new double[] {
+      position.target.latitude,
+      position.target.longitude,
+      position.zoom,
+      position.tilt,
+      position.bearing
+    };
+  }
+
   static Object cameraPositionToJson(CameraPosition position) {
     if (position == null) {
       return null;
@@ -161,6 +201,16 @@ class Convert {
     return data;
   }
 
+  static Object iconCacheStatsToJson(OverlayImageCache cache) {
+    final Map<String, Object> data = new HashMap<>(6);
+    data.put("hitCount", cache.hitCount());
+    data.put("missCount", cache.missCount());
+    data.put("evictionCount", cache.evictionCount());
+    data.put("size", cache.size());
+    data.put("maxSize", cache.maxSize());
+    return data;
+  }
+
   static Object latlngBoundsToJson(LatLngBounds latLngBounds) {
     final Map<String, Object> arguments = new HashMap<>(2);
     arguments.put("southwest", latLngToJson(latLngBounds.getSouthEast()));
@@ -218,6 +268,17 @@ class Convert {
     return data;
   }
 
+  /** {@code tiles} holds the (x, y, zoom) triple of each requested tile. */
+  static Map<String, Object> tileOverlayBatchArgumentsToJson(String tileOverlayId, int[] tiles) {
+    if (tileOverlayId == null) {
+      return null;
+    }
+    final Map<String, Object> data = new HashMap<>(2);
+    data.put("tileOverlayId", tileOverlayId);
+    data.put("tiles", tiles);
+    return data;
+  }
+
   static Object latLngToJson(LatLng latLng) {
     return Arrays.asList(latLng.latitude, latLng.longitude);
   }
@@ -252,7 +313,7 @@ class Convert {
     return (List<?>) o;
   }
 
-  private static Map<?, ?> toMap(Object o) {
+  static Map<?, ?> toMap(Object o) {
     return (Map<?, ?>) o;
   }
 
@@ -276,16 +337,6 @@ class Convert {
     return (int) toFractionalPixels(o, density);
   }
 
-  private static Bitmap toBitmap(Object o) {
-    byte[] bmpData = (byte[]) o;
-    Bitmap bitmap = BitmapFactory.decodeByteArray(bmpData, 0, bmpData.length);
-    if (bitmap == null) {
-      throw new IllegalArgumentException("Unable to decode bytes as a valid bitmap.");
-    } else {
-      return bitmap;
-    }
-  }
-
   private static Point toPoint(Object o, float density) {
     final List<?> data = toList(o);
     return new Point(toPixels(data.get(0), density), toPixels(data.get(1), density));
@@ -346,6 +397,28 @@ class Convert {
     if (trackCameraPosition != null) {
       sink.setTrackCameraPosition(toBoolean(trackCameraPosition));
     }
+    final Object cameraMoveThrottle = data.get("cameraMoveThrottle");
+    if (cameraMoveThrottle != null) {
+      final List<?> throttleData = toList(cameraMoveThrottle);
+      sink.setCameraMoveThrottle(
+          toDouble(throttleData.get(0)),
+          toDouble(throttleData.get(1)),
+          toDouble(throttleData.get(2)),
+          toDouble(throttleData.get(3)));
+    }
+    final Object virtualizeOverlays = data.get("virtualizeOverlays");
+    if (virtualizeOverlays != null) {
+      sink.setOverlayVirtualization(toBoolean(virtualizeOverlays));
+    }
+    final Object markerClustering = data.get("markerClustering");
+    if (markerClustering != null) {
+      final List<?> clusteringData = toList(markerClustering);
+      sink.setMarkerClustering(
+          toBoolean(clusteringData.get(0)),
+          toInt(clusteringData.get(1)),
+          toInt(clusteringData.get(2)),
+          toFloat(clusteringData.get(3)));
+    }
     final Object zoomGesturesEnabled = data.get("zoomGesturesEnabled");
     if (zoomGesturesEnabled != null) {
       sink.setZoomGesturesEnabled(toBoolean(zoomGesturesEnabled));
@@ -482,6 +555,11 @@ class Convert {
     if (zIndex != null) {
       sink.setZIndex(toFloat(zIndex));
     }
+    // Before the points, which are simplified with it.
+    final Object simplifyTolerance = data.get("simplifyTolerance");
+    if (simplifyTolerance != null) {
+      sink.setSimplifyTolerance(toDouble(simplifyTolerance));
+    }
     final Object points = data.get("points");
     if (points != null) {
       sink.setPoints(toPoints(points));
@@ -536,6 +614,11 @@ class Convert {
     if (zIndex != null) {
       sink.setZIndex(toFloat(zIndex));
     }
+    // Before the points, which are simplified with it.
+    final Object simplifyTolerance = data.get("simplifyTolerance");
+    if (simplifyTolerance != null) {
+      sink.setSimplifyTolerance(toDouble(simplifyTolerance));
+    }
     final Object points = data.get("points");
     if (points != null) {
       sink.setPoints(toPoints(points));
@@ -594,15 +677,45 @@ class Convert {
     }
   }
 
+  /** Returns the bounding box of {@code points}, or null if there are none. */
+  static LatLngBounds boundsOf(List<LatLng> points) {
+    if (points == null || points.isEmpty()) {
+      return null;
+    }
+    double south = Double.POSITIVE_INFINITY;
+    double west = Double.POSITIVE_INFINITY;
+    double north = Double.NEGATIVE_INFINITY;
+    double east = Double.NEGATIVE_INFINITY;
+    for (LatLng point : points) {
+      south = Math.min(south, point.latitude);
+      west = Math.min(west, point.longitude);
+      north = Math.max(north, point.latitude);
+      east = Math.max(east, point.longitude);
+    }
+    return new LatLngBounds(new LatLng(south, west), new LatLng(north, east));
+  }
+
+  /**
+   * Points come either packed as a {@code Float64List} of latitude, longitude pairs, which arrives
+   * as a {@code double[]}, or as a list of {@code [latitude, longitude]} lists.
+   */
   private static List<LatLng> toPoints(Object o) {
-    final List<?> data = toList(o);
-    final List<LatLng> points = new ArrayList<>(data.size());
+    return PathSimplifier.toLatLngs(toLatLngArray(o));
+  }
 
-    for (Object rawPoint : data) {
-      final List<?> point = toList(rawPoint);
-      points.add(new LatLng(toFloat(point.get(0)), toFloat(point.get(1))));
+  /** Returns packed latitude, longitude pairs, from points in either form of {@link #toPoints}. */
+  static double[] toLatLngArray(Object o) {
+    if (o instanceof double[]) {
+      return (double[]) o;
+    }
+    final List<?> data = toList(o);
+    final double[] latLngs = new double[data.size() * 2];
+    for (int i = 0; i < data.size(); i++) {
+      final List<?> point = toList(data.get(i));
+      latLngs[2 * i] = toDouble(point.get(0));
+      latLngs[2 * i + 1] = toDouble(point.get(1));
     }
-    return points;
+    return latLngs;
   }
 
   private static List<List<LatLng>> toHoles(Object o) {
@@ -681,6 +794,14 @@ class Convert {
     if (visible != null) {
       sink.setVisible(toBoolean(visible));
     }
+    final Object diskCache = data.get("diskCache");
+    if (diskCache != null) {
+      sink.setDiskCacheEnabled(toBoolean(diskCache));
+    }
+    final Object cacheMaxAge = data.get("cacheMaxAge");
+    if (cacheMaxAge != null) {
+      sink.setCacheMaxAge(toLong(cacheMaxAge));
+    }
     final String tileOverlayId = (String) data.get("tileOverlayId");
     if (tileOverlayId == null) {
       throw new IllegalArgumentException("tileOverlayId was null");
@@ -698,4 +819,35 @@ class Convert {
     }
     return new Tile(width, height, dataArray);
   }
+
+  /**
+   * Slices the reply of {@code tileOverlay#getTiles} into tiles that share its buffer.
+   *
+   * <p>The reply is big-endian: an int32 tile count, then a (width, height, offset, length) int32
+   * record per tile in request order, then the payloads. Offsets are from the start of the buffer
+   * and a negative length stands for {@link TileProvider#NO_TILE}.
+   */
+  static Tile[] interpretTiles(byte[] data, int expectedCount) {
+    final ByteBuffer buffer = ByteBuffer.wrap(data);
+    final int count = buffer.getInt();
+    if (count != expectedCount) {
+      throw new IllegalArgumentException(
+          "Expected " + expectedCount + " tiles, got " + count);
+    }
+    final Tile[] tiles = new Tile[count];
+    for (int i = 0; i < count; i++) {
+      int width = buffer.getInt();
+      int height = buffer.getInt();
+      int offset = buffer.getInt();
+      int length = buffer.getInt();
+      if (length < 0) {
+        tiles[i] = TileProvider.NO_TILE;
+      } else if (offset < 0 || offset > data.length - length) {
+        throw new IllegalArgumentException("Tile " + i + " is out of bounds");
+      } else {
+        tiles[i] = new Tile(width, height, data, offset, length);
+      }
+    }
+    return tiles;
+  }
 }
@@ -0,0 +1,200 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.graphics.Bitmap;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.overlay.GroundOverlay;
+import com.naver.maps.map.overlay.OverlayImage;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shows the tiles of a tile overlay as ground overlays, since the SDK has no tile overlays.
+ *
+ * <p>The tiles that cover the visible region at the nearest integer zoom are wanted; {@link
+ * #update} drops the overlays of the tiles that no longer are, and the owner supplies the bitmaps
+ * of the wanted ones through {@link #show}. Tiles are identified by a key of their zoom and
+ * coordinates, see {@link #tileKey}. Must be used on the main thread.
+ */
+class GroundOverlayTiles {
+
+  static final int MAX_ZOOM = 21;
+
+  private final Map<Long, GroundOverlay> shownTiles = new HashMap<>();
+  private final Map<Long, Bitmap> shownBitmaps = new HashMap<>();
+  private final Set<Long> wantedTiles = new HashSet<>();
+  private NaverMap naverMap;
+  private float transparency;
+  private int zIndex;
+  private boolean visible = true;
+
+  void setNaverMap(NaverMap naverMap) {
+    this.naverMap = naverMap;
+    for (GroundOverlay overlay : shownTiles.values()) {
+      overlay.setMap(naverMap);
+    }
+  }
+
+  /**
+   * Makes the tiles that cover the visible region the wanted ones, and takes the others off the
+   * map. Returns the keys of the wanted tiles, or null before the map is ready.
+   */
+  long[] update() {
+    if (naverMap == null) {
+      return null;
+    }
+    final LatLngBounds bounds = naverMap.getContentBounds();
+    final int zoom =
+        Math.max(0, Math.min(MAX_ZOOM, (int) Math.round(naverMap.getCameraPosition().zoom)));
+    final int columns = 1 << zoom;
+    final int westX = toTileX(bounds.getWestLongitude(), zoom);
+    int eastX = toTileX(bounds.getEastLongitude(), zoom);
+    if (bounds.getWestLongitude() > bounds.getEastLongitude()) {
+      // Across the antimeridian, the east edge is a turn further east.
+      eastX += columns;
+    }
+    eastX = Math.min(eastX, westX + columns - 1);
+    final int minY = Math.max(0, toTileY(bounds.getNorthLatitude(), zoom));
+    final int maxY = Math.min(columns - 1, toTileY(bounds.getSouthLatitude(), zoom));
+    wantedTiles.clear();
+    for (int x = westX; x <= eastX; x++) {
+      // Columns past either edge of the world wrap around, like the map does.
+      final int column = ((x % columns) + columns) % columns;
+      for (int y = minY; y <= maxY; y++) {
+        wantedTiles.add(tileKey(zoom, column, y));
+      }
+    }
+    for (Long key : shownTiles.keySet().toArray(new Long[0])) {
+      if (!wantedTiles.contains(key)) {
+        shownTiles.remove(key).setMap(null);
+        shownBitmaps.remove(key);
+      }
+    }
+    final long[] keys = new long[wantedTiles.size()];
+    int i = 0;
+    for (Long key : wantedTiles) {
+      keys[i++] = key;
+    }
+    return keys;
+  }
+
+  boolean isWanted(long key) {
+    return wantedTiles.contains(key);
+  }
+
+  boolean isShown(long key) {
+    return shownTiles.containsKey(key);
+  }
+
+  /** Shows {@code bitmap} for a tile, unless the tile is no longer wanted. */
+  void show(long key, Bitmap bitmap) {
+    if (!wantedTiles.contains(key) || shownBitmaps.get(key) == bitmap) {
+      return;
+    }
+    shownBitmaps.put(key, bitmap);
+    GroundOverlay overlay = shownTiles.get(key);
+    if (overlay == null) {
+      overlay = new GroundOverlay();
+      overlay.setBounds(tileBounds(key));
+      overlay.setAlpha(1 - transparency);
+      overlay.setZIndex(zIndex);
+      overlay.setVisible(visible);
+      overlay.setImage(OverlayImage.fromBitmap(bitmap));
+      overlay.setMap(naverMap);
+      shownTiles.put(key, overlay);
+    } else {
+      overlay.setImage(OverlayImage.fromBitmap(bitmap));
+    }
+  }
+
+  /** Takes every tile off the map; they are wanted again from the next {@link #update}. */
+  void clear() {
+    for (GroundOverlay overlay : shownTiles.values()) {
+      overlay.setMap(null);
+    }
+    shownTiles.clear();
+    shownBitmaps.clear();
+    wantedTiles.clear();
+  }
+
+  float getTransparency() {
+    return transparency;
+  }
+
+  void setTransparency(float transparency) {
+    this.transparency = transparency;
+    for (GroundOverlay overlay : shownTiles.values()) {
+      overlay.setAlpha(1 - transparency);
+    }
+  }
+
+  int getZIndex() {
+    return zIndex;
+  }
+
+  void setZIndex(float zIndex) {
+    this.zIndex = Math.round(zIndex);
+    for (GroundOverlay overlay : shownTiles.values()) {
+      overlay.setZIndex(this.zIndex);
+    }
+  }
+
+  boolean isVisible() {
+    return visible;
+  }
+
+  void setVisible(boolean visible) {
+    this.visible = visible;
+    for (GroundOverlay overlay : shownTiles.values()) {
+      overlay.setVisible(visible);
+    }
+  }
+
+  static long tileKey(int zoom, int x, int y) {
+    return (long) y << 26 | (long) x << 5 | zoom;
+  }
+
+  static int zoomOf(long key) {
+    return (int) (key & 0x1f);
+  }
+
+  static int xOf(long key) {
+    return (int) (key >>> 5 & 0x1fffff);
+  }
+
+  static int yOf(long key) {
+    return (int) (key >>> 26 & 0x1fffff);
+  }
+
+  private static int toTileX(double longitude, int zoom) {
+    return (int) Math.floor((longitude + 180) / 360 * (1 << zoom));
+  }
+
+  private static int toTileY(double latitude, int zoom) {
+    double latRad = Math.toRadians(latitude);
+    double y = (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2;
+    return (int) Math.floor(y * (1 << zoom));
+  }
+
+  private static LatLngBounds tileBounds(long key) {
+    final double tiles = 1 << zoomOf(key);
+    final int x = xOf(key);
+    final int y = yOf(key);
+    return new LatLngBounds(
+        new LatLng(toLatitude((y + 1) / tiles), x / tiles * 360 - 180),
+        new LatLng(toLatitude(y / tiles), (x + 1) / tiles * 360 - 180));
+  }
+
+  private static double toLatitude(double worldY) {
+    return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * worldY))));
+  }
+}
@@ -0,0 +1,543 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.model.TileProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A heatmap tile overlay, rendered natively from weighted points instead of tiles from Dart.
+ *
+ * <p>Points arrive through {@code tileOverlays#setHeatmapPoints} as a packed {@code [latitude,
+ * longitude, weight, ...]} array, either replacing or appended to the current ones. Tiles of
+ * {@link #TILE_SIZE} pixels are rendered on a background thread by kernel density estimation: the
+ * points near a tile are binned into pixels and blurred with a Gaussian kernel of the heatmap's
+ * radius, then colorized through its gradient. Rendered tiles are kept in an LRU cache; appending
+ * points only drops the cached tiles that the new points reach. Unless the heatmap has a {@code
+ * maxIntensity}, the intensity that maps to the top of the gradient is estimated per zoom level
+ * the first time that level is drawn and kept until the points are replaced, so appended points
+ * can saturate but never shift the colors of cached tiles.
+ *
+ * <p>The tiles are shown through {@link GroundOverlayTiles}, refreshed when the camera becomes
+ * idle.
+ */
+class HeatmapController implements TileOverlaySink {
+
+  static final int TILE_SIZE = 256;
+  // Logical pixels.
+  private static final int DEFAULT_RADIUS = 20;
+  private static final int DEFAULT_COLOR_MAP_SIZE = 1000;
+  private static final int[] DEFAULT_GRADIENT_COLORS = {0xff66e100, 0xffff0000};
+  private static final float[] DEFAULT_GRADIENT_START_POINTS = {0.2f, 1};
+  // Points are bucketed by their tile at this zoom level, to find the ones near a tile.
+  private static final int BUCKET_ZOOM = 8;
+  private static final int CACHE_BYTES = 16 * 1024 * 1024;
+
+  private final String tileOverlayId;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapHeatmap");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // Main thread state.
+  private final GroundOverlayTiles groundOverlayTiles = new GroundOverlayTiles();
+  private boolean disposed;
+
+  // Only touched on the executor thread.
+  private final Points points = new Points();
+  private final Map<Integer, Float> maxIntensities = new HashMap<>();
+  private final LruCache<Long, Bitmap> tiles =
+      new LruCache<Long, Bitmap>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Bitmap bitmap) {
+          return bitmap.getByteCount();
+        }
+      };
+  // Tile pixels.
+  private int radius;
+  private float[] kernel;
+  private int[] colorMap;
+  private float maxIntensity;
+  private float[] grid = new float[0];
+  private float[] blurred = new float[0];
+
+  HeatmapController(String tileOverlayId) {
+    this.tileOverlayId = tileOverlayId;
+  }
+
+  void setNaverMap(NaverMap naverMap) {
+    groundOverlayTiles.setNaverMap(naverMap);
+    refresh();
+  }
+
+  /**
+   * Applies the {@code heatmap} options of the tile overlay: {@code radius} in logical pixels,
+   * {@code gradient} as {@code {colors: [argb, ...], startPoints: [fraction, ...]}} and {@code
+   * maxIntensity}, 0 to estimate it. Drops the rendered tiles.
+   */
+  void setOptions(Object options) {
+    final Map<?, ?> data = (Map<?, ?>) options;
+    final Object radiusOption = data.get("radius");
+    // Tiles are laid out in logical pixels, so the radius is in tile pixels too.
+    final int radius =
+        Math.max(
+            1,
+            Math.round(
+                radiusOption != null ? ((Number) radiusOption).floatValue() : DEFAULT_RADIUS));
+    int[] colors = DEFAULT_GRADIENT_COLORS;
+    float[] startPoints = DEFAULT_GRADIENT_START_POINTS;
+    final Map<?, ?> gradient = (Map<?, ?>) data.get("gradient");
+    if (gradient != null) {
+      final List<?> colorList = (List<?>) gradient.get("colors");
+      final List<?> startPointList = (List<?>) gradient.get("startPoints");
+      if (colorList.isEmpty() || colorList.size() != startPointList.size()) {
+        throw new IllegalArgumentException("A gradient needs one start point per color");
+      }
+      colors = new int[colorList.size()];
+      startPoints = new float[colors.length];
+      for (int i = 0; i < colors.length; i++) {
+        colors[i] = ((Number) colorList.get(i)).intValue();
+        startPoints[i] = ((Number) startPointList.get(i)).floatValue();
+      }
+    }
+    final Object maxIntensityOption = data.get("maxIntensity");
+    final float maxIntensity =
+        maxIntensityOption != null ? ((Number) maxIntensityOption).floatValue() : 0;
+    final int[] colorMap = colorMap(colors, startPoints, DEFAULT_COLOR_MAP_SIZE);
+    executor.execute(
+        () -> {
+          this.radius = radius;
+          this.kernel = kernel(radius);
+          this.colorMap = colorMap;
+          this.maxIntensity = maxIntensity;
+          maxIntensities.clear();
+          tiles.evictAll();
+        });
+    refresh();
+  }
+
+  /** Replaces the points, or appends to them, from a packed {@code [lat, lng, weight, ...]}. */
+  void setPoints(double[] data, boolean append) {
+    executor.execute(
+        () -> {
+          if (!append) {
+            points.clear();
+            maxIntensities.clear();
+            tiles.evictAll();
+          }
+          final int first = points.size;
+          for (int i = 0; i + 2 < data.length; i += 3) {
+            points.add(toWorldX(data[i + 1]), toWorldY(data[i]), (float) data[i + 2]);
+          }
+          if (append) {
+            invalidateTiles(first);
+          }
+        });
+    refresh();
+  }
+
+  void onCameraIdle() {
+    refresh();
+  }
+
+  void clearTileCache() {
+    executor.execute(tiles::evictAll);
+    refresh();
+  }
+
+  void remove() {
+    disposed = true;
+    executor.shutdownNow();
+    handler.removeCallbacksAndMessages(null);
+    groundOverlayTiles.clear();
+  }
+
+  Map<String, Object> getTileOverlayInfo() {
+    final Map<String, Object> tileOverlayInfo = new HashMap<>();
+    tileOverlayInfo.put("fadeIn", false);
+    tileOverlayInfo.put("transparency", groundOverlayTiles.getTransparency());
+    tileOverlayInfo.put("id", tileOverlayId);
+    tileOverlayInfo.put("zIndex", groundOverlayTiles.getZIndex());
+    tileOverlayInfo.put("visible", groundOverlayTiles.isVisible());
+    return tileOverlayInfo;
+  }
+
+  @Override
+  public void setFadeIn(boolean fadeIn) {
+    // Ground overlays don't fade in.
+  }
+
+  @Override
+  public void setTransparency(float transparency) {
+    groundOverlayTiles.setTransparency(transparency);
+  }
+
+  @Override
+  public void setZIndex(float zIndex) {
+    groundOverlayTiles.setZIndex(zIndex);
+  }
+
+  @Override
+  public void setVisible(boolean visible) {
+    groundOverlayTiles.setVisible(visible);
+  }
+
+  @Override
+  public void setTileProvider(TileProvider tileProvider) {
+    // Heatmaps render their own tiles.
+  }
+
+  @Override
+  public void setDiskCacheEnabled(boolean diskCacheEnabled) {
+    // Heatmap tiles are never written to the disk cache.
+  }
+
+  @Override
+  public void setCacheMaxAge(long cacheMaxAgeMillis) {
+    // Heatmap tiles are only cached in memory, for as long as their points don't change.
+  }
+
+  /** Shows the tiles covering the visible region, rendering the ones that aren't cached. */
+  private void refresh() {
+    if (disposed) {
+      return;
+    }
+    final long[] keys = groundOverlayTiles.update();
+    if (keys == null) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          for (long key : keys) {
+            Bitmap bitmap = tiles.get(key);
+            if (bitmap == null) {
+              bitmap = renderTile(key);
+              tiles.put(key, bitmap);
+            }
+            final Bitmap tile = bitmap;
+            handler.post(
+                () -> {
+                  if (!disposed) {
+                    groundOverlayTiles.show(key, tile);
+                  }
+                });
+          }
+        });
+  }
+
+  /** Drops the cached tiles that the points from {@code first} on reach. */
+  private void invalidateTiles(int first) {
+    final Set<Integer> zooms = new HashSet<>();
+    for (Long key : tiles.snapshot().keySet()) {
+      zooms.add(GroundOverlayTiles.zoomOf(key));
+    }
+    for (int zoom : zooms) {
+      final double scale = (double) TILE_SIZE * (1 << zoom);
+      final int max = (1 << zoom) - 1;
+      for (int i = first; i < points.size; i++) {
+        final double px = points.x[i] * scale;
+        final double py = points.y[i] * scale;
+        final int minX = Math.max(0, (int) Math.floor((px - radius) / TILE_SIZE));
+        final int maxX = Math.min(max, (int) Math.floor((px + radius) / TILE_SIZE));
+        final int minY = Math.max(0, (int) Math.floor((py - radius) / TILE_SIZE));
+        final int maxY = Math.min(max, (int) Math.floor((py + radius) / TILE_SIZE));
+        for (int x = minX; x <= maxX; x++) {
+          for (int y = minY; y <= maxY; y++) {
+            tiles.remove(GroundOverlayTiles.tileKey(zoom, x, y));
+          }
+        }
+      }
+    }
+  }
+
+  private Bitmap renderTile(long key) {
+    final int zoom = GroundOverlayTiles.zoomOf(key);
+    final int tileX = GroundOverlayTiles.xOf(key);
+    final int tileY = GroundOverlayTiles.yOf(key);
+    final double scale = (double) TILE_SIZE * (1 << zoom);
+    // Tile pixels, including a margin of the radius on each side for the points that bleed in.
+    final int size = TILE_SIZE + 2 * radius;
+    final double originX = (double) tileX * TILE_SIZE - radius;
+    final double originY = (double) tileY * TILE_SIZE - radius;
+    if (grid.length < size * size) {
+      grid = new float[size * size];
+      blurred = new float[size * size];
+    } else {
+      Arrays.fill(grid, 0, size * size, 0);
+    }
+    boolean empty = true;
+    final Points.Cursor cursor =
+        points.near(
+            originX / scale, originY / scale, (originX + size) / scale, (originY + size) / scale);
+    for (int i = cursor.next(); i >= 0; i = cursor.next()) {
+      final int gx = (int) Math.floor(points.x[i] * scale - originX);
+      final int gy = (int) Math.floor(points.y[i] * scale - originY);
+      if (gx >= 0 && gx < size && gy >= 0 && gy < size) {
+        grid[gy * size + gx] += points.weight[i];
+        empty = false;
+      }
+    }
+    final int[] pixels = new int[TILE_SIZE * TILE_SIZE];
+    if (!empty) {
+      blur(size);
+      final float max = maxIntensity > 0 ? maxIntensity : maxIntensity(zoom);
+      final int last = colorMap.length - 1;
+      for (int y = 0; y < TILE_SIZE; y++) {
+        for (int x = 0; x < TILE_SIZE; x++) {
+          final float value = blurred[(y + radius) * size + x + radius];
+          if (value > 0) {
+            pixels[y * TILE_SIZE + x] = colorMap[Math.min(last, (int) (value / max * last))];
+          }
+        }
+      }
+    }
+    return Bitmap.createBitmap(pixels, TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+  }
+
+  /** Convolves {@code grid} with the kernel, separably, into {@code blurred}. */
+  private void blur(int size) {
+    // Horizontal pass into blurred, vertical pass back into grid, then swap.
+    for (int y = 0; y < size; y++) {
+      final int row = y * size;
+      for (int x = 0; x < size; x++) {
+        float sum = 0;
+        final int from = Math.max(0, x - radius);
+        final int to = Math.min(size - 1, x + radius);
+        for (int k = from; k <= to; k++) {
+          sum += grid[row + k] * kernel[k - x + radius];
+        }
+        blurred[row + x] = sum;
+      }
+    }
+    for (int x = 0; x < size; x++) {
+      for (int y = 0; y < size; y++) {
+        float sum = 0;
+        final int from = Math.max(0, y - radius);
+        final int to = Math.min(size - 1, y + radius);
+        for (int k = from; k <= to; k++) {
+          sum += blurred[k * size + x] * kernel[k - y + radius];
+        }
+        grid[y * size + x] = sum;
+      }
+    }
+    final float[] swap = grid;
+    grid = blurred;
+    blurred = swap;
+  }
+
+  /**
+   * Returns the intensity at the top of the gradient for {@code zoom}: the largest weight that
+   * falls into a cell of the radius' size, which is about what a dense spot adds up to.
+   */
+  private float maxIntensity(int zoom) {
+    final Float cached = maxIntensities.get(zoom);
+    if (cached != null) {
+      return cached;
+    }
+    final double cells = (double) TILE_SIZE * (1 << zoom) / radius;
+    final Map<Long, Float> sums = new HashMap<>();
+    float max = 0;
+    for (int i = 0; i < points.size; i++) {
+      final long cell = (long) (points.x[i] * cells) << 32 | (long) (points.y[i] * cells);
+      final Float previous = sums.get(cell);
+      final float sum = (previous != null ? previous : 0) + points.weight[i];
+      sums.put(cell, sum);
+      max = Math.max(max, sum);
+    }
+    if (max > 0) {
+      maxIntensities.put(zoom, max);
+    }
+    return max > 0 ? max : 1;
+  }
+
+  /** Returns the Web Mercator x of a longitude, from 0 at -180° to 1 at 180°. */
+  private static double toWorldX(double longitude) {
+    return (longitude + 180) / 360;
+  }
+
+  /** Returns the Web Mercator y of a latitude, from 0 at the north edge to 1 at the south. */
+  private static double toWorldY(double latitude) {
+    final double sin = Math.sin(Math.toRadians(latitude));
+    final double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    return Math.max(0, Math.min(1, y));
+  }
+
+  /**
+   * Returns a Gaussian kernel reaching to 3 standard deviations at {@code radius}. It isn't
+   * normalized: it peaks at 1, so a lone point of weight 1 keeps an intensity of 1 at its center.
+   */
+  private static float[] kernel(int radius) {
+    final float[] kernel = new float[2 * radius + 1];
+    final double sigma = radius / 3.0;
+    for (int i = -radius; i <= radius; i++) {
+      kernel[i + radius] = (float) Math.exp(-i * i / (2 * sigma * sigma));
+    }
+    return kernel;
+  }
+
+  /**
+   * Returns {@code size} colors that fade in from transparent to the first gradient color at its
+   * start point, then blend between the colors from one start point to the next.
+   */
+  private static int[] colorMap(int[] colors, float[] startPoints, int size) {
+    final int[] colorMap = new int[size];
+    for (int i = 0; i < size; i++) {
+      final float fraction = (float) i / (size - 1);
+      if (fraction <= startPoints[0]) {
+        colorMap[i] =
+            blend(
+                colors[0] & 0x00ffffff,
+                colors[0],
+                startPoints[0] > 0 ? fraction / startPoints[0] : 1);
+        continue;
+      }
+      int k = 0;
+      while (k + 1 < startPoints.length && startPoints[k + 1] < fraction) {
+        k++;
+      }
+      if (k + 1 == startPoints.length) {
+        colorMap[i] = colors[k];
+      } else {
+        colorMap[i] =
+            blend(
+                colors[k],
+                colors[k + 1],
+                (fraction - startPoints[k]) / (startPoints[k + 1] - startPoints[k]));
+      }
+    }
+    return colorMap;
+  }
+
+  private static int blend(int from, int to, float t) {
+    int color = 0;
+    for (int shift = 0; shift < 32; shift += 8) {
+      final int a = from >>> shift & 0xff;
+      final int b = to >>> shift & 0xff;
+      color |= Math.round(a + (b - a) * t) << shift;
+    }
+    return color;
+  }
+
+  /** Growable point arrays in Web Mercator coordinates, bucketed by tile at {@link #BUCKET_ZOOM}. */
+  private static final class Points {
+    private static final int BUCKETS_PER_SIDE = 1 << BUCKET_ZOOM;
+
+    double[] x = new double[64];
+    double[] y = new double[64];
+    float[] weight = new float[64];
+    int size;
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    void clear() {
+      size = 0;
+      buckets.clear();
+    }
+
+    void add(double px, double py, float w) {
+      if (size == x.length) {
+        x = Arrays.copyOf(x, size * 2);
+        y = Arrays.copyOf(y, size * 2);
+        weight = Arrays.copyOf(weight, size * 2);
+      }
+      x[size] = px;
+      y[size] = py;
+      weight[size] = w;
+      final long cell = cellOf(px) << 32 | cellOf(py);
+      Bucket bucket = buckets.get(cell);
+      if (bucket == null) {
+        bucket = new Bucket();
+        buckets.put(cell, bucket);
+      }
+      bucket.add(size);
+      size++;
+    }
+
+    /** Returns the points in or near the given world box; some may lie outside it. */
+    Cursor near(double minX, double minY, double maxX, double maxY) {
+      final long fromX = cellOf(minX);
+      final long toX = cellOf(maxX);
+      final long fromY = cellOf(minY);
+      final long toY = cellOf(maxY);
+      if ((toX - fromX + 1) * (toY - fromY + 1) > buckets.size()) {
+        return new Cursor(null, size);
+      }
+      final ArrayList<Bucket> found = new ArrayList<>();
+      for (long cx = fromX; cx <= toX; cx++) {
+        for (long cy = fromY; cy <= toY; cy++) {
+          final Bucket bucket = buckets.get(cx << 32 | cy);
+          if (bucket != null) {
+            found.add(bucket);
+          }
+        }
+      }
+      return new Cursor(found, 0);
+    }
+
+    private static long cellOf(double world) {
+      return Math.max(
+          0, Math.min(BUCKETS_PER_SIDE - 1, (long) Math.floor(world * BUCKETS_PER_SIDE)));
+    }
+
+    private static final class Bucket {
+      int[] indices = new int[8];
+      int size;
+
+      void add(int index) {
+        if (size == indices.length) {
+          indices = Arrays.copyOf(indices, size * 2);
+        }
+        indices[size++] = index;
+      }
+    }
+
+    /** Iterates point indices, over all points or over some buckets. */
+    static final class Cursor {
+      private final List<Bucket> buckets;
+      private final int count;
+      private int bucket;
+      private int position;
+
+      Cursor(List<Bucket> buckets, int count) {
+        this.buckets = buckets;
+        this.count = count;
+      }
+
+      /** Returns the next point index, or -1. */
+      int next() {
+        if (buckets == null) {
+          return position < count ? position++ : -1;
+        }
+        while (bucket < buckets.size()) {
+          final Bucket current = buckets.get(bucket);
+          if (position < current.size) {
+            return current.indices[position++];
+          }
+          bucket++;
+          position = 0;
+        }
+        return -1;
+      }
+    }
+  }
+}
@@ -0,0 +1,377 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.naver.maps.model.AsyncTileProvider;
+import com.naver.maps.model.Tile;
+import com.naver.maps.model.TileProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves tiles from local files without calling into Dart.
+ *
+ * <p>The source is either an MBTiles file, {@code {mbtiles: path}}, or a directory of {@code
+ * z/x/y.extension} files, {@code {directory: path, extension: "png", tms: false}}. MBTiles rows
+ * are numbered from the south as in TMS; directories are numbered from the north unless {@code
+ * tms} is set.
+ *
+ * <p>Tiles are read on {@link #POOL_SIZE} background threads. For MBTiles, each thread borrows one
+ * of as many read-only connections, each with the tile query compiled once, so no SQL is parsed
+ * per tile. The most recently served tiles are kept in a small memory cache, which catches the
+ * tiles that are requested again while panning back and forth. Callbacks run on the main thread.
+ */
+class LocalTileProvider implements AsyncTileProvider {
+
+  private static final String TAG = "LocalTileProvider";
+
+  static final int DEFAULT_TILE_SIZE = 256;
+  private static final int POOL_SIZE = 2;
+  private static final int MEMORY_CACHE_BYTES = 4 * 1024 * 1024;
+  private static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+  private static final String TILE_QUERY =
+      "SELECT tile_data FROM tiles WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?";
+
+  private final File file;
+  private final boolean mbtiles;
+  private final String extension;
+  private final boolean tms;
+  private final int tileSize;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final ExecutorService executor =
+      Executors.newFixedThreadPool(
+          POOL_SIZE,
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapLocalTiles");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private final BlockingQueue<Connection> idleConnections = new ArrayBlockingQueue<>(POOL_SIZE);
+  private final List<Connection> connections = new ArrayList<>(POOL_SIZE);
+  private final LruCache<Long, Tile> memoryCache =
+      new LruCache<Long, Tile>(MEMORY_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Tile tile) {
+          return tile.length;
+        }
+      };
+  private volatile boolean closed;
+
+  private LocalTileProvider(
+      File file, boolean mbtiles, String extension, boolean tms, int tileSize) {
+    this.file = file;
+    this.mbtiles = mbtiles;
+    this.extension = extension;
+    this.tms = tms;
+    this.tileSize = tileSize;
+  }
+
+  /** Returns a provider for the {@code localTileSource} of a tile overlay. */
+  static LocalTileProvider fromJson(Object o, int tileSize) {
+    final Map<?, ?> data = (Map<?, ?>) o;
+    final Object mbtiles = data.get("mbtiles");
+    if (mbtiles != null) {
+      return new LocalTileProvider(new File((String) mbtiles), true, null, true, tileSize);
+    }
+    final Object directory = data.get("directory");
+    if (directory == null) {
+      throw new IllegalArgumentException("A local tile source needs an mbtiles or directory path");
+    }
+    final Object extension = data.get("extension");
+    final Object tms = data.get("tms");
+    return new LocalTileProvider(
+        new File((String) directory),
+        false,
+        extension != null ? (String) extension : "png",
+        tms != null && (Boolean) tms,
+        tileSize);
+  }
+
+  @Override
+  public AsyncTileProvider.Request requestTile(
+      final int x, final int y, final int zoom, AsyncTileProvider.Callback callback) {
+    final Request request = new Request(callback);
+    final long key = tileKey(x, y, zoom);
+    final Tile cached = memoryCache.get(key);
+    if (cached != null) {
+      handler.post(() -> request.finish(cached));
+      return request;
+    }
+    if (closed) {
+      handler.post(() -> request.finish(TileProvider.NO_TILE));
+      return request;
+    }
+    try {
+      executor.execute(
+          () -> {
+            if (closed) {
+              handler.post(() -> request.finish(TileProvider.NO_TILE));
+              return;
+            }
+            if (request.done.get()) {
+              return;
+            }
+            Tile tile;
+            try {
+              tile = readTile(x, y, zoom);
+            } catch (RuntimeException e) {
+              // Every request must finish, whatever goes wrong with the source.
+              Log.e(TAG, "Can't read tile from " + file, e);
+              tile = TileProvider.NO_TILE;
+            }
+            if (tile != TileProvider.NO_TILE) {
+              memoryCache.put(key, tile);
+            }
+            final Tile result = tile;
+            handler.post(() -> request.finish(result));
+          });
+    } catch (RejectedExecutionException e) {
+      // Closed since the check above.
+      handler.post(() -> request.finish(TileProvider.NO_TILE));
+    }
+    return request;
+  }
+
+  /**
+   * Blocking adapter for hosts that can only call {@link TileProvider#getTile}. Unlike tiles from
+   * Dart, local tiles can be read on any thread, including the main one.
+   */
+  @Override
+  public Tile getTile(int x, int y, int zoom) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      final Tile cached = memoryCache.get(tileKey(x, y, zoom));
+      return cached != null ? cached : readTile(x, y, zoom);
+    }
+    final CountDownLatch countDownLatch = new CountDownLatch(1);
+    final Tile[] result = {TileProvider.NO_TILE};
+    final AsyncTileProvider.Request request =
+        requestTile(
+            x,
+            y,
+            zoom,
+            tile -> {
+              result[0] = tile;
+              countDownLatch.countDown();
+            });
+    try {
+      if (!countDownLatch.await(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        request.cancel();
+      }
+    } catch (InterruptedException e) {
+      request.cancel();
+    }
+    return result[0];
+  }
+
+  /**
+   * Stops reading tiles and closes the connections, the busy ones once their read is done. Pending
+   * requests get no tile.
+   */
+  void close() {
+    synchronized (connections) {
+      closed = true;
+      for (Connection connection : idleConnections) {
+        connection.close();
+      }
+      idleConnections.clear();
+    }
+    // Queued reads are dropped by the executor; running them here answers them with no tile.
+    for (Runnable read : executor.shutdownNow()) {
+      read.run();
+    }
+    memoryCache.evictAll();
+  }
+
+  void clearTileCache() {
+    memoryCache.evictAll();
+  }
+
+  private Tile readTile(int x, int y, int zoom) {
+    final int row = tms ? (1 << zoom) - 1 - y : y;
+    try {
+      final byte[] data = mbtiles ? readMbtilesTile(x, row, zoom) : readFileTile(x, row, zoom);
+      return data != null ? new Tile(tileSize, tileSize, data) : TileProvider.NO_TILE;
+    } catch (IOException | SQLiteException e) {
+      Log.e(
+          TAG,
+          String.format("Can't read tile: x = %d, y = %d, zoom = %d from %s", x, y, zoom, file),
+          e);
+      return TileProvider.NO_TILE;
+    }
+  }
+
+  private byte[] readFileTile(int x, int y, int zoom) throws IOException {
+    final File tileFile = new File(file, zoom + "/" + x + "/" + y + "." + extension);
+    if (!tileFile.isFile()) {
+      return null;
+    }
+    try (InputStream input = new FileInputStream(tileFile)) {
+      return readFully(input, tileFile.length());
+    }
+  }
+
+  private byte[] readMbtilesTile(int x, int y, int zoom) throws IOException {
+    final Connection connection = acquireConnection();
+    if (connection == null) {
+      return null;
+    }
+    try {
+      return connection.read(x, y, zoom);
+    } finally {
+      releaseConnection(connection);
+    }
+  }
+
+  /** Returns an idle connection, opening one if fewer than {@link #POOL_SIZE} are open. */
+  private Connection acquireConnection() {
+    Connection connection = idleConnections.poll();
+    if (connection != null) {
+      return connection;
+    }
+    synchronized (connections) {
+      if (closed) {
+        return null;
+      }
+      if (connections.size() < POOL_SIZE) {
+        connection = new Connection(file);
+        connections.add(connection);
+        return connection;
+      }
+    }
+    try {
+      return idleConnections.poll(DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  private void releaseConnection(Connection connection) {
+    synchronized (connections) {
+      if (closed) {
+        connection.close();
+      } else {
+        idleConnections.offer(connection);
+      }
+    }
+  }
+
+  /** Reads {@code length} bytes, or up to the end of {@code input} if the length is negative. */
+  private static byte[] readFully(InputStream input, long length) throws IOException {
+    if (length < 0) {
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[8192];
+      int count;
+      while ((count = input.read(buffer)) >= 0) {
+        output.write(buffer, 0, count);
+      }
+      return output.toByteArray();
+    }
+    final byte[] data = new byte[(int) length];
+    int read = 0;
+    while (read < data.length) {
+      final int count = input.read(data, read, data.length - read);
+      if (count < 0) {
+        throw new IOException("Tile is shorter than its length of " + length);
+      }
+      read += count;
+    }
+    return data;
+  }
+
+  private static long tileKey(int x, int y, int zoom) {
+    return (long) y << 26 | (long) x << 5 | zoom;
+  }
+
+  /** A read-only MBTiles connection and its compiled tile query; used by one thread at a time. */
+  private static final class Connection {
+    private final SQLiteDatabase database;
+    private final SQLiteStatement tileQuery;
+
+    Connection(File file) {
+      database =
+          SQLiteDatabase.openDatabase(
+              file.getPath(),
+              null,
+              SQLiteDatabase.OPEN_READONLY | SQLiteDatabase.NO_LOCALIZED_COLLATORS);
+      tileQuery = database.compileStatement(TILE_QUERY);
+    }
+
+    byte[] read(int x, int y, int zoom) throws IOException {
+      tileQuery.bindLong(1, zoom);
+      tileQuery.bindLong(2, x);
+      tileQuery.bindLong(3, y);
+      final ParcelFileDescriptor descriptor;
+      try {
+        descriptor = tileQuery.simpleQueryForBlobFileDescriptor();
+      } catch (SQLiteDoneException e) {
+        // No such tile.
+        return null;
+      } finally {
+        tileQuery.clearBindings();
+      }
+      if (descriptor == null) {
+        return null;
+      }
+      try (InputStream input = new ParcelFileDescriptor.AutoCloseInputStream(descriptor)) {
+        // Blobs come in shared memory, whose size isn't known: getStatSize() returns -1.
+        return readFully(input, descriptor.getStatSize());
+      }
+    }
+
+    void close() {
+      tileQuery.close();
+      database.close();
+    }
+  }
+
+  private final class Request implements AsyncTileProvider.Request {
+    private final AsyncTileProvider.Callback callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    Request(AsyncTileProvider.Callback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void cancel() {
+      if (done.compareAndSet(false, true)) {
+        handler.post(() -> callback.onTile(TileProvider.NO_TILE));
+      }
+    }
+
+    /** Completes this request once, on the main thread. */
+    void finish(Tile tile) {
+      if (done.compareAndSet(false, true)) {
+        callback.onTile(tile);
+      }
+    }
+  }
+}
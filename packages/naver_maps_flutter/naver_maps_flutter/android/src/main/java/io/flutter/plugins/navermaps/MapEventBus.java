@@ -0,0 +1,180 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.view.Choreographer;
+
+import com.naver.maps.geometry.LatLng;
+
+import io.flutter.plugin.common.BasicMessageChannel;
+import io.flutter.plugin.common.BinaryCodec;
+import io.flutter.plugin.common.BinaryMessenger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Sends the interaction events of a map to Dart in binary batches over the {@code
+ * plugins.flutter.io/naver_maps_events_<id>} message channel, instead of a method call each.
+ *
+ * <p>Events are appended to a buffer that is reused across frames and flushed at most once per
+ * frame, in the order they happened. Taps flush right away, together with the events before them,
+ * so they don't wait for a frame. A batch is a big-endian sequence of records, each an event type
+ * byte followed by its payload: camera positions are 5 doubles of {@code [latitude, longitude,
+ * zoom, tilt, bearing]}, points are 2 doubles of {@code [latitude, longitude]} and strings are an
+ * int32 byte length followed by UTF-8 bytes. All methods must be called on the main thread.
+ */
+class MapEventBus implements Choreographer.FrameCallback {
+
+  // Payload: 1 byte, whether a gesture started the move.
+  static final byte CAMERA_MOVE_STARTED = 0;
+  // Payload: camera position.
+  static final byte CAMERA_MOVE = 1;
+  // No payload.
+  static final byte CAMERA_IDLE = 2;
+  // Payload: point.
+  static final byte MAP_TAP = 3;
+  // Payload: point.
+  static final byte MAP_LONG_PRESS = 4;
+  // Payload: marker id.
+  static final byte MARKER_TAP = 5;
+  // Payload: marker id, point.
+  static final byte MARKER_DRAG_END = 6;
+  // Payload: marker id.
+  static final byte INFO_WINDOW_TAP = 7;
+  // Payload: polyline id.
+  static final byte POLYLINE_TAP = 8;
+  // Payload: polygon id.
+  static final byte POLYGON_TAP = 9;
+  // Payload: circle id.
+  static final byte CIRCLE_TAP = 10;
+  // Payload: cluster marker id, int32 member count, member marker ids, point.
+  static final byte CLUSTER_TAP = 11;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final BasicMessageChannel<ByteBuffer> channel;
+  private ByteBuffer pending = ByteBuffer.allocate(INITIAL_CAPACITY);
+  private boolean frameScheduled;
+  private boolean disposed;
+
+  MapEventBus(int id, BinaryMessenger binaryMessenger) {
+    this.channel =
+        new BasicMessageChannel<>(
+            binaryMessenger, "plugins.flutter.io/naver_maps_events_" + id, BinaryCodec.INSTANCE);
+  }
+
+  void onCameraMoveStarted(boolean isGesture) {
+    reserve(2).put(CAMERA_MOVE_STARTED).put((byte) (isGesture ? 1 : 0));
+    scheduleFlush();
+  }
+
+  /** {@code position} is {@code [latitude, longitude, zoom, tilt, bearing]}. */
+  void onCameraMove(double[] position) {
+    final ByteBuffer buffer = reserve(1 + 5 * 8).put(CAMERA_MOVE);
+    for (int i = 0; i < 5; i++) {
+      buffer.putDouble(position[i]);
+    }
+    scheduleFlush();
+  }
+
+  void onCameraIdle() {
+    reserve(1).put(CAMERA_IDLE);
+    scheduleFlush();
+  }
+
+  void onMapTap(LatLng position) {
+    putPoint(reserve(1 + 2 * 8).put(MAP_TAP), position);
+    flush();
+  }
+
+  void onMapLongPress(LatLng position) {
+    putPoint(reserve(1 + 2 * 8).put(MAP_LONG_PRESS), position);
+    flush();
+  }
+
+  /**
+   * Sends a tap on a marker, info window, polyline, polygon or circle; {@code type} is the event
+   * type of its kind.
+   */
+  void onOverlayTap(byte type, String id) {
+    putString(type, id);
+    flush();
+  }
+
+  void onMarkerDragEnd(String markerId, LatLng position) {
+    putString(MARKER_DRAG_END, markerId);
+    putPoint(reserve(2 * 8), position);
+    flush();
+  }
+
+  void onClusterTap(String markerId, List<String> memberIds, LatLng position) {
+    putString(CLUSTER_TAP, markerId);
+    reserve(4).putInt(memberIds.size());
+    for (String memberId : memberIds) {
+      final byte[] bytes = memberId.getBytes(StandardCharsets.UTF_8);
+      reserve(4 + bytes.length).putInt(bytes.length).put(bytes);
+    }
+    putPoint(reserve(2 * 8), position);
+    flush();
+  }
+
+  /** Drops the pending events; nothing is sent afterwards. */
+  void dispose() {
+    disposed = true;
+    pending.clear();
+    if (frameScheduled) {
+      frameScheduled = false;
+      Choreographer.getInstance().removeFrameCallback(this);
+    }
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    frameScheduled = false;
+    flush();
+  }
+
+  private void scheduleFlush() {
+    if (frameScheduled || disposed) {
+      return;
+    }
+    frameScheduled = true;
+    Choreographer.getInstance().postFrameCallback(this);
+  }
+
+  private void flush() {
+    if (disposed || pending.position() == 0) {
+      return;
+    }
+    // The engine reads messages from direct buffers, up to their position.
+    final ByteBuffer message = ByteBuffer.allocateDirect(pending.position());
+    pending.flip();
+    message.put(pending);
+    pending.clear();
+    channel.send(message);
+  }
+
+  private void putString(byte type, String value) {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    reserve(1 + 4 + bytes.length).put(type).putInt(bytes.length).put(bytes);
+  }
+
+  private static void putPoint(ByteBuffer buffer, LatLng position) {
+    buffer.putDouble(position.latitude).putDouble(position.longitude);
+  }
+
+  /** Returns the pending buffer with room for at least {@code size} more bytes. */
+  private ByteBuffer reserve(int size) {
+    if (pending.remaining() < size) {
+      final ByteBuffer grown =
+          ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + size));
+      pending.flip();
+      grown.put(pending);
+      pending = grown;
+    }
+    return pending;
+  }
+}
@@ -0,0 +1,209 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.app.Activity;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.util.Log;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.naver.maps.map.LocationTrackingMode;
+import com.naver.maps.map.MapView;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.OnMapReadyCallback;
+import com.naver.maps.map.UiSettings;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pre-warmed {@link MapView}s that new maps take instead of creating and initializing their own,
+ * and that disposed maps hand back.
+ *
+ * <p>Opt-in through the {@link #SIZE_META_DATA} meta-data of the application: that many views are
+ * created when the plugin attaches to an activity, and at most that many released views are kept.
+ * A released view has had its overlays and listeners removed by its controller; the pool stops it
+ * and puts every map setting back to its SDK default, since a new map's options may leave any of
+ * them out. Views are destroyed when the plugin detaches from the activity. Must be used on the
+ * main thread.
+ *
+ * <p>Process-wide counts of pool hits and misses and the time from creating a map to {@code
+ * onMapReady}, for pooled and newly created views, are kept for {@code map#getMapViewPoolStats}.
+ */
+class MapViewPool {
+
+  static final String SIZE_META_DATA = "io.flutter.plugins.navermaps.MapViewPoolSize";
+
+  private static final String TAG = "MapViewPool";
+
+  private static final AtomicLong hits = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+  private static final AtomicLong pooledReadyCount = new AtomicLong();
+  private static final AtomicLong pooledReadyMillis = new AtomicLong();
+  private static final AtomicLong createdReadyCount = new AtomicLong();
+  private static final AtomicLong createdReadyMillis = new AtomicLong();
+
+  private final ArrayDeque<Entry> idle = new ArrayDeque<>();
+  @Nullable private Activity activity;
+  private int capacity;
+
+  /** Reads the pool size from the application meta-data and creates that many views. */
+  void warmUp(Activity activity) {
+    this.activity = activity;
+    capacity = readCapacity(activity);
+    while (idle.size() < capacity) {
+      final Entry entry = new Entry(new MapView(activity));
+      entry.mapView.onCreate(null);
+      entry.mapView.getMapAsync(entry);
+      idle.push(entry);
+    }
+  }
+
+  /** Returns a view that has had {@link MapView#onCreate} called, or null if none is left. */
+  @Nullable
+  Entry acquire() {
+    if (capacity == 0) {
+      return null;
+    }
+    final Entry entry = idle.poll();
+    (entry != null ? hits : misses).incrementAndGet();
+    return entry;
+  }
+
+  /**
+   * Takes back a view that isn't in lite mode. Returns false, leaving the view to be destroyed by
+   * the caller, if the pool is full, not attached to an activity, or the view was created for
+   * another activity, which it would keep alive.
+   */
+  boolean release(MapView mapView, @Nullable NaverMap naverMap) {
+    if (activity == null || idle.size() >= capacity || mapView.getContext() != activity) {
+      return false;
+    }
+    final ViewGroup parent = (ViewGroup) mapView.getParent();
+    if (parent != null) {
+      parent.removeView(mapView);
+    }
+    mapView.onPause();
+    mapView.onStop();
+    final Entry entry = new Entry(mapView);
+    if (naverMap != null) {
+      reset(naverMap);
+      entry.naverMap = naverMap;
+    } else {
+      mapView.getMapAsync(entry);
+    }
+    idle.push(entry);
+    return true;
+  }
+
+  /** Destroys the idle views and stops pooling until the next {@link #warmUp}. */
+  void clear() {
+    for (Entry entry : idle) {
+      entry.mapView.onDestroy();
+    }
+    idle.clear();
+    activity = null;
+    capacity = 0;
+  }
+
+  static void recordMapReady(boolean pooled, long millis) {
+    (pooled ? pooledReadyCount : createdReadyCount).incrementAndGet();
+    (pooled ? pooledReadyMillis : createdReadyMillis).addAndGet(millis);
+  }
+
+  static Map<String, Object> statsToJson() {
+    final Map<String, Object> data = new HashMap<>();
+    data.put("hits", hits.get());
+    data.put("misses", misses.get());
+    data.put("pooledMapReadyCount", pooledReadyCount.get());
+    data.put("pooledMapReadyMillis", pooledReadyMillis.get());
+    data.put("createdMapReadyCount", createdReadyCount.get());
+    data.put("createdMapReadyMillis", createdReadyMillis.get());
+    return data;
+  }
+
+  static void resetStats() {
+    hits.set(0);
+    misses.set(0);
+    pooledReadyCount.set(0);
+    pooledReadyMillis.set(0);
+    createdReadyCount.set(0);
+    createdReadyMillis.set(0);
+  }
+
+  /**
+   * Puts back the SDK defaults of every setting that {@link NaverMapBuilder} or a later {@code
+   * map#update} can change, so that a new map starts from the same state as on a new view.
+   */
+  private static void reset(NaverMap naverMap) {
+    naverMap.cancelTransitions();
+    naverMap.setCameraPosition(NaverMap.DEFAULT_CAMERA_POSITION);
+    naverMap.setExtent(null);
+    naverMap.setMapType(NaverMap.MapType.Basic);
+    naverMap.setMinZoom(NaverMap.MINIMUM_ZOOM);
+    naverMap.setMaxZoom(NaverMap.MAXIMUM_ZOOM);
+    naverMap.setContentPadding(0, 0, 0, 0);
+    naverMap.setLayerGroupEnabled(NaverMap.LAYER_GROUP_BUILDING, true);
+    naverMap.setLayerGroupEnabled(NaverMap.LAYER_GROUP_TRANSIT, false);
+    naverMap.setLayerGroupEnabled(NaverMap.LAYER_GROUP_BICYCLE, false);
+    naverMap.setLayerGroupEnabled(NaverMap.LAYER_GROUP_TRAFFIC, false);
+    naverMap.setLayerGroupEnabled(NaverMap.LAYER_GROUP_CADASTRAL, false);
+    naverMap.setLayerGroupEnabled(NaverMap.LAYER_GROUP_MOUNTAIN, false);
+    naverMap.setIndoorEnabled(false);
+    naverMap.setNightModeEnabled(false);
+    naverMap.setLightness(0);
+    naverMap.setSymbolScale(1);
+    naverMap.setSymbolPerspectiveRatio(1);
+    naverMap.setBuildingHeight(1);
+    naverMap.setLocationTrackingMode(LocationTrackingMode.None);
+    naverMap.setLocale(null);
+    final UiSettings uiSettings = naverMap.getUiSettings();
+    uiSettings.setScrollGesturesEnabled(true);
+    uiSettings.setZoomGesturesEnabled(true);
+    uiSettings.setTiltGesturesEnabled(true);
+    uiSettings.setRotateGesturesEnabled(true);
+    uiSettings.setStopGesturesEnabled(true);
+    uiSettings.setCompassEnabled(true);
+    uiSettings.setScaleBarEnabled(true);
+    uiSettings.setZoomControlEnabled(true);
+    uiSettings.setIndoorLevelPickerEnabled(false);
+    uiSettings.setLocationButtonEnabled(false);
+    uiSettings.setLogoClickEnabled(true);
+  }
+
+  private static int readCapacity(Activity activity) {
+    try {
+      final ApplicationInfo info =
+          activity
+              .getPackageManager()
+              .getApplicationInfo(activity.getPackageName(), PackageManager.GET_META_DATA);
+      return info.metaData != null ? Math.max(0, info.metaData.getInt(SIZE_META_DATA, 0)) : 0;
+    } catch (PackageManager.NameNotFoundException e) {
+      Log.e(TAG, "Can't read the map view pool size", e);
+      return 0;
+    }
+  }
+
+  /** A pooled view and its map, once ready. */
+  static final class Entry implements OnMapReadyCallback {
+    final MapView mapView;
+    @Nullable NaverMap naverMap;
+
+    Entry(MapView mapView) {
+      this.mapView = mapView;
+    }
+
+    @Override
+    public void onMapReady(@NonNull NaverMap naverMap) {
+      this.naverMap = naverMap;
+    }
+  }
+}
@@ -0,0 +1,233 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.model.BitmapDescriptor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the packed marker batches of {@code markers#updateBinary}.
+ *
+ * <p>The buffer is big-endian and laid out as:
+ *
+ * <ul>
+ *   <li>int32 format version, currently {@link #VERSION};
+ *   <li>int32 string count, then per string an int32 byte length and its UTF-8 bytes;
+ *   <li>int32 add count, int32 change count and int32 remove count;
+ *   <li>one {@link #RECORD_SIZE} byte record per added then changed marker;
+ *   <li>one int32 string index per removed marker id.
+ * </ul>
+ *
+ * <p>A record holds, in order: the string index of the marker id, a {@code FIELD_*} mask of the
+ * fields that are set, a {@code FLAG_*} mask of the boolean options, latitude and longitude as
+ * float64, alpha, anchor u and v, rotation, zIndex and info window anchor u and v as float32, and
+ * the int32 indexes of the icon in the icon table and of the info window title and snippet in the
+ * string table, -1 when absent. Records are decoded straight into a {@link MarkerOptionsSink}
+ * without going through maps or boxed numbers.
+ *
+ * <p>The constructor checks every length and index of the batch, so that a malformed batch fails
+ * the call that sent it rather than a later frame that applies it.
+ */
+final class MarkerBinaryReader {
+
+  static final int VERSION = 1;
+  static final int RECORD_SIZE = 68;
+
+  static final int FIELD_POSITION = 1;
+  static final int FIELD_ALPHA = 1 << 1;
+  static final int FIELD_ANCHOR = 1 << 2;
+  static final int FIELD_ROTATION = 1 << 3;
+  static final int FIELD_Z_INDEX = 1 << 4;
+  static final int FIELD_CONSUME_TAP_EVENTS = 1 << 5;
+  static final int FIELD_DRAGGABLE = 1 << 6;
+  static final int FIELD_FLAT = 1 << 7;
+  static final int FIELD_VISIBLE = 1 << 8;
+  static final int FIELD_ICON = 1 << 9;
+  static final int FIELD_INFO_WINDOW_TEXT = 1 << 10;
+  static final int FIELD_INFO_WINDOW_ANCHOR = 1 << 11;
+
+  static final int FLAG_CONSUME_TAP_EVENTS = 1;
+  static final int FLAG_DRAGGABLE = 1 << 1;
+  static final int FLAG_FLAT = 1 << 2;
+  static final int FLAG_VISIBLE = 1 << 3;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private final ByteBuffer buffer;
+  private final String[] strings;
+  private final BitmapDescriptor[] icons;
+  private final int addCount;
+  private final int changeCount;
+  private final int removeCount;
+  private final int recordsOffset;
+
+  /**
+   * @param data the packed batch.
+   * @param icons the icon table, one {@code BitmapDescriptor} JSON per entry.
+   */
+  MarkerBinaryReader(byte[] data, List<?> icons) {
+    buffer = ByteBuffer.wrap(data);
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported marker format version " + version);
+    }
+    final int stringCount = buffer.getInt();
+    if (stringCount < 0 || stringCount > buffer.remaining() / 4) {
+      throw new IllegalArgumentException("Invalid string count " + stringCount);
+    }
+    strings = new String[stringCount];
+    for (int i = 0; i < strings.length; i++) {
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new IllegalArgumentException("Invalid length of string " + i);
+      }
+      strings[i] = new String(data, buffer.position(), length, UTF_8);
+      buffer.position(buffer.position() + length);
+    }
+    addCount = buffer.getInt();
+    changeCount = buffer.getInt();
+    removeCount = buffer.getInt();
+    recordsOffset = buffer.position();
+    long size = recordsOffset + (long) (addCount + changeCount) * RECORD_SIZE + 4L * removeCount;
+    if (addCount < 0 || changeCount < 0 || removeCount < 0 || size > data.length) {
+      throw new IllegalArgumentException("Truncated marker batch");
+    }
+    this.icons = new BitmapDescriptor[icons != null ? icons.size() : 0];
+    validateIndexes();
+    for (int i = 0; i < this.icons.length; i++) {
+      this.icons[i] = Convert.toBitmapDescriptor(icons.get(i));
+    }
+  }
+
+  private void validateIndexes() {
+    for (int record = 0; record < recordCount(); record++) {
+      final int offset = offsetOf(record);
+      final int fields = buffer.getInt(offset + 4);
+      checkString(buffer.getInt(offset), false, "marker id", record);
+      if ((fields & FIELD_ICON) != 0) {
+        final int icon = buffer.getInt(offset + 56);
+        if (icon < -1 || icon >= icons.length) {
+          throw new IllegalArgumentException("Invalid icon index of record " + record);
+        }
+      }
+      if ((fields & FIELD_INFO_WINDOW_TEXT) != 0) {
+        checkString(buffer.getInt(offset + 60), true, "info window title", record);
+        checkString(buffer.getInt(offset + 64), true, "info window snippet", record);
+      }
+    }
+    final int removeOffset = offsetOf(recordCount());
+    for (int i = 0; i < removeCount; i++) {
+      checkString(buffer.getInt(removeOffset + i * 4), false, "removed marker id", i);
+    }
+  }
+
+  private void checkString(int index, boolean nullable, String name, int record) {
+    if (index < (nullable ? -1 : 0) || index >= strings.length) {
+      throw new IllegalArgumentException("Invalid " + name + " index of record " + record);
+    }
+  }
+
+  int addCount() {
+    return addCount;
+  }
+
+  int changeCount() {
+    return changeCount;
+  }
+
+  /** Records of added markers come first, then those of changed markers. */
+  int recordCount() {
+    return addCount + changeCount;
+  }
+
+  List<Object> markerIdsToRemove() {
+    List<Object> markerIds = new ArrayList<>(removeCount);
+    int offset = recordsOffset + recordCount() * RECORD_SIZE;
+    for (int i = 0; i < removeCount; i++) {
+      markerIds.add(string(buffer.getInt(offset + i * 4)));
+    }
+    return markerIds;
+  }
+
+  String markerId(int record) {
+    return string(buffer.getInt(offsetOf(record)));
+  }
+
+  /** Returns the icon of {@code record}, or null if the record doesn't set one. */
+  BitmapDescriptor icon(int record) {
+    int offset = offsetOf(record);
+    if ((buffer.getInt(offset + 4) & FIELD_ICON) == 0) {
+      return null;
+    }
+    int index = buffer.getInt(offset + 56);
+    return index >= 0 ? icons[index] : null;
+  }
+
+  /** Returns the marker id of {@code record}. */
+  String interpret(int record, MarkerOptionsSink sink) {
+    final int offset = offsetOf(record);
+    final int fields = buffer.getInt(offset + 4);
+    final int flags = buffer.getInt(offset + 8);
+    if ((fields & FIELD_ALPHA) != 0) {
+      sink.setAlpha(buffer.getFloat(offset + 28));
+    }
+    if ((fields & FIELD_ANCHOR) != 0) {
+      sink.setAnchor(buffer.getFloat(offset + 32), buffer.getFloat(offset + 36));
+    }
+    if ((fields & FIELD_CONSUME_TAP_EVENTS) != 0) {
+      sink.setConsumeTapEvents((flags & FLAG_CONSUME_TAP_EVENTS) != 0);
+    }
+    if ((fields & FIELD_DRAGGABLE) != 0) {
+      sink.setDraggable((flags & FLAG_DRAGGABLE) != 0);
+    }
+    if ((fields & FIELD_FLAT) != 0) {
+      sink.setFlat((flags & FLAG_FLAT) != 0);
+    }
+    final BitmapDescriptor icon = icon(record);
+    if (icon != null) {
+      sink.setIcon(icon);
+    }
+    if ((fields & FIELD_INFO_WINDOW_TEXT) != 0) {
+      String title = string(buffer.getInt(offset + 60));
+      // snippet is nullable.
+      if (title != null) {
+        sink.setInfoWindowText(title, string(buffer.getInt(offset + 64)));
+      }
+    }
+    if ((fields & FIELD_INFO_WINDOW_ANCHOR) != 0) {
+      sink.setInfoWindowAnchor(buffer.getFloat(offset + 48), buffer.getFloat(offset + 52));
+    }
+    if ((fields & FIELD_POSITION) != 0) {
+      sink.setPosition(new LatLng(buffer.getDouble(offset + 12), buffer.getDouble(offset + 20)));
+    }
+    if ((fields & FIELD_ROTATION) != 0) {
+      sink.setRotation(buffer.getFloat(offset + 40));
+    }
+    if ((fields & FIELD_VISIBLE) != 0) {
+      sink.setVisible((flags & FLAG_VISIBLE) != 0);
+    }
+    if ((fields & FIELD_Z_INDEX) != 0) {
+      sink.setZIndex(buffer.getFloat(offset + 44));
+    }
+    final String markerId = markerId(record);
+    if (markerId == null) {
+      throw new IllegalArgumentException("markerId was null");
+    }
+    return markerId;
+  }
+
+  private int offsetOf(int record) {
+    return recordsOffset + record * RECORD_SIZE;
+  }
+
+  private String string(int index) {
+    return index >= 0 ? strings[index] : null;
+  }
+}
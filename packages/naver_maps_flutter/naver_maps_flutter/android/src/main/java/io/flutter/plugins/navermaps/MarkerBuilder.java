@@ -25,6 +25,29 @@ class MarkerBuilder implements MarkerOptionsSink {
     return consumeTapEvents;
   }
 
+  /** Sets every option of the marker on {@code sink}, e.g. to create its overlay. */
+  void applyTo(MarkerOptionsSink sink) {
+    sink.setAlpha(markerOptions.getAlpha());
+    sink.setAnchor(markerOptions.getAnchorU(), markerOptions.getAnchorV());
+    sink.setConsumeTapEvents(consumeTapEvents);
+    sink.setDraggable(markerOptions.isDraggable());
+    sink.setFlat(markerOptions.isFlat());
+    if (markerOptions.getIcon() != null) {
+      sink.setIcon(markerOptions.getIcon());
+    }
+    sink.setInfoWindowAnchor(
+        markerOptions.getInfoWindowAnchorU(), markerOptions.getInfoWindowAnchorV());
+    if (markerOptions.getTitle() != null) {
+      sink.setInfoWindowText(markerOptions.getTitle(), markerOptions.getSnippet());
+    }
+    if (markerOptions.getPosition() != null) {
+      sink.setPosition(markerOptions.getPosition());
+    }
+    sink.setRotation(markerOptions.getRotation());
+    sink.setVisible(markerOptions.isVisible());
+    sink.setZIndex(markerOptions.getZIndex());
+  }
+
   @Override
   public void setAlpha(float alpha) {
     markerOptions.alpha(alpha);
@@ -0,0 +1,535 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.overlay.Marker;
+import com.naver.maps.map.overlay.OverlayImage;
+import com.naver.maps.model.OverlayImageCache;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Groups the markers of a map into clusters so that only the visible clusters and singletons are
+ * backed by {@link Marker} overlays.
+ *
+ * <p>Marker positions are kept in a grid index per zoom level, built on first use, kept for the
+ * last {@link #MAX_CACHED_GRIDS} zoom levels and updated incrementally as markers are added, moved
+ * or removed. Clusters are computed on a background thread whenever the camera becomes idle or the
+ * markers change; only the resulting diff of overlays is applied on the main thread.
+ *
+ * <p>Singletons are materialized through {@link MarkersController} and behave like any other
+ * marker. Cluster icons are drawn once per label and shared through {@link OverlayImageCache}.
+ * Tapping a cluster sends {@code marker#onTap} with the cluster id as {@code markerId} and the ids
+ * of its markers as {@code clusterMarkerIds}.
+ */
+class MarkerClusterer {
+
+  private static final String TAG = "MarkerClusterer";
+
+  static final int DEFAULT_GRID_SIZE = 60;
+  static final int DEFAULT_MIN_CLUSTER_SIZE = 2;
+  static final float DEFAULT_MAX_ZOOM = 16;
+
+  private static final int MAX_CACHED_GRIDS = 4;
+  private static final double WORLD_SIZE_DP = 256;
+  private static final String CLUSTER_PREFIX = "cluster:";
+
+  private final MarkersController markersController;
+  private final MapEventBus eventBus;
+  private final float density;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapClusterer");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // Main thread state.
+  private final Map<String, MarkerBuilder> items = new HashMap<>();
+  private final Set<String> materializedMarkerIds = new HashSet<>();
+  private final Map<String, ClusterOverlay> clusterOverlays = new HashMap<>();
+  private NaverMap naverMap;
+  private int gridSize = DEFAULT_GRID_SIZE;
+  private int minClusterSize = DEFAULT_MIN_CLUSTER_SIZE;
+  private float maxZoom = DEFAULT_MAX_ZOOM;
+  private int generation;
+  private boolean refreshScheduled;
+  private boolean disposed;
+
+  // Only touched on the executor thread.
+  private final Index index = new Index();
+
+  MarkerClusterer(MarkersController markersController, MapEventBus eventBus, float density) {
+    this.markersController = markersController;
+    this.eventBus = eventBus;
+    this.density = density;
+  }
+
+  void setNaverMap(NaverMap naverMap) {
+    this.naverMap = naverMap;
+    scheduleRefresh();
+  }
+
+  /**
+   * @param gridSize size of a cluster cell in logical pixels.
+   * @param minClusterSize the smallest number of markers shown as a cluster.
+   * @param maxZoom zoom level above which markers are no longer clustered.
+   */
+  void setOptions(int gridSize, int minClusterSize, float maxZoom) {
+    final boolean gridChanged = gridSize != this.gridSize;
+    this.gridSize = gridSize;
+    this.minClusterSize = minClusterSize;
+    this.maxZoom = maxZoom;
+    if (gridChanged) {
+      executor.execute(index.grids::clear);
+    }
+    scheduleRefresh();
+  }
+
+  boolean contains(String markerId) {
+    return items.containsKey(markerId);
+  }
+
+  /** Returns the options of a marker, which stay authoritative while it isn't materialized. */
+  MarkerBuilder getItem(String markerId) {
+    return items.get(markerId);
+  }
+
+  void add(String markerId, MarkerBuilder builder) {
+    items.put(markerId, builder);
+    indexPosition(markerId, builder);
+    scheduleRefresh();
+  }
+
+  /** Call after the options of {@code markerId} changed, to pick up a new position. */
+  void update(String markerId) {
+    MarkerBuilder builder = items.get(markerId);
+    if (builder != null) {
+      indexPosition(markerId, builder);
+      scheduleRefresh();
+    }
+  }
+
+  void remove(String markerId) {
+    if (items.remove(markerId) == null) {
+      return;
+    }
+    if (materializedMarkerIds.remove(markerId)) {
+      markersController.dematerializeMarker(markerId);
+    }
+    executor.execute(() -> index.remove(markerId));
+    scheduleRefresh();
+  }
+
+  /** Materializes every marker that is still clustered, e.g. before clustering is turned off. */
+  void materializeAll() {
+    for (Map.Entry<String, MarkerBuilder> item : items.entrySet()) {
+      if (materializedMarkerIds.add(item.getKey())) {
+        markersController.materializeMarker(item.getKey(), item.getValue());
+      }
+    }
+  }
+
+  void dispose() {
+    disposed = true;
+    for (ClusterOverlay overlay : clusterOverlays.values()) {
+      overlay.marker.setMap(null);
+    }
+    clusterOverlays.clear();
+    items.clear();
+    materializedMarkerIds.clear();
+    executor.shutdownNow();
+  }
+
+  void onCameraIdle() {
+    scheduleRefresh();
+  }
+
+  private void indexPosition(String markerId, MarkerBuilder builder) {
+    final LatLng position = builder.build().getPosition();
+    if (position == null) {
+      return;
+    }
+    final double x = toWorldX(position.longitude);
+    final double y = toWorldY(position.latitude);
+    executor.execute(() -> index.put(markerId, x, y));
+  }
+
+  private void scheduleRefresh() {
+    if (refreshScheduled || disposed) {
+      return;
+    }
+    refreshScheduled = true;
+    // Coalesces the changes of a whole update batch into a single refresh.
+    handler.post(this::refresh);
+  }
+
+  private void refresh() {
+    refreshScheduled = false;
+    if (disposed || naverMap == null) {
+      return;
+    }
+    final double zoom = naverMap.getCameraPosition().zoom;
+    final LatLngBounds bounds = naverMap.getContentBounds();
+    final int gridZoom = (int) Math.floor(zoom);
+    final boolean clustering = zoom <= maxZoom;
+    final double cellSize = gridSize / (WORLD_SIZE_DP * Math.pow(2, gridZoom));
+    // Keep a one cell margin so that clusters at the edge of the viewport don't flicker.
+    final double minX = toWorldX(bounds.getWestLongitude()) - cellSize;
+    final double maxX = toWorldX(bounds.getEastLongitude()) + cellSize;
+    final double minY = toWorldY(bounds.getNorthLatitude()) - cellSize;
+    final double maxY = toWorldY(bounds.getSouthLatitude()) + cellSize;
+    final int minClusterSize = this.minClusterSize;
+    final int iconSize = Math.round(40 * density);
+    final int generation = ++this.generation;
+    executor.execute(
+        () -> {
+          List<Node> nodes;
+          try {
+            nodes =
+                index.query(
+                    clustering ? gridZoom : -1,
+                    cellSize,
+                    minClusterSize,
+                    minX,
+                    minY,
+                    maxX,
+                    maxY,
+                    iconSize);
+          } catch (RuntimeException e) {
+            Log.e(TAG, "Can't compute clusters", e);
+            return;
+          }
+          handler.post(() -> apply(generation, nodes));
+        });
+  }
+
+  private void apply(int generation, List<Node> nodes) {
+    if (disposed || generation != this.generation) {
+      // A newer refresh is on its way.
+      return;
+    }
+    Set<String> visibleMarkerIds = new HashSet<>();
+    Map<String, ClusterOverlay> visibleClusters = new HashMap<>();
+    for (Node node : nodes) {
+      if (node.markerId != null) {
+        visibleMarkerIds.add(node.markerId);
+        continue;
+      }
+      ClusterOverlay overlay = clusterOverlays.remove(node.key);
+      if (overlay == null) {
+        overlay = new ClusterOverlay(node);
+        overlay.marker.setMap(naverMap);
+      } else {
+        overlay.update(node);
+      }
+      visibleClusters.put(node.key, overlay);
+    }
+    for (ClusterOverlay overlay : clusterOverlays.values()) {
+      overlay.marker.setMap(null);
+    }
+    clusterOverlays.clear();
+    clusterOverlays.putAll(visibleClusters);
+
+    Iterator<String> iterator = materializedMarkerIds.iterator();
+    while (iterator.hasNext()) {
+      String markerId = iterator.next();
+      if (!visibleMarkerIds.contains(markerId)) {
+        iterator.remove();
+        markersController.dematerializeMarker(markerId);
+      }
+    }
+    for (String markerId : visibleMarkerIds) {
+      MarkerBuilder builder = items.get(markerId);
+      if (builder != null && materializedMarkerIds.add(markerId)) {
+        markersController.materializeMarker(markerId, builder);
+      }
+    }
+  }
+
+  private boolean onClusterTap(ClusterOverlay overlay) {
+    final String key = overlay.key;
+    final int zoom = overlay.zoom;
+    final long cell = overlay.cell;
+    final double cellSize = overlay.cellSize;
+    final LatLng position = overlay.marker.getPosition();
+    executor.execute(
+        () -> {
+          final List<String> markerIds = index.members(zoom, cellSize, cell);
+          handler.post(() -> eventBus.onClusterTap(key, markerIds, position));
+        });
+    return true;
+  }
+
+  private static double toWorldX(double longitude) {
+    return (longitude + 180) / 360;
+  }
+
+  private static double toWorldY(double latitude) {
+    double latRad = Math.toRadians(Math.max(-85.05112878, Math.min(85.05112878, latitude)));
+    return (1 - Math.log(Math.tan(latRad) + 1 / Math.cos(latRad)) / Math.PI) / 2;
+  }
+
+  private static LatLng fromWorld(double x, double y) {
+    double longitude = x * 360 - 180;
+    double latitude = Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    return new LatLng(latitude, longitude);
+  }
+
+  private static String label(int count) {
+    if (count < 10) {
+      return Integer.toString(count);
+    } else if (count < 100) {
+      return (count / 10 * 10) + "+";
+    } else if (count < 1000) {
+      return (count / 100 * 100) + "+";
+    }
+    return (count / 1000) + "k+";
+  }
+
+  /** Draws the icon of a cluster label once and shares it through {@link OverlayImageCache}. */
+  private static OverlayImage clusterIcon(String label, int size) {
+    final String cacheKey = CLUSTER_PREFIX + label + ":" + size;
+    OverlayImage image = OverlayImageCache.getInstance().get(cacheKey);
+    if (image != null) {
+      return image;
+    }
+    Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+    Canvas canvas = new Canvas(bitmap);
+    Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    paint.setColor(Color.argb(220, 3, 199, 90));
+    canvas.drawCircle(size / 2f, size / 2f, size / 2f, paint);
+    paint.setColor(Color.WHITE);
+    paint.setFakeBoldText(true);
+    paint.setTextAlign(Paint.Align.CENTER);
+    paint.setTextSize(size * (label.length() > 3 ? 0.3f : 0.4f));
+    canvas.drawText(label, size / 2f, size / 2f - (paint.descent() + paint.ascent()) / 2, paint);
+    return OverlayImageCache.getInstance().put(cacheKey, bitmap);
+  }
+
+  private final class ClusterOverlay {
+    final String key;
+    final int zoom;
+    final long cell;
+    final double cellSize;
+    final Marker marker = new Marker();
+    String label;
+
+    ClusterOverlay(Node node) {
+      this.key = node.key;
+      this.zoom = node.zoom;
+      this.cell = node.cell;
+      this.cellSize = node.cellSize;
+      marker.setOnClickListener(overlay -> onClusterTap(this));
+      update(node);
+    }
+
+    void update(Node node) {
+      marker.setPosition(node.position);
+      if (!node.label.equals(label)) {
+        label = node.label;
+        marker.setIcon(node.icon);
+      }
+    }
+  }
+
+  /** A cluster, or a singleton when {@link #markerId} is set. */
+  private static final class Node {
+    final String key;
+    final String markerId;
+    final LatLng position;
+    final int zoom;
+    final long cell;
+    final double cellSize;
+    final String label;
+    final OverlayImage icon;
+
+    Node(String markerId) {
+      this.key = markerId;
+      this.markerId = markerId;
+      this.position = null;
+      this.zoom = -1;
+      this.cell = 0;
+      this.cellSize = 0;
+      this.label = null;
+      this.icon = null;
+    }
+
+    Node(int zoom, double cellSize, long cell, Cell data, int iconSize) {
+      this.key = CLUSTER_PREFIX + zoom + ":" + cell;
+      this.markerId = null;
+      this.position = fromWorld(data.sumX / data.ids.size(), data.sumY / data.ids.size());
+      this.zoom = zoom;
+      this.cell = cell;
+      this.cellSize = cellSize;
+      this.label = label(data.ids.size());
+      this.icon = clusterIcon(label, iconSize);
+    }
+  }
+
+  private static final class Cell {
+    final Set<String> ids = new LinkedHashSet<>();
+    double sumX;
+    double sumY;
+  }
+
+  private static final class Grid {
+    final double cellSize;
+    final Map<Long, Cell> cells = new HashMap<>();
+
+    Grid(double cellSize) {
+      this.cellSize = cellSize;
+    }
+
+    long cellOf(double x, double y) {
+      long cx = (long) Math.floor(x / cellSize);
+      long cy = (long) Math.floor(y / cellSize);
+      return (cx << 32) | (cy & 0xffffffffL);
+    }
+
+    void add(String id, double x, double y) {
+      long key = cellOf(x, y);
+      Cell cell = cells.get(key);
+      if (cell == null) {
+        cell = new Cell();
+        cells.put(key, cell);
+      }
+      if (cell.ids.add(id)) {
+        cell.sumX += x;
+        cell.sumY += y;
+      }
+    }
+
+    void remove(String id, double x, double y) {
+      long key = cellOf(x, y);
+      Cell cell = cells.get(key);
+      if (cell == null || !cell.ids.remove(id)) {
+        return;
+      }
+      cell.sumX -= x;
+      cell.sumY -= y;
+      if (cell.ids.isEmpty()) {
+        cells.remove(key);
+      }
+    }
+  }
+
+  /** Marker positions and their per zoom grids. Only touched on the executor thread. */
+  private static final class Index {
+    final Map<String, double[]> points = new HashMap<>();
+    final LinkedHashMap<Integer, Grid> grids =
+        new LinkedHashMap<Integer, Grid>(MAX_CACHED_GRIDS, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Integer, Grid> eldest) {
+            return size() > MAX_CACHED_GRIDS;
+          }
+        };
+
+    void put(String id, double x, double y) {
+      double[] old = points.get(id);
+      if (old != null && old[0] == x && old[1] == y) {
+        return;
+      }
+      points.put(id, new double[] {x, y});
+      for (Grid grid : grids.values()) {
+        if (old != null) {
+          grid.remove(id, old[0], old[1]);
+        }
+        grid.add(id, x, y);
+      }
+    }
+
+    void remove(String id) {
+      double[] old = points.remove(id);
+      if (old == null) {
+        return;
+      }
+      for (Grid grid : grids.values()) {
+        grid.remove(id, old[0], old[1]);
+      }
+    }
+
+    Grid grid(int zoom, double cellSize) {
+      Grid grid = grids.get(zoom);
+      if (grid == null || grid.cellSize != cellSize) {
+        grid = new Grid(cellSize);
+        for (Map.Entry<String, double[]> point : points.entrySet()) {
+          grid.add(point.getKey(), point.getValue()[0], point.getValue()[1]);
+        }
+        grids.put(zoom, grid);
+      }
+      return grid;
+    }
+
+    /** A negative {@code zoom} disables clustering and returns the visible singletons. */
+    List<Node> query(
+        int zoom,
+        double cellSize,
+        int minClusterSize,
+        double minX,
+        double minY,
+        double maxX,
+        double maxY,
+        int iconSize) {
+      List<Node> nodes = new ArrayList<>();
+      if (zoom < 0) {
+        for (Map.Entry<String, double[]> point : points.entrySet()) {
+          double[] p = point.getValue();
+          if (p[0] >= minX && p[0] <= maxX && p[1] >= minY && p[1] <= maxY) {
+            nodes.add(new Node(point.getKey()));
+          }
+        }
+        return nodes;
+      }
+      Grid grid = grid(zoom, cellSize);
+      for (Map.Entry<Long, Cell> entry : grid.cells.entrySet()) {
+        Cell cell = entry.getValue();
+        int count = cell.ids.size();
+        double x = cell.sumX / count;
+        double y = cell.sumY / count;
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+          continue;
+        }
+        if (count >= minClusterSize) {
+          nodes.add(new Node(zoom, cellSize, entry.getKey(), cell, iconSize));
+        } else {
+          for (String id : cell.ids) {
+            nodes.add(new Node(id));
+          }
+        }
+      }
+      return nodes;
+    }
+
+    List<String> members(int zoom, double cellSize, long cell) {
+      Cell data = grid(zoom, cellSize).cells.get(cell);
+      return data != null ? new ArrayList<>(data.ids) : new ArrayList<>();
+    }
+  }
+}
@@ -11,7 +11,6 @@ import android.os.Build;
 import android.util.Log;
 
 import androidx.annotation.ColorInt;
-import androidx.annotation.NonNull;
 import androidx.annotation.RequiresApi;
 
 import com.naver.maps.geometry.LatLng;
@@ -21,58 +20,95 @@ import com.naver.maps.map.overlay.Marker;
 import com.naver.maps.map.overlay.OverlayImage;
 import com.naver.maps.model.BitmapDescriptor;
 
+import java.util.Arrays;
+
 /** Controller of a single Marker on the map. */
 class MarkerController implements MarkerOptionsSink {
   private final Context context;
   public final Marker marker;
-  private final String naverMapsMarkerId;
   private boolean consumeTapEvents;
-  private final InfoWindow infoWindow;
+  private final MarkerOverlayPool pool;
+  // Set while the marker is tappable on a map.
+  private OverlayHitIndex.MarkerTarget hitTarget;
+  // Created on the first showInfoWindow.
+  private InfoWindow infoWindow;
+  private PointF infoWindowAnchor;
 
   private String infoWindowTitle;
   private String infoWindowSnippet;
 
+  // Last applied values, to skip writes that change nothing.
+  private Float appliedAlpha;
+  private PointF appliedAnchor;
+  private Boolean appliedFlat;
+  private String appliedIconKey;
+  private LatLng appliedPosition;
+  private Float appliedRotation;
+  private Boolean appliedVisible;
+  private Float appliedZIndex;
+
   Marker getMarker() {
     return marker;
   }
 
-  MarkerController(Context context, Marker marker, boolean consumeTapEvents) {
+  MarkerController(
+      Context context, Marker marker, boolean consumeTapEvents, MarkerOverlayPool pool) {
     this.context = context;
     this.marker = marker;
     this.consumeTapEvents = consumeTapEvents;
-    this.naverMapsMarkerId = Integer.toString(marker.hashCode());
-
-    this.infoWindow = new InfoWindow();
-    this.infoWindow.setAdapter(new InfoWindow.DefaultTextAdapter(context) {
-        @NonNull
-        @Override
-        public CharSequence getText(@NonNull InfoWindow infoWindow) {
-            StringBuilder stringBuilder = new StringBuilder();
-            if (infoWindowTitle != null) {
-              stringBuilder.append(infoWindowTitle);
-            }
-
-            if (infoWindowSnippet != null) {
-              stringBuilder.append("\n");
-              stringBuilder.append(infoWindowSnippet);
-            }
-            return stringBuilder.toString();
-        }
-    });
+    this.pool = pool;
   }
 
+  /** Makes the marker tappable through {@code hitIndex}, which taps resolve to {@code markerId}. */
+  void setHitTarget(OverlayHitIndex hitIndex, String markerId) {
+    hitTarget = hitIndex.addMarker(markerId, this);
+    marker.setTag(hitTarget);
+  }
+
+  /** Returns the marker and its info window to the pool; the controller is unusable afterwards. */
   void remove() {
-    marker.setMap(null);
+    if (hitTarget != null) {
+      hitTarget.index.remove(hitTarget);
+      hitTarget = null;
+    }
+    if (infoWindow != null) {
+      pool.releaseInfoWindow(infoWindow);
+      infoWindow = null;
+    }
+    pool.releaseMarker(marker);
+  }
+
+  CharSequence getInfoWindowText() {
+    StringBuilder stringBuilder = new StringBuilder();
+    if (infoWindowTitle != null) {
+      stringBuilder.append(infoWindowTitle);
+    }
+
+    if (infoWindowSnippet != null) {
+      stringBuilder.append("\n");
+      stringBuilder.append(infoWindowSnippet);
+    }
+    return stringBuilder.toString();
   }
 
   @Override
   public void setAlpha(float alpha) {
+    if (PropertyWriteStats.unchanged(appliedAlpha, alpha)) {
+      return;
+    }
+    appliedAlpha = alpha;
     marker.setAlpha(alpha);
   }
 
   @Override
   public void setAnchor(float u, float v) {
-    marker.setAnchor(new PointF(u, v));
+    final PointF anchor = new PointF(u, v);
+    if (PropertyWriteStats.unchanged(appliedAnchor, anchor)) {
+      return;
+    }
+    appliedAnchor = anchor;
+    marker.setAnchor(anchor);
+    invalidateHitTarget();
   }
 
   @Override
@@ -87,6 +123,10 @@ class MarkerController implements MarkerOptionsSink {
 
   @Override
   public void setFlat(boolean flat) {
+    if (PropertyWriteStats.unchanged(appliedFlat, flat)) {
+      return;
+    }
+    appliedFlat = flat;
     marker.setFlat(flat);
   }
 
@@ -97,6 +137,11 @@ class MarkerController implements MarkerOptionsSink {
     if (bitmapDescriptor == null) {
       return;
     }
+    // Descriptors without a cache key are always applied.
+    final String iconKey = bitmapDescriptor.getCacheKey();
+    if (PropertyWriteStats.unchanged(appliedIconKey, iconKey)) {
+      return;
+    }
 
     OverlayImage overlayImage = bitmapDescriptor.toOverlayImage(context);
     if (overlayImage == null) {
@@ -107,42 +152,85 @@ class MarkerController implements MarkerOptionsSink {
       return;
     }
     marker.setIcon(overlayImage);
+    // Only once applied, so that an icon that failed to load is retried.
+    appliedIconKey = iconKey;
+    if (hitTarget != null) {
+      hitTarget.invalidateIcon();
+    }
   }
 
   @Override
   public void setInfoWindowAnchor(float u, float v) {
-    infoWindow.setAnchor(new PointF(u, v));
+    final PointF anchor = new PointF(u, v);
+    if (PropertyWriteStats.unchanged(infoWindowAnchor, anchor)) {
+      return;
+    }
+    infoWindowAnchor = anchor;
+    if (infoWindow != null) {
+      infoWindow.setAnchor(infoWindowAnchor);
+    }
   }
 
   @Override
   public void setInfoWindowText(String title, String snippet) {
+    if (infoWindowTitle != null
+        && PropertyWriteStats.unchanged(
+            Arrays.asList(infoWindowTitle, infoWindowSnippet), Arrays.asList(title, snippet))) {
+      return;
+    }
     infoWindowTitle = title;
     infoWindowSnippet = snippet;
+    if (infoWindow != null) {
+      infoWindow.invalidate();
+    }
   }
 
   @Override
   public void setPosition(LatLng position) {
+    if (PropertyWriteStats.unchanged(appliedPosition, position)) {
+      return;
+    }
+    appliedPosition = position;
     marker.setPosition(position);
-    infoWindow.setPosition(position);
+    invalidateHitTarget();
+    if (infoWindow != null) {
+      infoWindow.setPosition(position);
+    }
   }
 
   @Override
   public void setRotation(float rotation) {
+    if (PropertyWriteStats.unchanged(appliedRotation, rotation)) {
+      return;
+    }
+    appliedRotation = rotation;
     marker.setAngle(rotation);
   }
 
   @Override
   public void setVisible(boolean visible) {
+    if (PropertyWriteStats.unchanged(appliedVisible, visible)) {
+      return;
+    }
+    appliedVisible = visible;
     marker.setVisible(visible);
+    invalidateHitTarget();
   }
 
   @Override
   public void setZIndex(float zIndex) {
+    if (PropertyWriteStats.unchanged(appliedZIndex, zIndex)) {
+      return;
+    }
+    appliedZIndex = zIndex;
     marker.setZIndex(Math.round(zIndex));
+    invalidateHitTarget();
   }
 
-  String getNaverMapsMarkerId() {
-    return naverMapsMarkerId;
+  private void invalidateHitTarget() {
+    if (hitTarget != null) {
+      hitTarget.invalidate();
+    }
   }
 
   boolean consumeTapEvents() {
@@ -150,14 +238,23 @@ class MarkerController implements MarkerOptionsSink {
   }
 
   public void showInfoWindow(NaverMap naverMap) {
+    if (infoWindow == null) {
+      infoWindow = pool.acquireInfoWindow(this);
+      infoWindow.setPosition(marker.getPosition());
+      if (infoWindowAnchor != null) {
+        infoWindow.setAnchor(infoWindowAnchor);
+      }
+    }
     infoWindow.open(naverMap);
   }
 
   public void hideInfoWindow() {
-    infoWindow.close();
+    if (infoWindow != null) {
+      infoWindow.close();
+    }
   }
 
   public boolean isInfoWindowShown() {
-    return infoWindow.isVisible();
+    return infoWindow != null && infoWindow.isVisible();
   }
 }
@@ -0,0 +1,142 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.view.Choreographer;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Moves markers along timed tracks, interpolating the positions of all moving markers on a single
+ * {@link Choreographer} frame callback.
+ *
+ * <p>A track is a flat array of {@code latitude, longitude, offset} triples, where the offset is
+ * the time in milliseconds from the start of the motion at which the marker reaches that point.
+ * The motion starts from the marker's current position, so a single triple moves the marker to a
+ * target over a duration. Starting a new motion for a marker replaces the running one, starting
+ * from wherever the marker is at that moment. While a motion runs, it owns the marker's position.
+ */
+class MarkerMotionAnimator implements Choreographer.FrameCallback {
+
+  private final Map<String, Motion> motions = new HashMap<>();
+  private boolean frameScheduled;
+
+  /**
+   * Starts moving {@code markerController} along {@code track}. If {@code rotateToHeading} is set,
+   * the marker is rotated to face its direction of travel.
+   */
+  void start(
+      String markerId, MarkerController markerController, double[] track, boolean rotateToHeading) {
+    if (track.length < 3 || track.length % 3 != 0) {
+      throw new IllegalArgumentException("A track needs latitude, longitude, offset triples");
+    }
+    LatLng from = markerController.marker.getPosition();
+    if (from == null) {
+      from = new LatLng(track[0], track[1]);
+    }
+    motions.put(markerId, new Motion(markerController, from, track, rotateToHeading));
+    scheduleFrame();
+  }
+
+  void cancel(String markerId) {
+    motions.remove(markerId);
+  }
+
+  void dispose() {
+    motions.clear();
+    if (frameScheduled) {
+      Choreographer.getInstance().removeFrameCallback(this);
+      frameScheduled = false;
+    }
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    frameScheduled = false;
+    Iterator<Motion> iterator = motions.values().iterator();
+    while (iterator.hasNext()) {
+      if (!iterator.next().apply(frameTimeNanos)) {
+        iterator.remove();
+      }
+    }
+    if (!motions.isEmpty()) {
+      scheduleFrame();
+    }
+  }
+
+  private void scheduleFrame() {
+    if (frameScheduled) {
+      return;
+    }
+    frameScheduled = true;
+    Choreographer.getInstance().postFrameCallback(this);
+  }
+
+  /** Returns the initial bearing in degrees clockwise from north of the great circle path. */
+  static float bearing(double fromLat, double fromLng, double toLat, double toLng) {
+    double phi1 = Math.toRadians(fromLat);
+    double phi2 = Math.toRadians(toLat);
+    double deltaLambda = Math.toRadians(toLng - fromLng);
+    double y = Math.sin(deltaLambda) * Math.cos(phi2);
+    double x =
+        Math.cos(phi1) * Math.sin(phi2)
+            - Math.sin(phi1) * Math.cos(phi2) * Math.cos(deltaLambda);
+    return (float) ((Math.toDegrees(Math.atan2(y, x)) + 360) % 360);
+  }
+
+  private static final class Motion {
+    final MarkerController markerController;
+    // latitude, longitude, offset triples, starting with the position the motion starts from.
+    final double[] keyframes;
+    final boolean rotateToHeading;
+    long startTimeNanos = -1;
+    int segment;
+
+    Motion(
+        MarkerController markerController, LatLng from, double[] track, boolean rotateToHeading) {
+      this.markerController = markerController;
+      this.rotateToHeading = rotateToHeading;
+      keyframes = new double[track.length + 3];
+      keyframes[0] = from.latitude;
+      keyframes[1] = from.longitude;
+      System.arraycopy(track, 0, keyframes, 3, track.length);
+    }
+
+    /** Moves the marker to where it is at {@code frameTimeNanos}; returns false once it arrived. */
+    boolean apply(long frameTimeNanos) {
+      if (startTimeNanos < 0) {
+        startTimeNanos = frameTimeNanos;
+      }
+      final double elapsed = (frameTimeNanos - startTimeNanos) / 1e6;
+      final int last = keyframes.length - 3;
+      while (segment < last && keyframes[segment + 5] <= elapsed) {
+        segment += 3;
+      }
+      if (segment >= last) {
+        markerController.setPosition(new LatLng(keyframes[last], keyframes[last + 1]));
+        return false;
+      }
+      final int from = segment;
+      final int to = segment + 3;
+      final double duration = keyframes[to + 2] - keyframes[from + 2];
+      final double t =
+          duration > 0 ? Math.max(0, Math.min(1, (elapsed - keyframes[from + 2]) / duration)) : 1;
+      markerController.setPosition(
+          new LatLng(
+              keyframes[from] + (keyframes[to] - keyframes[from]) * t,
+              keyframes[from + 1] + (keyframes[to + 1] - keyframes[from + 1]) * t));
+      if (rotateToHeading
+          && (keyframes[from] != keyframes[to] || keyframes[from + 1] != keyframes[to + 1])) {
+        markerController.setRotation(
+            bearing(keyframes[from], keyframes[from + 1], keyframes[to], keyframes[to + 1]));
+      }
+      return true;
+    }
+  }
+}
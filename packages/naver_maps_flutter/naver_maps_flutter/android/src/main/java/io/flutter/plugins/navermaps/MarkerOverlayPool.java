@@ -0,0 +1,94 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.content.Context;
+import android.graphics.Color;
+
+import androidx.annotation.NonNull;
+
+import com.naver.maps.map.overlay.InfoWindow;
+import com.naver.maps.map.overlay.Marker;
+
+import java.util.ArrayDeque;
+
+/**
+ * Recycles the {@link Marker} and {@link InfoWindow} overlays of removed markers so that frequent
+ * remove/add cycles don't allocate new overlays each time.
+ *
+ * <p>Released overlays are detached and reset to their defaults; at most {@link #MAX_POOL_SIZE} of
+ * each kind are kept. Each pooled info window keeps its text adapter, which reads the title and
+ * snippet of the {@link MarkerController} set as the window's tag. Must be used on the main thread.
+ */
+class MarkerOverlayPool {
+
+  static final int MAX_POOL_SIZE = 256;
+
+  private final Context context;
+  private final ArrayDeque<Marker> markers = new ArrayDeque<>();
+  private final ArrayDeque<InfoWindow> infoWindows = new ArrayDeque<>();
+
+  MarkerOverlayPool(Context context) {
+    this.context = context;
+  }
+
+  Marker acquireMarker() {
+    Marker marker = markers.poll();
+    return marker != null ? marker : new Marker();
+  }
+
+  void releaseMarker(Marker marker) {
+    marker.setMap(null);
+    marker.setOnClickListener(null);
+    if (markers.size() >= MAX_POOL_SIZE) {
+      return;
+    }
+    marker.setTag(null);
+    marker.setIcon(Marker.DEFAULT_ICON);
+    marker.setIconTintColor(Color.TRANSPARENT);
+    marker.setAnchor(Marker.DEFAULT_ANCHOR);
+    marker.setAlpha(1);
+    marker.setAngle(0);
+    marker.setFlat(false);
+    marker.setVisible(true);
+    marker.setZIndex(0);
+    markers.push(marker);
+  }
+
+  /** Returns an info window whose text comes from {@code owner}. */
+  InfoWindow acquireInfoWindow(MarkerController owner) {
+    InfoWindow infoWindow = infoWindows.poll();
+    if (infoWindow == null) {
+      infoWindow = new InfoWindow();
+      infoWindow.setAdapter(
+          new InfoWindow.DefaultTextAdapter(context) {
+            @NonNull
+            @Override
+            public CharSequence getText(@NonNull InfoWindow infoWindow) {
+              MarkerController owner = (MarkerController) infoWindow.getTag();
+              return owner != null ? owner.getInfoWindowText() : "";
+            }
+          });
+    }
+    infoWindow.setTag(owner);
+    return infoWindow;
+  }
+
+  void releaseInfoWindow(InfoWindow infoWindow) {
+    infoWindow.close();
+    infoWindow.setTag(null);
+    if (infoWindows.size() >= MAX_POOL_SIZE) {
+      return;
+    }
+    infoWindow.setAnchor(InfoWindow.DEFAULT_ANCHOR);
+    infoWindow.setAlpha(1);
+    infoWindows.push(infoWindow);
+  }
+
+  void clear() {
+    markers.clear();
+    infoWindows.clear();
+  }
+}
@@ -0,0 +1,159 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.util.Log;
+
+import io.flutter.plugin.common.BasicMessageChannel;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMessageCodec;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads large marker sets in chunks pushed by Dart over a dedicated message channel.
+ *
+ * <p>Each message is a map with a {@code markers} list and, on the first chunk of a load, the
+ * {@code total} number of markers. Chunks go through the {@link MarkersController} update batcher,
+ * so they are applied across frames within its per-frame budget and the map stays interactive.
+ * Chunks received before the map is ready are held until it is. Each chunk is replied to once it
+ * has been applied, which lets Dart pace its sends, and a {@code markers#onLoadProgress} event
+ * with the {@code loaded} and {@code total} counts is sent on the map's method channel.
+ */
+class MarkerStreamLoader implements BasicMessageChannel.MessageHandler<Object> {
+
+  private static final String TAG = "MarkerStreamLoader";
+
+  private final BasicMessageChannel<Object> channel;
+  private final MethodChannel methodChannel;
+  private final MarkersController markersController;
+  private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+  private boolean mapReady;
+  private int loaded;
+  private int total = -1;
+
+  MarkerStreamLoader(
+      int id,
+      BinaryMessenger binaryMessenger,
+      MethodChannel methodChannel,
+      MarkersController markersController) {
+    this.methodChannel = methodChannel;
+    this.markersController = markersController;
+    this.channel =
+        new BasicMessageChannel<>(
+            binaryMessenger,
+            "plugins.flutter.io/naver_maps_marker_stream_" + id,
+            StandardMessageCodec.INSTANCE);
+    channel.setMessageHandler(this);
+  }
+
+  /** Loads the markers the map was created with the same way as a streamed load. */
+  void loadInitialMarkers(List<Object> markers) {
+    if (markers == null || markers.isEmpty()) {
+      return;
+    }
+    // The map is created before Dart can stream anything, so these come first.
+    Chunk chunk = new Chunk(markers, markers.size(), null);
+    if (mapReady) {
+      apply(chunk);
+    } else {
+      pending.addFirst(chunk);
+    }
+  }
+
+  void onMapReady() {
+    mapReady = true;
+    while (!pending.isEmpty()) {
+      apply(pending.poll());
+    }
+  }
+
+  void dispose() {
+    channel.setMessageHandler(null);
+    // Chunks already handed to the update batcher are answered by its dispose.
+    for (Chunk chunk : pending) {
+      if (chunk.reply != null) {
+        final Map<String, Object> reply = new HashMap<>();
+        reply.put("loaded", loaded);
+        reply.put("error", "Map disposed");
+        chunk.reply.reply(reply);
+      }
+    }
+    pending.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void onMessage(Object message, BasicMessageChannel.Reply<Object> reply) {
+    final Map<?, ?> data = Convert.toMap(message);
+    final Object total = data.get("total");
+    final List<Object> markers = (List<Object>) data.get("markers");
+    Chunk chunk = new Chunk(markers, total != null ? Convert.toInt(total) : -1, reply);
+    if (mapReady) {
+      apply(chunk);
+    } else {
+      pending.add(chunk);
+    }
+  }
+
+  private void apply(Chunk chunk) {
+    if (chunk.total >= 0) {
+      // First chunk of a new load.
+      total = chunk.total;
+      loaded = 0;
+    }
+    markersController.updateMarkers(
+        chunk.markers,
+        null,
+        null,
+        new MethodChannel.Result() {
+          @Override
+          public void success(Object result) {
+            onChunkApplied(chunk, null);
+          }
+
+          @Override
+          public void error(String errorCode, String errorMessage, Object errorDetails) {
+            Log.e(TAG, "Can't load markers: " + errorMessage);
+            onChunkApplied(chunk, errorMessage);
+          }
+
+          @Override
+          public void notImplemented() {}
+        });
+  }
+
+  private void onChunkApplied(Chunk chunk, String errorMessage) {
+    loaded += chunk.markers != null ? chunk.markers.size() : 0;
+    final Map<String, Object> progress = new HashMap<>();
+    progress.put("loaded", loaded);
+    progress.put("total", total);
+    methodChannel.invokeMethod("markers#onLoadProgress", progress);
+    if (chunk.reply != null) {
+      final Map<String, Object> reply = new HashMap<>();
+      reply.put("loaded", loaded);
+      if (errorMessage != null) {
+        reply.put("error", errorMessage);
+      }
+      chunk.reply.reply(reply);
+    }
+  }
+
+  private static final class Chunk {
+    final List<Object> markers;
+    // -1 unless this chunk starts a load.
+    final int total;
+    final BasicMessageChannel.Reply<Object> reply;
+
+    Chunk(List<Object> markers, int total, BasicMessageChannel.Reply<Object> reply) {
+      this.markers = markers;
+      this.total = total;
+      this.reply = reply;
+    }
+  }
+}
@@ -0,0 +1,337 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.naver.maps.model.BitmapDescriptor;
+import com.naver.maps.model.OverlayImageCache;
+
+import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Applies {@code markers#update} batches without decoding icons on the platform thread.
+ *
+ * <p>Icons missing from {@link OverlayImageCache} are decoded in parallel on a small worker pool.
+ * Each marker is applied as soon as its icon is ready, a frame-sized chunk at a time, and the
+ * result of a batch completes once all of its markers have been applied. Batches are applied in
+ * the order they were received. Batches come either as {@code markers#update} maps or as {@code
+ * markers#updateBinary} records read through a {@link MarkerBinaryReader}. The icons of a batch are
+ * pinned in the cache until it completes, so none is evicted and decoded again, on the platform
+ * thread, before its markers are applied. Calls that look markers up, such as {@code
+ * markers#showInfoWindow}, wait for the batches received before them through {@link
+ * #afterPendingBatches}.
+ */
+class MarkerUpdateBatcher implements Choreographer.FrameCallback {
+
+  private static final String TAG = "MarkerUpdateBatcher";
+
+  // Leave the rest of the frame to the map renderer and Flutter.
+  private static final long FRAME_BUDGET_NANOS = 8_000_000L;
+
+  private static final ExecutorService decodeExecutor =
+      Executors.newFixedThreadPool(
+          Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapIconDecoder");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final Context context;
+  private final MarkersController markersController;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final ArrayDeque<Batch> batches = new ArrayDeque<>();
+  // Actions of whenIconReady by icon cache key, while the icon is decoded.
+  private final Map<String, List<Runnable>> iconWaiters = new HashMap<>();
+  private boolean frameScheduled;
+  private boolean disposed;
+
+  MarkerUpdateBatcher(Context context, MarkersController markersController) {
+    this.context = context;
+    this.markersController = markersController;
+  }
+
+  void update(
+      List<Object> markersToAdd,
+      List<Object> markersToChange,
+      List<Object> markerIdsToRemove,
+      MethodChannel.Result result) {
+    Batch batch = new Batch(markerIdsToRemove, result);
+    batch.enqueue(markersToAdd, true);
+    batch.enqueue(markersToChange, false);
+    batches.add(batch);
+    scheduleFrame();
+  }
+
+  void updateBinary(MarkerBinaryReader reader, MethodChannel.Result result) {
+    Batch batch = new Batch(reader.markerIdsToRemove(), result);
+    for (int record = 0; record < reader.recordCount(); record++) {
+      batch.enqueue(new Op(reader, record, record < reader.addCount()), reader.icon(record));
+    }
+    batches.add(batch);
+    scheduleFrame();
+  }
+
+  /**
+   * Runs {@code action} once the batches received so far have been applied, right away if there are
+   * none. If the batcher is disposed first, {@code result} gets an error instead.
+   */
+  void afterPendingBatches(MethodChannel.Result result, Runnable action) {
+    final Batch last = batches.peekLast();
+    if (last == null) {
+      action.run();
+      return;
+    }
+    last.afterwards.add(new Deferred(result, action));
+  }
+
+  /**
+   * Runs {@code action} on the platform thread once {@code icon} is in {@link OverlayImageCache},
+   * decoding it in the background first if it isn't. For markers created outside of a batch, e.g.
+   * by the clusterer, whose icon may have been evicted since it was last shown.
+   */
+  void whenIconReady(BitmapDescriptor icon, Runnable action) {
+    final String cacheKey = icon != null ? icon.getCacheKey() : null;
+    if (cacheKey == null || OverlayImageCache.getInstance().get(cacheKey) != null) {
+      action.run();
+      return;
+    }
+    List<Runnable> actions = iconWaiters.get(cacheKey);
+    if (actions != null) {
+      actions.add(action);
+      return;
+    }
+    actions = new ArrayList<>();
+    actions.add(action);
+    iconWaiters.put(cacheKey, actions);
+    OverlayImageCache.getInstance().pin(cacheKey);
+    decodeExecutor.execute(
+        () -> {
+          decodeIcon(icon, cacheKey);
+          handler.post(
+              () -> {
+                final List<Runnable> ready = iconWaiters.remove(cacheKey);
+                if (!disposed && ready != null) {
+                  for (Runnable readyAction : ready) {
+                    readyAction.run();
+                  }
+                }
+                OverlayImageCache.getInstance().unpin(cacheKey);
+              });
+        });
+  }
+
+  void dispose() {
+    disposed = true;
+    // The map is gone, so there is nothing left for these updates to apply to.
+    for (Batch batch : batches) {
+      batch.release();
+      batch.result.success(null);
+      for (Deferred deferred : batch.afterwards) {
+        deferred.result.error("error", "Map disposed", null);
+      }
+    }
+    batches.clear();
+    if (frameScheduled) {
+      Choreographer.getInstance().removeFrameCallback(this);
+      frameScheduled = false;
+    }
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    frameScheduled = false;
+    final long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+    while (!batches.isEmpty()) {
+      Batch batch = batches.peek();
+      if (!batch.apply(deadline)) {
+        break;
+      }
+      batches.poll();
+      batch.complete();
+    }
+    Batch head = batches.peek();
+    if (head != null && !head.ready.isEmpty()) {
+      scheduleFrame();
+    }
+  }
+
+  private void scheduleFrame() {
+    if (frameScheduled || disposed) {
+      return;
+    }
+    frameScheduled = true;
+    Choreographer.getInstance().postFrameCallback(this);
+  }
+
+  /** Decodes {@code icon} into {@link OverlayImageCache}; runs on the decode executor. */
+  private void decodeIcon(BitmapDescriptor icon, String cacheKey) {
+    try {
+      // Populates OverlayImageCache; the marker picks the image up from there.
+      if (icon.toOverlayImage(context) == null) {
+        Log.e(TAG, "Unable to decode marker icon " + cacheKey);
+      }
+    } catch (RuntimeException e) {
+      Log.e(TAG, "Unable to decode marker icon " + cacheKey, e);
+    }
+  }
+
+  private void onIconReady(Batch batch, String cacheKey) {
+    List<Op> ops = batch.waiting.remove(cacheKey);
+    if (ops != null) {
+      batch.ready.addAll(ops);
+    }
+    scheduleFrame();
+  }
+
+  private static final class Deferred {
+    final MethodChannel.Result result;
+    final Runnable action;
+
+    Deferred(MethodChannel.Result result, Runnable action) {
+      this.result = result;
+      this.action = action;
+    }
+  }
+
+  private static final class Op {
+    final Object marker;
+    final MarkerBinaryReader reader;
+    final int record;
+    final boolean add;
+
+    Op(Object marker, boolean add) {
+      this(marker, null, -1, add);
+    }
+
+    Op(MarkerBinaryReader reader, int record, boolean add) {
+      this(null, reader, record, add);
+    }
+
+    private Op(Object marker, MarkerBinaryReader reader, int record, boolean add) {
+      this.marker = marker;
+      this.reader = reader;
+      this.record = record;
+      this.add = add;
+    }
+  }
+
+  private final class Batch {
+    private final MethodChannel.Result result;
+    private List<Object> markerIdsToRemove;
+    private final ArrayDeque<Op> ready = new ArrayDeque<>();
+    private final Map<String, List<Op>> waiting = new HashMap<>();
+    private final Set<String> pinnedIcons = new HashSet<>();
+    // Calls to run once this batch has completed.
+    private final List<Deferred> afterwards = new ArrayList<>();
+    private RuntimeException error;
+
+    Batch(List<Object> markerIdsToRemove, MethodChannel.Result result) {
+      this.markerIdsToRemove = markerIdsToRemove;
+      this.result = result;
+    }
+
+    void enqueue(List<Object> markers, boolean add) {
+      if (markers == null) {
+        return;
+      }
+      for (Object marker : markers) {
+        if (marker == null) {
+          continue;
+        }
+        enqueue(new Op(marker, add), Convert.toMarkerIcon(marker));
+      }
+    }
+
+    void enqueue(Op op, BitmapDescriptor icon) {
+      String cacheKey = icon != null ? icon.getCacheKey() : null;
+      if (cacheKey != null && pinnedIcons.add(cacheKey)) {
+        OverlayImageCache.getInstance().pin(cacheKey);
+      }
+      if (cacheKey == null || OverlayImageCache.getInstance().get(cacheKey) != null) {
+        ready.add(op);
+        return;
+      }
+      List<Op> ops = waiting.get(cacheKey);
+      if (ops == null) {
+        ops = new ArrayList<>();
+        waiting.put(cacheKey, ops);
+        decode(cacheKey, icon);
+      }
+      ops.add(op);
+    }
+
+    private void decode(String cacheKey, BitmapDescriptor icon) {
+      decodeExecutor.execute(
+          () -> {
+            decodeIcon(icon, cacheKey);
+            handler.post(() -> onIconReady(this, cacheKey));
+          });
+    }
+
+    /** Returns true once every marker of this batch has been applied. */
+    boolean apply(long deadline) {
+      if (markerIdsToRemove != null) {
+        markersController.removeMarkers(markerIdsToRemove);
+        markerIdsToRemove = null;
+      }
+      while (!ready.isEmpty()) {
+        if (System.nanoTime() >= deadline) {
+          return false;
+        }
+        Op op = ready.poll();
+        try {
+          if (op.reader != null && op.add) {
+            markersController.addMarker(op.reader, op.record);
+          } else if (op.reader != null) {
+            markersController.changeMarker(op.reader, op.record);
+          } else if (op.add) {
+            markersController.addMarker(op.marker);
+          } else {
+            markersController.changeMarker(op.marker);
+          }
+        } catch (RuntimeException e) {
+          Log.e(TAG, "Can't apply marker update", e);
+          error = e;
+        }
+      }
+      return waiting.isEmpty();
+    }
+
+    /** Unpins the icons of this batch. */
+    void release() {
+      for (String cacheKey : pinnedIcons) {
+        OverlayImageCache.getInstance().unpin(cacheKey);
+      }
+      pinnedIcons.clear();
+    }
+
+    void complete() {
+      release();
+      if (error != null) {
+        result.error("error", error.getMessage(), null);
+      } else {
+        result.success(null);
+      }
+      for (Deferred deferred : afterwards) {
+        deferred.action.run();
+      }
+    }
+  }
+}
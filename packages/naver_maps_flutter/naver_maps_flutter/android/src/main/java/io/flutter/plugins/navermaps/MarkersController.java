@@ -10,9 +10,7 @@ import android.util.Log;
 import com.naver.maps.geometry.LatLng;
 import com.naver.maps.map.NaverMap;
 import com.naver.maps.map.overlay.Marker;
-import com.naver.maps.map.overlay.OverlayImage;
 import com.naver.maps.model.BitmapDescriptor;
-import com.naver.maps.model.MarkerOptions;
 
 import io.flutter.plugin.common.MethodChannel;
 
@@ -23,19 +21,145 @@ import java.util.Map;
 class MarkersController {
     private final Context context;
     private final Map<String, MarkerController> markerIdToController;
-    private final Map<String, String> naverMapsMarkerIdToDartMarkerId;
-    private final MethodChannel methodChannel;
+    private final MapEventBus eventBus;
+    private final OverlayHitIndex hitIndex;
+    private final OverlayQueryIndex queryIndex;
+    private final MarkerUpdateBatcher updateBatcher;
+    private final MarkerOverlayPool overlayPool;
+    private final MarkerMotionAnimator motionAnimator;
+    // Clustered or virtualized markers to show once their icon is decoded.
+    private final Map<String, MarkerBuilder> pendingMaterializations = new HashMap<>();
+    private MarkerClusterer clusterer;
+    private ViewportVirtualizer<MarkerBuilder> virtualizer;
     private NaverMap naverMap;
 
-    MarkersController(Context context, MethodChannel methodChannel) {
+    MarkersController(
+            Context context,
+            MapEventBus eventBus,
+            OverlayHitIndex hitIndex,
+            OverlayQueryIndex queryIndex) {
         this.context = context;
         this.markerIdToController = new HashMap<>();
-        this.naverMapsMarkerIdToDartMarkerId = new HashMap<>();
-        this.methodChannel = methodChannel;
+        this.eventBus = eventBus;
+        this.hitIndex = hitIndex;
+        this.queryIndex = queryIndex;
+        this.updateBatcher = new MarkerUpdateBatcher(context, this);
+        this.overlayPool = new MarkerOverlayPool(context);
+        this.motionAnimator = new MarkerMotionAnimator();
     }
 
     void setNaverMap(NaverMap naverMap) {
         this.naverMap = naverMap;
+        if (clusterer != null) {
+            clusterer.setNaverMap(naverMap);
+        }
+        if (virtualizer != null) {
+            virtualizer.setNaverMap(naverMap);
+        }
+    }
+
+    /**
+     * Turns viewport virtualization on or off. While it is on, only the markers within the visible
+     * region are backed by overlays. Clustering, when enabled, takes precedence.
+     */
+    void setVirtualized(boolean virtualized) {
+        if (virtualized == (virtualizer != null)) {
+            return;
+        }
+        if (!virtualized) {
+            virtualizer.attachAll();
+            virtualizer.clear();
+            virtualizer = null;
+            return;
+        }
+        virtualizer =
+                new ViewportVirtualizer<>(
+                        new ViewportVirtualizer.Host<MarkerBuilder>() {
+                            @Override
+                            public void attach(String markerId, MarkerBuilder markerBuilder) {
+                                materializeMarker(markerId, markerBuilder);
+                            }
+
+                            @Override
+                            public void detach(String markerId) {
+                                dematerializeMarker(markerId);
+                            }
+                        });
+        virtualizer.setNaverMap(naverMap);
+    }
+
+    /**
+     * Turns marker clustering on or off. Markers added while clustering is on are only backed by
+     * overlays when they are visible and not part of a cluster; markers that already exist when it
+     * is turned on stay unclustered.
+     */
+    void setClustering(boolean enabled, int gridSize, int minClusterSize, float maxZoom) {
+        if (!enabled) {
+            if (clusterer != null) {
+                clusterer.materializeAll();
+                clusterer.dispose();
+                clusterer = null;
+            }
+            return;
+        }
+        if (clusterer == null) {
+            if (!markerIdToController.isEmpty()) {
+                Log.w(
+                        "MarkersController",
+                        "Markers added before clustering was enabled stay unclustered");
+            }
+            float density = context.getResources().getDisplayMetrics().density;
+            clusterer = new MarkerClusterer(this, eventBus, density);
+            clusterer.setNaverMap(naverMap);
+        }
+        clusterer.setOptions(gridSize, minClusterSize, maxZoom);
+    }
+
+    void onCameraIdle() {
+        if (clusterer != null) {
+            clusterer.onCameraIdle();
+        }
+        if (virtualizer != null) {
+            virtualizer.onCameraIdle();
+        }
+    }
+
+    /**
+     * Applies a {@code markers#update} batch, decoding new icons off the platform thread. The
+     * result completes once the whole batch has been applied.
+     */
+    void updateMarkers(
+            List<Object> markersToAdd,
+            List<Object> markersToChange,
+            List<Object> markerIdsToRemove,
+            MethodChannel.Result result) {
+        updateBatcher.update(markersToAdd, markersToChange, markerIdsToRemove, result);
+    }
+
+    /**
+     * Applies a {@code markers#updateBinary} batch, see {@link MarkerBinaryReader} for the format.
+     */
+    void updateMarkersBinary(MarkerBinaryReader reader, MethodChannel.Result result) {
+        updateBatcher.updateBinary(reader, result);
+    }
+
+    void dispose() {
+        updateBatcher.dispose();
+        if (clusterer != null) {
+            clusterer.dispose();
+        }
+        if (virtualizer != null) {
+            virtualizer.clear();
+        }
+        motionAnimator.dispose();
+        // The map outlives this controller when its view goes back to the MapViewPool.
+        for (MarkerController markerController : markerIdToController.values()) {
+            markerController.remove();
+        }
+        markerIdToController.clear();
+        pendingMaterializations.clear();
+        hitIndex.clear();
+        overlayPool.clear();
     }
 
     void addMarkers(List<Object> markersToAdd) {
@@ -68,14 +192,100 @@ class MarkersController {
     }
 
     void removeMarker(String markerId) {
+        queryIndex.remove(OverlayQueryIndex.MARKERS, markerId);
+        if (clusterer != null && clusterer.contains(markerId)) {
+            clusterer.remove(markerId);
+            return;
+        }
+        if (virtualizer != null) {
+            virtualizer.remove(markerId);
+        }
+        dematerializeMarker(markerId);
+    }
+
+    /**
+     * Creates the overlay of a marker that the clusterer shows on its own. Its icon may have been
+     * evicted from the cache since the marker was last shown; it is then decoded in the background
+     * and the overlay created once it is ready.
+     */
+    void materializeMarker(String markerId, MarkerBuilder markerBuilder) {
+        pendingMaterializations.put(markerId, markerBuilder);
+        updateBatcher.whenIconReady(
+                markerBuilder.build().getIcon(),
+                () -> {
+                    if (pendingMaterializations.get(markerId) != markerBuilder) {
+                        return;
+                    }
+                    pendingMaterializations.remove(markerId);
+                    addMarker(markerId, markerBuilder);
+                });
+    }
+
+    /** Removes the overlay of a marker, keeping it in the clusterer if it is clustered. */
+    void dematerializeMarker(String markerId) {
+        pendingMaterializations.remove(markerId);
         final MarkerController markerController = markerIdToController.remove(markerId);
         if (markerController != null) {
+            motionAnimator.cancel(markerId);
             markerController.remove();
-            naverMapsMarkerIdToDartMarkerId.remove(markerController.getNaverMapsMarkerId());
         }
     }
 
+    /**
+     * Moves each marker along its track, see {@link MarkerMotionAnimator}. Markers without an
+     * overlay because they are clustered or off screen jump to the end of their track.
+     */
+    void animateMarkers(
+            List<Object> markerIds,
+            List<Object> tracks,
+            boolean rotateToHeading,
+            MethodChannel.Result result) {
+        if (markerIds == null || tracks == null || markerIds.size() != tracks.size()) {
+            result.error("error", "markers#animate needs one track per marker", null);
+            return;
+        }
+        try {
+            for (int i = 0; i < markerIds.size(); i++) {
+                String markerId = (String) markerIds.get(i);
+                double[] track = (double[]) tracks.get(i);
+                MarkerController markerController = markerIdToController.get(markerId);
+                if (markerController != null) {
+                    motionAnimator.start(markerId, markerController, track, rotateToHeading);
+                    // Queries see animated markers at the end of their track.
+                    if (track.length >= 3) {
+                        queryIndex.putMarker(
+                                markerId,
+                                new LatLng(track[track.length - 3], track[track.length - 2]));
+                    }
+                    continue;
+                }
+                MarkerBuilder markerBuilder = deferredMarker(markerId);
+                if (markerBuilder != null && track.length >= 3) {
+                    LatLng from = markerBuilder.build().getPosition();
+                    LatLng to = new LatLng(track[track.length - 3], track[track.length - 2]);
+                    if (rotateToHeading && from != null && !from.equals(to)) {
+                        markerBuilder.setRotation(
+                                MarkerMotionAnimator.bearing(
+                                        from.latitude, from.longitude, to.latitude, to.longitude));
+                    }
+                    markerBuilder.setPosition(to);
+                    queryIndex.putMarker(markerId, to);
+                    onDeferredMarkerChanged(markerId, markerBuilder);
+                }
+            }
+        } catch (RuntimeException e) {
+            result.error("error", e.getMessage(), null);
+            return;
+        }
+        result.success(null);
+    }
+
     void showMarkerInfoWindow(String markerId, MethodChannel.Result result) {
+        // The marker may still be in a batch that hasn't been applied.
+        updateBatcher.afterPendingBatches(result, () -> showMarkerInfoWindowNow(markerId, result));
+    }
+
+    private void showMarkerInfoWindowNow(String markerId, MethodChannel.Result result) {
         MarkerController markerController = markerIdToController.get(markerId);
         if (markerController != null) {
             markerController.showInfoWindow(naverMap);
@@ -86,6 +296,10 @@ class MarkersController {
     }
 
     void hideMarkerInfoWindow(String markerId, MethodChannel.Result result) {
+        updateBatcher.afterPendingBatches(result, () -> hideMarkerInfoWindowNow(markerId, result));
+    }
+
+    private void hideMarkerInfoWindowNow(String markerId, MethodChannel.Result result) {
         MarkerController markerController = markerIdToController.get(markerId);
         if (markerController != null) {
             markerController.hideInfoWindow();
@@ -96,6 +310,10 @@ class MarkersController {
     }
 
     void isInfoWindowShown(String markerId, MethodChannel.Result result) {
+        updateBatcher.afterPendingBatches(result, () -> isInfoWindowShownNow(markerId, result));
+    }
+
+    private void isInfoWindowShownNow(String markerId, MethodChannel.Result result) {
         MarkerController markerController = markerIdToController.get(markerId);
         if (markerController != null) {
             result.success(markerController.isInfoWindowShown());
@@ -104,12 +322,12 @@ class MarkersController {
         }
     }
 
-    boolean onMarkerTap(String googleMarkerId) {
-        String markerId = naverMapsMarkerIdToDartMarkerId.get(googleMarkerId);
+    boolean onMarkerTap(Marker marker) {
+        String markerId = getMarkerId(marker);
         if (markerId == null) {
             return false;
         }
-        methodChannel.invokeMethod("marker#onTap", Convert.markerIdToJson(markerId));
+        eventBus.onOverlayTap(MapEventBus.MARKER_TAP, markerId);
         MarkerController markerController = markerIdToController.get(markerId);
         if (markerController != null) {
             return markerController.consumeTapEvents();
@@ -117,57 +335,62 @@ class MarkersController {
         return false;
     }
 
-    void onMarkerDragEnd(String googleMarkerId, LatLng latLng) {
-        String markerId = naverMapsMarkerIdToDartMarkerId.get(googleMarkerId);
+    void onMarkerDragEnd(Marker marker, LatLng latLng) {
+        String markerId = getMarkerId(marker);
         if (markerId == null) {
             return;
         }
-        final Map<String, Object> data = new HashMap<>();
-        data.put("markerId", markerId);
-        data.put("position", Convert.latLngToJson(latLng));
-        methodChannel.invokeMethod("marker#onDragEnd", data);
+        eventBus.onMarkerDragEnd(markerId, latLng);
     }
 
-    void onInfoWindowTap(String googleMarkerId) {
-        String markerId = naverMapsMarkerIdToDartMarkerId.get(googleMarkerId);
+    void onInfoWindowTap(Marker marker) {
+        String markerId = getMarkerId(marker);
         if (markerId == null) {
             return;
         }
-        methodChannel.invokeMethod("infoWindow#onTap", Convert.markerIdToJson(markerId));
+        eventBus.onOverlayTap(MapEventBus.INFO_WINDOW_TAP, markerId);
     }
 
-    private void addMarker(Object marker) {
+    void addMarker(Object marker) {
         if (marker == null) {
             return;
         }
         MarkerBuilder markerBuilder = new MarkerBuilder();
         String markerId = Convert.interpretMarkerOptions(marker, markerBuilder);
-        MarkerOptions options = markerBuilder.build();
+        queryIndex.putMarker(markerId, markerBuilder.build().getPosition());
+        if (deferMarker(markerId, markerBuilder)) {
+            return;
+        }
+        addMarker(markerId, markerBuilder);
+    }
 
-        addMarker(markerId, options, markerBuilder.consumeTapEvents());
+    void addMarker(MarkerBinaryReader reader, int record) {
+        MarkerBuilder markerBuilder = new MarkerBuilder();
+        String markerId = reader.interpret(record, markerBuilder);
+        queryIndex.putMarker(markerId, markerBuilder.build().getPosition());
+        if (deferMarker(markerId, markerBuilder)) {
+            return;
+        }
+        addMarker(markerId, markerBuilder);
     }
 
-    private void addMarker(String markerId, MarkerOptions markerOptions, boolean consumeTapEvents) {
-        final Marker marker = new Marker();
-        marker.setPosition(markerOptions.getPosition());
-        BitmapDescriptor bitmapDescriptor = markerOptions.getIcon();
-        if (bitmapDescriptor != null) {
-            OverlayImage overlayImage = bitmapDescriptor.toOverlayImage(context);
-            if (overlayImage == null) {
-                return;
-            }
-            marker.setIcon(overlayImage);
+    private void addMarker(String markerId, MarkerBuilder markerBuilder) {
+        BitmapDescriptor bitmapDescriptor = markerBuilder.build().getIcon();
+        if (bitmapDescriptor != null && bitmapDescriptor.toOverlayImage(context) == null) {
+            return;
         }
+        final Marker marker = overlayPool.acquireMarker();
+        MarkerController controller =
+                new MarkerController(context, marker, markerBuilder.consumeTapEvents(), overlayPool);
+        // Through the controller, so that it knows the applied values from the start.
+        markerBuilder.applyTo(controller);
         marker.setMap(naverMap);
-
-        String naverMarkerId = Integer.toString(marker.hashCode());
-        MarkerController controller = new MarkerController(context, marker, consumeTapEvents);
         markerIdToController.put(markerId, controller);
-        naverMapsMarkerIdToDartMarkerId.put(naverMarkerId, markerId);
-        marker.setOnClickListener(overlay -> onMarkerTap(naverMarkerId));
+        // Taps are resolved by the hit index rather than a click listener per marker.
+        controller.setHitTarget(hitIndex, markerId);
     }
 
-    private void changeMarker(Object marker) {
+    void changeMarker(Object marker) {
         if (marker == null) {
             return;
         }
@@ -175,9 +398,74 @@ class MarkersController {
         MarkerController markerController = markerIdToController.get(markerId);
         if (markerController != null) {
             Convert.interpretMarkerOptions(marker, markerController);
+            queryIndex.putMarker(markerId, markerController.marker.getPosition());
+        }
+        MarkerBuilder markerBuilder = deferredMarker(markerId);
+        if (markerBuilder != null) {
+            Convert.interpretMarkerOptions(marker, markerBuilder);
+            queryIndex.putMarker(markerId, markerBuilder.build().getPosition());
+            onDeferredMarkerChanged(markerId, markerBuilder);
         }
     }
 
+    void changeMarker(MarkerBinaryReader reader, int record) {
+        String markerId = reader.markerId(record);
+        MarkerController markerController = markerIdToController.get(markerId);
+        if (markerController != null) {
+            reader.interpret(record, markerController);
+            queryIndex.putMarker(markerId, markerController.marker.getPosition());
+        }
+        MarkerBuilder markerBuilder = deferredMarker(markerId);
+        if (markerBuilder != null) {
+            reader.interpret(record, markerBuilder);
+            queryIndex.putMarker(markerId, markerBuilder.build().getPosition());
+            onDeferredMarkerChanged(markerId, markerBuilder);
+        }
+    }
+
+    /**
+     * Hands a new marker to the clusterer or the virtualizer, which create its overlay when it
+     * becomes visible. Returns false if neither is enabled.
+     */
+    private boolean deferMarker(String markerId, MarkerBuilder markerBuilder) {
+        if (clusterer != null) {
+            clusterer.add(markerId, markerBuilder);
+            return true;
+        }
+        if (virtualizer != null) {
+            virtualizer.put(markerId, markerBuilder, markerBuilder.build().getPosition());
+            return true;
+        }
+        return false;
+    }
+
+    /** Returns the options kept for a clustered or virtualized marker, or null. */
+    private MarkerBuilder deferredMarker(String markerId) {
+        if (clusterer != null && clusterer.contains(markerId)) {
+            return clusterer.getItem(markerId);
+        }
+        if (virtualizer != null && virtualizer.contains(markerId)) {
+            return virtualizer.get(markerId);
+        }
+        return null;
+    }
+
+    private void onDeferredMarkerChanged(String markerId, MarkerBuilder markerBuilder) {
+        if (clusterer != null && clusterer.contains(markerId)) {
+            clusterer.update(markerId);
+        } else if (virtualizer != null) {
+            virtualizer.put(markerId, markerBuilder, markerBuilder.build().getPosition());
+        }
+    }
+
+    /** Returns the Dart id of a marker overlay, or null if it isn't one of this controller's. */
+    private static String getMarkerId(Marker marker) {
+        Object tag = marker.getTag();
+        return tag instanceof OverlayHitIndex.Target
+                ? ((OverlayHitIndex.Target) tag).overlayId
+                : null;
+    }
+
     @SuppressWarnings("unchecked")
     private static String getMarkerId(Object marker) {
         Map<String, Object> markerMap = (Map<String, Object>) marker;
@@ -0,0 +1,203 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.os.Trace;
+
+import androidx.annotation.VisibleForTesting;
+
+import io.flutter.plugin.common.MethodCall;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-method counts, latencies and payload sizes of the method calls handled by a map.
+ *
+ * <p>Each call is also wrapped in an {@link Trace} section named after its method, so calls show
+ * up in system traces. Latency is the time spent on the platform thread; work that a call hands
+ * off, such as batched marker updates, isn't included. Latencies are kept in a histogram with
+ * four buckets per power of two of microseconds, so quantiles are accurate to within 25%. The
+ * payload size is an estimate of the encoded size of the top level of the arguments only: typed
+ * arrays and strings count by their length, and nested lists and maps {@link #ITEM_SIZE} bytes per
+ * item, so that calls aren't slowed down by walking their whole payload. The objects applied are
+ * the items of the list arguments, e.g. the markers added, changed and removed. Must be used on
+ * the main thread.
+ */
+class MethodCallStats {
+
+  // Sub-buckets per power of two; must be a power of two.
+  private static final int SUB_BUCKETS = 4;
+  private static final int SUB_BUCKET_BITS = 2;
+  // Latencies up to 2^31 µs.
+  private static final int BUCKETS = 32 * SUB_BUCKETS;
+  // Assumed encoded size of an item of a nested list or map, and of a number.
+  private static final int ITEM_SIZE = 8;
+  // Trace section names are limited to 127 characters.
+  private static final int MAX_SECTION_NAME_LENGTH = 127;
+
+  private final Map<String, Method> methods = new HashMap<>();
+
+  /** Starts timing {@code method}; pass the result to {@link #end}. */
+  long begin(String method) {
+    final String section = "NaverMap " + method;
+    Trace.beginSection(
+        section.length() > MAX_SECTION_NAME_LENGTH
+            ? section.substring(0, MAX_SECTION_NAME_LENGTH)
+            : section);
+    return System.nanoTime();
+  }
+
+  void end(MethodCall call, long startNanos) {
+    final long micros = (System.nanoTime() - startNanos) / 1000;
+    Trace.endSection();
+    record(call.method, micros, call.arguments);
+  }
+
+  @VisibleForTesting
+  void record(String name, long micros, Object arguments) {
+    Method method = methods.get(name);
+    if (method == null) {
+      method = new Method();
+      methods.put(name, method);
+    }
+    method.count++;
+    method.totalMicros += micros;
+    method.maxMicros = Math.max(method.maxMicros, micros);
+    method.histogram[bucketOf(micros)]++;
+    method.payloadBytes += estimateSize(arguments);
+    method.objects += countObjects(arguments);
+  }
+
+  Map<String, Object> toJson() {
+    final Map<String, Object> data = new HashMap<>();
+    for (Map.Entry<String, Method> entry : methods.entrySet()) {
+      data.put(entry.getKey(), entry.getValue().toJson());
+    }
+    return data;
+  }
+
+  void reset() {
+    methods.clear();
+  }
+
+  @VisibleForTesting
+  static int bucketOf(long micros) {
+    if (micros < SUB_BUCKETS) {
+      return (int) Math.max(0, micros);
+    }
+    // The top bit picks the power of two, the next bits the sub-bucket.
+    final int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+    final int sub = (int) (micros >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return Math.min(BUCKETS - 1, (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub);
+  }
+
+  /** Returns the smallest latency, in microseconds, that falls into {@code bucket}. */
+  @VisibleForTesting
+  static long lowerBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long sub = bucket % SUB_BUCKETS;
+    return (1L << magnitude) + (sub << (magnitude - SUB_BUCKET_BITS));
+  }
+
+  private static long estimateSize(Object arguments) {
+    if (!(arguments instanceof Map)) {
+      return estimateValueSize(arguments);
+    }
+    long size = 1;
+    for (Map.Entry<?, ?> entry : ((Map<?, ?>) arguments).entrySet()) {
+      size += estimateValueSize(entry.getKey()) + estimateValueSize(entry.getValue());
+    }
+    return size;
+  }
+
+  /** Sizes {@code value} without looking into the items of lists and maps. */
+  private static long estimateValueSize(Object value) {
+    if (value == null || value instanceof Boolean) {
+      return 1;
+    }
+    if (value instanceof Number) {
+      return ITEM_SIZE;
+    }
+    if (value instanceof String) {
+      return ((String) value).length();
+    }
+    if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    }
+    if (value instanceof int[]) {
+      return 4L * ((int[]) value).length;
+    }
+    if (value instanceof double[]) {
+      return 8L * ((double[]) value).length;
+    }
+    if (value instanceof List) {
+      return 1 + (long) ITEM_SIZE * ((List<?>) value).size();
+    }
+    if (value instanceof Map) {
+      return 1 + 2L * ITEM_SIZE * ((Map<?, ?>) value).size();
+    }
+    return 1;
+  }
+
+  private static long countObjects(Object arguments) {
+    if (!(arguments instanceof Map)) {
+      return 0;
+    }
+    long count = 0;
+    for (Object value : ((Map<?, ?>) arguments).values()) {
+      if (value instanceof List) {
+        count += ((List<?>) value).size();
+      }
+    }
+    return count;
+  }
+
+  private static final class Method {
+    long count;
+    long totalMicros;
+    long maxMicros;
+    long payloadBytes;
+    long objects;
+    final long[] histogram = new long[BUCKETS];
+
+    Map<String, Object> toJson() {
+      final Map<String, Object> data = new HashMap<>();
+      data.put("count", count);
+      data.put("totalMicros", totalMicros);
+      data.put("maxMicros", maxMicros);
+      data.put("p50Micros", quantile(0.5));
+      data.put("p90Micros", quantile(0.9));
+      data.put("p99Micros", quantile(0.99));
+      data.put("payloadBytes", payloadBytes);
+      data.put("objects", objects);
+      // [lower bound in µs, count] of the non-empty buckets.
+      final List<Object> buckets = new ArrayList<>();
+      for (int i = 0; i < BUCKETS; i++) {
+        if (histogram[i] > 0) {
+          buckets.add(new long[] {lowerBoundOf(i), histogram[i]});
+        }
+      }
+      data.put("histogram", buckets);
+      return data;
+    }
+
+    private long quantile(double q) {
+      final long rank = (long) Math.ceil(q * count);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += histogram[i];
+        if (seen >= rank && seen > 0) {
+          return lowerBoundOf(i);
+        }
+      }
+      return 0;
+    }
+  }
+}
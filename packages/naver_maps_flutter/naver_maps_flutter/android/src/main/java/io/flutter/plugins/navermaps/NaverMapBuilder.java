@@ -18,11 +18,18 @@ import java.util.Map;
 class NaverMapBuilder implements NaverMapOptionsSink {
   private final NaverMapOptions options = new NaverMapOptions();
   private boolean trackCameraPosition = false;
+  private double[] cameraMoveThrottle;
+  private boolean overlayVirtualizationEnabled = false;
+  private boolean markerClusteringEnabled = false;
+  private int markerClusterGridSize = MarkerClusterer.DEFAULT_GRID_SIZE;
+  private int markerClusterMinSize = MarkerClusterer.DEFAULT_MIN_CLUSTER_SIZE;
+  private float markerClusterMaxZoom = MarkerClusterer.DEFAULT_MAX_ZOOM;
   private boolean myLocationEnabled = false;
   private boolean myLocationButtonEnabled = false;
   private boolean indoorEnabled = true;
   private boolean trafficEnabled = false;
   private boolean buildingsEnabled = true;
+  private Object initialOptions;
   private Object initialMarkers;
   private Object initialPolygons;
   private Object initialPolylines;
@@ -34,25 +41,44 @@ class NaverMapBuilder implements NaverMapOptionsSink {
       int id,
       Context context,
       BinaryMessenger binaryMessenger,
-      LifecycleProvider lifecycleProvider) {
+      LifecycleProvider lifecycleProvider,
+      MapViewPool mapViewPool) {
     final NaverMapController controller =
-        new NaverMapController(id, context, binaryMessenger, lifecycleProvider, options);
-    controller.init();
+        new NaverMapController(
+            id, context, binaryMessenger, lifecycleProvider, mapViewPool, options);
+    controller.setInitialOptions(initialOptions);
     controller.setMyLocationEnabled(myLocationEnabled);
     controller.setMyLocationButtonEnabled(myLocationButtonEnabled);
     controller.setIndoorEnabled(indoorEnabled);
     controller.setTrafficEnabled(trafficEnabled);
     controller.setBuildingsEnabled(buildingsEnabled);
     controller.setTrackCameraPosition(trackCameraPosition);
+    if (cameraMoveThrottle != null) {
+      controller.setCameraMoveThrottle(
+          cameraMoveThrottle[0],
+          cameraMoveThrottle[1],
+          cameraMoveThrottle[2],
+          cameraMoveThrottle[3]);
+    }
+    // Must precede the initial objects so that they are virtualized and clustered too.
+    controller.setOverlayVirtualization(overlayVirtualizationEnabled);
+    controller.setMarkerClustering(
+        markerClusteringEnabled, markerClusterGridSize, markerClusterMinSize, markerClusterMaxZoom);
     controller.setInitialMarkers(initialMarkers);
     controller.setInitialPolygons(initialPolygons);
     controller.setInitialPolylines(initialPolylines);
     controller.setInitialCircles(initialCircles);
     controller.setPadding(padding.top, padding.left, padding.bottom, padding.right);
     controller.setInitialTileOverlays(initialTileOverlays);
+    // Last, as a pooled view's map may already be ready and everything above applies to it.
+    controller.init();
     return controller;
   }
 
+  void setInitialOptions(Object initialOptions) {
+    this.initialOptions = initialOptions;
+  }
+
   void setInitialCameraPosition(CameraPosition position) {
     options.camera(position);
   }
@@ -120,6 +146,27 @@ class NaverMapBuilder implements NaverMapOptionsSink {
     this.trackCameraPosition = trackCameraPosition;
   }
 
+  @Override
+  public void setCameraMoveThrottle(
+      double maxRateHz, double minTargetDelta, double minZoomDelta, double minBearingDelta) {
+    this.cameraMoveThrottle =
+        new double[] {maxRateHz, minTargetDelta, minZoomDelta, minBearingDelta};
+  }
+
+  @Override
+  public void setOverlayVirtualization(boolean enabled) {
+    this.overlayVirtualizationEnabled = enabled;
+  }
+
+  @Override
+  public void setMarkerClustering(
+      boolean enabled, int gridSize, int minClusterSize, float maxZoom) {
+    this.markerClusteringEnabled = enabled;
+    this.markerClusterGridSize = gridSize;
+    this.markerClusterMinSize = minClusterSize;
+    this.markerClusterMaxZoom = maxZoom;
+  }
+
   @Override
   public void setRotateGesturesEnabled(boolean rotateGesturesEnabled) {
     options.rotateGesturesEnabled(rotateGesturesEnabled);
@@ -12,6 +12,7 @@ import android.graphics.Bitmap;
 import android.graphics.PointF;
 import android.location.Location;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.View;
 import android.widget.Toast;
@@ -38,6 +39,7 @@ import com.naver.maps.map.indoor.IndoorSelection;
 import com.naver.maps.map.overlay.Marker;
 import com.naver.maps.map.util.FusedLocationSource;
 import com.naver.maps.model.Circle;
+import com.naver.maps.model.OverlayImageCache;
 import com.naver.maps.model.Polygon;
 import com.naver.maps.model.Polyline;
 
@@ -47,9 +49,7 @@ import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.platform.PlatformView;
 
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -91,6 +91,19 @@ final class NaverMapController
     private final PolylinesController polylinesController;
     private final CirclesController circlesController;
     private final TileOverlaysController tileOverlaysController;
+    private final CameraMoveThrottler cameraMoveThrottler;
+    private final MarkerStreamLoader markerStreamLoader;
+    private final MapEventBus eventBus;
+    private final OverlayHitIndex hitIndex;
+    private final OverlayQueryIndex queryIndex;
+    private final MethodCallStats methodCallStats = new MethodCallStats();
+    private final MapViewPool mapViewPool;
+    // Whether mapView came from the pool, already created and without this map's options.
+    private final boolean pooledView;
+    @Nullable
+    private NaverMap pooledMap;
+    private final long createdAtMillis = SystemClock.uptimeMillis();
+    private Object initialOptions;
     private List<Object> initialMarkers;
     private List<Object> initialPolygons;
     private List<Object> initialPolylines;
@@ -106,21 +119,38 @@ final class NaverMapController
             Context context,
             BinaryMessenger binaryMessenger,
             LifecycleProvider lifecycleProvider,
+            MapViewPool mapViewPool,
             NaverMapOptions options) {
         Log.d("NaverMapController", "id:" + id);
         this.id = id;
         this.context = context;
         this.options = options;
-        this.mapView = new MapView(context, options);
+        this.mapViewPool = mapViewPool;
+        // Lite mode can only be chosen when the view is created.
+        final MapViewPool.Entry pooled = options.isLiteModeEnabled() ? null : mapViewPool.acquire();
+        this.pooledView = pooled != null;
+        if (pooled != null) {
+            this.mapView = pooled.mapView;
+            this.pooledMap = pooled.naverMap;
+        } else {
+            this.mapView = new MapView(context, options);
+        }
         this.density = context.getResources().getDisplayMetrics().density;
         methodChannel = new MethodChannel(binaryMessenger, "plugins.flutter.io/naver_maps_" + id);
         methodChannel.setMethodCallHandler(this);
         this.lifecycleProvider = lifecycleProvider;
-        this.markersController = new MarkersController(context, methodChannel);
-        this.polygonsController = new PolygonsController(methodChannel, density);
-        this.polylinesController = new PolylinesController(methodChannel, density);
-        this.circlesController = new CirclesController(methodChannel, density);
-        this.tileOverlaysController = new TileOverlaysController(methodChannel);
+        this.eventBus = new MapEventBus(id, binaryMessenger);
+        this.hitIndex = new OverlayHitIndex(context);
+        this.queryIndex = new OverlayQueryIndex();
+        this.markersController = new MarkersController(context, eventBus, hitIndex, queryIndex);
+        this.polygonsController = new PolygonsController(eventBus, queryIndex, hitIndex, density);
+        this.polylinesController = new PolylinesController(eventBus, queryIndex, hitIndex, density);
+        this.circlesController = new CirclesController(eventBus, queryIndex, hitIndex, density);
+        this.tileOverlaysController =
+                new TileOverlaysController(methodChannel, TileDiskCache.getInstance(context));
+        this.cameraMoveThrottler = new CameraMoveThrottler(eventBus);
+        this.markerStreamLoader =
+                new MarkerStreamLoader(id, binaryMessenger, methodChannel, markersController);
     }
 
     @Override
@@ -130,9 +160,19 @@ final class NaverMapController
 
     void init() {
         lifecycleProvider.getLifecycle().addObserver(this);
+        if (pooledMap != null) {
+            onMapReady(pooledMap);
+            pooledMap = null;
+            return;
+        }
         mapView.getMapAsync(this);
     }
 
+    /** Sets the options the map was created with, to apply to a pooled view once it's ready. */
+    void setInitialOptions(Object initialOptions) {
+        this.initialOptions = initialOptions;
+    }
+
     private void moveCamera(CameraUpdate cameraUpdate) {
         naverMap.moveCamera(cameraUpdate);
     }
@@ -150,6 +190,15 @@ final class NaverMapController
     public void onMapReady(NaverMap naverMap) {
         Log.d("NaverMapController", "onMapReady");
         this.naverMap = naverMap;
+        MapViewPool.recordMapReady(pooledView, SystemClock.uptimeMillis() - createdAtMillis);
+        if (pooledView) {
+            if (options.getCamera() != null) {
+                naverMap.moveCamera(CameraUpdate.toCameraPosition(options.getCamera()));
+            }
+            if (initialOptions != null) {
+                Convert.interpretNaverMapOptions(initialOptions, this);
+            }
+        }
 
         // Map Layer Initialize
         this.naverMap.setIndoorEnabled(this.indoorEnabled);
@@ -172,7 +221,9 @@ final class NaverMapController
         polylinesController.setNaverMap(naverMap);
         circlesController.setNaverMap(naverMap);
         tileOverlaysController.setNaverMap(naverMap);
+        cameraMoveThrottler.setNaverMap(naverMap);
         updateInitialMarkers();
+        markerStreamLoader.onMapReady();
         updateInitialPolygons();
         updateInitialPolylines();
         updateInitialCircles();
@@ -181,7 +232,20 @@ final class NaverMapController
 
     @Override
     public void onMethodCall(MethodCall call, MethodChannel.Result result) {
-        Log.d("NaverMapController", "call.method: " + call.method + ", " + call.arguments);
+        // Dumping large payloads is expensive, so it's opt-in:
+        // adb shell setprop log.tag.NaverMapController DEBUG
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, "call.method: " + call.method + ", " + call.arguments);
+        }
+        final long start = methodCallStats.begin(call.method);
+        try {
+            handleMethodCall(call, result);
+        } finally {
+            methodCallStats.end(call, start);
+        }
+    }
+
+    private void handleMethodCall(MethodCall call, MethodChannel.Result result) {
         switch (call.method) {
             case "map#waitForMap":
                 if (naverMap != null) {
@@ -236,15 +300,18 @@ final class NaverMapController
             case "map#takeSnapshot": {
                 if (naverMap != null) {
                     final MethodChannel.Result _result = result;
+                    final SnapshotEncoder encoder;
+                    try {
+                        encoder = new SnapshotEncoder(call.argument("options"), density);
+                    } catch (RuntimeException e) {
+                        result.error("error", e.getMessage(), null);
+                        break;
+                    }
                     naverMap.takeSnapshot(
                             new NaverMap.SnapshotReadyCallback() {
                                 @Override
                                 public void onSnapshotReady(Bitmap bitmap) {
-                                    ByteArrayOutputStream stream = new ByteArrayOutputStream();
-                                    bitmap.compress(Bitmap.CompressFormat.PNG, 100, stream);
-                                    byte[] byteArray = stream.toByteArray();
-                                    bitmap.recycle();
-                                    _result.success(byteArray);
+                                    encoder.encode(bitmap, _result);
                                 }
                             });
                 } else {
@@ -268,12 +335,31 @@ final class NaverMapController
             }
             case "markers#update": {
                 List<Object> markersToAdd = call.argument("markersToAdd");
-                markersController.addMarkers(markersToAdd);
                 List<Object> markersToChange = call.argument("markersToChange");
-                markersController.changeMarkers(markersToChange);
                 List<Object> markerIdsToRemove = call.argument("markerIdsToRemove");
-                markersController.removeMarkers(markerIdsToRemove);
-                result.success(null);
+                markersController.updateMarkers(
+                        markersToAdd, markersToChange, markerIdsToRemove, result);
+                break;
+            }
+            case "markers#updateBinary": {
+                byte[] data = call.argument("markers");
+                List<Object> icons = call.argument("icons");
+                MarkerBinaryReader reader;
+                try {
+                    reader = new MarkerBinaryReader(data, icons);
+                } catch (RuntimeException e) {
+                    result.error("error", e.getMessage(), null);
+                    break;
+                }
+                markersController.updateMarkersBinary(reader, result);
+                break;
+            }
+            case "markers#animate": {
+                List<Object> markerIds = call.argument("markerIds");
+                List<Object> tracks = call.argument("tracks");
+                Boolean rotateToHeading = call.argument("rotateToHeading");
+                markersController.animateMarkers(
+                        markerIds, tracks, rotateToHeading != null && rotateToHeading, result);
                 break;
             }
             case "markers#showInfoWindow": {
@@ -412,11 +498,82 @@ final class NaverMapController
                 result.success(null);
                 break;
             }
+            case "tileOverlays#setHeatmapPoints": {
+                String tileOverlayId = call.argument("tileOverlayId");
+                double[] points = call.argument("points");
+                Boolean append = call.argument("append");
+                tileOverlaysController.setHeatmapPoints(
+                        tileOverlayId, points, append != null && append);
+                result.success(null);
+                break;
+            }
+            case "tileOverlays#setDiskCacheMaxSize": {
+                Number maxSize = call.argument("maxSize");
+                if (maxSize == null || maxSize.longValue() <= 0) {
+                    result.error(
+                            "Invalid maxSize",
+                            "setDiskCacheMaxSize needs a positive maxSize, got " + maxSize,
+                            null);
+                    break;
+                }
+                tileOverlaysController.setDiskCacheMaxSize(maxSize.longValue());
+                result.success(null);
+                break;
+            }
             case "map#getTileOverlayInfo": {
                 String tileOverlayId = call.argument("tileOverlayId");
                 result.success(tileOverlaysController.getTileOverlayInfo(tileOverlayId));
                 break;
             }
+            case "map#getIconCacheStats": {
+                result.success(Convert.iconCacheStatsToJson(OverlayImageCache.getInstance()));
+                break;
+            }
+            case "map#getPropertyWriteStats": {
+                result.success(PropertyWriteStats.toJson());
+                Boolean reset = call.argument("reset");
+                if (reset != null && reset) {
+                    PropertyWriteStats.reset();
+                }
+                break;
+            }
+            case "map#getMapViewPoolStats": {
+                result.success(MapViewPool.statsToJson());
+                Boolean reset = call.argument("reset");
+                if (reset != null && reset) {
+                    MapViewPool.resetStats();
+                }
+                break;
+            }
+            case "map#getStats": {
+                final Map<String, Object> stats = new HashMap<>();
+                stats.put("methods", methodCallStats.toJson());
+                stats.put("propertyWrites", PropertyWriteStats.toJson());
+                stats.put(
+                        "iconCache", Convert.iconCacheStatsToJson(OverlayImageCache.getInstance()));
+                stats.put("mapViewPool", MapViewPool.statsToJson());
+                result.success(stats);
+                Boolean reset = call.argument("reset");
+                if (reset != null && reset) {
+                    methodCallStats.reset();
+                    PropertyWriteStats.reset();
+                    MapViewPool.resetStats();
+                }
+                break;
+            }
+            case "map#queryOverlays": {
+                final Integer limit = call.argument("limit");
+                try {
+                    result.success(
+                            queryIndex.query(
+                                    call.argument("region"),
+                                    call.argument("types"),
+                                    limit != null ? limit : 0));
+                } catch (RuntimeException e) {
+                    result.error("error", e.getMessage(), null);
+                }
+                break;
+            }
             default:
                 result.notImplemented();
         }
@@ -424,29 +581,22 @@ final class NaverMapController
 
     @Override
     public void onMapClick(LatLng latLng) {
-        final Map<String, Object> arguments = new HashMap<>(2);
-        arguments.put("position", Convert.latLngToJson(latLng));
-        methodChannel.invokeMethod("map#onTap", arguments);
+        eventBus.onMapTap(latLng);
     }
 
     @Override
     public void onMapLongClick(LatLng latLng) {
-        final Map<String, Object> arguments = new HashMap<>(2);
-        arguments.put("position", Convert.latLngToJson(latLng));
-        methodChannel.invokeMethod("map#onLongPress", arguments);
+        eventBus.onMapLongPress(latLng);
     }
 
     @Override
     public void onCameraMoveStarted(int reason) {
-        final Map<String, Object> arguments = new HashMap<>(2);
-        boolean isGesture = reason == CameraUpdate.REASON_GESTURE;
-        arguments.put("isGesture", isGesture);
-        methodChannel.invokeMethod("camera#onMoveStarted", arguments);
+        eventBus.onCameraMoveStarted(reason == CameraUpdate.REASON_GESTURE);
     }
 
     @Override
     public void onInfoWindowClick(Marker marker) {
-        markersController.onInfoWindowTap(Integer.toString(marker.hashCode()));
+        markersController.onInfoWindowTap(marker);
     }
 
     @Override
@@ -454,19 +604,24 @@ final class NaverMapController
         if (!trackCameraPosition) {
             return;
         }
-        final Map<String, Object> arguments = new HashMap<>(2);
-        arguments.put("position", Convert.cameraPositionToJson(naverMap.getCameraPosition()));
-        methodChannel.invokeMethod("camera#onMove", arguments);
+        cameraMoveThrottler.onCameraMove();
     }
 
     @Override
     public void onCameraIdle() {
-        methodChannel.invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
+        tileOverlaysController.onCameraIdle();
+        markersController.onCameraIdle();
+        polygonsController.onCameraIdle();
+        polylinesController.onCameraIdle();
+        if (trackCameraPosition) {
+            cameraMoveThrottler.onCameraIdle();
+        }
+        eventBus.onCameraIdle();
     }
 
     @Override
     public boolean onMarkerClick(Marker marker) {
-        return markersController.onMarkerTap(Integer.toString(marker.hashCode()));
+        return markersController.onMarkerTap(marker);
     }
 
     @Override
@@ -479,7 +634,7 @@ final class NaverMapController
 
     @Override
     public void onMarkerDragEnd(Marker marker) {
-        markersController.onMarkerDragEnd(Integer.toString(marker.hashCode()), marker.getPosition());
+        markersController.onMarkerDragEnd(marker, marker.getPosition());
     }
 
     @Override
@@ -504,8 +659,16 @@ final class NaverMapController
         }
         disposed = true;
         methodChannel.setMethodCallHandler(null);
+        markersController.dispose();
+        polygonsController.dispose();
+        polylinesController.dispose();
+        circlesController.dispose();
+        markerStreamLoader.dispose();
+        tileOverlaysController.dispose();
+        cameraMoveThrottler.cancel();
+        eventBus.dispose();
         setNaverMapListener(null);
-        destroyMapViewIfNecessary();
+        releaseMapView();
         Lifecycle lifecycle = lifecycleProvider.getLifecycle();
         if (lifecycle != null) {
             lifecycle.removeObserver(this);
@@ -557,7 +720,7 @@ final class NaverMapController
     @Override
     public void onCreate(@NonNull LifecycleOwner owner) {
         Log.d("NaverMapController", "------- onCreate");
-        if (disposed) {
+        if (disposed || pooledView) {
             return;
         }
         mapView.onCreate(null);
@@ -612,7 +775,7 @@ final class NaverMapController
     @Override
     public void onRestoreInstanceState(Bundle bundle) {
         Log.d("NaverMapController", "------- onRestoreInstanceState");
-        if (disposed) {
+        if (disposed || pooledView) {
             return;
         }
         mapView.onCreate(bundle);
@@ -677,6 +840,29 @@ final class NaverMapController
     @Override
     public void setTrackCameraPosition(boolean trackCameraPosition) {
         this.trackCameraPosition = trackCameraPosition;
+        if (!trackCameraPosition) {
+            cameraMoveThrottler.cancel();
+        }
+    }
+
+    @Override
+    public void setCameraMoveThrottle(
+            double maxRateHz, double minTargetDelta, double minZoomDelta, double minBearingDelta) {
+        cameraMoveThrottler.setMaxRate(maxRateHz);
+        cameraMoveThrottler.setMinDeltas(minTargetDelta, minZoomDelta, minBearingDelta);
+    }
+
+    @Override
+    public void setOverlayVirtualization(boolean enabled) {
+        markersController.setVirtualized(enabled);
+        polygonsController.setVirtualized(enabled);
+        polylinesController.setVirtualized(enabled);
+    }
+
+    @Override
+    public void setMarkerClustering(
+            boolean enabled, int gridSize, int minClusterSize, float maxZoom) {
+        markersController.setClustering(enabled, gridSize, minClusterSize, maxZoom);
     }
 
     @Override
@@ -771,7 +957,8 @@ final class NaverMapController
     }
 
     private void updateInitialMarkers() {
-        markersController.addMarkers(initialMarkers);
+        // Applied across frames so that a large initial set doesn't hold up the first frame.
+        markerStreamLoader.loadInitialMarkers(initialMarkers);
     }
 
     @Override
@@ -865,6 +1052,18 @@ final class NaverMapController
                 permission, android.os.Process.myPid(), android.os.Process.myUid());
     }
 
+    /** Hands the view back to the pool, or destroys it if the pool doesn't take it. */
+    private void releaseMapView() {
+        if (mapView == null) {
+            return;
+        }
+        if (!options.isLiteModeEnabled() && mapViewPool.release(mapView, naverMap)) {
+            mapView = null;
+            return;
+        }
+        destroyMapViewIfNecessary();
+    }
+
     private void destroyMapViewIfNecessary() {
         if (mapView == null) {
             return;
@@ -893,6 +1092,8 @@ final class NaverMapController
 
     @Override
     public void onCameraChange(int reason, boolean animated) {
+        // The SDK reports moves through this listener only.
+        onCameraMove();
     }
 
     @Override
@@ -905,6 +1106,13 @@ final class NaverMapController
 
     @Override
     public void onMapClick(@NonNull PointF pointF, @NonNull LatLng latLng) {
+        // Overlays under the tap get it topmost first, until one consumes it.
+        for (OverlayHitIndex.Target target : hitIndex.hitTest(naverMap, pointF, latLng)) {
+            eventBus.onOverlayTap(target.tapEvent, target.overlayId);
+            if (target.consumeTapEvents()) {
+                return;
+            }
+        }
         // Connect with google maps interface
         onMapClick(latLng);
     }
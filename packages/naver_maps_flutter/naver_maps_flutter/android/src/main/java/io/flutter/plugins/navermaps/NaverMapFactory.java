@@ -19,11 +19,16 @@ public class NaverMapFactory extends PlatformViewFactory {
 
   private final BinaryMessenger binaryMessenger;
   private final LifecycleProvider lifecycleProvider;
+  private final MapViewPool mapViewPool;
 
-  NaverMapFactory(BinaryMessenger binaryMessenger, LifecycleProvider lifecycleProvider) {
+  NaverMapFactory(
+      BinaryMessenger binaryMessenger,
+      LifecycleProvider lifecycleProvider,
+      MapViewPool mapViewPool) {
     super(StandardMessageCodec.INSTANCE);
     this.binaryMessenger = binaryMessenger;
     this.lifecycleProvider = lifecycleProvider;
+    this.mapViewPool = mapViewPool;
   }
 
   @SuppressWarnings("unchecked")
@@ -33,6 +38,7 @@ public class NaverMapFactory extends PlatformViewFactory {
     final NaverMapBuilder builder = new NaverMapBuilder();
 
     Convert.interpretNaverMapOptions(params.get("options"), builder);
+    builder.setInitialOptions(params.get("options"));
     if (params.containsKey("initialCameraPosition")) {
       CameraPosition position = Convert.toCameraPosition(params.get("initialCameraPosition"));
       builder.setInitialCameraPosition(position);
@@ -52,6 +58,6 @@ public class NaverMapFactory extends PlatformViewFactory {
     if (params.containsKey("tileOverlaysToAdd")) {
       builder.setInitialTileOverlays((List<Map<String, ?>>) params.get("tileOverlaysToAdd"));
     }
-    return builder.build(id, context, binaryMessenger, lifecycleProvider);
+    return builder.build(id, context, binaryMessenger, lifecycleProvider, mapViewPool);
   }
 }
@@ -30,6 +30,22 @@ interface NaverMapOptionsSink {
 
   void setTrackCameraPosition(boolean trackCameraPosition);
 
+  /**
+   * Limits {@code camera#onMove} to {@code maxRateHz} and drops moves smaller than the given target
+   * (degrees), zoom and bearing (degrees) deltas.
+   */
+  void setCameraMoveThrottle(
+      double maxRateHz, double minTargetDelta, double minZoomDelta, double minBearingDelta);
+
+  /** Only backs the markers, polygons and polylines within the visible region with overlays. */
+  void setOverlayVirtualization(boolean enabled);
+
+  /**
+   * Clusters markers into cells of {@code gridSize} logical pixels holding at least {@code
+   * minClusterSize} markers, up to zoom level {@code maxZoom}.
+   */
+  void setMarkerClustering(boolean enabled, int gridSize, int minClusterSize, float maxZoom);
+
   void setZoomGesturesEnabled(boolean zoomGesturesEnabled);
 
   void setLiteModeEnabled(boolean liteModeEnabled);
@@ -23,6 +23,8 @@ import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
 import io.flutter.embedding.engine.plugins.lifecycle.FlutterLifecycleAdapter;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.view.TextureRegistry;
 
 /**
  * Plugin for controlling a set of NaverMap views to be shown as overlays on top of the Flutter
@@ -33,6 +35,10 @@ import io.flutter.embedding.engine.plugins.lifecycle.FlutterLifecycleAdapter;
 public class NaverMapsPlugin implements FlutterPlugin, ActivityAware {
 
   @Nullable private Lifecycle lifecycle;
+  @Nullable private BinaryMessenger binaryMessenger;
+  @Nullable private TextureRegistry textureRegistry;
+  @Nullable private StaticMapRenderer staticMapRenderer;
+  private final MapViewPool mapViewPool = new MapViewPool();
 
   private static final String VIEW_TYPE = "plugins.flutter.io/naver_maps";
 
@@ -57,13 +63,15 @@ public class NaverMapsPlugin implements FlutterPlugin, ActivityAware {
                     public Lifecycle getLifecycle() {
                       return ((LifecycleOwner) activity).getLifecycle();
                     }
-                  }));
+                  },
+                  new MapViewPool()));
     } else {
       registrar
           .platformViewRegistry()
           .registerViewFactory(
               VIEW_TYPE,
-              new NaverMapFactory(registrar.messenger(), new ProxyLifecycleProvider(activity)));
+              new NaverMapFactory(
+                  registrar.messenger(), new ProxyLifecycleProvider(activity), new MapViewPool()));
     }
   }
 
@@ -73,6 +81,8 @@ public class NaverMapsPlugin implements FlutterPlugin, ActivityAware {
 
   @Override
   public void onAttachedToEngine(FlutterPluginBinding binding) {
+    binaryMessenger = binding.getBinaryMessenger();
+    textureRegistry = binding.getTextureRegistry();
     binding
         .getPlatformViewRegistry()
         .registerViewFactory(
@@ -85,11 +95,14 @@ public class NaverMapsPlugin implements FlutterPlugin, ActivityAware {
                   public Lifecycle getLifecycle() {
                     return lifecycle;
                   }
-                }));
+                },
+                mapViewPool));
   }
 
   @Override
   public void onDetachedFromEngine(FlutterPluginBinding binding) {
+    binaryMessenger = null;
+    textureRegistry = null;
   }
 
   // ActivityAware
@@ -101,11 +114,19 @@ public class NaverMapsPlugin implements FlutterPlugin, ActivityAware {
 //      }
 
     lifecycle = FlutterLifecycleAdapter.getActivityLifecycle(binding);
+    staticMapRenderer =
+        new StaticMapRenderer(binding.getActivity(), binaryMessenger, textureRegistry);
+    mapViewPool.warmUp(binding.getActivity());
   }
 
   @Override
   public void onDetachedFromActivity() {
     lifecycle = null;
+    if (staticMapRenderer != null) {
+      staticMapRenderer.dispose();
+      staticMapRenderer = null;
+    }
+    mapViewPool.clear();
   }
 
   @Override
@@ -0,0 +1,447 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.content.Context;
+import android.graphics.PointF;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.Projection;
+import com.naver.maps.map.overlay.Marker;
+import com.naver.maps.map.overlay.OverlayImage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves map taps to the markers, polylines, polygons and circles under them, instead of a click
+ * listener on every overlay.
+ *
+ * <p>Each indexed overlay is a {@link Target} with a stable int id, kept in an {@link RTree} by
+ * the geographic bounds of its anchor point or shape. A tap looks up the targets near it, checks
+ * them against their on-screen extent plus a {@link #TAP_TOLERANCE_DP} tolerance, and returns the
+ * hits topmost first. Targets only mark themselves dirty when they change, e.g. on every frame of
+ * a marker animation; the tree catches up on the next tap. Must be used on the main thread.
+ */
+class OverlayHitIndex {
+
+  // Slack around each overlay that still counts as a hit.
+  private static final float TAP_TOLERANCE_DP = 4;
+  // Global z-indexes of the overlay kinds, as drawn by the SDK.
+  private static final int MARKER_GLOBAL_Z_INDEX = Marker.GLOBAL_Z_INDEX;
+  private static final int SHAPE_GLOBAL_Z_INDEX = -200000;
+
+  private static final Comparator<Target> TOPMOST_FIRST =
+      new Comparator<Target>() {
+        @Override
+        public int compare(Target a, Target b) {
+          if (a.globalZIndex != b.globalZIndex) {
+            return Integer.compare(b.globalZIndex, a.globalZIndex);
+          }
+          if (a.zIndex != b.zIndex) {
+            return Integer.compare(b.zIndex, a.zIndex);
+          }
+          // Later overlays are drawn on top.
+          return Integer.compare(b.id, a.id);
+        }
+      };
+
+  private final Context context;
+  private final float tolerance;
+  private final RTree<Target> tree = new RTree<>();
+  private final List<Target> dirty = new ArrayList<>();
+  private final List<Target> candidates = new ArrayList<>();
+  private int nextId;
+  // Largest distance, in pixels, that an overlay reaches beyond its indexed bounds.
+  private float maxReach;
+
+  OverlayHitIndex(Context context) {
+    this.context = context;
+    this.tolerance = TAP_TOLERANCE_DP * context.getResources().getDisplayMetrics().density;
+  }
+
+  /** Indexes a marker; its position, icon, anchor, visibility and z-index are read from it. */
+  MarkerTarget addMarker(String markerId, MarkerController markerController) {
+    final MarkerTarget target = new MarkerTarget(this, nextId++, markerId, markerController);
+    target.invalidateIcon();
+    return target;
+  }
+
+  /** Indexes a polyline or polygon, per {@code tapEvent}; see {@link PathTarget#setRings}. */
+  PathTarget addPath(
+      byte tapEvent,
+      String overlayId,
+      boolean consumeTapEvents,
+      int zIndex,
+      PathRings rings,
+      float strokeWidth) {
+    final PathTarget target = new PathTarget(this, nextId++, tapEvent, overlayId);
+    target.consumeTapEvents = consumeTapEvents;
+    target.zIndex = zIndex;
+    target.setRings(rings, strokeWidth);
+    return target;
+  }
+
+  CircleTarget addCircle(
+      String circleId, boolean consumeTapEvents, int zIndex, LatLng center, double radius) {
+    final CircleTarget target = new CircleTarget(this, nextId++, circleId);
+    target.consumeTapEvents = consumeTapEvents;
+    target.zIndex = zIndex;
+    target.setCircle(center, radius);
+    return target;
+  }
+
+  void remove(Target target) {
+    target.removed = true;
+    tree.remove(target);
+  }
+
+  void clear() {
+    for (Target target : dirty) {
+      target.removed = true;
+    }
+    dirty.clear();
+    tree.clear();
+  }
+
+  int size() {
+    flush();
+    return tree.size();
+  }
+
+  /**
+   * Returns the targets under {@code point}, the screen location of {@code position}, topmost
+   * first.
+   */
+  List<Target> hitTest(NaverMap naverMap, PointF point, LatLng position) {
+    flush();
+    if (tree.size() == 0) {
+      return Collections.emptyList();
+    }
+    final Projection projection = naverMap.getProjection();
+    // The screen square that any hit must reach into, in geographic bounds; corner by corner
+    // because the map may be rotated or tilted.
+    final float reach = maxReach + tolerance;
+    double minLat = Double.POSITIVE_INFINITY;
+    double minLng = Double.POSITIVE_INFINITY;
+    double maxLat = Double.NEGATIVE_INFINITY;
+    double maxLng = Double.NEGATIVE_INFINITY;
+    for (int corner = 0; corner < 4; corner++) {
+      final LatLng latLng =
+          projection.fromScreenLocation(
+              new PointF(
+                  point.x + ((corner & 1) == 0 ? -reach : reach),
+                  point.y + ((corner & 2) == 0 ? -reach : reach)));
+      minLat = Math.min(minLat, latLng.latitude);
+      minLng = Math.min(minLng, latLng.longitude);
+      maxLat = Math.max(maxLat, latLng.latitude);
+      maxLng = Math.max(maxLng, latLng.longitude);
+    }
+    candidates.clear();
+    tree.search(minLng, minLat, maxLng, maxLat, candidates);
+    final List<Target> hits = new ArrayList<>();
+    for (Target target : candidates) {
+      if (target.hits(projection, point, position, tolerance)) {
+        hits.add(target);
+      }
+    }
+    candidates.clear();
+    Collections.sort(hits, TOPMOST_FIRST);
+    return hits;
+  }
+
+  private void flush() {
+    for (Target target : dirty) {
+      target.dirty = false;
+      if (target.removed) {
+        continue;
+      }
+      final double[] bounds = target.bounds();
+      if (bounds == null) {
+        tree.remove(target);
+      } else {
+        tree.insert(target, bounds[0], bounds[1], bounds[2], bounds[3]);
+        maxReach = Math.max(maxReach, target.reach());
+      }
+    }
+    dirty.clear();
+  }
+
+  /** An indexed overlay. */
+  abstract static class Target {
+    final OverlayHitIndex index;
+    /** Unique within the index, never reused. */
+    final int id;
+    /** The {@link MapEventBus} event type that a tap on this overlay sends. */
+    final byte tapEvent;
+    /** The Dart id of the overlay. */
+    final String overlayId;
+
+    final int globalZIndex;
+    int zIndex;
+    // Hidden shapes can't be hit; markers read their visibility from the marker instead.
+    boolean visible = true;
+    private boolean dirty;
+    private boolean removed;
+
+    Target(OverlayHitIndex index, int id, byte tapEvent, String overlayId, int globalZIndex) {
+      this.index = index;
+      this.id = id;
+      this.tapEvent = tapEvent;
+      this.overlayId = overlayId;
+      this.globalZIndex = globalZIndex;
+    }
+
+    abstract boolean consumeTapEvents();
+
+    void setVisible(boolean visible) {
+      if (this.visible != visible) {
+        this.visible = visible;
+        invalidate();
+      }
+    }
+
+    /** Marks the target for re-indexing before the next tap. */
+    void invalidate() {
+      if (dirty || removed) {
+        return;
+      }
+      dirty = true;
+      index.dirty.add(this);
+    }
+
+    /** Returns {@code [west, south, east, north]}, or null if the target can't be hit. */
+    abstract double[] bounds();
+
+    /** Returns how many pixels the target reaches beyond its bounds. */
+    abstract float reach();
+
+    abstract boolean hits(Projection projection, PointF point, LatLng position, float tolerance);
+  }
+
+  /** A marker, indexed at its position and hit within its icon. */
+  static final class MarkerTarget extends Target {
+    private final MarkerController markerController;
+    private float iconWidth;
+    private float iconHeight;
+    private boolean iconChanged;
+
+    MarkerTarget(
+        OverlayHitIndex index, int id, String markerId, MarkerController markerController) {
+      super(index, id, MapEventBus.MARKER_TAP, markerId, MARKER_GLOBAL_Z_INDEX);
+      this.markerController = markerController;
+    }
+
+    /** Like {@link #invalidate}, and re-measures the icon. */
+    void invalidateIcon() {
+      iconChanged = true;
+      invalidate();
+    }
+
+    @Override
+    boolean consumeTapEvents() {
+      return markerController.consumeTapEvents();
+    }
+
+    @Override
+    double[] bounds() {
+      final Marker marker = markerController.marker;
+      final LatLng position = marker.getPosition();
+      if (!marker.isVisible() || position == null) {
+        return null;
+      }
+      zIndex = marker.getZIndex();
+      if (iconChanged) {
+        iconChanged = false;
+        OverlayImage icon = marker.getIcon();
+        if (icon == null) {
+          icon = Marker.DEFAULT_ICON;
+        }
+        iconWidth = icon.getIntrinsicWidth(index.context);
+        iconHeight = icon.getIntrinsicHeight(index.context);
+      }
+      return new double[] {
+        position.longitude, position.latitude, position.longitude, position.latitude
+      };
+    }
+
+    @Override
+    float reach() {
+      return Math.max(iconWidth, iconHeight);
+    }
+
+    @Override
+    boolean hits(Projection projection, PointF point, LatLng position, float tolerance) {
+      final Marker marker = markerController.marker;
+      final PointF anchor = marker.getAnchor();
+      final PointF screen = projection.toScreenLocation(marker.getPosition());
+      final float left = screen.x - anchor.x * iconWidth;
+      final float top = screen.y - anchor.y * iconHeight;
+      return point.x >= left - tolerance
+          && point.x <= left + iconWidth + tolerance
+          && point.y >= top - tolerance
+          && point.y <= top + iconHeight + tolerance;
+    }
+  }
+
+  /** A polyline, hit near its segments, or a polygon, hit inside its rings. */
+  static final class PathTarget extends Target {
+    boolean consumeTapEvents;
+    // Read in place from the overlay's own points.
+    private PathRings rings;
+    private float strokeWidth;
+
+    PathTarget(OverlayHitIndex index, int id, byte tapEvent, String overlayId) {
+      super(index, id, tapEvent, overlayId, SHAPE_GLOBAL_Z_INDEX);
+    }
+
+    /**
+     * Sets the points and, for polylines, the stroke width in pixels. A tap hits a polygon inside
+     * its rings by the even-odd rule, so holes are left out. The rings aren't copied, so this must
+     * be called again whenever they change.
+     */
+    void setRings(PathRings rings, float strokeWidth) {
+      this.rings = rings;
+      this.strokeWidth = strokeWidth;
+      invalidate();
+    }
+
+    @Override
+    boolean consumeTapEvents() {
+      return consumeTapEvents;
+    }
+
+    @Override
+    double[] bounds() {
+      if (!visible) {
+        return null;
+      }
+      double[] bounds = null;
+      for (int ring = 0; ring < rings.ringCount(); ring++) {
+        for (int i = 0; i < rings.pointCount(ring); i++) {
+          final double lat = rings.latitude(ring, i);
+          final double lng = rings.longitude(ring, i);
+          if (bounds == null) {
+            bounds = new double[] {lng, lat, lng, lat};
+          } else {
+            bounds[0] = Math.min(bounds[0], lng);
+            bounds[1] = Math.min(bounds[1], lat);
+            bounds[2] = Math.max(bounds[2], lng);
+            bounds[3] = Math.max(bounds[3], lat);
+          }
+        }
+      }
+      return bounds;
+    }
+
+    @Override
+    float reach() {
+      return strokeWidth / 2;
+    }
+
+    @Override
+    boolean hits(Projection projection, PointF point, LatLng position, float tolerance) {
+      if (tapEvent == MapEventBus.POLYGON_TAP) {
+        return contains(position);
+      }
+      final float maxDistance = strokeWidth / 2 + tolerance;
+      for (int ring = 0; ring < rings.ringCount(); ring++) {
+        PointF previous = null;
+        for (int i = 0; i < rings.pointCount(ring); i++) {
+          final PointF current =
+              projection.toScreenLocation(
+                  new LatLng(rings.latitude(ring, i), rings.longitude(ring, i)));
+          if (previous != null && distanceToSegment(point, previous, current) <= maxDistance) {
+            return true;
+          }
+          previous = current;
+        }
+      }
+      return false;
+    }
+
+    private boolean contains(LatLng position) {
+      boolean inside = false;
+      for (int ring = 0; ring < rings.ringCount(); ring++) {
+        final int count = rings.pointCount(ring);
+        for (int i = 0, j = count - 1; i < count; j = i++) {
+          final double latI = rings.latitude(ring, i);
+          final double latJ = rings.latitude(ring, j);
+          if ((latI > position.latitude) != (latJ > position.latitude)) {
+            final double lngI = rings.longitude(ring, i);
+            final double lngJ = rings.longitude(ring, j);
+            if (position.longitude
+                < (lngJ - lngI) * (position.latitude - latI) / (latJ - latI) + lngI) {
+              inside = !inside;
+            }
+          }
+        }
+      }
+      return inside;
+    }
+
+    private static double distanceToSegment(PointF p, PointF a, PointF b) {
+      final double dx = b.x - a.x;
+      final double dy = b.y - a.y;
+      final double lengthSquared = dx * dx + dy * dy;
+      double t = lengthSquared == 0 ? 0 : ((p.x - a.x) * dx + (p.y - a.y) * dy) / lengthSquared;
+      t = Math.max(0, Math.min(1, t));
+      return Math.hypot(p.x - (a.x + t * dx), p.y - (a.y + t * dy));
+    }
+  }
+
+  /** A circle, hit within its radius. */
+  static final class CircleTarget extends Target {
+    boolean consumeTapEvents;
+    private LatLng center;
+    // In meters.
+    private double radius;
+
+    CircleTarget(OverlayHitIndex index, int id, String circleId) {
+      super(index, id, MapEventBus.CIRCLE_TAP, circleId, SHAPE_GLOBAL_Z_INDEX);
+    }
+
+    void setCircle(LatLng center, double radius) {
+      this.center = center;
+      this.radius = radius;
+      invalidate();
+    }
+
+    @Override
+    boolean consumeTapEvents() {
+      return consumeTapEvents;
+    }
+
+    @Override
+    double[] bounds() {
+      if (!visible || center == null) {
+        return null;
+      }
+      // Meters per degree of latitude, and of longitude at the center.
+      final double latSpan = radius / 111320;
+      final double lngSpan =
+          radius / (111320 * Math.max(1e-6, Math.cos(Math.toRadians(center.latitude))));
+      return new double[] {
+        center.longitude - lngSpan,
+        center.latitude - latSpan,
+        center.longitude + lngSpan,
+        center.latitude + latSpan
+      };
+    }
+
+    @Override
+    float reach() {
+      return 0;
+    }
+
+    @Override
+    boolean hits(Projection projection, PointF point, LatLng position, float tolerance) {
+      return center.distanceTo(position) <= radius + tolerance * projection.getMetersPerPixel();
+    }
+  }
+}
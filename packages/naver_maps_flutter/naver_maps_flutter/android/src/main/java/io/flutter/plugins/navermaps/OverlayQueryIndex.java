@@ -0,0 +1,402 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The geometry of every marker, polygon, polyline and circle that Dart gave a map, for {@code
+ * map#queryOverlays}, whether or not it is backed by an overlay.
+ *
+ * <p>Each kind is kept in its own {@link RTree} by bounds, so a query only checks the objects
+ * whose bounds intersect the region's. A region is {@code {bounds: [southwest, northeast]}},
+ * {@code {polygon: [point, ...]}} or {@code {circle: [center, radius]}} with points as {@code
+ * [latitude, longitude]} and the radius in meters. An object matches if any part of it lies in
+ * the region; geometry is compared on a plane tangent at the region's center, which is accurate
+ * for regions up to a few hundred kilometers across. Not thread safe.
+ */
+class OverlayQueryIndex {
+
+  static final String MARKERS = "markers";
+  static final String POLYGONS = "polygons";
+  static final String POLYLINES = "polylines";
+  static final String CIRCLES = "circles";
+
+  // Meters per degree of latitude.
+  private static final double METERS_PER_DEGREE = 111320;
+
+  private final Map<String, Layer> layers = new HashMap<>();
+
+  OverlayQueryIndex() {
+    layers.put(MARKERS, new Layer(false));
+    layers.put(POLYGONS, new Layer(false));
+    layers.put(POLYLINES, new Layer(false));
+    layers.put(CIRCLES, new Layer(true));
+  }
+
+  void putMarker(String markerId, LatLng position) {
+    if (position == null) {
+      remove(MARKERS, markerId);
+      return;
+    }
+    layers
+        .get(MARKERS)
+        .put(markerId, PathRings.of(new double[][] {{position.latitude, position.longitude}}), 0);
+  }
+
+  /**
+   * Indexes a polygon, with {@code points} and {@code holes}, or a polyline, with {@code points},
+   * from a copy of its decoded options. Options without points leave the object as it is.
+   */
+  void putPath(String kind, String id, Object options) {
+    final Map<?, ?> data = (Map<?, ?>) options;
+    final Object points = data.get("points");
+    if (points == null) {
+      return;
+    }
+    final List<double[]> rings = new ArrayList<>();
+    rings.add(Convert.toLatLngArray(points));
+    final Object holes = data.get("holes");
+    if (holes != null) {
+      for (Object hole : (List<?>) holes) {
+        rings.add(Convert.toLatLngArray(hole));
+      }
+    }
+    putPath(kind, id, PathRings.of(rings.toArray(new double[0][])));
+  }
+
+  /**
+   * Indexes a polygon or a polyline by a view of its rings, which is read by every query but not
+   * copied; {@code rings} must be put again whenever its vertices change.
+   */
+  void putPath(String kind, String id, PathRings rings) {
+    layers.get(kind).put(id, rings, 0);
+  }
+
+  /** Indexes a circle from its decoded options, which must have a center and a radius. */
+  void putCircle(String circleId, Object options) {
+    final Map<?, ?> data = (Map<?, ?>) options;
+    final Object center = data.get("center");
+    final Object radius = data.get("radius");
+    if (center == null || radius == null) {
+      return;
+    }
+    final LatLng latLng = Convert.toLatLng(center);
+    layers
+        .get(CIRCLES)
+        .put(
+            circleId,
+            PathRings.of(new double[][] {{latLng.latitude, latLng.longitude}}),
+            ((Number) radius).doubleValue());
+  }
+
+  void remove(String kind, String id) {
+    layers.get(kind).remove(id);
+  }
+
+  /**
+   * Returns, for each of {@code kinds}, the ids of its objects in {@code region} as UTF-8 strings
+   * each followed by a 0 byte, and {@code truncated: true} if more than {@code limit} objects
+   * matched in total; a {@code limit} of 0 means no limit.
+   */
+  Map<String, Object> query(Object region, List<?> kinds, int limit) {
+    final Region area = new Region((Map<?, ?>) region);
+    final Map<String, Object> result = new HashMap<>();
+    final List<String> candidates = new ArrayList<>();
+    final ByteArrayOutputStream ids = new ByteArrayOutputStream();
+    int remaining = limit > 0 ? limit : Integer.MAX_VALUE;
+    boolean truncated = false;
+    for (Object kind : kinds) {
+      final Layer layer = layers.get(kind);
+      if (layer == null) {
+        throw new IllegalArgumentException("Unknown overlay kind: " + kind);
+      }
+      candidates.clear();
+      layer.tree.search(area.west, area.south, area.east, area.north, candidates);
+      ids.reset();
+      for (String id : candidates) {
+        if (!area.intersects(kind, layer.geometry.get(id), layer.radii.get(id))) {
+          continue;
+        }
+        if (remaining == 0) {
+          truncated = true;
+          break;
+        }
+        remaining--;
+        final byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        ids.write(bytes, 0, bytes.length);
+        ids.write(0);
+      }
+      result.put((String) kind, ids.toByteArray());
+    }
+    result.put("truncated", truncated);
+    return result;
+  }
+
+  /** The objects of one kind. */
+  private static final class Layer {
+    final RTree<String> tree = new RTree<>();
+    // Markers and circles: their center as a single point. Paths: their rings.
+    final Map<String, PathRings> geometry = new HashMap<>();
+    // In meters, for circles.
+    final Map<String, Double> radii = new HashMap<>();
+    private final boolean circles;
+
+    Layer(boolean circles) {
+      this.circles = circles;
+    }
+
+    void put(String id, PathRings shape, double radius) {
+      double west = Double.POSITIVE_INFINITY;
+      double south = Double.POSITIVE_INFINITY;
+      double east = Double.NEGATIVE_INFINITY;
+      double north = Double.NEGATIVE_INFINITY;
+      for (int ring = 0; ring < shape.ringCount(); ring++) {
+        for (int i = 0; i < shape.pointCount(ring); i++) {
+          final double lat = shape.latitude(ring, i);
+          final double lng = shape.longitude(ring, i);
+          south = Math.min(south, lat);
+          north = Math.max(north, lat);
+          west = Math.min(west, lng);
+          east = Math.max(east, lng);
+        }
+      }
+      if (west > east) {
+        remove(id);
+        return;
+      }
+      if (circles) {
+        final double latSpan = radius / METERS_PER_DEGREE;
+        final double lngSpan = latSpan / cos(south);
+        west -= lngSpan;
+        south -= latSpan;
+        east += lngSpan;
+        north += latSpan;
+        radii.put(id, radius);
+      }
+      geometry.put(id, shape);
+      tree.insert(id, west, south, east, north);
+    }
+
+    void remove(String id) {
+      geometry.remove(id);
+      radii.remove(id);
+      tree.remove(id);
+    }
+  }
+
+  /** A query region, projected on the plane tangent at its center with coordinates in meters. */
+  private static final class Region {
+    final double west;
+    final double south;
+    final double east;
+    final double north;
+    private final double originLat;
+    private final double originLng;
+    private final double lngScale;
+    // [x, y, ...] for a polygon, null for a circle.
+    private final double[] ring;
+    // In meters, for a circle.
+    private final double radius;
+
+    Region(Map<?, ?> data) {
+      final Object bounds = data.get("bounds");
+      final Object polygon = data.get("polygon");
+      final Object circle = data.get("circle");
+      final double[] latLngs;
+      if (bounds != null) {
+        final List<?> corners = (List<?>) bounds;
+        final LatLng southwest = Convert.toLatLng(corners.get(0));
+        final LatLng northeast = Convert.toLatLng(corners.get(1));
+        latLngs =
+            new double[] {
+              southwest.latitude, southwest.longitude,
+              southwest.latitude, northeast.longitude,
+              northeast.latitude, northeast.longitude,
+              northeast.latitude, southwest.longitude
+            };
+        radius = 0;
+      } else if (polygon != null) {
+        latLngs = Convert.toLatLngArray(polygon);
+        if (latLngs.length < 6) {
+          throw new IllegalArgumentException("A polygon region needs at least 3 points");
+        }
+        radius = 0;
+      } else if (circle != null) {
+        final List<?> parts = (List<?>) circle;
+        final LatLng center = Convert.toLatLng(parts.get(0));
+        latLngs = new double[] {center.latitude, center.longitude};
+        radius = ((Number) parts.get(1)).doubleValue();
+      } else {
+        throw new IllegalArgumentException("The region needs bounds, a polygon or a circle");
+      }
+      double minLat = Double.POSITIVE_INFINITY;
+      double minLng = Double.POSITIVE_INFINITY;
+      double maxLat = Double.NEGATIVE_INFINITY;
+      double maxLng = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < latLngs.length; i += 2) {
+        minLat = Math.min(minLat, latLngs[i]);
+        maxLat = Math.max(maxLat, latLngs[i]);
+        minLng = Math.min(minLng, latLngs[i + 1]);
+        maxLng = Math.max(maxLng, latLngs[i + 1]);
+      }
+      originLat = (minLat + maxLat) / 2;
+      originLng = (minLng + maxLng) / 2;
+      lngScale = cos(originLat);
+      final double latSpan = radius / METERS_PER_DEGREE;
+      final double lngSpan = latSpan / lngScale;
+      west = minLng - lngSpan;
+      south = minLat - latSpan;
+      east = maxLng + lngSpan;
+      north = maxLat + latSpan;
+      if (circle != null) {
+        ring = null;
+      } else {
+        ring = new double[latLngs.length];
+        for (int i = 0; i < latLngs.length; i += 2) {
+          ring[i] = x(latLngs[i + 1]);
+          ring[i + 1] = y(latLngs[i]);
+        }
+      }
+    }
+
+    /** Returns whether the shape is in the region; {@code radius} is only used for circles. */
+    boolean intersects(Object kind, PathRings shape, Double radius) {
+      if (MARKERS.equals(kind)) {
+        return distanceTo(x(shape.longitude(0, 0)), y(shape.latitude(0, 0))) == 0;
+      }
+      if (CIRCLES.equals(kind)) {
+        return distanceTo(x(shape.longitude(0, 0)), y(shape.latitude(0, 0))) <= radius;
+      }
+      final boolean closed = POLYGONS.equals(kind);
+      for (int ring = 0; ring < shape.ringCount(); ring++) {
+        final int count = shape.pointCount(ring);
+        for (int i = 0; i < count; i++) {
+          final double ax = x(shape.longitude(ring, i));
+          final double ay = y(shape.latitude(ring, i));
+          if (distanceTo(ax, ay) == 0) {
+            return true;
+          }
+          if (i + 1 == count && !closed) {
+            break;
+          }
+          final int j = (i + 1) % count;
+          if (crosses(ax, ay, x(shape.longitude(ring, j)), y(shape.latitude(ring, j)))) {
+            return true;
+          }
+        }
+      }
+      // A polygon can also contain the whole region.
+      return closed && containsRegion(shape);
+    }
+
+    private double x(double lng) {
+      return (lng - originLng) * lngScale * METERS_PER_DEGREE;
+    }
+
+    private double y(double lat) {
+      return (lat - originLat) * METERS_PER_DEGREE;
+    }
+
+    /** Returns the distance from the point to the region, 0 inside. */
+    private double distanceTo(double px, double py) {
+      if (ring == null) {
+        return Math.max(0, Math.hypot(px, py) - radius);
+      }
+      if (contains(ring, px, py)) {
+        return 0;
+      }
+      double distance = Double.POSITIVE_INFINITY;
+      for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+        distance =
+            Math.min(
+                distance, distanceToSegment(px, py, ring[j], ring[j + 1], ring[i], ring[i + 1]));
+      }
+      return distance;
+    }
+
+    /** Returns whether the segment from a to b enters the region. */
+    private boolean crosses(double ax, double ay, double bx, double by) {
+      if (ring == null) {
+        return distanceToSegment(0, 0, ax, ay, bx, by) <= radius;
+      }
+      for (int i = 0, j = ring.length - 2; i < ring.length; j = i, i += 2) {
+        if (segmentsIntersect(ax, ay, bx, by, ring[j], ring[j + 1], ring[i], ring[i + 1])) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean containsRegion(PathRings rings) {
+      // Any point of the region will do once no edge crosses it; the center is one for circles.
+      final double px = ring == null ? 0 : ring[0];
+      final double py = ring == null ? 0 : ring[1];
+      boolean inside = false;
+      for (int path = 0; path < rings.ringCount(); path++) {
+        final int count = rings.pointCount(path);
+        for (int i = 0, j = count - 1; i < count; j = i++) {
+          final double yi = y(rings.latitude(path, i));
+          final double yj = y(rings.latitude(path, j));
+          if ((yi > py) != (yj > py)) {
+            final double xi = x(rings.longitude(path, i));
+            final double xj = x(rings.longitude(path, j));
+            if (px < (xj - xi) * (py - yi) / (yj - yi) + xi) {
+              inside = !inside;
+            }
+          }
+        }
+      }
+      return inside;
+    }
+  }
+
+  /** Returns whether {@code [x, y, ...]} contains the point, by the even-odd rule. */
+  private static boolean contains(double[] ring, double px, double py) {
+    boolean inside = false;
+    for (int i = 0, j = ring.length - 2; i + 1 < ring.length; j = i, i += 2) {
+      if ((ring[i + 1] > py) != (ring[j + 1] > py)
+          && px
+              < (ring[j] - ring[i]) * (py - ring[i + 1]) / (ring[j + 1] - ring[i + 1]) + ring[i]) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+  private static double distanceToSegment(
+      double px, double py, double ax, double ay, double bx, double by) {
+    final double dx = bx - ax;
+    final double dy = by - ay;
+    final double lengthSquared = dx * dx + dy * dy;
+    double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+    t = Math.max(0, Math.min(1, t));
+    return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
+  }
+
+  private static boolean segmentsIntersect(
+      double ax, double ay, double bx, double by, double cx, double cy, double dx, double dy) {
+    final double d1 = cross(cx, cy, dx, dy, ax, ay);
+    final double d2 = cross(cx, cy, dx, dy, bx, by);
+    final double d3 = cross(ax, ay, bx, by, cx, cy);
+    final double d4 = cross(ax, ay, bx, by, dx, dy);
+    return ((d1 > 0) != (d2 > 0)) && ((d3 > 0) != (d4 > 0));
+  }
+
+  private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+    return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+  }
+
+  private static double cos(double latitude) {
+    return Math.max(1e-6, Math.cos(Math.toRadians(latitude)));
+  }
+}
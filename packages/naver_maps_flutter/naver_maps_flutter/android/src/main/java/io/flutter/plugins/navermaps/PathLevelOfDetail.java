@@ -0,0 +1,216 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A level-of-detail pyramid of a long path: the vertices to keep at every other zoom level, each
+ * simplified with {@link PathSimplifier} to the overlay's {@code simplifyTolerance} at that zoom,
+ * half a dp by default. This is the only place where paths are simplified.
+ *
+ * <p>The pyramid is computed once on a background thread. From {@link #CLIP_MIN_ZOOM} on, the
+ * vertices of stretches of the path that lie entirely outside of the visible region are left out
+ * too; such a stretch is replaced by a straight line between its ends, which stays outside of the
+ * region as well.
+ */
+final class PathLevelOfDetail {
+
+  /** Paths with fewer points are used as is, unless they have a {@code simplifyTolerance}. */
+  static final int MIN_POINTS = 512;
+
+  static final double CLIP_MIN_ZOOM = 12;
+
+  // Zoom from which the full path is used.
+  private static final int FULL_DETAIL_ZOOM = 18;
+  private static final int ZOOM_STEP = 2;
+  private static final double DEFAULT_TOLERANCE = 0.5;
+  // Fraction of the visible span added on each side before clipping.
+  private static final double CLIP_MARGIN = 0.25;
+
+  private static final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapPathLod");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private static final Handler handler = new Handler(Looper.getMainLooper());
+
+  private final double[] latLngs;
+  private final int minPoints;
+  // In dp.
+  private final double tolerance;
+  // Kept vertex indices per level; written once on the executor, read on the main thread.
+  private volatile int[][] levels;
+
+  /**
+   * Returns whether {@code path} is worth a pyramid, given the {@code simplifyTolerance} of its
+   * overlay, zero if it has none.
+   */
+  static boolean appliesTo(List<LatLng> path, double simplifyTolerance) {
+    return path.size() >= MIN_POINTS || (simplifyTolerance > 0 && path.size() > 2);
+  }
+
+  /**
+   * @param points the full path.
+   * @param minPoints the fewest points a simplified path may have, e.g. 3 for a polygon ring.
+   * @param simplifyTolerance in dp, or zero for the default.
+   */
+  PathLevelOfDetail(List<LatLng> points, int minPoints, double simplifyTolerance) {
+    this.minPoints = minPoints;
+    this.tolerance = simplifyTolerance > 0 ? simplifyTolerance : DEFAULT_TOLERANCE;
+    latLngs = new double[points.size() * 2];
+    for (int i = 0; i < points.size(); i++) {
+      latLngs[2 * i] = points.get(i).latitude;
+      latLngs[2 * i + 1] = points.get(i).longitude;
+    }
+  }
+
+  /** Computes the pyramid in the background and runs {@code onReady} on the main thread. */
+  void computeAsync(Runnable onReady) {
+    executor.execute(
+        () -> {
+          compute();
+          handler.post(onReady);
+        });
+  }
+
+  boolean isReady() {
+    return levels != null;
+  }
+
+  /** Returns an id of the vertex set that {@link #pointsFor} returns for {@code zoom}. */
+  static int levelFor(double zoom) {
+    return zoom >= FULL_DETAIL_ZOOM ? -1 : Math.max(0, (int) zoom / ZOOM_STEP);
+  }
+
+  /**
+   * Returns the vertices to show at {@code zoom}, clipped to {@code visibleRegion} from {@link
+   * #CLIP_MIN_ZOOM} on. Must only be called once {@link #isReady()}.
+   */
+  List<LatLng> pointsFor(double zoom, LatLngBounds visibleRegion) {
+    final int level = levelFor(zoom);
+    int[] indices = level >= 0 ? levels[level] : null;
+    if (zoom >= CLIP_MIN_ZOOM && visibleRegion != null) {
+      indices = clip(indices, visibleRegion);
+    }
+    final int count = indices != null ? indices.length : latLngs.length / 2;
+    final List<LatLng> points = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      final int index = indices != null ? indices[i] : i;
+      points.add(new LatLng(latLngs[2 * index], latLngs[2 * index + 1]));
+    }
+    return points;
+  }
+
+  private void compute() {
+    final int count = latLngs.length / 2;
+    final double[] x = new double[count];
+    final double[] y = new double[count];
+    PathSimplifier.project(latLngs, x, y);
+    final int[][] levels = new int[(FULL_DETAIL_ZOOM + ZOOM_STEP - 1) / ZOOM_STEP][];
+    for (int level = 0; level < levels.length; level++) {
+      final double zoom = level * ZOOM_STEP;
+      final boolean[] keep =
+          PathSimplifier.simplify(
+              x, y, tolerance / (PathSimplifier.WORLD_SIZE * Math.pow(2, zoom)));
+      int kept = 0;
+      for (boolean k : keep) {
+        if (k) {
+          kept++;
+        }
+      }
+      if (kept < minPoints) {
+        // Too coarse to keep the shape; fall back to the full path.
+        levels[level] = null;
+        continue;
+      }
+      final int[] indices = new int[kept];
+      for (int i = 0, j = 0; i < count; i++) {
+        if (keep[i]) {
+          indices[j++] = i;
+        }
+      }
+      levels[level] = indices;
+    }
+    this.levels = levels;
+  }
+
+  /** Leaves out the inner vertices of stretches whose bounding box is outside of the region. */
+  private int[] clip(int[] indices, LatLngBounds visibleRegion) {
+    final double latMargin =
+        (visibleRegion.getNorthLatitude() - visibleRegion.getSouthLatitude()) * CLIP_MARGIN;
+    final double lngMargin =
+        (visibleRegion.getEastLongitude() - visibleRegion.getWestLongitude()) * CLIP_MARGIN;
+    final double south = visibleRegion.getSouthLatitude() - latMargin;
+    final double north = visibleRegion.getNorthLatitude() + latMargin;
+    final double west = visibleRegion.getWestLongitude() - lngMargin;
+    final double east = visibleRegion.getEastLongitude() + lngMargin;
+    final int count = indices != null ? indices.length : latLngs.length / 2;
+    final int[] clipped = new int[count];
+    int size = 0;
+    int runStart = 0;
+    // Bounds of the vertices from runStart on.
+    double minLat = Double.POSITIVE_INFINITY;
+    double maxLat = Double.NEGATIVE_INFINITY;
+    double minLng = Double.POSITIVE_INFINITY;
+    double maxLng = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < count; i++) {
+      final int index = indices != null ? indices[i] : i;
+      final double lat = latLngs[2 * index];
+      final double lng = latLngs[2 * index + 1];
+      minLat = Math.min(minLat, lat);
+      maxLat = Math.max(maxLat, lat);
+      minLng = Math.min(minLng, lng);
+      maxLng = Math.max(maxLng, lng);
+      final boolean outside = maxLat < south || minLat > north || maxLng < west || minLng > east;
+      if (outside && i < count - 1) {
+        // Extend the stretch; its inner vertices can go as long as it stays outside.
+        continue;
+      }
+      if (outside || i - runStart <= 1) {
+        // Keep the ends of the stretch only.
+        if (size == 0 || clipped[size - 1] != indexAt(indices, runStart)) {
+          clipped[size++] = indexAt(indices, runStart);
+        }
+        if (i != runStart) {
+          clipped[size++] = index;
+        }
+      } else {
+        // The stretch up to the previous vertex was outside; the one ending here is not.
+        if (size == 0 || clipped[size - 1] != indexAt(indices, runStart)) {
+          clipped[size++] = indexAt(indices, runStart);
+        }
+        if (i - 1 != runStart) {
+          clipped[size++] = indexAt(indices, i - 1);
+        }
+        clipped[size++] = index;
+      }
+      runStart = i;
+      minLat = maxLat = lat;
+      minLng = maxLng = lng;
+    }
+    if (size < minPoints) {
+      return indices;
+    }
+    final int[] result = new int[size];
+    System.arraycopy(clipped, 0, result, 0, size);
+    return result;
+  }
+
+  private static int indexAt(int[] indices, int i) {
+    return indices != null ? indices[i] : i;
+  }
+}
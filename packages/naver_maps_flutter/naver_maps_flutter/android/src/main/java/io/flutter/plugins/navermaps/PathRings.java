@@ -0,0 +1,80 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of the vertices of a polyline, one ring, or of a polygon, its outer ring followed
+ * by its holes, for the indexes that test them without keeping a copy of their own.
+ */
+interface PathRings {
+
+  int ringCount();
+
+  int pointCount(int ring);
+
+  double latitude(int ring, int point);
+
+  double longitude(int ring, int point);
+
+  /** Returns a view of {@code points} followed by {@code holes}, which may be null. */
+  static PathRings of(final List<LatLng> points, final List<List<LatLng>> holes) {
+    final List<List<LatLng>> rest = holes != null ? holes : Collections.<List<LatLng>>emptyList();
+    return new PathRings() {
+      @Override
+      public int ringCount() {
+        return 1 + rest.size();
+      }
+
+      @Override
+      public int pointCount(int ring) {
+        return ring(ring).size();
+      }
+
+      @Override
+      public double latitude(int ring, int point) {
+        return ring(ring).get(point).latitude;
+      }
+
+      @Override
+      public double longitude(int ring, int point) {
+        return ring(ring).get(point).longitude;
+      }
+
+      private List<LatLng> ring(int ring) {
+        return ring == 0 ? points : rest.get(ring - 1);
+      }
+    };
+  }
+
+  /** Returns a view of rings of {@code [latitude, longitude, ...]}. */
+  static PathRings of(final double[][] rings) {
+    return new PathRings() {
+      @Override
+      public int ringCount() {
+        return rings.length;
+      }
+
+      @Override
+      public int pointCount(int ring) {
+        return rings[ring].length / 2;
+      }
+
+      @Override
+      public double latitude(int ring, int point) {
+        return rings[ring][2 * point];
+      }
+
+      @Override
+      public double longitude(int ring, int point) {
+        return rings[ring][2 * point + 1];
+      }
+    };
+  }
+}
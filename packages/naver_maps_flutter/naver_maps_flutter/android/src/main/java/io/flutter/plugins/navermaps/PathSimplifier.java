@@ -0,0 +1,106 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns packed {@code latitude, longitude} pairs into the {@link LatLng} list of a polyline or
+ * polygon, and simplifies projected paths with the Douglas–Peucker algorithm for {@link
+ * PathLevelOfDetail}.
+ */
+final class PathSimplifier {
+
+  // Size of the world in dp at zoom level 0.
+  static final double WORLD_SIZE = 256;
+
+  private PathSimplifier() {}
+
+  /** Returns the points of {@code latLngs}, in one pass. */
+  static List<LatLng> toLatLngs(double[] latLngs) {
+    final int count = latLngs.length / 2;
+    final List<LatLng> points = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      points.add(new LatLng(latLngs[2 * i], latLngs[2 * i + 1]));
+    }
+    return points;
+  }
+
+  /** Projects packed latitude, longitude pairs to Web Mercator world units in [0, 1]. */
+  static void project(double[] latLngs, double[] x, double[] y) {
+    for (int i = 0; i < x.length; i++) {
+      final double sinLat = Math.sin(Math.toRadians(latLngs[2 * i]));
+      x[i] = latLngs[2 * i + 1] / 360 + 0.5;
+      y[i] = 0.5 - Math.log((1 + sinLat) / (1 - sinLat)) / (4 * Math.PI);
+    }
+  }
+
+  /**
+   * Returns which of the projected points to keep for a tolerance in Web Mercator world units.
+   */
+  static boolean[] simplify(double[] x, double[] y, double tolerance) {
+    final int count = x.length;
+    final double squaredTolerance = tolerance * tolerance;
+    final boolean[] keep = new boolean[count];
+    keep[0] = true;
+    keep[count - 1] = true;
+    // Explicit stack of [first, last] ranges, so long tracks can't overflow the call stack.
+    int[] stack = new int[64];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = count - 1;
+    while (top > 0) {
+      final int last = stack[--top];
+      final int first = stack[--top];
+      double maxDistance = 0;
+      int index = -1;
+      for (int i = first + 1; i < last; i++) {
+        final double distance = squaredSegmentDistance(x, y, i, first, last);
+        if (distance > maxDistance) {
+          maxDistance = distance;
+          index = i;
+        }
+      }
+      if (index < 0 || maxDistance <= squaredTolerance) {
+        continue;
+      }
+      keep[index] = true;
+      if (top + 4 > stack.length) {
+        int[] grown = new int[stack.length * 2];
+        System.arraycopy(stack, 0, grown, 0, top);
+        stack = grown;
+      }
+      stack[top++] = first;
+      stack[top++] = index;
+      stack[top++] = index;
+      stack[top++] = last;
+    }
+    return keep;
+  }
+
+  private static double squaredSegmentDistance(
+      double[] x, double[] y, int point, int start, int end) {
+    double px = x[start];
+    double py = y[start];
+    double dx = x[end] - px;
+    double dy = y[end] - py;
+    if (dx != 0 || dy != 0) {
+      final double t = ((x[point] - px) * dx + (y[point] - py) * dy) / (dx * dx + dy * dy);
+      if (t > 1) {
+        px = x[end];
+        py = y[end];
+      } else if (t > 0) {
+        px += dx * t;
+        py += dy * t;
+      }
+    }
+    dx = x[point] - px;
+    dy = y[point] - py;
+    return dx * dx + dy * dy;
+  }
+}
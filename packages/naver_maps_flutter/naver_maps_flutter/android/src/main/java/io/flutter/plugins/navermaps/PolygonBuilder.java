@@ -13,6 +13,7 @@ class PolygonBuilder implements PolygonOptionsSink {
   private final PolygonOptions polygonOptions;
   private final float density;
   private boolean consumeTapEvents;
+  private double simplifyTolerance;
 
   PolygonBuilder(float density) {
     this.polygonOptions = new PolygonOptions();
@@ -27,6 +28,10 @@ class PolygonBuilder implements PolygonOptionsSink {
     return consumeTapEvents;
   }
 
+  double simplifyTolerance() {
+    return simplifyTolerance;
+  }
+
   @Override
   public void setFillColor(int color) {
     polygonOptions.fillColor(color);
@@ -37,6 +42,11 @@ class PolygonBuilder implements PolygonOptionsSink {
     polygonOptions.strokeColor(color);
   }
 
+  @Override
+  public void setSimplifyTolerance(double tolerance) {
+    this.simplifyTolerance = tolerance;
+  }
+
   @Override
   public void setPoints(List<LatLng> points) {
     polygonOptions.addAll(points);
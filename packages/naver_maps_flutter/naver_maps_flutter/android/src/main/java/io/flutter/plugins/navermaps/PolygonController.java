@@ -5,8 +5,10 @@
 package io.flutter.plugins.navermaps;
 
 import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
 import com.naver.maps.model.Polygon;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /** Controller of a single Polygon on the map. */
@@ -15,61 +17,262 @@ class PolygonController implements PolygonOptionsSink {
   private final String googleMapsPolygonId;
   private final float density;
   private boolean consumeTapEvents;
+  // Set while the polygon is tappable on a map.
+  private OverlayHitIndex.PathTarget hitTarget;
 
-  PolygonController(Polygon polygon, boolean consumeTapEvents, float density) {
+  // Last applied values, to skip writes that change nothing.
+  private Boolean appliedClickable;
+  private Integer appliedFillColor;
+  private Integer appliedStrokeColor;
+  private Boolean appliedGeodesic;
+  private Long appliedPointsHash;
+  private Long appliedHolesHash;
+  private Boolean appliedVisible;
+  private Float appliedStrokeWidth;
+  private Float appliedZIndex;
+
+  // Levels of detail of the outer ring and of each hole, null for short ones.
+  private double simplifyTolerance;
+  private PathLevelOfDetail pointsLevelOfDetail;
+  private List<LatLng> points;
+  private List<PathLevelOfDetail> holesLevelOfDetail;
+  private List<List<LatLng>> holes;
+  private int appliedLevel;
+  private double zoom = Double.NaN;
+  private LatLngBounds visibleRegion;
+
+  PolygonController(
+      Polygon polygon, boolean consumeTapEvents, double simplifyTolerance, float density) {
     this.polygon = polygon;
     this.density = density;
     this.consumeTapEvents = consumeTapEvents;
     this.googleMapsPolygonId = polygon.getId();
+    this.simplifyTolerance = simplifyTolerance;
+    this.points = polygon.getPoints();
+    this.holes = polygon.getHoles();
+    computeLevelsOfDetail();
+  }
+
+  /**
+   * Makes the polygon tappable through {@code hitIndex}, which taps resolve to {@code polygonId}.
+   */
+  void setHitTarget(OverlayHitIndex hitIndex, String polygonId) {
+    hitTarget =
+        hitIndex.addPath(
+            MapEventBus.POLYGON_TAP,
+            polygonId,
+            consumeTapEvents,
+            Math.round(polygon.getZIndex()),
+            rings(),
+            0);
+    hitTarget.setVisible(polygon.isVisible());
   }
 
   void remove() {
+    if (hitTarget != null) {
+      hitTarget.index.remove(hitTarget);
+      hitTarget = null;
+    }
+    pointsLevelOfDetail = null;
+    holesLevelOfDetail = null;
     polygon.remove();
   }
 
   @Override
   public void setConsumeTapEvents(boolean consumeTapEvents) {
     this.consumeTapEvents = consumeTapEvents;
+    if (hitTarget != null) {
+      hitTarget.consumeTapEvents = consumeTapEvents;
+    }
+    if (PropertyWriteStats.unchanged(appliedClickable, consumeTapEvents)) {
+      return;
+    }
+    appliedClickable = consumeTapEvents;
     polygon.setClickable(consumeTapEvents);
   }
 
   @Override
   public void setFillColor(int color) {
+    if (PropertyWriteStats.unchanged(appliedFillColor, color)) {
+      return;
+    }
+    appliedFillColor = color;
     polygon.setFillColor(color);
   }
 
   @Override
   public void setStrokeColor(int color) {
+    if (PropertyWriteStats.unchanged(appliedStrokeColor, color)) {
+      return;
+    }
+    appliedStrokeColor = color;
     polygon.setStrokeColor(color);
   }
 
   @Override
   public void setGeodesic(boolean geodesic) {
+    if (PropertyWriteStats.unchanged(appliedGeodesic, geodesic)) {
+      return;
+    }
+    appliedGeodesic = geodesic;
     polygon.setGeodesic(geodesic);
   }
 
   @Override
   public void setPoints(List<LatLng> points) {
+    final long pointsHash = PropertyWriteStats.hashPoints(points);
+    if (PropertyWriteStats.unchanged(appliedPointsHash, pointsHash)) {
+      return;
+    }
+    appliedPointsHash = pointsHash;
+    // Shown in full until the pyramid of a long ring is ready.
+    polygon.setPoints(points);
+    this.points = points;
+    pointsLevelOfDetail = computeLevelOfDetail(points);
+    updateHitRings();
+  }
+
+  @Override
+  public void setSimplifyTolerance(double tolerance) {
+    if (tolerance == simplifyTolerance) {
+      return;
+    }
+    simplifyTolerance = tolerance;
+    // Shown in full until the new pyramids are ready.
     polygon.setPoints(points);
+    polygon.setHoles(holes);
+    computeLevelsOfDetail();
   }
 
   public void setHoles(List<List<LatLng>> holes) {
+    final long holesHash = PropertyWriteStats.hashHoles(holes);
+    if (PropertyWriteStats.unchanged(appliedHolesHash, holesHash)) {
+      return;
+    }
+    appliedHolesHash = holesHash;
     polygon.setHoles(holes);
+    this.holes = holes;
+    computeHolesLevelOfDetail();
+    updateHitRings();
+  }
+
+  private void computeLevelsOfDetail() {
+    pointsLevelOfDetail = computeLevelOfDetail(points);
+    computeHolesLevelOfDetail();
+  }
+
+  private void computeHolesLevelOfDetail() {
+    holesLevelOfDetail = new ArrayList<>(holes.size());
+    for (List<LatLng> hole : holes) {
+      holesLevelOfDetail.add(computeLevelOfDetail(hole));
+    }
+  }
+
+  /**
+   * Returns a view of the full rings, whatever level of detail is shown, which taps and queries are
+   * tested against.
+   */
+  PathRings rings() {
+    return PathRings.of(points, holes);
+  }
+
+  private void updateHitRings() {
+    if (hitTarget != null) {
+      hitTarget.setRings(rings(), 0);
+    }
+  }
+
+  /** Switches long rings to the level of detail of the new camera position. */
+  void onCameraIdle(double zoom, LatLngBounds visibleRegion) {
+    this.zoom = zoom;
+    this.visibleRegion = visibleRegion;
+    applyLevelOfDetail();
+  }
+
+  private PathLevelOfDetail computeLevelOfDetail(List<LatLng> ring) {
+    appliedLevel = Integer.MIN_VALUE;
+    if (!PathLevelOfDetail.appliesTo(ring, simplifyTolerance)) {
+      return null;
+    }
+    final PathLevelOfDetail levelOfDetail = new PathLevelOfDetail(ring, 3, simplifyTolerance);
+    levelOfDetail.computeAsync(
+        () -> {
+          if (levelOfDetail == pointsLevelOfDetail
+              || (holesLevelOfDetail != null && holesLevelOfDetail.contains(levelOfDetail))) {
+            appliedLevel = Integer.MIN_VALUE;
+            applyLevelOfDetail();
+          }
+        });
+    return levelOfDetail;
+  }
+
+  private void applyLevelOfDetail() {
+    if (Double.isNaN(zoom)) {
+      return;
+    }
+    final int level = PathLevelOfDetail.levelFor(zoom);
+    // Clipped rings depend on the visible region, so they are refreshed on every move.
+    if (level == appliedLevel && zoom < PathLevelOfDetail.CLIP_MIN_ZOOM) {
+      return;
+    }
+    boolean changed = false;
+    if (pointsLevelOfDetail != null && pointsLevelOfDetail.isReady()) {
+      polygon.setPoints(pointsLevelOfDetail.pointsFor(zoom, visibleRegion));
+      changed = true;
+    }
+    if (holesLevelOfDetail != null && holes != null) {
+      final List<List<LatLng>> shownHoles = new ArrayList<>(holes.size());
+      boolean holesChanged = false;
+      for (int i = 0; i < holes.size(); i++) {
+        final PathLevelOfDetail levelOfDetail = holesLevelOfDetail.get(i);
+        if (levelOfDetail != null && levelOfDetail.isReady()) {
+          shownHoles.add(levelOfDetail.pointsFor(zoom, visibleRegion));
+          holesChanged = true;
+        } else {
+          shownHoles.add(holes.get(i));
+        }
+      }
+      if (holesChanged) {
+        polygon.setHoles(shownHoles);
+        changed = true;
+      }
+    }
+    if (changed) {
+      appliedLevel = level;
+    }
   }
 
   @Override
   public void setVisible(boolean visible) {
+    if (PropertyWriteStats.unchanged(appliedVisible, visible)) {
+      return;
+    }
+    appliedVisible = visible;
     polygon.setVisible(visible);
+    if (hitTarget != null) {
+      hitTarget.setVisible(visible);
+    }
   }
 
   @Override
   public void setStrokeWidth(float width) {
+    if (PropertyWriteStats.unchanged(appliedStrokeWidth, width)) {
+      return;
+    }
+    appliedStrokeWidth = width;
     polygon.setStrokeWidth(width * density);
   }
 
   @Override
   public void setZIndex(float zIndex) {
+    if (PropertyWriteStats.unchanged(appliedZIndex, zIndex)) {
+      return;
+    }
+    appliedZIndex = zIndex;
     polygon.setZIndex(zIndex);
+    if (hitTarget != null) {
+      hitTarget.zIndex = Math.round(zIndex);
+    }
   }
 
   String getNaverMapsPolygonId() {
@@ -0,0 +1,520 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
+import com.naver.maps.map.NaverMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Columnar store of the polygons of a map while overlay virtualization is on, which only asks its
+ * {@link Host} to materialize overlays for the polygons that are shown, intersect the visible
+ * region plus a margin and are at least {@link #MIN_SIZE_DP} across at the current zoom.
+ *
+ * <p>The vertices of all rings are packed into one {@code int[]} as fixed-point latitude and
+ * longitude pairs, with offset arrays from polygons to their rings and from rings to their
+ * vertices. Per-polygon bounds and styles are kept in parallel arrays indexed by slot. That is 8
+ * bytes per vertex, instead of a {@link LatLng} and a list reference per vertex in both a {@link
+ * PolygonBuilder} and its options. Removed and replaced polygons leave gaps that are compacted
+ * once they outweigh the live data.
+ *
+ * <p>The materialized set is refreshed when the camera becomes idle and after polygons are put or
+ * removed. Must be used on the main thread.
+ */
+final class PolygonGeometryStore {
+
+  /** Creates and destroys the overlays of the polygons that come into and out of view. */
+  interface Host {
+    void attach(String polygonId);
+
+    void detach(String polygonId);
+  }
+
+  // Polygons smaller than this on screen aren't materialized.
+  static final double MIN_SIZE_DP = 2;
+
+  // Vertices are stored in units of 1e-7 degrees, about 1 cm.
+  private static final double SCALE = 1e7;
+  private static final double WORLD_SIZE_DP = 256;
+  // Fraction of the visible span added on each side, so that short pans don't detach anything.
+  private static final double MARGIN = 0.25;
+  // Compaction is skipped while the gaps are smaller than this many vertices.
+  private static final int MIN_COMPACT_POINTS = 4096;
+
+  private static final int VISIBLE = 1;
+  private static final int GEODESIC = 1 << 1;
+  private static final int CONSUME_TAP_EVENTS = 1 << 2;
+  private static final int HAS_FILL_COLOR = 1 << 3;
+  private static final int HAS_STROKE_COLOR = 1 << 4;
+  private static final int HAS_STROKE_WIDTH = 1 << 5;
+  private static final int HAS_Z_INDEX = 1 << 6;
+
+  private final Host host;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable refresh = this::refresh;
+  private final RTree<String> tree = new RTree<>();
+  private final Map<String, Integer> slotById = new HashMap<>();
+  private final Set<String> attached = new HashSet<>();
+  private NaverMap naverMap;
+  private boolean refreshScheduled;
+
+  // Latitude and longitude of each vertex.
+  private int[] coordinates = new int[1024];
+  private int pointCount;
+  // Index of the first vertex of each ring, and pointCount after the last one.
+  private int[] ringStarts = new int[65];
+  private int ringCount;
+
+  // Per slot, in the order polygons were put; a removed polygon's slot has a null id.
+  private String[] ids = new String[16];
+  // Index of the outer ring of each slot, followed by its holes, and ringCount after the last one.
+  private int[] firstRings = new int[17];
+  // South, west, north and east of the outer ring, or NaN without points.
+  private double[] bounds = new double[16 * 4];
+  private int[] fillColors = new int[16];
+  private int[] strokeColors = new int[16];
+  private float[] strokeWidths = new float[16];
+  private float[] zIndices = new float[16];
+  // Zero without one.
+  private float[] simplifyTolerances = new float[16];
+  private byte[] flags = new byte[16];
+  private int slotCount;
+  private int removedPoints;
+  // Changes whenever a slot may have moved, so that views look theirs up again.
+  private int modCount;
+
+  PolygonGeometryStore(Host host) {
+    this.host = host;
+  }
+
+  void setNaverMap(NaverMap naverMap) {
+    this.naverMap = naverMap;
+    scheduleRefresh();
+  }
+
+  boolean contains(String polygonId) {
+    return slotById.containsKey(polygonId);
+  }
+
+  /**
+   * Adds or replaces a polygon from its decoded options. Replacing a materialized polygon doesn't
+   * detach it; its overlay is expected to be updated separately.
+   */
+  void put(String polygonId, Object polygon) {
+    final Collector collector = new Collector();
+    Convert.interpretPolygonOptions(polygon, collector);
+    removeSlot(polygonId);
+    final int slot = appendSlot(polygonId, collector);
+    slotById.put(polygonId, slot);
+    modCount++;
+    final int b = slot * 4;
+    if (Double.isNaN(bounds[b])) {
+      tree.remove(polygonId);
+    } else {
+      tree.insert(polygonId, bounds[b + 1], bounds[b], bounds[b + 3], bounds[b + 2]);
+    }
+    scheduleRefresh();
+  }
+
+  void remove(String polygonId) {
+    if (!removeSlot(polygonId)) {
+      return;
+    }
+    modCount++;
+    tree.remove(polygonId);
+    if (attached.remove(polygonId)) {
+      host.detach(polygonId);
+    }
+    if (removedPoints >= MIN_COMPACT_POINTS && removedPoints > pointCount - removedPoints) {
+      compact();
+    }
+  }
+
+  /** Writes the options of a stored polygon to {@code sink}, e.g. to materialize it. */
+  void apply(String polygonId, PolygonOptionsSink sink) {
+    final Integer slot = slotById.get(polygonId);
+    if (slot == null) {
+      return;
+    }
+    final int flag = flags[slot];
+    sink.setConsumeTapEvents((flag & CONSUME_TAP_EVENTS) != 0);
+    sink.setGeodesic((flag & GEODESIC) != 0);
+    sink.setVisible((flag & VISIBLE) != 0);
+    if ((flag & HAS_FILL_COLOR) != 0) {
+      sink.setFillColor(fillColors[slot]);
+    }
+    if ((flag & HAS_STROKE_COLOR) != 0) {
+      sink.setStrokeColor(strokeColors[slot]);
+    }
+    if ((flag & HAS_STROKE_WIDTH) != 0) {
+      sink.setStrokeWidth(strokeWidths[slot]);
+    }
+    if ((flag & HAS_Z_INDEX) != 0) {
+      sink.setZIndex(zIndices[slot]);
+    }
+    if (simplifyTolerances[slot] > 0) {
+      sink.setSimplifyTolerance(simplifyTolerances[slot]);
+    }
+    final int firstRing = firstRings[slot];
+    final int endRing = firstRings[slot + 1];
+    if (firstRing == endRing) {
+      return;
+    }
+    sink.setPoints(ringAt(firstRing));
+    final List<List<LatLng>> holes = new ArrayList<>(endRing - firstRing - 1);
+    for (int ring = firstRing + 1; ring < endRing; ring++) {
+      holes.add(ringAt(ring));
+    }
+    sink.setHoles(holes);
+  }
+
+  /**
+   * Returns a live view of the rings of a polygon, for indexes that would otherwise copy them. The
+   * view follows later puts of the polygon and has no rings once it is removed.
+   */
+  PathRings rings(String polygonId) {
+    return new Rings(polygonId);
+  }
+
+  void onCameraIdle() {
+    scheduleRefresh();
+  }
+
+  /** Attaches every polygon, e.g. before virtualization is turned off. */
+  void attachAll() {
+    for (int slot = 0; slot < slotCount; slot++) {
+      final String id = ids[slot];
+      if (id != null && attached.add(id)) {
+        host.attach(id);
+      }
+    }
+  }
+
+  void clear() {
+    handler.removeCallbacks(refresh);
+    refreshScheduled = false;
+    slotById.clear();
+    attached.clear();
+    tree.clear();
+    Arrays.fill(ids, 0, slotCount, null);
+    pointCount = 0;
+    ringCount = 0;
+    slotCount = 0;
+    removedPoints = 0;
+    ringStarts[0] = 0;
+    firstRings[0] = 0;
+    modCount++;
+  }
+
+  private List<LatLng> ringAt(int ring) {
+    final int start = ringStarts[ring];
+    final int end = ringStarts[ring + 1];
+    final List<LatLng> points = new ArrayList<>(end - start);
+    for (int i = start; i < end; i++) {
+      points.add(new LatLng(coordinates[2 * i] / SCALE, coordinates[2 * i + 1] / SCALE));
+    }
+    return points;
+  }
+
+  private int appendSlot(String polygonId, Collector collector) {
+    final int slot = slotCount;
+    if (slot == ids.length) {
+      final int capacity = slot * 2;
+      ids = Arrays.copyOf(ids, capacity);
+      firstRings = Arrays.copyOf(firstRings, capacity + 1);
+      bounds = Arrays.copyOf(bounds, capacity * 4);
+      fillColors = Arrays.copyOf(fillColors, capacity);
+      strokeColors = Arrays.copyOf(strokeColors, capacity);
+      strokeWidths = Arrays.copyOf(strokeWidths, capacity);
+      zIndices = Arrays.copyOf(zIndices, capacity);
+      simplifyTolerances = Arrays.copyOf(simplifyTolerances, capacity);
+      flags = Arrays.copyOf(flags, capacity);
+    }
+    ids[slot] = polygonId;
+    flags[slot] = (byte) collector.flags;
+    fillColors[slot] = collector.fillColor;
+    strokeColors[slot] = collector.strokeColor;
+    strokeWidths[slot] = collector.strokeWidth;
+    zIndices[slot] = collector.zIndex;
+    simplifyTolerances[slot] = (float) collector.simplifyTolerance;
+    Arrays.fill(bounds, slot * 4, slot * 4 + 4, Double.NaN);
+    if (collector.points != null && !collector.points.isEmpty()) {
+      appendRing(collector.points);
+      if (collector.holes != null) {
+        for (List<LatLng> hole : collector.holes) {
+          appendRing(hole);
+        }
+      }
+      final LatLngBounds outer = Convert.boundsOf(collector.points);
+      bounds[slot * 4] = outer.getSouthLatitude();
+      bounds[slot * 4 + 1] = outer.getWestLongitude();
+      bounds[slot * 4 + 2] = outer.getNorthLatitude();
+      bounds[slot * 4 + 3] = outer.getEastLongitude();
+    }
+    slotCount++;
+    firstRings[slotCount] = ringCount;
+    return slot;
+  }
+
+  private void appendRing(List<LatLng> ring) {
+    if (ringCount + 2 > ringStarts.length) {
+      ringStarts = Arrays.copyOf(ringStarts, ringStarts.length * 2);
+    }
+    final int needed = 2 * (pointCount + ring.size());
+    if (needed > coordinates.length) {
+      coordinates = Arrays.copyOf(coordinates, Math.max(needed, coordinates.length * 2));
+    }
+    for (LatLng point : ring) {
+      coordinates[2 * pointCount] = (int) Math.round(point.latitude * SCALE);
+      coordinates[2 * pointCount + 1] = (int) Math.round(point.longitude * SCALE);
+      pointCount++;
+    }
+    ringCount++;
+    ringStarts[ringCount] = pointCount;
+  }
+
+  private boolean removeSlot(String polygonId) {
+    final Integer slot = slotById.remove(polygonId);
+    if (slot == null) {
+      return false;
+    }
+    ids[slot] = null;
+    removedPoints += ringStarts[firstRings[slot + 1]] - ringStarts[firstRings[slot]];
+    return true;
+  }
+
+  /** Moves the live polygons over the gaps left by removed ones, keeping their order. */
+  private void compact() {
+    int slots = 0;
+    int rings = 0;
+    int points = 0;
+    for (int slot = 0; slot < slotCount; slot++) {
+      final String id = ids[slot];
+      if (id == null) {
+        continue;
+      }
+      final int firstRing = firstRings[slot];
+      final int endRing = firstRings[slot + 1];
+      final int firstPoint = ringStarts[firstRing];
+      final int endPoint = ringStarts[endRing];
+      System.arraycopy(
+          coordinates, 2 * firstPoint, coordinates, 2 * points, 2 * (endPoint - firstPoint));
+      for (int ring = firstRing; ring < endRing; ring++) {
+        ringStarts[rings + ring - firstRing] = ringStarts[ring] - firstPoint + points;
+      }
+      ids[slots] = id;
+      firstRings[slots] = rings;
+      System.arraycopy(bounds, slot * 4, bounds, slots * 4, 4);
+      fillColors[slots] = fillColors[slot];
+      strokeColors[slots] = strokeColors[slot];
+      strokeWidths[slots] = strokeWidths[slot];
+      zIndices[slots] = zIndices[slot];
+      simplifyTolerances[slots] = simplifyTolerances[slot];
+      flags[slots] = flags[slot];
+      slotById.put(id, slots);
+      slots++;
+      rings += endRing - firstRing;
+      points += endPoint - firstPoint;
+    }
+    Arrays.fill(ids, slots, slotCount, null);
+    slotCount = slots;
+    ringCount = rings;
+    pointCount = points;
+    firstRings[slotCount] = ringCount;
+    ringStarts[ringCount] = pointCount;
+    removedPoints = 0;
+    modCount++;
+  }
+
+  private void scheduleRefresh() {
+    if (refreshScheduled) {
+      return;
+    }
+    refreshScheduled = true;
+    // Coalesces the changes of a whole update batch into a single refresh.
+    handler.post(refresh);
+  }
+
+  private void refresh() {
+    refreshScheduled = false;
+    if (naverMap == null || (slotById.isEmpty() && attached.isEmpty())) {
+      return;
+    }
+    final LatLngBounds region = naverMap.getContentBounds();
+    final double marginX = (region.getEastLongitude() - region.getWestLongitude()) * MARGIN;
+    final double marginY = (region.getNorthLatitude() - region.getSouthLatitude()) * MARGIN;
+    final List<String> candidates = new ArrayList<>();
+    tree.search(
+        region.getWestLongitude() - marginX,
+        region.getSouthLatitude() - marginY,
+        region.getEastLongitude() + marginX,
+        region.getNorthLatitude() + marginY,
+        candidates);
+    // The smallest span, as a fraction of the world, that is MIN_SIZE_DP across on screen.
+    final double minSpan =
+        MIN_SIZE_DP / (WORLD_SIZE_DP * Math.pow(2, naverMap.getCameraPosition().zoom));
+    final Set<String> visibleIds = new HashSet<>();
+    for (String id : candidates) {
+      final int slot = slotById.get(id);
+      if ((flags[slot] & VISIBLE) != 0 && spanOf(slot) >= minSpan) {
+        visibleIds.add(id);
+      }
+    }
+    final Iterator<String> iterator = attached.iterator();
+    while (iterator.hasNext()) {
+      final String id = iterator.next();
+      if (!visibleIds.contains(id)) {
+        iterator.remove();
+        host.detach(id);
+      }
+    }
+    for (String id : visibleIds) {
+      if (attached.add(id)) {
+        host.attach(id);
+      }
+    }
+  }
+
+  /** Returns the larger side of the bounds of a slot in Web Mercator, as a fraction of the world. */
+  private double spanOf(int slot) {
+    final int b = slot * 4;
+    final double width = (bounds[b + 3] - bounds[b + 1]) / 360;
+    final double height = mercatorY(bounds[b + 2]) - mercatorY(bounds[b]);
+    return Math.max(width, height);
+  }
+
+  private static double mercatorY(double latitude) {
+    final double sin = Math.sin(Math.toRadians(Math.max(-85.0511, Math.min(85.0511, latitude))));
+    return Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+  }
+
+  /** The rings of one polygon, read from the packed arrays. */
+  private final class Rings implements PathRings {
+    private final String polygonId;
+    private int firstRing;
+    private int endRing;
+    private int viewModCount = -1;
+
+    Rings(String polygonId) {
+      this.polygonId = polygonId;
+    }
+
+    @Override
+    public int ringCount() {
+      update();
+      return endRing - firstRing;
+    }
+
+    @Override
+    public int pointCount(int ring) {
+      update();
+      return ringStarts[firstRing + ring + 1] - ringStarts[firstRing + ring];
+    }
+
+    @Override
+    public double latitude(int ring, int point) {
+      update();
+      return coordinates[2 * (ringStarts[firstRing + ring] + point)] / SCALE;
+    }
+
+    @Override
+    public double longitude(int ring, int point) {
+      update();
+      return coordinates[2 * (ringStarts[firstRing + ring] + point) + 1] / SCALE;
+    }
+
+    private void update() {
+      if (viewModCount == modCount) {
+        return;
+      }
+      viewModCount = modCount;
+      final Integer slot = slotById.get(polygonId);
+      firstRing = slot != null ? firstRings[slot] : 0;
+      endRing = slot != null ? firstRings[slot + 1] : 0;
+    }
+  }
+
+  /** Receives the decoded options of a polygon before they are packed into the store. */
+  private static final class Collector implements PolygonOptionsSink {
+    int flags = VISIBLE;
+    int fillColor;
+    int strokeColor;
+    float strokeWidth;
+    float zIndex;
+    double simplifyTolerance;
+    List<LatLng> points;
+    List<List<LatLng>> holes;
+
+    @Override
+    public void setConsumeTapEvents(boolean consumeTapEvents) {
+      setFlag(CONSUME_TAP_EVENTS, consumeTapEvents);
+    }
+
+    @Override
+    public void setFillColor(int color) {
+      fillColor = color;
+      flags |= HAS_FILL_COLOR;
+    }
+
+    @Override
+    public void setStrokeColor(int color) {
+      strokeColor = color;
+      flags |= HAS_STROKE_COLOR;
+    }
+
+    @Override
+    public void setSimplifyTolerance(double tolerance) {
+      simplifyTolerance = tolerance;
+    }
+
+    @Override
+    public void setPoints(List<LatLng> points) {
+      this.points = points;
+    }
+
+    @Override
+    public void setHoles(List<List<LatLng>> holes) {
+      this.holes = holes;
+    }
+
+    @Override
+    public void setGeodesic(boolean geodesic) {
+      setFlag(GEODESIC, geodesic);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+      setFlag(VISIBLE, visible);
+    }
+
+    @Override
+    public void setStrokeWidth(float width) {
+      strokeWidth = width;
+      flags |= HAS_STROKE_WIDTH;
+    }
+
+    @Override
+    public void setZIndex(float zIndex) {
+      this.zIndex = zIndex;
+      flags |= HAS_Z_INDEX;
+    }
+
+    private void setFlag(int flag, boolean value) {
+      flags = value ? flags | flag : flags & ~flag;
+    }
+  }
+}
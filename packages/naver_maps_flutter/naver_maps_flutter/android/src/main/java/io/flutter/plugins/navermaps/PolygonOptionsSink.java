@@ -18,6 +18,9 @@ interface PolygonOptionsSink {
 
   void setGeodesic(boolean geodesic);
 
+  /** In dp; see {@link PathLevelOfDetail}. Set before the points. */
+  void setSimplifyTolerance(double tolerance);
+
   void setPoints(List<LatLng> points);
 
   void setHoles(List<List<LatLng>> holes);
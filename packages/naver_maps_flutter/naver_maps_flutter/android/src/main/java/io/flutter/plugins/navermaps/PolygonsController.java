@@ -4,11 +4,10 @@
 
 package io.flutter.plugins.navermaps;
 
+import com.naver.maps.geometry.LatLngBounds;
 import com.naver.maps.map.NaverMap;
 import com.naver.maps.model.Polygon;
-import com.naver.maps.model.PolygonOptions;
 
-import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,19 +16,95 @@ class PolygonsController {
 
   private final Map<String, PolygonController> polygonIdToController;
   private final Map<String, String> naverMapsPolygonIdToDartPolygonId;
-  private final MethodChannel methodChannel;
+  private final MapEventBus eventBus;
+  private final OverlayQueryIndex queryIndex;
+  private final OverlayHitIndex hitIndex;
   private final float density;
+  private PolygonGeometryStore geometryStore;
   private NaverMap naverMap;
 
-  PolygonsController(MethodChannel methodChannel, float density) {
+  PolygonsController(
+      MapEventBus eventBus,
+      OverlayQueryIndex queryIndex,
+      OverlayHitIndex hitIndex,
+      float density) {
     this.polygonIdToController = new HashMap<>();
     this.naverMapsPolygonIdToDartPolygonId = new HashMap<>();
-    this.methodChannel = methodChannel;
+    this.eventBus = eventBus;
+    this.queryIndex = queryIndex;
+    this.hitIndex = hitIndex;
     this.density = density;
   }
 
   void setNaverMap(NaverMap naverMap) {
     this.naverMap = naverMap;
+    if (geometryStore != null) {
+      geometryStore.setNaverMap(naverMap);
+    }
+  }
+
+  /**
+   * Turns viewport virtualization on or off. While it is on, polygons are kept in a {@link
+   * PolygonGeometryStore}, and only the ones that are visible and large enough on screen are backed
+   * by overlays.
+   */
+  void setVirtualized(boolean virtualized) {
+    if (virtualized == (geometryStore != null)) {
+      return;
+    }
+    if (!virtualized) {
+      geometryStore.attachAll();
+      // The query index reads the vertices of stored polygons from the store, which is cleared.
+      for (Map.Entry<String, PolygonController> entry : polygonIdToController.entrySet()) {
+        queryIndex.putPath(OverlayQueryIndex.POLYGONS, entry.getKey(), entry.getValue().rings());
+      }
+      geometryStore.clear();
+      geometryStore = null;
+      return;
+    }
+    geometryStore =
+        new PolygonGeometryStore(
+            new PolygonGeometryStore.Host() {
+              @Override
+              public void attach(String polygonId) {
+                PolygonBuilder polygonBuilder = new PolygonBuilder(density);
+                geometryStore.apply(polygonId, polygonBuilder);
+                addPolygon(polygonId, polygonBuilder);
+              }
+
+              @Override
+              public void detach(String polygonId) {
+                removePolygon(polygonId);
+              }
+            });
+    geometryStore.setNaverMap(naverMap);
+  }
+
+  /** Takes every polygon off the map, which outlives this controller in the MapViewPool. */
+  void dispose() {
+    if (geometryStore != null) {
+      geometryStore.clear();
+      geometryStore = null;
+    }
+    for (PolygonController polygonController : polygonIdToController.values()) {
+      polygonController.remove();
+    }
+    polygonIdToController.clear();
+    naverMapsPolygonIdToDartPolygonId.clear();
+  }
+
+  void onCameraIdle() {
+    if (geometryStore != null) {
+      geometryStore.onCameraIdle();
+    }
+    if (naverMap == null || polygonIdToController.isEmpty()) {
+      return;
+    }
+    final double zoom = naverMap.getCameraPosition().zoom;
+    final LatLngBounds visibleRegion = naverMap.getContentBounds();
+    for (PolygonController polygonController : polygonIdToController.values()) {
+      polygonController.onCameraIdle(zoom, visibleRegion);
+    }
   }
 
   void addPolygons(List<Object> polygonsToAdd) {
@@ -49,21 +124,28 @@ class PolygonsController {
   }
 
   void removePolygons(List<Object> polygonIdsToRemove) {
-    //TODO("removePolygons")
-//    if (polygonIdsToRemove == null) {
-//      return;
-//    }
-//    for (Object rawPolygonId : polygonIdsToRemove) {
-//      if (rawPolygonId == null) {
-//        continue;
-//      }
-//      String polygonId = (String) rawPolygonId;
-//      final PolygonController polygonController = polygonIdToController.remove(polygonId);
-//      if (polygonController != null) {
-//        polygonController.remove();
-//        naverMapsPolygonIdToDartPolygonId.remove(polygonController.getNaverMapsPolygonId());
-//      }
-//    }
+    if (polygonIdsToRemove == null) {
+      return;
+    }
+    for (Object rawPolygonId : polygonIdsToRemove) {
+      if (rawPolygonId == null) {
+        continue;
+      }
+      String polygonId = (String) rawPolygonId;
+      queryIndex.remove(OverlayQueryIndex.POLYGONS, polygonId);
+      if (geometryStore != null) {
+        geometryStore.remove(polygonId);
+      }
+      removePolygon(polygonId);
+    }
+  }
+
+  private void removePolygon(String polygonId) {
+    final PolygonController polygonController = polygonIdToController.remove(polygonId);
+    if (polygonController != null) {
+      polygonController.remove();
+      naverMapsPolygonIdToDartPolygonId.remove(polygonController.getNaverMapsPolygonId());
+    }
   }
 
   boolean onPolygonTap(String googlePolygonId) {
@@ -71,7 +153,7 @@ class PolygonsController {
     if (polygonId == null) {
       return false;
     }
-    methodChannel.invokeMethod("polygon#onTap", Convert.polygonIdToJson(polygonId));
+    eventBus.onOverlayTap(MapEventBus.POLYGON_TAP, polygonId);
     PolygonController polygonController = polygonIdToController.get(polygonId);
     if (polygonController != null) {
       return polygonController.consumeTapEvents();
@@ -83,19 +165,31 @@ class PolygonsController {
     if (polygon == null) {
       return;
     }
+    String polygonId = getPolygonId(polygon);
+    if (geometryStore != null) {
+      geometryStore.put(polygonId, polygon);
+      queryIndex.putPath(OverlayQueryIndex.POLYGONS, polygonId, geometryStore.rings(polygonId));
+      return;
+    }
     PolygonBuilder polygonBuilder = new PolygonBuilder(density);
-    String polygonId = Convert.interpretPolygonOptions(polygon, polygonBuilder);
-    PolygonOptions options = polygonBuilder.build();
-    addPolygon(polygonId, options, polygonBuilder.consumeTapEvents());
+    Convert.interpretPolygonOptions(polygon, polygonBuilder);
+    addPolygon(polygonId, polygonBuilder);
+    queryIndex.putPath(
+        OverlayQueryIndex.POLYGONS, polygonId, polygonIdToController.get(polygonId).rings());
   }
 
-  private void addPolygon(
-      String polygonId, PolygonOptions polygonOptions, boolean consumeTapEvents) {
-    //TODO("addPolygon")
-//    final Polygon polygon = naverMap.addPolygon(polygonOptions);
-//    PolygonController controller = new PolygonController(polygon, consumeTapEvents, density);
-//    polygonIdToController.put(polygonId, controller);
-//    naverMapsPolygonIdToDartPolygonId.put(polygon.getId(), polygonId);
+  private void addPolygon(String polygonId, PolygonBuilder polygonBuilder) {
+    final Polygon polygon = new Polygon(polygonBuilder.build());
+    polygon.setMap(naverMap);
+    PolygonController controller =
+        new PolygonController(
+            polygon,
+            polygonBuilder.consumeTapEvents(),
+            polygonBuilder.simplifyTolerance(),
+            density);
+    controller.setHitTarget(hitIndex, polygonId);
+    polygonIdToController.put(polygonId, controller);
+    naverMapsPolygonIdToDartPolygonId.put(polygon.getId(), polygonId);
   }
 
   private void changePolygon(Object polygon) {
@@ -107,6 +201,14 @@ class PolygonsController {
     if (polygonController != null) {
       Convert.interpretPolygonOptions(polygon, polygonController);
     }
+    // The query index reads the vertices in place, so it is told where they are now.
+    if (geometryStore != null && geometryStore.contains(polygonId)) {
+      // Changes carry the whole polygon, so it is packed again from scratch.
+      geometryStore.put(polygonId, polygon);
+      queryIndex.putPath(OverlayQueryIndex.POLYGONS, polygonId, geometryStore.rings(polygonId));
+    } else if (polygonController != null) {
+      queryIndex.putPath(OverlayQueryIndex.POLYGONS, polygonId, polygonController.rings());
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -5,6 +5,7 @@
 package io.flutter.plugins.navermaps;
 
 import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
 import com.naver.maps.model.Cap;
 import com.naver.maps.model.PatternItem;
 import com.naver.maps.model.PolylineOptions;
@@ -14,6 +15,8 @@ import java.util.List;
 class PolylineBuilder implements PolylineOptionsSink {
   private final PolylineOptions polylineOptions;
   private boolean consumeTapEvents;
+  private double simplifyTolerance;
+  private LatLngBounds bounds;
   private final float density;
 
   PolylineBuilder(float density) {
@@ -29,6 +32,15 @@ class PolylineBuilder implements PolylineOptionsSink {
     return consumeTapEvents;
   }
 
+  double simplifyTolerance() {
+    return simplifyTolerance;
+  }
+
+  /** Returns the bounds of the points set so far, or null if none were set. */
+  LatLngBounds getBounds() {
+    return bounds;
+  }
+
   @Override
   public void setColor(int color) {
     polylineOptions.color(color);
@@ -49,9 +61,15 @@ class PolylineBuilder implements PolylineOptionsSink {
     polylineOptions.pattern(pattern);
   }
 
+  @Override
+  public void setSimplifyTolerance(double tolerance) {
+    this.simplifyTolerance = tolerance;
+  }
+
   @Override
   public void setPoints(List<LatLng> points) {
     polylineOptions.addAll(points);
+    bounds = Convert.boundsOf(points);
   }
 
   @Override
@@ -5,6 +5,7 @@
 package io.flutter.plugins.navermaps;
 
 import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
 import com.naver.maps.model.Cap;
 import com.naver.maps.model.PatternItem;
 import com.naver.maps.model.Polyline;
@@ -16,73 +17,237 @@ class PolylineController implements PolylineOptionsSink {
   private final Polyline polyline;
   private final String naverMapsPolylineId;
   private boolean consumeTapEvents;
+  // Set while the polyline is tappable on a map.
+  private OverlayHitIndex.PathTarget hitTarget;
+  private List<LatLng> points;
   private final float density;
 
-  PolylineController(Polyline polyline, boolean consumeTapEvents, float density) {
+  // Last applied values, to skip writes that change nothing.
+  private Boolean appliedClickable;
+  private Integer appliedColor;
+  private Cap appliedEndCap;
+  private Boolean appliedGeodesic;
+  private Integer appliedJointType;
+  private List<PatternItem> appliedPattern;
+  private Long appliedPointsHash;
+  private Cap appliedStartCap;
+  private Boolean appliedVisible;
+  private Float appliedWidth;
+  private Float appliedZIndex;
+
+  // Level of detail of long paths, see PathLevelOfDetail.
+  private double simplifyTolerance;
+  private PathLevelOfDetail levelOfDetail;
+  private int appliedLevel;
+  private double zoom = Double.NaN;
+  private LatLngBounds visibleRegion;
+
+  PolylineController(
+      Polyline polyline, boolean consumeTapEvents, double simplifyTolerance, float density) {
     this.polyline = polyline;
     this.consumeTapEvents = consumeTapEvents;
     this.density = density;
     this.naverMapsPolylineId = polyline.getId();
+    this.simplifyTolerance = simplifyTolerance;
+    this.points = polyline.getPoints();
+    computeLevelOfDetail();
+  }
+
+  /**
+   * Makes the polyline tappable through {@code hitIndex}, which taps resolve to {@code polylineId}.
+   */
+  void setHitTarget(OverlayHitIndex hitIndex, String polylineId) {
+    hitTarget =
+        hitIndex.addPath(
+            MapEventBus.POLYLINE_TAP,
+            polylineId,
+            consumeTapEvents,
+            Math.round(polyline.getZIndex()),
+            hitRings(),
+            polyline.getWidth());
+    hitTarget.setVisible(polyline.isVisible());
   }
 
   void remove() {
+    if (hitTarget != null) {
+      hitTarget.index.remove(hitTarget);
+      hitTarget = null;
+    }
+    levelOfDetail = null;
     polyline.remove();
   }
 
   @Override
   public void setConsumeTapEvents(boolean consumeTapEvents) {
     this.consumeTapEvents = consumeTapEvents;
+    if (hitTarget != null) {
+      hitTarget.consumeTapEvents = consumeTapEvents;
+    }
+    if (PropertyWriteStats.unchanged(appliedClickable, consumeTapEvents)) {
+      return;
+    }
+    appliedClickable = consumeTapEvents;
     polyline.setClickable(consumeTapEvents);
   }
 
   @Override
   public void setColor(int color) {
+    if (PropertyWriteStats.unchanged(appliedColor, color)) {
+      return;
+    }
+    appliedColor = color;
     polyline.setColor(color);
   }
 
   @Override
   public void setEndCap(Cap endCap) {
+    if (PropertyWriteStats.unchanged(appliedEndCap, endCap)) {
+      return;
+    }
+    appliedEndCap = endCap;
     polyline.setEndCap(endCap);
   }
 
   @Override
   public void setGeodesic(boolean geodesic) {
+    if (PropertyWriteStats.unchanged(appliedGeodesic, geodesic)) {
+      return;
+    }
+    appliedGeodesic = geodesic;
     polyline.setGeodesic(geodesic);
   }
 
   @Override
   public void setJointType(int jointType) {
+    if (PropertyWriteStats.unchanged(appliedJointType, jointType)) {
+      return;
+    }
+    appliedJointType = jointType;
     polyline.setJointType(jointType);
   }
 
   @Override
   public void setPattern(List<PatternItem> pattern) {
+    if (PropertyWriteStats.unchanged(appliedPattern, pattern)) {
+      return;
+    }
+    appliedPattern = pattern;
     polyline.setPattern(pattern);
   }
 
   @Override
   public void setPoints(List<LatLng> points) {
+    final long pointsHash = PropertyWriteStats.hashPoints(points);
+    if (PropertyWriteStats.unchanged(appliedPointsHash, pointsHash)) {
+      return;
+    }
+    appliedPointsHash = pointsHash;
+    // Shown in full until the pyramid of a long path is ready.
     polyline.setPoints(points);
+    this.points = points;
+    updateHitRings();
+    computeLevelOfDetail();
+  }
+
+  @Override
+  public void setSimplifyTolerance(double tolerance) {
+    if (tolerance == simplifyTolerance) {
+      return;
+    }
+    simplifyTolerance = tolerance;
+    // Shown in full until the new pyramid is ready.
+    polyline.setPoints(points);
+    computeLevelOfDetail();
+  }
+
+  private void computeLevelOfDetail() {
+    if (!PathLevelOfDetail.appliesTo(points, simplifyTolerance)) {
+      levelOfDetail = null;
+      return;
+    }
+    final PathLevelOfDetail levelOfDetail = new PathLevelOfDetail(points, 2, simplifyTolerance);
+    this.levelOfDetail = levelOfDetail;
+    appliedLevel = Integer.MIN_VALUE;
+    levelOfDetail.computeAsync(
+        () -> {
+          if (this.levelOfDetail == levelOfDetail) {
+            applyLevelOfDetail();
+          }
+        });
+  }
+
+  // Taps are tested against the full path, whatever level of detail is shown.
+  private PathRings hitRings() {
+    return PathRings.of(points, null);
+  }
+
+  private void updateHitRings() {
+    if (hitTarget != null) {
+      hitTarget.setRings(hitRings(), polyline.getWidth());
+    }
+  }
+
+  /** Switches long paths to the level of detail of the new camera position. */
+  void onCameraIdle(double zoom, LatLngBounds visibleRegion) {
+    this.zoom = zoom;
+    this.visibleRegion = visibleRegion;
+    applyLevelOfDetail();
+  }
+
+  private void applyLevelOfDetail() {
+    if (levelOfDetail == null || !levelOfDetail.isReady() || Double.isNaN(zoom)) {
+      return;
+    }
+    final int level = PathLevelOfDetail.levelFor(zoom);
+    // Clipped paths depend on the visible region, so they are refreshed on every move.
+    if (level == appliedLevel && zoom < PathLevelOfDetail.CLIP_MIN_ZOOM) {
+      return;
+    }
+    appliedLevel = level;
+    polyline.setPoints(levelOfDetail.pointsFor(zoom, visibleRegion));
   }
 
   @Override
   public void setStartCap(Cap startCap) {
+    if (PropertyWriteStats.unchanged(appliedStartCap, startCap)) {
+      return;
+    }
+    appliedStartCap = startCap;
     polyline.setStartCap(startCap);
   }
 
   @Override
   public void setVisible(boolean visible) {
+    if (PropertyWriteStats.unchanged(appliedVisible, visible)) {
+      return;
+    }
+    appliedVisible = visible;
     polyline.setVisible(visible);
+    if (hitTarget != null) {
+      hitTarget.setVisible(visible);
+    }
   }
 
   @Override
   public void setWidth(float width) {
+    if (PropertyWriteStats.unchanged(appliedWidth, width)) {
+      return;
+    }
+    appliedWidth = width;
     polyline.setWidth(width * density);
+    updateHitRings();
   }
 
   @Override
   public void setZIndex(float zIndex) {
+    if (PropertyWriteStats.unchanged(appliedZIndex, zIndex)) {
+      return;
+    }
+    appliedZIndex = zIndex;
     polyline.setZIndex(zIndex);
+    if (hitTarget != null) {
+      hitTarget.zIndex = Math.round(zIndex);
+    }
   }
 
   String getNaverMapsPolylineId() {
@@ -25,6 +25,9 @@ interface PolylineOptionsSink {
 
   void setPattern(List<PatternItem> pattern);
 
+  /** In dp; see {@link PathLevelOfDetail}. Set before the points. */
+  void setSimplifyTolerance(double tolerance);
+
   void setPoints(List<LatLng> points);
 
   void setStartCap(Cap startCap);
@@ -4,11 +4,10 @@
 
 package io.flutter.plugins.navermaps;
 
+import com.naver.maps.geometry.LatLngBounds;
 import com.naver.maps.map.NaverMap;
 import com.naver.maps.model.Polyline;
-import com.naver.maps.model.PolylineOptions;
 
-import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,19 +16,88 @@ class PolylinesController {
 
   private final Map<String, PolylineController> polylineIdToController;
   private final Map<String, String> naverMapsPolylineIdToDartPolylineId;
-  private final MethodChannel methodChannel;
+  private final MapEventBus eventBus;
+  private final OverlayQueryIndex queryIndex;
+  private final OverlayHitIndex hitIndex;
   private NaverMap naverMap;
   private final float density;
+  private ViewportVirtualizer<PolylineBuilder> virtualizer;
 
-  PolylinesController(MethodChannel methodChannel, float density) {
+  PolylinesController(
+      MapEventBus eventBus,
+      OverlayQueryIndex queryIndex,
+      OverlayHitIndex hitIndex,
+      float density) {
     this.polylineIdToController = new HashMap<>();
     this.naverMapsPolylineIdToDartPolylineId = new HashMap<>();
-    this.methodChannel = methodChannel;
+    this.eventBus = eventBus;
+    this.queryIndex = queryIndex;
+    this.hitIndex = hitIndex;
     this.density = density;
   }
 
   void setNaverMap(NaverMap naverMap) {
     this.naverMap = naverMap;
+    if (virtualizer != null) {
+      virtualizer.setNaverMap(naverMap);
+    }
+  }
+
+  /**
+   * Turns viewport virtualization on or off. While it is on, only the polylines that intersect the
+   * visible region are backed by overlays.
+   */
+  void setVirtualized(boolean virtualized) {
+    if (virtualized == (virtualizer != null)) {
+      return;
+    }
+    if (!virtualized) {
+      virtualizer.attachAll();
+      virtualizer.clear();
+      virtualizer = null;
+      return;
+    }
+    virtualizer =
+        new ViewportVirtualizer<>(
+            new ViewportVirtualizer.Host<PolylineBuilder>() {
+              @Override
+              public void attach(String polylineId, PolylineBuilder polylineBuilder) {
+                addPolyline(polylineId, polylineBuilder);
+              }
+
+              @Override
+              public void detach(String polylineId) {
+                removePolyline(polylineId);
+              }
+            });
+    virtualizer.setNaverMap(naverMap);
+  }
+
+  /** Takes every polyline off the map, which outlives this controller in the MapViewPool. */
+  void dispose() {
+    if (virtualizer != null) {
+      virtualizer.clear();
+      virtualizer = null;
+    }
+    for (PolylineController polylineController : polylineIdToController.values()) {
+      polylineController.remove();
+    }
+    polylineIdToController.clear();
+    naverMapsPolylineIdToDartPolylineId.clear();
+  }
+
+  void onCameraIdle() {
+    if (virtualizer != null) {
+      virtualizer.onCameraIdle();
+    }
+    if (naverMap == null || polylineIdToController.isEmpty()) {
+      return;
+    }
+    final double zoom = naverMap.getCameraPosition().zoom;
+    final LatLngBounds visibleRegion = naverMap.getContentBounds();
+    for (PolylineController polylineController : polylineIdToController.values()) {
+      polylineController.onCameraIdle(zoom, visibleRegion);
+    }
   }
 
   void addPolylines(List<Object> polylinesToAdd) {
@@ -57,11 +125,19 @@ class PolylinesController {
         continue;
       }
       String polylineId = (String) rawPolylineId;
-      final PolylineController polylineController = polylineIdToController.remove(polylineId);
-      if (polylineController != null) {
-        polylineController.remove();
-        naverMapsPolylineIdToDartPolylineId.remove(polylineController.getNaverMapsPolylineId());
+      queryIndex.remove(OverlayQueryIndex.POLYLINES, polylineId);
+      if (virtualizer != null) {
+        virtualizer.remove(polylineId);
       }
+      removePolyline(polylineId);
+    }
+  }
+
+  private void removePolyline(String polylineId) {
+    final PolylineController polylineController = polylineIdToController.remove(polylineId);
+    if (polylineController != null) {
+      polylineController.remove();
+      naverMapsPolylineIdToDartPolylineId.remove(polylineController.getNaverMapsPolylineId());
     }
   }
 
@@ -70,7 +146,7 @@ class PolylinesController {
     if (polylineId == null) {
       return false;
     }
-    methodChannel.invokeMethod("polyline#onTap", Convert.polylineIdToJson(polylineId));
+    eventBus.onOverlayTap(MapEventBus.POLYLINE_TAP, polylineId);
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
       return polylineController.consumeTapEvents();
@@ -84,17 +160,26 @@ class PolylinesController {
     }
     PolylineBuilder polylineBuilder = new PolylineBuilder(density);
     String polylineId = Convert.interpretPolylineOptions(polyline, polylineBuilder);
-    PolylineOptions options = polylineBuilder.build();
-    addPolyline(polylineId, options, polylineBuilder.consumeTapEvents());
+    queryIndex.putPath(OverlayQueryIndex.POLYLINES, polylineId, polyline);
+    if (virtualizer != null) {
+      virtualizer.put(polylineId, polylineBuilder, polylineBuilder.getBounds());
+      return;
+    }
+    addPolyline(polylineId, polylineBuilder);
   }
 
-  private void addPolyline(
-      String polylineId, PolylineOptions polylineOptions, boolean consumeTapEvents) {
-    //TODO("addPolyline")
-//    final Polyline polyline = naverMap.addPolyline(polylineOptions);
-//    PolylineController controller = new PolylineController(polyline, consumeTapEvents, density);
-//    polylineIdToController.put(polylineId, controller);
-//    naverMapsPolylineIdToDartPolylineId.put(polyline.getId(), polylineId);
+  private void addPolyline(String polylineId, PolylineBuilder polylineBuilder) {
+    final Polyline polyline = new Polyline(polylineBuilder.build());
+    polyline.setMap(naverMap);
+    PolylineController controller =
+        new PolylineController(
+            polyline,
+            polylineBuilder.consumeTapEvents(),
+            polylineBuilder.simplifyTolerance(),
+            density);
+    controller.setHitTarget(hitIndex, polylineId);
+    polylineIdToController.put(polylineId, controller);
+    naverMapsPolylineIdToDartPolylineId.put(polyline.getId(), polylineId);
   }
 
   private void changePolyline(Object polyline) {
@@ -102,10 +187,17 @@ class PolylinesController {
       return;
     }
     String polylineId = getPolylineId(polyline);
+    queryIndex.putPath(OverlayQueryIndex.POLYLINES, polylineId, polyline);
     PolylineController polylineController = polylineIdToController.get(polylineId);
     if (polylineController != null) {
       Convert.interpretPolylineOptions(polyline, polylineController);
     }
+    if (virtualizer != null && virtualizer.contains(polylineId)) {
+      // Changes carry the whole polyline, and the options append points, so start from scratch.
+      PolylineBuilder polylineBuilder = new PolylineBuilder(density);
+      Convert.interpretPolylineOptions(polyline, polylineBuilder);
+      virtualizer.put(polylineId, polylineBuilder, polylineBuilder.getBounds());
+    }
   }
 
   @SuppressWarnings("unchecked")
@@ -0,0 +1,75 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change checks used by the overlay controllers to skip property writes whose value is the same as
+ * the last one they applied, and process-wide counters of the writes applied and skipped.
+ */
+final class PropertyWriteStats {
+
+  private static final AtomicLong applied = new AtomicLong();
+  private static final AtomicLong skipped = new AtomicLong();
+
+  private PropertyWriteStats() {}
+
+  /**
+   * Returns true, counting a skipped write, if {@code value} equals the {@code last} applied value.
+   * Otherwise counts an applied write and returns false. A null {@code last} means nothing was
+   * applied yet.
+   */
+  static boolean unchanged(Object last, Object value) {
+    if (last != null && last.equals(value)) {
+      skipped.incrementAndGet();
+      return true;
+    }
+    applied.incrementAndGet();
+    return false;
+  }
+
+  /** Returns a hash of the coordinates of {@code points}, to compare point lists cheaply. */
+  static long hashPoints(List<LatLng> points) {
+    // 64-bit FNV-1a over the coordinate bits, like BitmapDescriptor.cacheKeyForBytes.
+    long hash = 0xcbf29ce484222325L;
+    if (points == null) {
+      return hash;
+    }
+    for (LatLng point : points) {
+      hash = (hash ^ Double.doubleToLongBits(point.latitude)) * 0x100000001b3L;
+      hash = (hash ^ Double.doubleToLongBits(point.longitude)) * 0x100000001b3L;
+    }
+    return (hash ^ points.size()) * 0x100000001b3L;
+  }
+
+  static long hashHoles(List<List<LatLng>> holes) {
+    long hash = 0xcbf29ce484222325L;
+    if (holes == null) {
+      return hash;
+    }
+    for (List<LatLng> hole : holes) {
+      hash = (hash ^ hashPoints(hole)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  static Map<String, Object> toJson() {
+    final Map<String, Object> data = new HashMap<>();
+    data.put("applied", applied.get());
+    data.put("skipped", skipped.get());
+    return data;
+  }
+
+  static void reset() {
+    applied.set(0);
+    skipped.set(0);
+  }
+}
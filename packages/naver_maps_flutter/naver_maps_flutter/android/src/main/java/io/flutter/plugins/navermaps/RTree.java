@@ -0,0 +1,323 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An R-tree of values by bounding box, with quadratic splits.
+ *
+ * <p>Each value is stored at most once; inserting a value again moves it to its new bounds. Not
+ * thread safe.
+ */
+final class RTree<T> {
+
+  private static final int MAX_ENTRIES = 16;
+  private static final int MIN_ENTRIES = 6;
+
+  private final Map<T, Entry<T>> entries = new HashMap<>();
+  private Node root = new Node(true);
+
+  int size() {
+    return entries.size();
+  }
+
+  boolean contains(T value) {
+    return entries.containsKey(value);
+  }
+
+  void clear() {
+    entries.clear();
+    root = new Node(true);
+  }
+
+  void insert(T value, double minX, double minY, double maxX, double maxY) {
+    remove(value);
+    Entry<T> entry = new Entry<>(value);
+    entry.set(minX, minY, maxX, maxY);
+    entries.put(value, entry);
+    insert(entry, 0);
+  }
+
+  boolean remove(T value) {
+    Entry<T> entry = entries.remove(value);
+    if (entry == null) {
+      return false;
+    }
+    Node leaf = entry.parent;
+    leaf.children.remove(entry);
+    condense(leaf);
+    return true;
+  }
+
+  /** Adds the values whose bounds intersect the given box to {@code out}. */
+  @SuppressWarnings("unchecked")
+  void search(double minX, double minY, double maxX, double maxY, List<T> out) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    ArrayDeque<Node> stack = new ArrayDeque<>();
+    stack.push(root);
+    while (!stack.isEmpty()) {
+      Node node = stack.pop();
+      for (Box child : node.children) {
+        if (!child.intersects(minX, minY, maxX, maxY)) {
+          continue;
+        }
+        if (node.leaf) {
+          out.add(((Entry<T>) child).value);
+        } else {
+          stack.push((Node) child);
+        }
+      }
+    }
+  }
+
+  /** Inserts {@code box} into a node {@code level} levels above the leaves. */
+  private void insert(Box box, int level) {
+    Node node = root;
+    int depth = height(root);
+    while (depth > level) {
+      node = chooseSubtree(node, box);
+      depth--;
+    }
+    node.add(box);
+    Node split = node.children.size() > MAX_ENTRIES ? split(node) : null;
+    while (node != root) {
+      Node parent = node.parent;
+      parent.include(box);
+      if (split != null) {
+        parent.add(split);
+        split = parent.children.size() > MAX_ENTRIES ? split(parent) : null;
+      }
+      node = parent;
+    }
+    if (split != null) {
+      Node newRoot = new Node(false);
+      newRoot.add(root);
+      newRoot.add(split);
+      root = newRoot;
+    }
+  }
+
+  private static int height(Node node) {
+    int height = 0;
+    while (!node.leaf) {
+      node = (Node) node.children.get(0);
+      height++;
+    }
+    return height;
+  }
+
+  private static Node chooseSubtree(Node node, Box box) {
+    Node best = null;
+    double bestEnlargement = Double.POSITIVE_INFINITY;
+    double bestArea = Double.POSITIVE_INFINITY;
+    for (Box child : node.children) {
+      double area = child.area();
+      double enlargement = child.enlargedArea(box) - area;
+      if (enlargement < bestEnlargement || (enlargement == bestEnlargement && area < bestArea)) {
+        best = (Node) child;
+        bestEnlargement = enlargement;
+        bestArea = area;
+      }
+    }
+    return best;
+  }
+
+  /** Moves about half of the children of {@code node} to a new sibling and returns it. */
+  private static Node split(Node node) {
+    ArrayList<Box> remaining = new ArrayList<>(node.children);
+    int seedA = 0;
+    int seedB = 1;
+    double worst = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < remaining.size(); i++) {
+      for (int j = i + 1; j < remaining.size(); j++) {
+        Box a = remaining.get(i);
+        Box b = remaining.get(j);
+        double waste = a.enlargedArea(b) - a.area() - b.area();
+        if (waste > worst) {
+          worst = waste;
+          seedA = i;
+          seedB = j;
+        }
+      }
+    }
+    Box a = remaining.get(seedA);
+    Box b = remaining.get(seedB);
+    remaining.remove(seedB);
+    remaining.remove(seedA);
+    node.children.clear();
+    node.reset();
+    Node sibling = new Node(node.leaf);
+    node.add(a);
+    sibling.add(b);
+    while (!remaining.isEmpty()) {
+      if (node.children.size() + remaining.size() == MIN_ENTRIES) {
+        for (Box box : remaining) {
+          node.add(box);
+        }
+        break;
+      }
+      if (sibling.children.size() + remaining.size() == MIN_ENTRIES) {
+        for (Box box : remaining) {
+          sibling.add(box);
+        }
+        break;
+      }
+      int next = 0;
+      double maxDifference = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < remaining.size(); i++) {
+        Box box = remaining.get(i);
+        double difference =
+            Math.abs(
+                (node.enlargedArea(box) - node.area())
+                    - (sibling.enlargedArea(box) - sibling.area()));
+        if (difference > maxDifference) {
+          maxDifference = difference;
+          next = i;
+        }
+      }
+      Box box = remaining.remove(next);
+      double enlargementA = node.enlargedArea(box) - node.area();
+      double enlargementB = sibling.enlargedArea(box) - sibling.area();
+      if (enlargementA < enlargementB
+          || (enlargementA == enlargementB && node.area() < sibling.area())
+          || (enlargementA == enlargementB
+              && node.area() == sibling.area()
+              && node.children.size() <= sibling.children.size())) {
+        node.add(box);
+      } else {
+        sibling.add(box);
+      }
+    }
+    return sibling;
+  }
+
+  /** Removes the underfull nodes on the path from {@code node} to the root and reinserts them. */
+  private void condense(Node node) {
+    List<Node> orphans = new ArrayList<>();
+    while (node != root) {
+      Node parent = node.parent;
+      if (node.children.size() < MIN_ENTRIES) {
+        parent.children.remove(node);
+        orphans.add(node);
+      } else {
+        node.recompute();
+      }
+      node = parent;
+    }
+    root.recompute();
+    while (!root.leaf && root.children.size() == 1) {
+      root = (Node) root.children.get(0);
+      root.parent = null;
+    }
+    if (!root.leaf && root.children.isEmpty()) {
+      root = new Node(true);
+    }
+    for (Node orphan : orphans) {
+      int level = height(orphan);
+      for (Box child : orphan.children) {
+        if (child instanceof Entry || height(root) >= level) {
+          insert(child, level);
+        } else {
+          // The tree got shallower than the orphan; reinsert its entries one by one.
+          reinsertEntries((Node) child);
+        }
+      }
+    }
+  }
+
+  private void reinsertEntries(Node node) {
+    for (Box child : node.children) {
+      if (node.leaf) {
+        insert(child, 0);
+      } else {
+        reinsertEntries((Node) child);
+      }
+    }
+  }
+
+  private static class Box {
+    double minX;
+    double minY;
+    double maxX;
+    double maxY;
+    Node parent;
+
+    void set(double minX, double minY, double maxX, double maxY) {
+      this.minX = minX;
+      this.minY = minY;
+      this.maxX = maxX;
+      this.maxY = maxY;
+    }
+
+    void reset() {
+      set(
+          Double.POSITIVE_INFINITY,
+          Double.POSITIVE_INFINITY,
+          Double.NEGATIVE_INFINITY,
+          Double.NEGATIVE_INFINITY);
+    }
+
+    void include(Box box) {
+      minX = Math.min(minX, box.minX);
+      minY = Math.min(minY, box.minY);
+      maxX = Math.max(maxX, box.maxX);
+      maxY = Math.max(maxY, box.maxY);
+    }
+
+    double area() {
+      return maxX < minX ? 0 : (maxX - minX) * (maxY - minY);
+    }
+
+    double enlargedArea(Box box) {
+      if (maxX < minX) {
+        return box.area();
+      }
+      return (Math.max(maxX, box.maxX) - Math.min(minX, box.minX))
+          * (Math.max(maxY, box.maxY) - Math.min(minY, box.minY));
+    }
+
+    boolean intersects(double minX, double minY, double maxX, double maxY) {
+      return this.minX <= maxX && this.maxX >= minX && this.minY <= maxY && this.maxY >= minY;
+    }
+  }
+
+  private static final class Entry<T> extends Box {
+    final T value;
+
+    Entry(T value) {
+      this.value = value;
+    }
+  }
+
+  private static final class Node extends Box {
+    final boolean leaf;
+    final ArrayList<Box> children = new ArrayList<>(MAX_ENTRIES + 1);
+
+    Node(boolean leaf) {
+      this.leaf = leaf;
+      reset();
+    }
+
+    void add(Box box) {
+      children.add(box);
+      box.parent = this;
+      include(box);
+    }
+
+    void recompute() {
+      reset();
+      for (Box child : children) {
+        include(child);
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+
+import io.flutter.plugin.common.MethodChannel;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Crops, scales and encodes {@code map#takeSnapshot} bitmaps off the main thread.
+ *
+ * <p>The options are a map with an optional {@code format} ({@code png}, the default, {@code
+ * jpeg}, {@code webpLossy}, {@code webpLossless} or {@code rgba}), {@code quality} from 0 to 100
+ * for lossy formats, {@code scale} in (0, 1] and {@code region} as {@code [left, top, width,
+ * height]} in logical pixels. Encoded formats reply with the encoded bytes. {@code rgba} skips
+ * encoding and replies with a map of {@code width}, {@code height} and the premultiplied RGBA
+ * {@code pixels}.
+ *
+ * <p>The {@code rgba} pixels are a {@code byte[]} rather than a direct {@link ByteBuffer}: the
+ * standard method codec can't carry buffers, and it copies a {@code byte[]} into the reply once,
+ * as it would a buffer's contents.
+ *
+ * <p>Lossless WebP needs API 29. Before that, {@code WEBP} is lossy at any quality, so {@code
+ * webpLossless} falls back to PNG there, which is lossless too.
+ */
+class SnapshotEncoder {
+
+  private static final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapSnapshot");
+            thread.setDaemon(true);
+            return thread;
+          });
+  private static final Handler handler = new Handler(Looper.getMainLooper());
+
+  // Only used on the executor. Kept between snapshots so that encoding doesn't grow a new buffer
+  // from scratch each time.
+  private static final ReusableOutputStream stream = new ReusableOutputStream();
+
+  private final String format;
+  private final int quality;
+  private final float scale;
+  private final int[] region;
+
+  /** Throws {@link IllegalArgumentException} for invalid options. */
+  SnapshotEncoder(Map<?, ?> options, float density) {
+    final Object format = options != null ? options.get("format") : null;
+    this.format = format != null ? (String) format : "png";
+    if (!this.format.equals("rgba") && compressFormat(this.format) == null) {
+      throw new IllegalArgumentException("Unknown snapshot format " + this.format);
+    }
+    final Object quality = options != null ? options.get("quality") : null;
+    this.quality = quality != null ? Math.max(0, Math.min(100, Convert.toInt(quality))) : 100;
+    final Object scale = options != null ? options.get("scale") : null;
+    this.scale = scale != null ? ((Number) scale).floatValue() : 1;
+    if (!(this.scale > 0 && this.scale <= 1)) {
+      throw new IllegalArgumentException("Snapshot scale must be in (0, 1]");
+    }
+    final Object region = options != null ? options.get("region") : null;
+    if (region != null) {
+      final List<?> data = (List<?>) region;
+      this.region = new int[4];
+      for (int i = 0; i < 4; i++) {
+        this.region[i] = Math.round(((Number) data.get(i)).floatValue() * density);
+      }
+    } else {
+      this.region = null;
+    }
+  }
+
+  /** Encodes {@code bitmap} in the background, recycles it and replies on the main thread. */
+  void encode(Bitmap bitmap, MethodChannel.Result result) {
+    executor.execute(
+        () -> {
+          final Object encoded;
+          try {
+            encoded = encode(bitmap);
+          } catch (RuntimeException e) {
+            handler.post(() -> result.error("error", e.getMessage(), null));
+            return;
+          }
+          handler.post(() -> result.success(encoded));
+        });
+  }
+
+  private Object encode(Bitmap bitmap) {
+    Bitmap source = bitmap;
+    if (region != null) {
+      final int left = Math.max(0, Math.min(region[0], source.getWidth() - 1));
+      final int top = Math.max(0, Math.min(region[1], source.getHeight() - 1));
+      final int width = Math.max(1, Math.min(region[2], source.getWidth() - left));
+      final int height = Math.max(1, Math.min(region[3], source.getHeight() - top));
+      source = replace(source, Bitmap.createBitmap(source, left, top, width, height));
+    }
+    if (scale < 1) {
+      final int width = Math.max(1, Math.round(source.getWidth() * scale));
+      final int height = Math.max(1, Math.round(source.getHeight() * scale));
+      source = replace(source, Bitmap.createScaledBitmap(source, width, height, true));
+    }
+    try {
+      if (format.equals("rgba")) {
+        final byte[] pixels = new byte[source.getRowBytes() * source.getHeight()];
+        source.copyPixelsToBuffer(ByteBuffer.wrap(pixels));
+        final Map<String, Object> data = new HashMap<>();
+        data.put("width", source.getWidth());
+        data.put("height", source.getHeight());
+        data.put("rowBytes", source.getRowBytes());
+        data.put("pixels", pixels);
+        return data;
+      }
+      stream.reset(source.getWidth() * source.getHeight());
+      // From Q and before R, WEBP at quality 100 is lossless.
+      source.compress(
+          compressFormat(format), format.equals("webpLossless") ? 100 : quality, stream);
+      return stream.toByteArray();
+    } finally {
+      source.recycle();
+    }
+  }
+
+  private static Bitmap replace(Bitmap old, Bitmap replacement) {
+    if (replacement != old) {
+      old.recycle();
+    }
+    return replacement;
+  }
+
+  @SuppressWarnings("deprecation")
+  private static Bitmap.CompressFormat compressFormat(String format) {
+    switch (format) {
+      case "png":
+        return Bitmap.CompressFormat.PNG;
+      case "jpeg":
+        return Bitmap.CompressFormat.JPEG;
+      case "webpLossy":
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+            ? Bitmap.CompressFormat.WEBP_LOSSY
+            : Bitmap.CompressFormat.WEBP;
+      case "webpLossless":
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+          return Bitmap.CompressFormat.WEBP_LOSSLESS;
+        }
+        // From Q, WEBP at quality 100 is lossless; before Q, WEBP is always lossy.
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+            ? Bitmap.CompressFormat.WEBP
+            : Bitmap.CompressFormat.PNG;
+      default:
+        return null;
+    }
+  }
+
+  /** A {@link ByteArrayOutputStream} whose buffer is kept and pre-sized across uses. */
+  private static final class ReusableOutputStream extends ByteArrayOutputStream {
+    // Don't hold on to more than this between snapshots.
+    private static final int MAX_RETAINED_SIZE = 8 * 1024 * 1024;
+
+    void reset(int expectedSize) {
+      reset();
+      final int size = Math.min(expectedSize, MAX_RETAINED_SIZE);
+      if (buf.length < size || buf.length > MAX_RETAINED_SIZE) {
+        buf = new byte[size];
+      }
+    }
+  }
+}
@@ -0,0 +1,469 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LongSparseArray;
+import android.util.LruCache;
+import android.view.Surface;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+
+import com.naver.maps.map.CameraPosition;
+import com.naver.maps.map.CameraUpdate;
+import com.naver.maps.map.MapView;
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.map.NaverMapOptions;
+import com.naver.maps.map.OnMapReadyCallback;
+
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.view.TextureRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders static map images, e.g. thumbnails in a list, on one off-screen {@link MapView} shared by
+ * all of them instead of a live map each.
+ *
+ * <p>{@code staticMap#render} requests carry a {@code cameraPosition}, a {@code size} as {@code
+ * [width, height]} in logical pixels, optional {@code markers} and either snapshot {@code options}
+ * as read by {@link SnapshotEncoder} or {@code texture: true}. They are served one at a time: the
+ * shared map is resized, moved, given the markers and snapshotted once it reports that its tiles
+ * are loaded, or after {@link #LOAD_TIMEOUT_MILLIS} if it doesn't. A request for the camera whose
+ * tiles already loaded is snapshotted right away, as the map doesn't load anything for it. Complete
+ * snapshots are kept in an LRU cache keyed by camera, markers and size, so repeated requests don't
+ * touch the map; timed out ones may be missing tiles and are only delivered. A request replies
+ * with the encoded snapshot or, for a texture, with its {@code textureId}; textures must be
+ * released with {@code staticMap#releaseTexture}.
+ *
+ * <p>The map is created on the first request, lite mode and behind the Flutter view, and destroyed
+ * with the activity.
+ */
+class StaticMapRenderer
+    implements MethodChannel.MethodCallHandler, OnMapReadyCallback, NaverMap.OnLoadListener {
+
+  // Time after a camera move past which the map is snapshotted even if its tiles aren't loaded.
+  private static final int LOAD_TIMEOUT_MILLIS = 3000;
+  // Fraction of the heap that cached snapshots may take.
+  private static final int CACHE_HEAP_DIVISOR = 16;
+
+  private final Activity activity;
+  private final MethodChannel methodChannel;
+  private final TextureRegistry textureRegistry;
+  private final float density;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final ArrayDeque<Request> pending = new ArrayDeque<>();
+  private final LongSparseArray<TextureRegistry.SurfaceTextureEntry> textures =
+      new LongSparseArray<>();
+  private final LruCache<Content, Bitmap> cache;
+  private final MarkerOverlayPool overlayPool;
+  private final List<MarkerController> markers = new ArrayList<>();
+  private final Runnable loadTimeout = () -> snapshot(false);
+
+  private MapView mapView;
+  private NaverMap naverMap;
+  // The request being rendered, if any.
+  private Request current;
+  // Whether the map of the current request is still loading, i.e. not snapshotted yet.
+  private boolean loading;
+  // The camera that the map was last moved to, and whether its tiles loaded at the current size.
+  private CameraPosition camera;
+  private boolean cameraLoaded;
+  private boolean disposed;
+
+  StaticMapRenderer(
+      Activity activity, BinaryMessenger binaryMessenger, TextureRegistry textureRegistry) {
+    this.activity = activity;
+    this.textureRegistry = textureRegistry;
+    this.density = activity.getResources().getDisplayMetrics().density;
+    this.overlayPool = new MarkerOverlayPool(activity);
+    this.cache =
+        new LruCache<Content, Bitmap>(
+            (int)
+                Math.min(
+                    Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / CACHE_HEAP_DIVISOR)) {
+          @Override
+          protected int sizeOf(Content key, Bitmap bitmap) {
+            return bitmap.getByteCount();
+          }
+
+          @Override
+          protected void entryRemoved(
+              boolean evicted, Content key, Bitmap oldValue, Bitmap newValue) {
+            // Cached bitmaps are only ever copied or drawn, never handed out.
+            oldValue.recycle();
+          }
+        };
+    methodChannel = new MethodChannel(binaryMessenger, "plugins.flutter.io/naver_maps_static");
+    methodChannel.setMethodCallHandler(this);
+  }
+
+  @Override
+  public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+    switch (call.method) {
+      case "staticMap#render":
+        {
+          final Request request;
+          try {
+            request = new Request(call, density, result);
+          } catch (RuntimeException e) {
+            result.error("error", e.getMessage(), null);
+            break;
+          }
+          final Bitmap cached = cache.get(request.key);
+          if (cached != null) {
+            deliver(request, cached);
+            break;
+          }
+          pending.add(request);
+          renderNext();
+          break;
+        }
+      case "staticMap#releaseTexture":
+        {
+          final long textureId = ((Number) call.argument("textureId")).longValue();
+          final TextureRegistry.SurfaceTextureEntry entry = textures.get(textureId);
+          if (entry != null) {
+            textures.remove(textureId);
+            entry.release();
+          }
+          result.success(null);
+          break;
+        }
+      case "staticMap#clearCache":
+        cache.evictAll();
+        result.success(null);
+        break;
+      default:
+        result.notImplemented();
+    }
+  }
+
+  @Override
+  public void onMapReady(@NonNull NaverMap naverMap) {
+    if (disposed) {
+      return;
+    }
+    this.naverMap = naverMap;
+    naverMap.addOnLoadListener(this);
+    renderNext();
+  }
+
+  @Override
+  public void onLoad() {
+    cameraLoaded = true;
+    snapshot(true);
+  }
+
+  void dispose() {
+    disposed = true;
+    loading = false;
+    methodChannel.setMethodCallHandler(null);
+    handler.removeCallbacksAndMessages(null);
+    if (current != null) {
+      current.result.error("error", "Static map renderer disposed", null);
+      current = null;
+    }
+    while (!pending.isEmpty()) {
+      pending.poll().result.error("error", "Static map renderer disposed", null);
+    }
+    clearMarkers();
+    overlayPool.clear();
+    for (int i = 0; i < textures.size(); i++) {
+      textures.valueAt(i).release();
+    }
+    textures.clear();
+    cache.evictAll();
+    if (mapView != null) {
+      mapView.onPause();
+      mapView.onStop();
+      if (naverMap != null) {
+        naverMap.removeOnLoadListener(this);
+      }
+      mapView.onDestroy();
+      ((ViewGroup) mapView.getParent()).removeView(mapView);
+      mapView = null;
+      naverMap = null;
+    }
+  }
+
+  private void renderNext() {
+    if (current != null || pending.isEmpty()) {
+      return;
+    }
+    if (naverMap == null) {
+      if (mapView == null) {
+        createMapView();
+      }
+      // onMapReady picks up from here.
+      return;
+    }
+    final Request request = pending.poll();
+    final Bitmap cached = cache.get(request.key);
+    if (cached != null) {
+      // An earlier request in the queue rendered the same map.
+      deliver(request, cached);
+      renderNext();
+      return;
+    }
+    current = request;
+    final ViewGroup.LayoutParams params = mapView.getLayoutParams();
+    if (params.width != request.width || params.height != request.height) {
+      params.width = request.width;
+      params.height = request.height;
+      mapView.setLayoutParams(params);
+      cameraLoaded = false;
+    }
+    if (!request.cameraPosition.equals(camera)) {
+      naverMap.moveCamera(CameraUpdate.toCameraPosition(request.cameraPosition));
+      camera = request.cameraPosition;
+      cameraLoaded = false;
+    }
+    clearMarkers();
+    if (request.markers != null) {
+      for (Object marker : request.markers) {
+        final MarkerController controller =
+            new MarkerController(activity, overlayPool.acquireMarker(), false, overlayPool);
+        Convert.interpretMarkerOptions(marker, controller);
+        controller.getMarker().setMap(naverMap);
+        markers.add(controller);
+      }
+    }
+    loading = true;
+    if (cameraLoaded) {
+      // Nothing to load, so no load event either; the markers only need a frame.
+      handler.post(() -> snapshot(true));
+    } else {
+      handler.postDelayed(loadTimeout, LOAD_TIMEOUT_MILLIS);
+    }
+  }
+
+  /**
+   * Snapshots the map of the current request, once. Only snapshots taken after the tiles loaded
+   * are {@code complete} and cached.
+   */
+  private void snapshot(boolean complete) {
+    if (!loading) {
+      return;
+    }
+    loading = false;
+    handler.removeCallbacks(loadTimeout);
+    final Request request = current;
+    naverMap.takeSnapshot(
+        false,
+        new NaverMap.SnapshotReadyCallback() {
+          @Override
+          public void onSnapshotReady(@NonNull Bitmap bitmap) {
+            onRendered(request, bitmap, complete);
+          }
+        });
+  }
+
+  private void onRendered(Request request, Bitmap bitmap, boolean complete) {
+    if (request != current) {
+      // Disposed in the meantime.
+      bitmap.recycle();
+      return;
+    }
+    current = null;
+    deliver(request, bitmap);
+    if (complete) {
+      cache.put(request.key, bitmap);
+    } else {
+      bitmap.recycle();
+    }
+    renderNext();
+  }
+
+  private void createMapView() {
+    mapView =
+        new MapView(activity, new NaverMapOptions().liteModeEnabled(true).useTextureView(true));
+    // Behind the Flutter view, which covers it.
+    final ViewGroup content = activity.findViewById(android.R.id.content);
+    content.addView(mapView, 0, new FrameLayout.LayoutParams(1, 1));
+    mapView.onCreate(null);
+    mapView.onStart();
+    mapView.onResume();
+    mapView.getMapAsync(this);
+  }
+
+  private void clearMarkers() {
+    for (MarkerController controller : markers) {
+      controller.remove();
+    }
+    markers.clear();
+  }
+
+  /** Replies to {@code request} with {@code bitmap}, which stays owned by the cache. */
+  private void deliver(Request request, Bitmap bitmap) {
+    if (request.encoder != null) {
+      request.encoder.encode(bitmap.copy(Bitmap.Config.ARGB_8888, false), request.result);
+      return;
+    }
+    final TextureRegistry.SurfaceTextureEntry entry = textureRegistry.createSurfaceTexture();
+    entry.surfaceTexture().setDefaultBufferSize(bitmap.getWidth(), bitmap.getHeight());
+    final Surface surface = new Surface(entry.surfaceTexture());
+    try {
+      final Canvas canvas =
+          surface.lockCanvas(new Rect(0, 0, bitmap.getWidth(), bitmap.getHeight()));
+      canvas.drawBitmap(bitmap, 0, 0, null);
+      surface.unlockCanvasAndPost(canvas);
+    } finally {
+      surface.release();
+    }
+    textures.put(entry.id(), entry);
+    final Map<String, Object> data = new HashMap<>();
+    data.put("textureId", entry.id());
+    data.put("width", bitmap.getWidth());
+    data.put("height", bitmap.getHeight());
+    request.result.success(data);
+  }
+
+  /** Returns a hash of a decoded message value that only depends on its contents. */
+  private static long contentHash(Object value, long hash) {
+    // 64-bit FNV-1a, like PropertyWriteStats.hashPoints.
+    if (value instanceof Map) {
+      // Entry order isn't part of the content, so entries are combined by addition.
+      long sum = 0;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        sum += contentHash(entry.getValue(), contentHash(entry.getKey(), 0xcbf29ce484222325L));
+      }
+      return (hash ^ sum) * 0x100000001b3L;
+    }
+    if (value instanceof List) {
+      for (Object item : (List<?>) value) {
+        hash = contentHash(item, hash);
+      }
+      return (hash ^ ((List<?>) value).size()) * 0x100000001b3L;
+    }
+    if (value instanceof byte[]) {
+      for (byte b : (byte[]) value) {
+        hash = (hash ^ b) * 0x100000001b3L;
+      }
+      return hash;
+    }
+    return (hash ^ (value != null ? value.hashCode() : 0)) * 0x100000001b3L;
+  }
+
+  /** Returns whether two decoded message values have the same contents. */
+  private static boolean contentEquals(Object a, Object b) {
+    if (a instanceof Map && b instanceof Map) {
+      final Map<?, ?> mapA = (Map<?, ?>) a;
+      final Map<?, ?> mapB = (Map<?, ?>) b;
+      if (mapA.size() != mapB.size()) {
+        return false;
+      }
+      for (Map.Entry<?, ?> entry : mapA.entrySet()) {
+        if (!mapB.containsKey(entry.getKey())
+            || !contentEquals(entry.getValue(), mapB.get(entry.getKey()))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (a instanceof List && b instanceof List) {
+      final List<?> listA = (List<?>) a;
+      final List<?> listB = (List<?>) b;
+      if (listA.size() != listB.size()) {
+        return false;
+      }
+      for (int i = 0; i < listA.size(); i++) {
+        if (!contentEquals(listA.get(i), listB.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (a instanceof byte[] && b instanceof byte[]) {
+      return Arrays.equals((byte[]) a, (byte[]) b);
+    }
+    return a != null ? a.equals(b) : b == null;
+  }
+
+  /**
+   * The cache key of a request: its camera, markers and size as decoded from the call. Hits are
+   * compared by contents, so that requests whose hashes collide don't share a snapshot.
+   */
+  private static final class Content {
+    private final Object cameraPosition;
+    private final Object markers;
+    private final int width;
+    private final int height;
+    private final long hash;
+
+    Content(Object cameraPosition, Object markers, int width, int height) {
+      this.cameraPosition = cameraPosition;
+      this.markers = markers;
+      this.width = width;
+      this.height = height;
+      long hash = contentHash(cameraPosition, 0xcbf29ce484222325L);
+      hash = contentHash(markers, hash);
+      hash = (hash ^ width) * 0x100000001b3L;
+      this.hash = (hash ^ height) * 0x100000001b3L;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Content)) {
+        return false;
+      }
+      final Content other = (Content) o;
+      return hash == other.hash
+          && width == other.width
+          && height == other.height
+          && contentEquals(cameraPosition, other.cameraPosition)
+          && contentEquals(markers, other.markers);
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (hash ^ (hash >>> 32));
+    }
+  }
+
+  private static final class Request {
+    final CameraPosition cameraPosition;
+    final List<?> markers;
+    // Size in physical pixels.
+    final int width;
+    final int height;
+    // Null for a texture.
+    final SnapshotEncoder encoder;
+    final Content key;
+    final MethodChannel.Result result;
+
+    Request(MethodCall call, float density, MethodChannel.Result result) {
+      final Object cameraPosition = call.argument("cameraPosition");
+      this.cameraPosition = Convert.toCameraPosition(cameraPosition);
+      this.markers = call.argument("markers");
+      final List<?> size = call.argument("size");
+      this.width = Math.max(1, Math.round(((Number) size.get(0)).floatValue() * density));
+      this.height = Math.max(1, Math.round(((Number) size.get(1)).floatValue() * density));
+      final Boolean texture = call.argument("texture");
+      this.encoder =
+          texture != null && texture
+              ? null
+              : new SnapshotEncoder(call.argument("options"), density);
+      this.key = new Content(cameraPosition, markers, width, height);
+      this.result = result;
+    }
+  }
+}
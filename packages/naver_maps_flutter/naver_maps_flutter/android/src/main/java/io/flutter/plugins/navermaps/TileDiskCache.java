@@ -0,0 +1,409 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.naver.maps.model.AsyncTileProvider;
+import com.naver.maps.model.Tile;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persistent cache of the tiles fetched from Dart, shared by every map of the process.
+ *
+ * <p>Tiles are appended to segment files and an in-memory index, rebuilt by scanning the segments
+ * on first use, maps (tileOverlayId, x, y, zoom) to the record that holds the tile. When the cache
+ * grows past its size cap the oldest segment is deleted. A tile read from an older segment is
+ * rewritten to the current one, which keeps eviction close to LRU. Clearing the cache of an overlay
+ * bumps its version, which invalidates all of its records at once.
+ *
+ * <p>Disk I/O runs on a single background thread; {@link #get} and {@link #put} never block.
+ */
+final class TileDiskCache {
+
+  private static final String TAG = "TileDiskCache";
+
+  private static final int MAGIC = 0x4E4D5431;
+  // magic, version, writtenAt, key length
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 2;
+  private static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+  private static final int SEGMENTS_PER_CACHE = 8;
+  private static final String SEGMENT_PREFIX = "seg-";
+  private static final String SEGMENT_SUFFIX = ".dat";
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private static TileDiskCache instance;
+
+  private final File directory;
+  private final File versionsFile;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapTileCache");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  // Only touched on the executor thread, apart from maxSize.
+  private final Map<String, Record> index = new HashMap<>();
+  private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+  private final Map<String, Integer> versions = new HashMap<>();
+  private volatile long maxSize = DEFAULT_MAX_SIZE;
+  private long totalSize;
+  private boolean loaded;
+
+  static synchronized TileDiskCache getInstance(Context context) {
+    if (instance == null) {
+      instance = new TileDiskCache(new File(context.getCacheDir(), "naver_maps_tiles"));
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  TileDiskCache(File directory) {
+    this.directory = directory;
+    this.versionsFile = new File(directory, "versions");
+  }
+
+  void setMaxSize(long maxSize) {
+    this.maxSize = maxSize;
+    executor.execute(this::trimToSize);
+  }
+
+  /**
+   * Looks a tile up and completes with null on a miss or when the tile is older than {@code
+   * maxAgeMillis}. A non-positive {@code maxAgeMillis} never expires tiles.
+   */
+  void get(
+      String tileOverlayId,
+      int x,
+      int y,
+      int zoom,
+      long maxAgeMillis,
+      AsyncTileProvider.Callback callback) {
+    executor.execute(
+        () -> {
+          Tile tile = null;
+          try {
+            tile = read(tileOverlayId, x, y, zoom, maxAgeMillis);
+          } catch (IOException e) {
+            Log.e(TAG, "Can't read tile from disk cache", e);
+          }
+          callback.onTile(tile);
+        });
+  }
+
+  void put(String tileOverlayId, int x, int y, int zoom, Tile tile) {
+    if (tile == null || tile.data == null) {
+      return;
+    }
+    executor.execute(
+        () -> {
+          try {
+            ensureLoaded();
+            append(
+                toKey(tileOverlayId, x, y, zoom),
+                versionOf(tileOverlayId),
+                System.currentTimeMillis(),
+                tile);
+            trimToSize();
+          } catch (IOException e) {
+            Log.e(TAG, "Can't write tile to disk cache", e);
+          }
+        });
+  }
+
+  /** Drops every tile cached for {@code tileOverlayId}, including those of earlier sessions. */
+  void invalidate(String tileOverlayId) {
+    executor.execute(
+        () -> {
+          try {
+            ensureLoaded();
+            versions.put(tileOverlayId, versionOf(tileOverlayId) + 1);
+            saveVersions();
+            Iterator<String> iterator = index.keySet().iterator();
+            while (iterator.hasNext()) {
+              if (tileOverlayIdOf(iterator.next()).equals(tileOverlayId)) {
+                iterator.remove();
+              }
+            }
+          } catch (IOException e) {
+            Log.e(TAG, "Can't invalidate disk cache of " + tileOverlayId, e);
+          }
+        });
+  }
+
+  private Tile read(String tileOverlayId, int x, int y, int zoom, long maxAgeMillis)
+      throws IOException {
+    ensureLoaded();
+    String key = toKey(tileOverlayId, x, y, zoom);
+    Record record = index.get(key);
+    if (record == null) {
+      return null;
+    }
+    if (record.version != versionOf(tileOverlayId)
+        || (maxAgeMillis > 0 && System.currentTimeMillis() - record.writtenAt > maxAgeMillis)) {
+      index.remove(key);
+      return null;
+    }
+    Segment segment = segments.get(record.segmentId);
+    byte[] data = new byte[record.dataLength];
+    segment.file.seek(record.dataOffset);
+    segment.file.readFully(data);
+    Tile tile = new Tile(record.width, record.height, data);
+    if (record.segmentId != segments.lastKey()) {
+      // Keeps the original write time, so promotion doesn't extend the tile's max age.
+      append(key, record.version, record.writtenAt, tile);
+      trimToSize();
+    }
+    return tile;
+  }
+
+  private void append(String key, int version, long writtenAt, Tile tile) throws IOException {
+    Segment segment = currentSegment();
+    byte[] keyBytes = key.getBytes(UTF_8);
+    long offset = segment.size;
+    RandomAccessFile file = segment.file;
+    file.seek(offset);
+    file.writeInt(MAGIC);
+    file.writeInt(version);
+    file.writeLong(writtenAt);
+    file.writeShort(keyBytes.length);
+    file.write(keyBytes);
+    file.writeInt(tile.width);
+    file.writeInt(tile.height);
+    file.writeInt(tile.length);
+    file.write(tile.data, tile.offset, tile.length);
+    long recordSize = file.getFilePointer() - offset;
+    segment.size += recordSize;
+    totalSize += recordSize;
+    long dataOffset = offset + HEADER_SIZE + keyBytes.length + 12;
+    index.put(
+        key,
+        new Record(
+            segment.id, dataOffset, tile.length, tile.width, tile.height, version, writtenAt));
+  }
+
+  private Segment currentSegment() throws IOException {
+    if (!segments.isEmpty()) {
+      Segment last = segments.lastEntry().getValue();
+      if (last.size < maxSize / SEGMENTS_PER_CACHE) {
+        return last;
+      }
+    }
+    int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+    Segment segment = new Segment(id, new File(directory, SEGMENT_PREFIX + id + SEGMENT_SUFFIX));
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private void trimToSize() {
+    while (totalSize > maxSize && segments.size() > 1) {
+      Segment oldest = segments.pollFirstEntry().getValue();
+      Iterator<Record> iterator = index.values().iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next().segmentId == oldest.id) {
+          iterator.remove();
+        }
+      }
+      totalSize -= oldest.size;
+      oldest.delete();
+    }
+  }
+
+  private void ensureLoaded() throws IOException {
+    if (loaded) {
+      return;
+    }
+    // Drops what an earlier, failed attempt loaded, so that this one starts over.
+    for (Segment segment : segments.values()) {
+      segment.close();
+    }
+    segments.clear();
+    index.clear();
+    versions.clear();
+    totalSize = 0;
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Can't create " + directory);
+    }
+    loadVersions();
+    File[] files = directory.listFiles();
+    if (files == null) {
+      throw new IOException("Can't list " + directory);
+    }
+    for (File file : files) {
+      String name = file.getName();
+      if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+        continue;
+      }
+      try {
+        int id =
+            Integer.parseInt(
+                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        segments.put(id, new Segment(id, file));
+      } catch (NumberFormatException e) {
+        Log.w(TAG, "Ignoring unexpected file " + file);
+      }
+    }
+    for (Segment segment : segments.values()) {
+      scan(segment);
+      totalSize += segment.size;
+    }
+    loaded = true;
+  }
+
+  /** Indexes the records of {@code segment}, truncating a partially written last record. */
+  private void scan(Segment segment) throws IOException {
+    RandomAccessFile file = segment.file;
+    long length = file.length();
+    long offset = 0;
+    while (offset + HEADER_SIZE <= length) {
+      file.seek(offset);
+      if (file.readInt() != MAGIC) {
+        break;
+      }
+      int version = file.readInt();
+      long writtenAt = file.readLong();
+      byte[] keyBytes = new byte[file.readUnsignedShort()];
+      if (file.getFilePointer() + keyBytes.length + 12 > length) {
+        break;
+      }
+      file.readFully(keyBytes);
+      int width = file.readInt();
+      int height = file.readInt();
+      int dataLength = file.readInt();
+      long dataOffset = file.getFilePointer();
+      if (dataLength < 0 || dataOffset + dataLength > length) {
+        break;
+      }
+      String key = new String(keyBytes, UTF_8);
+      if (version == versionOf(tileOverlayIdOf(key))) {
+        index.put(
+            key, new Record(segment.id, dataOffset, dataLength, width, height, version, writtenAt));
+      }
+      offset = dataOffset + dataLength;
+    }
+    if (offset < length) {
+      Log.w(TAG, "Truncating corrupt tail of " + segment.path);
+      file.setLength(offset);
+    }
+    segment.size = offset;
+  }
+
+  private int versionOf(String tileOverlayId) {
+    Integer version = versions.get(tileOverlayId);
+    return version != null ? version : 0;
+  }
+
+  private void loadVersions() {
+    if (!versionsFile.exists()) {
+      return;
+    }
+    Properties properties = new Properties();
+    try (InputStream in = new FileInputStream(versionsFile)) {
+      properties.load(in);
+      for (String tileOverlayId : properties.stringPropertyNames()) {
+        versions.put(tileOverlayId, Integer.parseInt(properties.getProperty(tileOverlayId)));
+      }
+    } catch (IOException | NumberFormatException e) {
+      Log.e(TAG, "Can't read tile cache versions", e);
+    }
+  }
+
+  private void saveVersions() throws IOException {
+    Properties properties = new Properties();
+    for (Map.Entry<String, Integer> entry : versions.entrySet()) {
+      properties.setProperty(entry.getKey(), Integer.toString(entry.getValue()));
+    }
+    try (OutputStream out = new FileOutputStream(versionsFile)) {
+      properties.store(out, null);
+    }
+  }
+
+  private static String toKey(String tileOverlayId, int x, int y, int zoom) {
+    return tileOverlayId + "/" + zoom + "/" + x + "/" + y;
+  }
+
+  private static String tileOverlayIdOf(String key) {
+    int end = key.length();
+    for (int i = 0; i < 3; i++) {
+      end = key.lastIndexOf('/', end - 1);
+    }
+    return key.substring(0, end);
+  }
+
+  private static final class Record {
+    final int segmentId;
+    final long dataOffset;
+    final int dataLength;
+    final int width;
+    final int height;
+    final int version;
+    final long writtenAt;
+
+    Record(
+        int segmentId,
+        long dataOffset,
+        int dataLength,
+        int width,
+        int height,
+        int version,
+        long writtenAt) {
+      this.segmentId = segmentId;
+      this.dataOffset = dataOffset;
+      this.dataLength = dataLength;
+      this.width = width;
+      this.height = height;
+      this.version = version;
+      this.writtenAt = writtenAt;
+    }
+  }
+
+  private static final class Segment {
+    final int id;
+    final File path;
+    final RandomAccessFile file;
+    long size;
+
+    Segment(int id, File path) throws IOException {
+      this.id = id;
+      this.path = path;
+      this.file = new RandomAccessFile(path, "rw");
+    }
+
+    void close() {
+      try {
+        file.close();
+      } catch (IOException e) {
+        Log.w(TAG, "Can't close " + path, e);
+      }
+    }
+
+    void delete() {
+      close();
+      if (!path.delete()) {
+        Log.w(TAG, "Can't delete " + path);
+      }
+    }
+  }
+}
@@ -4,60 +4,202 @@
 
 package io.flutter.plugins.navermaps;
 
-import com.naver.maps.model.TileOverlay;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.naver.maps.map.NaverMap;
+import com.naver.maps.model.AsyncTileProvider;
+import com.naver.maps.model.Tile;
 import com.naver.maps.model.TileProvider;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * A tile overlay whose tiles come from a {@link TileProviderController}, i.e. from Dart, or from a
+ * {@link LocalTileProvider}.
+ *
+ * <p>The wanted tiles are requested from the provider when the camera becomes idle, decoded on a
+ * background thread and shown through {@link GroundOverlayTiles}. Requests for tiles that are no
+ * longer wanted are cancelled.
+ */
 class TileOverlayController implements TileOverlaySink {
 
-  private final TileOverlay tileOverlay;
+  private static final String TAG = "TileOverlayController";
+
+  // Shared by every tile overlay; decoding is quick next to fetching.
+  private static final ExecutorService decoder =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "NaverMapTileDecoder");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final String tileOverlayId;
+  // A TileProviderController, or a LocalTileProvider for tiles from local files.
+  private final AsyncTileProvider tileProvider;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final GroundOverlayTiles groundOverlayTiles = new GroundOverlayTiles();
+  private final Map<Long, AsyncTileProvider.Request> pendingRequests = new HashMap<>();
+  private boolean fadeIn = true;
+  private boolean disposed;
+
+  TileOverlayController(String tileOverlayId, AsyncTileProvider tileProvider) {
+    this.tileOverlayId = tileOverlayId;
+    this.tileProvider = tileProvider;
+  }
 
-  TileOverlayController(TileOverlay tileOverlay) {
-    this.tileOverlay = tileOverlay;
+  void setNaverMap(NaverMap naverMap) {
+    groundOverlayTiles.setNaverMap(naverMap);
+    refresh();
+  }
+
+  void onCameraIdle() {
+    refresh();
   }
 
   void remove() {
-    tileOverlay.remove();
+    disposed = true;
+    for (AsyncTileProvider.Request request : pendingRequests.values()) {
+      request.cancel();
+    }
+    pendingRequests.clear();
+    if (tileProvider instanceof TileProviderController) {
+      ((TileProviderController) tileProvider).cancelAll();
+    } else if (tileProvider instanceof LocalTileProvider) {
+      ((LocalTileProvider) tileProvider).close();
+    }
+    groundOverlayTiles.clear();
   }
 
+  /** Shows the tiles again from the provider, e.g. after the ones from Dart changed. */
   void clearTileCache() {
-    tileOverlay.clearTileCache();
+    for (AsyncTileProvider.Request request : pendingRequests.values()) {
+      request.cancel();
+    }
+    pendingRequests.clear();
+    if (tileProvider instanceof LocalTileProvider) {
+      ((LocalTileProvider) tileProvider).clearTileCache();
+    }
+    groundOverlayTiles.clear();
+    refresh();
   }
 
   Map<String, Object> getTileOverlayInfo() {
     Map<String, Object> tileOverlayInfo = new HashMap<>();
-    tileOverlayInfo.put("fadeIn", tileOverlay.getFadeIn());
-    tileOverlayInfo.put("transparency", tileOverlay.getTransparency());
-    tileOverlayInfo.put("id", tileOverlay.getId());
-    tileOverlayInfo.put("zIndex", tileOverlay.getZIndex());
-    tileOverlayInfo.put("visible", tileOverlay.isVisible());
+    tileOverlayInfo.put("fadeIn", fadeIn);
+    tileOverlayInfo.put("transparency", groundOverlayTiles.getTransparency());
+    tileOverlayInfo.put("id", tileOverlayId);
+    tileOverlayInfo.put("zIndex", groundOverlayTiles.getZIndex());
+    tileOverlayInfo.put("visible", groundOverlayTiles.isVisible());
     return tileOverlayInfo;
   }
 
   @Override
   public void setFadeIn(boolean fadeIn) {
-    tileOverlay.setFadeIn(fadeIn);
+    // Kept for getTileOverlayInfo; ground overlays don't fade in.
+    this.fadeIn = fadeIn;
   }
 
   @Override
   public void setTransparency(float transparency) {
-    tileOverlay.setTransparency(transparency);
+    groundOverlayTiles.setTransparency(transparency);
   }
 
   @Override
   public void setZIndex(float zIndex) {
-    tileOverlay.setZIndex(zIndex);
+    groundOverlayTiles.setZIndex(zIndex);
   }
 
   @Override
   public void setVisible(boolean visible) {
-    tileOverlay.setVisible(visible);
+    groundOverlayTiles.setVisible(visible);
   }
 
   @Override
   public void setTileProvider(TileProvider tileProvider) {
     // You can not change tile provider after creation
   }
+
+  @Override
+  public void setDiskCacheEnabled(boolean diskCacheEnabled) {
+    // Local tiles aren't written to the disk cache.
+    if (tileProvider instanceof TileProviderController) {
+      ((TileProviderController) tileProvider).setDiskCacheEnabled(diskCacheEnabled);
+    }
+  }
+
+  @Override
+  public void setCacheMaxAge(long cacheMaxAgeMillis) {
+    // Local tiles aren't written to the disk cache.
+    if (tileProvider instanceof TileProviderController) {
+      ((TileProviderController) tileProvider).setCacheMaxAge(cacheMaxAgeMillis);
+    }
+  }
+
+  /** Cancels the requests of the tiles that went off-screen and requests the missing ones. */
+  private void refresh() {
+    if (disposed) {
+      return;
+    }
+    final long[] keys = groundOverlayTiles.update();
+    if (keys == null) {
+      return;
+    }
+    for (Long key : pendingRequests.keySet().toArray(new Long[0])) {
+      if (!groundOverlayTiles.isWanted(key)) {
+        pendingRequests.remove(key).cancel();
+      }
+    }
+    for (long key : keys) {
+      if (groundOverlayTiles.isShown(key) || pendingRequests.containsKey(key)) {
+        continue;
+      }
+      // Providers complete requests asynchronously, so the request is known by then.
+      final AsyncTileProvider.Request[] request = new AsyncTileProvider.Request[1];
+      request[0] =
+          tileProvider.requestTile(
+              GroundOverlayTiles.xOf(key),
+              GroundOverlayTiles.yOf(key),
+              GroundOverlayTiles.zoomOf(key),
+              tile -> onTile(key, request[0], tile));
+      pendingRequests.put(key, request[0]);
+    }
+  }
+
+  /** Runs on the main thread when the provider completes {@code request}. */
+  private void onTile(long key, AsyncTileProvider.Request request, Tile tile) {
+    // A cancelled request may complete after the tile was requested again.
+    if (pendingRequests.get(key) != request) {
+      return;
+    }
+    pendingRequests.remove(key);
+    if (disposed
+        || tile == null
+        || tile == TileProvider.NO_TILE
+        || tile.data == null
+        || !groundOverlayTiles.isWanted(key)) {
+      return;
+    }
+    decoder.execute(
+        () -> {
+          final Bitmap bitmap = BitmapFactory.decodeByteArray(tile.data, tile.offset, tile.length);
+          if (bitmap == null) {
+            Log.e(TAG, "Can't decode tile " + key + " of " + tileOverlayId);
+            return;
+          }
+          handler.post(
+              () -> {
+                if (!disposed) {
+                  groundOverlayTiles.show(key, bitmap);
+                }
+              });
+        });
+  }
 }
@@ -17,4 +17,10 @@ interface TileOverlaySink {
   void setVisible(boolean visible);
 
   void setTileProvider(TileProvider tileProvider);
+
+  /** Whether the tiles from Dart are kept in the disk cache; off unless the overlay opts in. */
+  void setDiskCacheEnabled(boolean diskCacheEnabled);
+
+  /** Maximum age, in milliseconds, of the tiles served from the disk cache; 0 never expires. */
+  void setCacheMaxAge(long cacheMaxAgeMillis);
 }
@@ -5,8 +5,7 @@
 package io.flutter.plugins.navermaps;
 
 import com.naver.maps.map.NaverMap;
-import com.naver.maps.model.TileOverlay;
-import com.naver.maps.model.TileOverlayOptions;
+import com.naver.maps.model.AsyncTileProvider;
 
 import io.flutter.plugin.common.MethodChannel;
 import java.util.HashMap;
@@ -16,16 +15,26 @@ import java.util.Map;
 class TileOverlaysController {
 
   private final Map<String, TileOverlayController> tileOverlayIdToController;
+  private final Map<String, HeatmapController> heatmapIdToController;
   private final MethodChannel methodChannel;
+  private final TileDiskCache tileDiskCache;
   private NaverMap naverMap;
 
-  TileOverlaysController(MethodChannel methodChannel) {
+  TileOverlaysController(MethodChannel methodChannel, TileDiskCache tileDiskCache) {
     this.tileOverlayIdToController = new HashMap<>();
+    this.heatmapIdToController = new HashMap<>();
     this.methodChannel = methodChannel;
+    this.tileDiskCache = tileDiskCache;
   }
 
   void setNaverMap(NaverMap naverMap) {
     this.naverMap = naverMap;
+    for (HeatmapController heatmapController : heatmapIdToController.values()) {
+      heatmapController.setNaverMap(naverMap);
+    }
+    for (TileOverlayController tileOverlayController : tileOverlayIdToController.values()) {
+      tileOverlayController.setNaverMap(naverMap);
+    }
   }
 
   void addTileOverlays(List<Map<String, ?>> tileOverlaysToAdd) {
@@ -62,16 +71,40 @@ class TileOverlaysController {
     if (tileOverlayId == null) {
       return;
     }
+    tileDiskCache.invalidate(tileOverlayId);
     TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
     if (tileOverlayController != null) {
       tileOverlayController.clearTileCache();
     }
+    HeatmapController heatmapController = heatmapIdToController.get(tileOverlayId);
+    if (heatmapController != null) {
+      heatmapController.clearTileCache();
+    }
+  }
+
+  /**
+   * Replaces the points of a heatmap tile overlay, or appends to them, from a packed {@code [lat,
+   * lng, weight, ...]} array.
+   */
+  void setHeatmapPoints(String tileOverlayId, double[] points, boolean append) {
+    HeatmapController heatmapController = heatmapIdToController.get(tileOverlayId);
+    if (heatmapController != null) {
+      heatmapController.setPoints(points, append);
+    }
+  }
+
+  void setDiskCacheMaxSize(long maxSize) {
+    tileDiskCache.setMaxSize(maxSize);
   }
 
   Map<String, Object> getTileOverlayInfo(String tileOverlayId) {
     if (tileOverlayId == null) {
       return null;
     }
+    HeatmapController heatmapController = heatmapIdToController.get(tileOverlayId);
+    if (heatmapController != null) {
+      return heatmapController.getTileOverlayInfo();
+    }
     TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
     if (tileOverlayController == null) {
       return null;
@@ -79,22 +112,70 @@ class TileOverlaysController {
     return tileOverlayController.getTileOverlayInfo();
   }
 
+  /**
+   * Cancels the pending tile requests that scrolled off-screen while the camera moved, and shows
+   * the tiles that scrolled on-screen.
+   */
+  void onCameraIdle() {
+    for (HeatmapController heatmapController : heatmapIdToController.values()) {
+      heatmapController.onCameraIdle();
+    }
+    for (TileOverlayController tileOverlayController : tileOverlayIdToController.values()) {
+      tileOverlayController.onCameraIdle();
+    }
+  }
+
+  void dispose() {
+    for (HeatmapController heatmapController : heatmapIdToController.values()) {
+      heatmapController.remove();
+    }
+    heatmapIdToController.clear();
+    for (TileOverlayController tileOverlayController : tileOverlayIdToController.values()) {
+      tileOverlayController.remove();
+    }
+    tileOverlayIdToController.clear();
+  }
+
   private void addTileOverlay(Map<String, ?> tileOverlayOptions) {
-    return;
-    //TODO('Implement addTileOverlay')
-//    if (tileOverlayOptions == null) {
-//      return;
-//    }
-//    TileOverlayBuilder tileOverlayOptionsBuilder = new TileOverlayBuilder();
-//    String tileOverlayId =
-//        Convert.interpretTileOverlayOptions(tileOverlayOptions, tileOverlayOptionsBuilder);
-//    TileProviderController tileProviderController =
-//        new TileProviderController(methodChannel, tileOverlayId);
-//    tileOverlayOptionsBuilder.setTileProvider(tileProviderController);
-//    TileOverlayOptions options = tileOverlayOptionsBuilder.build();
-//    TileOverlay tileOverlay = naverMap.addTileOverlay(options);
-//    TileOverlayController tileOverlayController = new TileOverlayController(tileOverlay);
-//    tileOverlayIdToController.put(tileOverlayId, tileOverlayController);
+    if (tileOverlayOptions == null) {
+      return;
+    }
+    if (tileOverlayOptions.get("heatmap") != null) {
+      addHeatmap(tileOverlayOptions);
+      return;
+    }
+    String tileOverlayId = getTileOverlayId(tileOverlayOptions);
+    TileOverlayController tileOverlayController =
+        new TileOverlayController(
+            tileOverlayId, createTileProvider(tileOverlayId, tileOverlayOptions));
+    Convert.interpretTileOverlayOptions(tileOverlayOptions, tileOverlayController);
+    tileOverlayController.setNaverMap(naverMap);
+    tileOverlayIdToController.put(tileOverlayId, tileOverlayController);
+  }
+
+  /**
+   * Returns the provider of the tiles of a tile overlay: local files if the options have a {@code
+   * localTileSource}, otherwise Dart.
+   */
+  private AsyncTileProvider createTileProvider(
+      String tileOverlayId, Map<String, ?> tileOverlayOptions) {
+    Object localTileSource = tileOverlayOptions.get("localTileSource");
+    if (localTileSource != null) {
+      Object tileSize = tileOverlayOptions.get("tileSize");
+      return LocalTileProvider.fromJson(
+          localTileSource,
+          tileSize != null ? ((Number) tileSize).intValue() : LocalTileProvider.DEFAULT_TILE_SIZE);
+    }
+    return new TileProviderController(methodChannel, tileOverlayId, tileDiskCache);
+  }
+
+  private void addHeatmap(Map<String, ?> tileOverlayOptions) {
+    String tileOverlayId = getTileOverlayId(tileOverlayOptions);
+    HeatmapController heatmapController = new HeatmapController(tileOverlayId);
+    Convert.interpretTileOverlayOptions(tileOverlayOptions, heatmapController);
+    heatmapController.setOptions(tileOverlayOptions.get("heatmap"));
+    heatmapController.setNaverMap(naverMap);
+    heatmapIdToController.put(tileOverlayId, heatmapController);
   }
 
   private void changeTileOverlay(Map<String, ?> tileOverlayOptions) {
@@ -102,6 +183,15 @@ class TileOverlaysController {
       return;
     }
     String tileOverlayId = getTileOverlayId(tileOverlayOptions);
+    HeatmapController heatmapController = heatmapIdToController.get(tileOverlayId);
+    if (heatmapController != null) {
+      Convert.interpretTileOverlayOptions(tileOverlayOptions, heatmapController);
+      Object heatmap = tileOverlayOptions.get("heatmap");
+      if (heatmap != null) {
+        heatmapController.setOptions(heatmap);
+      }
+      return;
+    }
     TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
     if (tileOverlayController != null) {
       Convert.interpretTileOverlayOptions(tileOverlayOptions, tileOverlayController);
@@ -109,6 +199,10 @@ class TileOverlaysController {
   }
 
   private void removeTileOverlay(String tileOverlayId) {
+    HeatmapController heatmapController = heatmapIdToController.remove(tileOverlayId);
+    if (heatmapController != null) {
+      heatmapController.remove();
+    }
     TileOverlayController tileOverlayController = tileOverlayIdToController.get(tileOverlayId);
     if (tileOverlayController != null) {
       tileOverlayController.remove();
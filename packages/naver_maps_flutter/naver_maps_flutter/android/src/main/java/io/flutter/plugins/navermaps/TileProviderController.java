@@ -7,78 +7,339 @@ package io.flutter.plugins.navermaps;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
-import androidx.annotation.NonNull;
 
+import com.naver.maps.model.AsyncTileProvider;
 import com.naver.maps.model.Tile;
 import com.naver.maps.model.TileProvider;
 
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-class TileProviderController implements TileProvider {
+/**
+ * Fetches tiles from Dart through {@code tileOverlay#getTiles}.
+ *
+ * <p>Requests are queued on the main thread and the ones queued within {@link #BATCH_WINDOW_MILLIS}
+ * of each other are sent as a single batch, with at most {@link #MAX_IN_FLIGHT} of them waiting on
+ * Dart at a time. The batch reply is one packed buffer that is sliced into tiles without copying
+ * (see {@link Convert#interpretTiles}). If Dart doesn't implement {@code tileOverlay#getTiles},
+ * tiles are requested one by one through {@code tileOverlay#getTile}. No thread is held while a tile is in flight: each request completes
+ * through its callback, with {@link TileProvider#NO_TILE} on error, timeout or cancellation.
+ * Queue state is only touched on the main thread.
+ *
+ * <p>If the overlay opts in with {@code diskCache}, tiles are looked up in the {@link TileDiskCache}
+ * before being requested from Dart, and the tiles Dart returns are written back to it.
+ */
+class TileProviderController implements AsyncTileProvider {
 
   private static final String TAG = "TileProviderController";
 
+  static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+  private static final int MAX_IN_FLIGHT = 64;
+  private static final int MAX_BATCH_SIZE = 32;
+  private static final long BATCH_WINDOW_MILLIS = 16;
+
   private final String tileOverlayId;
   private final MethodChannel methodChannel;
+  private final TileDiskCache diskCache;
   private final Handler handler = new Handler(Looper.getMainLooper());
+  private final ArrayDeque<Request> queuedRequests = new ArrayDeque<>();
+  private final Set<Request> inFlightRequests = new HashSet<>();
+  private final Runnable sendQueuedRequests = this::sendQueuedRequests;
+  private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+  private boolean batchingSupported = true;
+  private boolean sendScheduled;
+  private volatile boolean diskCacheEnabled;
+  private volatile long cacheMaxAgeMillis;
 
-  TileProviderController(MethodChannel methodChannel, String tileOverlayId) {
+  TileProviderController(
+      MethodChannel methodChannel, String tileOverlayId, TileDiskCache diskCache) {
     this.tileOverlayId = tileOverlayId;
     this.methodChannel = methodChannel;
+    this.diskCache = diskCache;
+  }
+
+  void setTimeoutMillis(long timeoutMillis) {
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  void setDiskCacheEnabled(boolean diskCacheEnabled) {
+    this.diskCacheEnabled = diskCacheEnabled;
+  }
+
+  void setCacheMaxAge(long cacheMaxAgeMillis) {
+    this.cacheMaxAgeMillis = cacheMaxAgeMillis;
+  }
+
+  @Override
+  public AsyncTileProvider.Request requestTile(
+      final int x, final int y, final int zoom, AsyncTileProvider.Callback callback) {
+    final Request request = new Request(x, y, zoom, callback);
+    if (!diskCacheEnabled) {
+      runOnMainThread(() -> enqueue(request));
+      return request;
+    }
+    diskCache.get(
+        tileOverlayId,
+        x,
+        y,
+        zoom,
+        cacheMaxAgeMillis,
+        tile -> {
+          if (tile != null) {
+            runOnMainThread(() -> request.finish(tile));
+          } else {
+            runOnMainThread(() -> enqueue(request));
+          }
+        });
+    return request;
   }
 
+  /**
+   * Blocking adapter for hosts that can only call {@link TileProvider#getTile}. It never blocks the
+   * main thread, where waiting for the platform channel would deadlock, and gives up after the
+   * request timeout.
+   */
   @Override
   public Tile getTile(final int x, final int y, final int zoom) {
-    Worker worker = new Worker(x, y, zoom);
-    return worker.getTile();
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      Log.w(
+          TAG,
+          String.format("getTile called on the main thread: x = %d, y= %d, zoom = %d", x, y, zoom));
+      return TileProvider.NO_TILE;
+    }
+    final CountDownLatch countDownLatch = new CountDownLatch(1);
+    final Tile[] result = new Tile[1];
+    AsyncTileProvider.Request request =
+        requestTile(
+            x,
+            y,
+            zoom,
+            tile -> {
+              result[0] = tile;
+              countDownLatch.countDown();
+            });
+    try {
+      if (!countDownLatch.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+        request.cancel();
+        return TileProvider.NO_TILE;
+      }
+    } catch (InterruptedException e) {
+      Log.e(
+          TAG,
+          String.format("countDownLatch: can't get tile: x = %d, y= %d, zoom = %d", x, y, zoom),
+          e);
+      request.cancel();
+      return TileProvider.NO_TILE;
+    }
+    return result[0];
+  }
+
+  /** Cancels every pending request. */
+  void cancelAll() {
+    for (Request request : queuedRequests) {
+      request.finish(TileProvider.NO_TILE);
+    }
+    for (Request request : inFlightRequests.toArray(new Request[0])) {
+      request.finish(TileProvider.NO_TILE);
+    }
   }
 
-  private final class Worker implements MethodChannel.Result {
+  private void enqueue(Request request) {
+    if (request.done.get()) {
+      return;
+    }
+    queuedRequests.add(request);
+    scheduleSend();
+  }
+
+  private void scheduleSend() {
+    if (sendScheduled || queuedRequests.isEmpty()) {
+      return;
+    }
+    sendScheduled = true;
+    handler.postDelayed(sendQueuedRequests, BATCH_WINDOW_MILLIS);
+  }
+
+  private void sendQueuedRequests() {
+    sendScheduled = false;
+    while (inFlightRequests.size() < MAX_IN_FLIGHT && !queuedRequests.isEmpty()) {
+      if (!batchingSupported) {
+        Request request = queuedRequests.poll();
+        if (!request.done.get()) {
+          inFlightRequests.add(request);
+          request.send();
+        }
+        continue;
+      }
+      int size = Math.min(MAX_BATCH_SIZE, MAX_IN_FLIGHT - inFlightRequests.size());
+      List<Request> requests = new ArrayList<>(size);
+      while (requests.size() < size && !queuedRequests.isEmpty()) {
+        Request request = queuedRequests.poll();
+        if (!request.done.get()) {
+          inFlightRequests.add(request);
+          requests.add(request);
+        }
+      }
+      if (!requests.isEmpty()) {
+        new Batch(requests).send();
+      }
+    }
+  }
+
+  private void runOnMainThread(Runnable runnable) {
+    if (Looper.myLooper() == Looper.getMainLooper()) {
+      runnable.run();
+    } else {
+      handler.post(runnable);
+    }
+  }
+
+  /** A {@code tileOverlay#getTiles} call; its requests complete individually. */
+  private final class Batch implements MethodChannel.Result {
+
+    private final List<Request> requests;
+
+    Batch(List<Request> requests) {
+      this.requests = requests;
+    }
+
+    void send() {
+      int[] tiles = new int[requests.size() * 3];
+      for (int i = 0; i < requests.size(); i++) {
+        Request request = requests.get(i);
+        request.startTimeout();
+        tiles[i * 3] = request.x;
+        tiles[i * 3 + 1] = request.y;
+        tiles[i * 3 + 2] = request.zoom;
+      }
+      methodChannel.invokeMethod(
+          "tileOverlay#getTiles",
+          Convert.tileOverlayBatchArgumentsToJson(tileOverlayId, tiles),
+          this);
+    }
+
+    @Override
+    public void success(Object data) {
+      Tile[] tiles;
+      try {
+        tiles = Convert.interpretTiles((byte[]) data, requests.size());
+      } catch (Exception e) {
+        Log.e(TAG, "Can't parse tiles data", e);
+        for (Request request : requests) {
+          request.finish(TileProvider.NO_TILE);
+        }
+        return;
+      }
+      for (int i = 0; i < tiles.length; i++) {
+        requests.get(i).complete(tiles[i]);
+      }
+    }
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object data) {
+      Log.e(
+          TAG,
+          String.format(
+              "Can't get tiles: errorCode = %s, errorMessage = %s, date = %s",
+              errorCode, errorMessage, data));
+      for (Request request : requests) {
+        request.finish(TileProvider.NO_TILE);
+      }
+    }
+
+    @Override
+    public void notImplemented() {
+      Log.w(TAG, "tileOverlay#getTiles is not implemented, falling back to tileOverlay#getTile");
+      batchingSupported = false;
+      for (Request request : requests) {
+        if (!request.done.get()) {
+          request.send();
+        }
+      }
+    }
+  }
+
+  private final class Request implements AsyncTileProvider.Request, MethodChannel.Result {
 
-    private final CountDownLatch countDownLatch = new CountDownLatch(1);
     private final int x;
     private final int y;
     private final int zoom;
-    private Map<String, ?> result;
+    private final AsyncTileProvider.Callback callback;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final Runnable timeout = this::onTimeout;
 
-    Worker(int x, int y, int zoom) {
+    Request(int x, int y, int zoom, AsyncTileProvider.Callback callback) {
       this.x = x;
       this.y = y;
       this.zoom = zoom;
+      this.callback = callback;
     }
 
-    @NonNull
-    Tile getTile() {
-      handler.post(
-          () ->
-              methodChannel.invokeMethod(
-                  "tileOverlay#getTile",
-                  Convert.tileOverlayArgumentsToJson(tileOverlayId, x, y, zoom),
-                  this));
-      try {
-        // Because `methodChannel.invokeMethod` is async, we use a `countDownLatch` make it synchronized.
-        countDownLatch.await();
-      } catch (InterruptedException e) {
-        Log.e(
-            TAG,
-            String.format("countDownLatch: can't get tile: x = %d, y= %d, zoom = %d", x, y, zoom),
-            e);
-        return TileProvider.NO_TILE;
+    private void onTimeout() {
+      Log.w(TAG, String.format("Tile request timed out: x = %d, y= %d, zoom = %d", x, y, zoom));
+      finish(TileProvider.NO_TILE);
+    }
+
+    void startTimeout() {
+      handler.removeCallbacks(timeout);
+      handler.postDelayed(timeout, timeoutMillis);
+    }
+
+    void send() {
+      startTimeout();
+      methodChannel.invokeMethod(
+          "tileOverlay#getTile",
+          Convert.tileOverlayArgumentsToJson(tileOverlayId, x, y, zoom),
+          this);
+    }
+
+    @Override
+    public void cancel() {
+      runOnMainThread(() -> finish(TileProvider.NO_TILE));
+    }
+
+    /** Completes this request once; later replies from Dart are ignored. */
+    void finish(Tile tile) {
+      if (!done.compareAndSet(false, true)) {
+        return;
       }
+      handler.removeCallbacks(timeout);
+      if (inFlightRequests.remove(this)) {
+        scheduleSend();
+      }
+      callback.onTile(tile);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void success(Object data) {
+      Tile tile;
       try {
-        return Convert.interpretTile(result);
+        tile = Convert.interpretTile((Map<String, ?>) data);
       } catch (Exception e) {
         Log.e(TAG, "Can't parse tile data", e);
-        return TileProvider.NO_TILE;
+        tile = TileProvider.NO_TILE;
       }
+      complete(tile);
     }
 
-    @Override
-    public void success(Object data) {
-      result = (Map<String, ?>) data;
-      countDownLatch.countDown();
+    /** Completes this request with a tile received from Dart; null stands for no tile. */
+    void complete(Tile tile) {
+      if (tile == null) {
+        tile = TileProvider.NO_TILE;
+      }
+      if (diskCacheEnabled && tile != TileProvider.NO_TILE && !done.get()) {
+        diskCache.put(tileOverlayId, x, y, zoom, tile);
+      }
+      finish(tile);
     }
 
     @Override
@@ -87,16 +348,14 @@ class TileProviderController implements TileProvider {
           TAG,
           String.format(
               "Can't get tile: errorCode = %s, errorMessage = %s, date = %s",
-              errorCode, errorCode, data));
-      result = null;
-      countDownLatch.countDown();
+              errorCode, errorMessage, data));
+      finish(TileProvider.NO_TILE);
     }
 
     @Override
     public void notImplemented() {
       Log.e(TAG, "Can't get tile: notImplemented");
-      result = null;
-      countDownLatch.countDown();
+      finish(TileProvider.NO_TILE);
     }
   }
 }
@@ -0,0 +1,158 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
+import com.naver.maps.map.NaverMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a lightweight record of every object of a controller in an {@link RTree} by bounds and
+ * only asks its {@link Host} to attach overlays for the objects that intersect the visible region
+ * plus a margin.
+ *
+ * <p>The attached set is refreshed when the camera becomes idle and after objects are added, moved
+ * or removed. Must be used on the main thread.
+ */
+class ViewportVirtualizer<T> {
+
+  /** Creates and destroys the overlays of the objects that scroll in and out of view. */
+  interface Host<T> {
+    void attach(String id, T item);
+
+    void detach(String id);
+  }
+
+  // Fraction of the visible span added on each side, so that short pans don't detach anything.
+  private static final double MARGIN = 0.25;
+
+  private final Host<T> host;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable refresh = this::refresh;
+  private final RTree<String> tree = new RTree<>();
+  private final Map<String, T> items = new HashMap<>();
+  private final Set<String> attached = new HashSet<>();
+  private NaverMap naverMap;
+  private boolean refreshScheduled;
+
+  ViewportVirtualizer(Host<T> host) {
+    this.host = host;
+  }
+
+  void setNaverMap(NaverMap naverMap) {
+    this.naverMap = naverMap;
+    scheduleRefresh();
+  }
+
+  boolean contains(String id) {
+    return items.containsKey(id);
+  }
+
+  T get(String id) {
+    return items.get(id);
+  }
+
+  /** Adds or moves an object. An object without bounds is never attached. */
+  void put(String id, T item, LatLngBounds bounds) {
+    items.put(id, item);
+    if (bounds == null) {
+      tree.remove(id);
+    } else {
+      tree.insert(
+          id,
+          bounds.getWestLongitude(),
+          bounds.getSouthLatitude(),
+          bounds.getEastLongitude(),
+          bounds.getNorthLatitude());
+    }
+    scheduleRefresh();
+  }
+
+  void put(String id, T item, LatLng position) {
+    put(id, item, position != null ? new LatLngBounds(position, position) : null);
+  }
+
+  void remove(String id) {
+    if (items.remove(id) == null) {
+      return;
+    }
+    tree.remove(id);
+    if (attached.remove(id)) {
+      host.detach(id);
+    }
+  }
+
+  void onCameraIdle() {
+    scheduleRefresh();
+  }
+
+  /** Attaches every object, e.g. before virtualization is turned off. */
+  void attachAll() {
+    for (Map.Entry<String, T> item : items.entrySet()) {
+      if (attached.add(item.getKey())) {
+        host.attach(item.getKey(), item.getValue());
+      }
+    }
+  }
+
+  void clear() {
+    handler.removeCallbacks(refresh);
+    refreshScheduled = false;
+    items.clear();
+    attached.clear();
+    tree.clear();
+  }
+
+  private void scheduleRefresh() {
+    if (refreshScheduled) {
+      return;
+    }
+    refreshScheduled = true;
+    // Coalesces the changes of a whole update batch into a single refresh.
+    handler.post(refresh);
+  }
+
+  private void refresh() {
+    refreshScheduled = false;
+    if (naverMap == null || items.isEmpty()) {
+      return;
+    }
+    LatLngBounds bounds = naverMap.getContentBounds();
+    double marginX = (bounds.getEastLongitude() - bounds.getWestLongitude()) * MARGIN;
+    double marginY = (bounds.getNorthLatitude() - bounds.getSouthLatitude()) * MARGIN;
+    List<String> visible = new ArrayList<>();
+    tree.search(
+        bounds.getWestLongitude() - marginX,
+        bounds.getSouthLatitude() - marginY,
+        bounds.getEastLongitude() + marginX,
+        bounds.getNorthLatitude() + marginY,
+        visible);
+    Set<String> visibleIds = new HashSet<>(visible);
+    Iterator<String> iterator = attached.iterator();
+    while (iterator.hasNext()) {
+      String id = iterator.next();
+      if (!visibleIds.contains(id)) {
+        iterator.remove();
+        host.detach(id);
+      }
+    }
+    for (String id : visible) {
+      if (attached.add(id)) {
+        host.attach(id, items.get(id));
+      }
+    }
+  }
+}
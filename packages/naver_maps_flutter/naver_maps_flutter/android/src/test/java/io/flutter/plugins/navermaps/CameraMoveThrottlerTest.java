@@ -0,0 +1,160 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class CameraMoveThrottlerTest {
+
+  @Test
+  public void sendsTheFirstMoveRightAway() {
+    final FakeThrottler throttler = new FakeThrottler();
+
+    throttler.onCameraMove();
+
+    assertEquals(1, throttler.sent.size());
+    assertArrayEquals(throttler.position, throttler.sent.get(0), 0);
+  }
+
+  @Test
+  public void holdsBackMovesWithinTheIntervalAndFlushesTheLatestOnIdle() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.onCameraMove();
+
+    throttler.moveTo(37.6, 127, 10, 0, 0);
+    throttler.now += 10;
+    throttler.onCameraMove();
+    throttler.moveTo(37.7, 127, 10, 0, 0);
+    throttler.now += 10;
+    throttler.onCameraMove();
+
+    assertEquals(1, throttler.sent.size());
+    throttler.onCameraIdle();
+    assertEquals(2, throttler.sent.size());
+    assertEquals(37.7, throttler.sent.get(1)[0], 0);
+  }
+
+  @Test
+  public void dropsMovesSmallerThanTheDeltas() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.setMinDeltas(0.001, 0.1, 1);
+    throttler.onCameraMove();
+
+    throttler.moveTo(37.5005, 127, 10.05, 0, 0.5);
+    throttler.now += 100;
+    throttler.onCameraMove();
+    assertEquals(1, throttler.sent.size());
+
+    throttler.moveTo(37.502, 127, 10, 0, 0);
+    throttler.now += 100;
+    throttler.onCameraMove();
+    assertEquals(2, throttler.sent.size());
+  }
+
+  @Test
+  public void alwaysSendsTiltChanges() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.setMinDeltas(1, 1, 10);
+    throttler.onCameraMove();
+
+    throttler.moveTo(37.5, 127, 10, 1, 0);
+    throttler.now += 100;
+    throttler.onCameraMove();
+
+    assertEquals(2, throttler.sent.size());
+  }
+
+  @Test
+  public void measuresBearingChangesAcrossNorth() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.setMinDeltas(0, 0, 5);
+    throttler.moveTo(37.5, 127, 10, 0, 359);
+    throttler.onCameraMove();
+
+    throttler.moveTo(37.5, 127, 10, 0, 2);
+    throttler.now += 100;
+    throttler.onCameraMove();
+
+    assertEquals(1, throttler.sent.size());
+  }
+
+  @Test
+  public void idleSendsTheFinalPositionOnlyIfItWasNotSent() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.setMinDeltas(1, 1, 10);
+    throttler.onCameraMove();
+    throttler.onCameraIdle();
+    assertEquals(1, throttler.sent.size());
+
+    throttler.now += 100;
+    throttler.onCameraMove();
+    throttler.moveTo(37.50001, 127, 10, 0, 0);
+    throttler.onCameraIdle();
+    assertEquals(3, throttler.sent.size());
+
+    // Without a move in between, idle sends nothing.
+    throttler.onCameraIdle();
+    assertEquals(3, throttler.sent.size());
+  }
+
+  @Test
+  public void sendsEveryChangeWithoutARate() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.setMaxRate(0);
+
+    for (int i = 0; i < 3; i++) {
+      throttler.moveTo(37.5 + i, 127, 10, 0, 0);
+      throttler.onCameraMove();
+    }
+
+    assertEquals(3, throttler.sent.size());
+  }
+
+  @Test
+  public void sendsNothingWithoutAMap() {
+    final FakeThrottler throttler = new FakeThrottler();
+    throttler.position = null;
+
+    throttler.onCameraMove();
+    throttler.onCameraIdle();
+
+    assertEquals(0, throttler.sent.size());
+  }
+
+  /** Reads its camera and clock from fields and records what it sends. */
+  private static final class FakeThrottler extends CameraMoveThrottler {
+    final List<double[]> sent = new ArrayList<>();
+    double[] position = {37.5, 127, 10, 0, 0};
+    long now = 1000;
+
+    FakeThrottler() {
+      super(null);
+    }
+
+    void moveTo(double latitude, double longitude, double zoom, double tilt, double bearing) {
+      position = new double[] {latitude, longitude, zoom, tilt, bearing};
+    }
+
+    @Override
+    double[] cameraPosition() {
+      return position != null ? position.clone() : null;
+    }
+
+    @Override
+    long now() {
+      return now;
+    }
+
+    @Override
+    void send(double[] position) {
+      sent.add(position);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.naver.maps.model.Tile;
+import com.naver.maps.model.TileProvider;
+
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class ConvertTilesTest {
+
+  @Test
+  public void interpretTilesSharesTheBuffer() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 2 * 16 + 3);
+    buffer.putInt(2);
+    buffer.putInt(256).putInt(128).putInt(36).putInt(3);
+    buffer.putInt(-1).putInt(-1).putInt(-1).putInt(-1);
+    buffer.put(new byte[] {7, 8, 9});
+    final byte[] data = buffer.array();
+
+    final Tile[] tiles = Convert.interpretTiles(data, 2);
+
+    assertEquals(2, tiles.length);
+    assertEquals(256, tiles[0].width);
+    assertEquals(128, tiles[0].height);
+    assertSame(data, tiles[0].data);
+    assertEquals(36, tiles[0].offset);
+    assertEquals(3, tiles[0].length);
+    assertSame(TileProvider.NO_TILE, tiles[1]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void interpretTilesRejectsAnUnexpectedCount() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 16);
+    buffer.putInt(1);
+    buffer.putInt(-1).putInt(-1).putInt(-1).putInt(-1);
+
+    Convert.interpretTiles(buffer.array(), 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void interpretTilesRejectsPayloadsOutOfBounds() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 16 + 2);
+    buffer.putInt(1);
+    buffer.putInt(256).putInt(256).putInt(20).putInt(3);
+
+    Convert.interpretTiles(buffer.array(), 1);
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void interpretTilesRejectsTruncatedHeaders() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 8);
+    buffer.putInt(1);
+
+    Convert.interpretTiles(buffer.array(), 1);
+  }
+}
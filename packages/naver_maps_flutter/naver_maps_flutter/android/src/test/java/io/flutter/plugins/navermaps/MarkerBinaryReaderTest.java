@@ -0,0 +1,158 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.model.MarkerOptions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import org.junit.Test;
+
+public class MarkerBinaryReaderTest {
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  @Test
+  public void interpretsAddedChangedAndRemovedMarkers() {
+    final ByteBuffer buffer = batch(new String[] {"a", "b", "title", "c"}, 1, 1, 1);
+    record(
+        buffer,
+        0,
+        MarkerBinaryReader.FIELD_POSITION
+            | MarkerBinaryReader.FIELD_ALPHA
+            | MarkerBinaryReader.FIELD_FLAT
+            | MarkerBinaryReader.FIELD_INFO_WINDOW_TEXT,
+        MarkerBinaryReader.FLAG_FLAT,
+        -1,
+        2,
+        -1);
+    record(buffer, 1, MarkerBinaryReader.FIELD_VISIBLE, 0, -1, -1, -1);
+    buffer.putInt(3);
+
+    final MarkerBinaryReader reader = new MarkerBinaryReader(buffer.array(), null);
+
+    assertEquals(1, reader.addCount());
+    assertEquals(1, reader.changeCount());
+    final MarkerBuilder added = new MarkerBuilder();
+    assertEquals("a", reader.interpret(0, added));
+    final MarkerOptions options = added.build();
+    assertEquals(37.5, options.getPosition().latitude, 0);
+    assertEquals(127.0, options.getPosition().longitude, 0);
+    assertEquals(0.5f, options.getAlpha(), 0);
+    assertTrue(options.isFlat());
+    assertEquals("title", options.getTitle());
+    assertNull(options.getSnippet());
+    assertNull(reader.icon(0));
+
+    final MarkerBuilder changed = new MarkerBuilder();
+    assertEquals("b", reader.interpret(1, changed));
+    assertFalse(changed.build().isVisible());
+    assertEquals(Collections.<Object>singletonList("c"), reader.markerIdsToRemove());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsANegativeStringLength() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 4 + 12);
+    buffer.putInt(MarkerBinaryReader.VERSION).putInt(1).putInt(-4);
+    buffer.putInt(0).putInt(0).putInt(0);
+    new MarkerBinaryReader(buffer.array(), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsAStringPastTheEnd() {
+    final ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + 4 + 12);
+    buffer.putInt(MarkerBinaryReader.VERSION).putInt(1).putInt(100);
+    new MarkerBinaryReader(buffer.array(), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsAnOutOfRangeMarkerId() {
+    final ByteBuffer buffer = batch(new String[] {"a"}, 1, 0, 0);
+    record(buffer, 5, 0, 0, -1, -1, -1);
+    new MarkerBinaryReader(buffer.array(), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsAnOutOfRangeIcon() {
+    final ByteBuffer buffer = batch(new String[] {"a"}, 1, 0, 0);
+    record(buffer, 0, MarkerBinaryReader.FIELD_ICON, 0, 0, -1, -1);
+    new MarkerBinaryReader(buffer.array(), Collections.emptyList());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsAnOutOfRangeSnippet() {
+    final ByteBuffer buffer = batch(new String[] {"a"}, 1, 0, 0);
+    record(buffer, 0, MarkerBinaryReader.FIELD_INFO_WINDOW_TEXT, 0, -1, 0, 1);
+    new MarkerBinaryReader(buffer.array(), null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsAnOutOfRangeRemovedId() {
+    final ByteBuffer buffer = batch(new String[] {"a"}, 0, 0, 1);
+    buffer.putInt(-1);
+    new MarkerBinaryReader(buffer.array(), null);
+  }
+
+  @Test
+  public void ignoresIndexesOfFieldsThatAreNotSet() {
+    final ByteBuffer buffer = batch(new String[] {"a"}, 1, 0, 0);
+    record(buffer, 0, 0, 0, 42, 42, 42);
+    final MarkerBinaryReader reader = new MarkerBinaryReader(buffer.array(), null);
+    assertEquals("a", reader.interpret(0, new MarkerBuilder()));
+  }
+
+  @Test
+  public void applyToReplaysEveryOption() {
+    final MarkerBuilder builder = new MarkerBuilder();
+    builder.setPosition(new LatLng(1, 2));
+    builder.setInfoWindowText("title", "snippet");
+    builder.setZIndex(3);
+    final MarkerBuilder copy = new MarkerBuilder();
+
+    builder.applyTo(copy);
+
+    final MarkerOptions options = copy.build();
+    assertEquals(1, options.getPosition().latitude, 0);
+    assertEquals("title", options.getTitle());
+    assertEquals("snippet", options.getSnippet());
+    assertEquals(3, options.getZIndex(), 0);
+    assertEquals(1, options.getAlpha(), 0);
+    assertEquals(0.5f, options.getAnchorU(), 0);
+    assertEquals(1, options.getAnchorV(), 0);
+    assertTrue(options.isVisible());
+  }
+
+  /** Returns a buffer positioned at the first record, sized for the given counts. */
+  private static ByteBuffer batch(String[] strings, int adds, int changes, int removes) {
+    int size = 4 + 4 + 12 + (adds + changes) * MarkerBinaryReader.RECORD_SIZE + 4 * removes;
+    for (String string : strings) {
+      size += 4 + string.getBytes(UTF_8).length;
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(size);
+    buffer.putInt(MarkerBinaryReader.VERSION).putInt(strings.length);
+    for (String string : strings) {
+      final byte[] bytes = string.getBytes(UTF_8);
+      buffer.putInt(bytes.length).put(bytes);
+    }
+    buffer.putInt(adds).putInt(changes).putInt(removes);
+    return buffer;
+  }
+
+  private static void record(
+      ByteBuffer buffer, int markerId, int fields, int flags, int icon, int title, int snippet) {
+    buffer.putInt(markerId).putInt(fields).putInt(flags);
+    buffer.putDouble(37.5).putDouble(127.0);
+    buffer.putFloat(0.5f).putFloat(0.5f).putFloat(1).putFloat(0).putFloat(0);
+    buffer.putFloat(0.5f).putFloat(0);
+    buffer.putInt(icon).putInt(title).putInt(snippet);
+  }
+}
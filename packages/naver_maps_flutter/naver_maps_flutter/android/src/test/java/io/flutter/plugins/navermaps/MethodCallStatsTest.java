@@ -0,0 +1,99 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class MethodCallStatsTest {
+
+  @Test
+  public void smallLatenciesHaveABucketEach() {
+    for (int micros = 0; micros < 8; micros++) {
+      assertEquals(micros, MethodCallStats.bucketOf(micros));
+      assertEquals(micros, MethodCallStats.lowerBoundOf(micros));
+    }
+  }
+
+  @Test
+  public void bucketsAreWithinAQuarterOfTheirLowerBound() {
+    int previous = -1;
+    for (long micros = 0; micros < 1 << 20; micros++) {
+      final int bucket = MethodCallStats.bucketOf(micros);
+      final long lowerBound = MethodCallStats.lowerBoundOf(bucket);
+      assertTrue("bucket of " + micros, bucket >= previous);
+      assertTrue("lower bound of " + micros, lowerBound <= micros);
+      assertTrue("width at " + micros, micros - lowerBound <= lowerBound / 4);
+      previous = bucket;
+    }
+  }
+
+  @Test
+  public void hugeLatenciesGoToTheLastBucket() {
+    final int last = MethodCallStats.bucketOf(Long.MAX_VALUE);
+    assertEquals(last, MethodCallStats.bucketOf(1L << 40));
+    assertTrue(MethodCallStats.bucketOf(1L << 30) < last);
+  }
+
+  @Test
+  public void recordsCountsLatenciesAndQuantiles() {
+    final MethodCallStats stats = new MethodCallStats();
+    for (int micros = 1; micros <= 100; micros++) {
+      stats.record("camera#move", micros, null);
+    }
+
+    final Map<?, ?> method = (Map<?, ?>) stats.toJson().get("camera#move");
+
+    assertEquals(100L, method.get("count"));
+    assertEquals(5050L, method.get("totalMicros"));
+    assertEquals(100L, method.get("maxMicros"));
+    final long p50 = (Long) method.get("p50Micros");
+    assertTrue("p50 " + p50, p50 <= 50 && p50 > 50 * 3 / 4);
+    final long p99 = (Long) method.get("p99Micros");
+    assertTrue("p99 " + p99, p99 <= 99 && p99 > 99 * 3 / 4);
+    long histogramCount = 0;
+    for (Object bucket : (List<?>) method.get("histogram")) {
+      histogramCount += ((long[]) bucket)[1];
+    }
+    assertEquals(100, histogramCount);
+  }
+
+  @Test
+  public void sizesOnlyTheTopLevelOfTheArguments() {
+    final MethodCallStats stats = new MethodCallStats();
+    final Map<String, Object> arguments = new HashMap<>();
+    arguments.put(
+        "markersToAdd",
+        Arrays.asList(
+            Collections.singletonMap("markerId", "a"),
+            Collections.singletonMap("markerId", "b"),
+            Collections.singletonMap("markerId", "c")));
+    arguments.put("data", new byte[100]);
+
+    stats.record("markers#update", 10, arguments);
+
+    final Map<?, ?> method = (Map<?, ?>) stats.toJson().get("markers#update");
+    // The map, then each key by its length and each value: 3 items of 8 bytes and 100 bytes.
+    assertEquals(1L + 12 + (1 + 3 * 8) + 4 + 100, method.get("payloadBytes"));
+    assertEquals(3L, method.get("objects"));
+  }
+
+  @Test
+  public void resetForgetsEveryMethod() {
+    final MethodCallStats stats = new MethodCallStats();
+    stats.record("map#update", 10, null);
+
+    stats.reset();
+
+    assertTrue(stats.toJson().isEmpty());
+  }
+}
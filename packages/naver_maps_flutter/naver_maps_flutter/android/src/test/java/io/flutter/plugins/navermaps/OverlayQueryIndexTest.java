@@ -0,0 +1,88 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class OverlayQueryIndexTest {
+
+  private static final List<Object> REGION_CORNERS =
+      Arrays.<Object>asList(Arrays.asList(37.0, 127.0), Arrays.asList(37.1, 127.1));
+
+  @Test
+  public void queriesPackedAndListPoints() {
+    final OverlayQueryIndex index = new OverlayQueryIndex();
+    final Map<String, Object> packed = new HashMap<>();
+    packed.put("points", new double[] {37.05, 126.9, 37.05, 127.2});
+    index.putPath(OverlayQueryIndex.POLYLINES, "packed", packed);
+    final Map<String, Object> listed = new HashMap<>();
+    listed.put("points", Arrays.asList(Arrays.asList(38.0, 126.9), Arrays.asList(38.0, 127.2)));
+    index.putPath(OverlayQueryIndex.POLYLINES, "outside", listed);
+
+    final Map<String, Object> result =
+        index.query(
+            Collections.singletonMap("bounds", REGION_CORNERS),
+            Collections.singletonList(OverlayQueryIndex.POLYLINES),
+            0);
+
+    assertEquals("packed\0", ids(result, OverlayQueryIndex.POLYLINES));
+    assertEquals(false, result.get("truncated"));
+  }
+
+  @Test
+  public void polygonsContainingTheRegionMatch() {
+    final OverlayQueryIndex index = new OverlayQueryIndex();
+    final Map<String, Object> options = new HashMap<>();
+    options.put("points", new double[] {36, 126, 36, 128, 38, 128, 38, 126});
+    index.putPath(OverlayQueryIndex.POLYGONS, "around", options);
+
+    final Map<String, Object> result =
+        index.query(
+            Collections.singletonMap("bounds", REGION_CORNERS),
+            Collections.singletonList(OverlayQueryIndex.POLYGONS),
+            0);
+
+    assertEquals("around\0", ids(result, OverlayQueryIndex.POLYGONS));
+  }
+
+  @Test
+  public void regionsInsideAHoleOfARingViewDontMatch() {
+    final OverlayQueryIndex index = new OverlayQueryIndex();
+    final List<LatLng> points =
+        Arrays.asList(
+            new LatLng(36, 126), new LatLng(36, 128), new LatLng(38, 128), new LatLng(38, 126));
+    final List<LatLng> hole =
+        Arrays.asList(
+            new LatLng(36.9, 126.9),
+            new LatLng(36.9, 127.2),
+            new LatLng(37.2, 127.2),
+            new LatLng(37.2, 126.9));
+    index.putPath(
+        OverlayQueryIndex.POLYGONS, "donut", PathRings.of(points, Collections.singletonList(hole)));
+    index.putPath(OverlayQueryIndex.POLYGONS, "solid", PathRings.of(points, null));
+
+    final Map<String, Object> result =
+        index.query(
+            Collections.singletonMap("bounds", REGION_CORNERS),
+            Collections.singletonList(OverlayQueryIndex.POLYGONS),
+            0);
+
+    assertEquals("solid\0", ids(result, OverlayQueryIndex.POLYGONS));
+  }
+
+  private static String ids(Map<String, Object> result, String kind) {
+    return new String((byte[]) result.get(kind), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+
+import com.naver.maps.geometry.LatLng;
+import com.naver.maps.geometry.LatLngBounds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class PathLevelOfDetailTest {
+
+  private static final LatLngBounds REGION = new LatLngBounds(new LatLng(0, 0), new LatLng(1, 1));
+
+  // Leaves the region east, for vertices 2 and 3 well beyond it, and comes back.
+  private static final List<LatLng> PATH =
+      Arrays.asList(
+          new LatLng(0.5, 0.5),
+          new LatLng(0.5, 5),
+          new LatLng(0.5, 6),
+          new LatLng(0.5, 7),
+          new LatLng(0.5, 0.6));
+
+  @Test
+  public void clipDropsTheInnerVerticesOfStretchesOutsideOfTheRegion() {
+    final PathLevelOfDetail lod = new PathLevelOfDetail(PATH, 2, 0);
+
+    final List<LatLng> points = lod.pointsFor(18, REGION);
+
+    assertEquals(Arrays.asList(0.5, 5.0, 7.0, 0.6), longitudes(points));
+  }
+
+  @Test
+  public void clipKeepsStretchesWithinTheMargin() {
+    // The margin is a quarter of the visible span on each side.
+    final List<LatLng> path =
+        Arrays.asList(
+            new LatLng(0.5, 0.5),
+            new LatLng(0.5, 1.2),
+            new LatLng(0.5, 1.2),
+            new LatLng(0.5, 0.6));
+    final PathLevelOfDetail lod = new PathLevelOfDetail(path, 2, 0);
+
+    assertEquals(Arrays.asList(0.5, 1.2, 1.2, 0.6), longitudes(lod.pointsFor(18, REGION)));
+  }
+
+  @Test
+  public void clipFallsBackToThePathBelowTheMinimumPointCount() {
+    final PathLevelOfDetail lod = new PathLevelOfDetail(PATH, 5, 0);
+
+    assertEquals(5, lod.pointsFor(18, REGION).size());
+  }
+
+  @Test
+  public void fullDetailWithoutARegionIsThePath() {
+    final PathLevelOfDetail lod = new PathLevelOfDetail(PATH, 2, 0);
+
+    assertEquals(longitudes(PATH), longitudes(lod.pointsFor(18, null)));
+  }
+
+  @Test
+  public void levelsChangeEveryOtherZoom() {
+    assertEquals(0, PathLevelOfDetail.levelFor(1.5));
+    assertEquals(1, PathLevelOfDetail.levelFor(2));
+    assertEquals(8, PathLevelOfDetail.levelFor(17.9));
+    assertEquals(-1, PathLevelOfDetail.levelFor(18));
+  }
+
+  private static List<Double> longitudes(List<LatLng> points) {
+    final List<Double> longitudes = new ArrayList<>();
+    for (LatLng point : points) {
+      longitudes.add(point.longitude);
+    }
+    return longitudes;
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.naver.maps.geometry.LatLng;
+
+import java.util.List;
+import org.junit.Test;
+
+public class PathSimplifierTest {
+
+  @Test
+  public void toLatLngsReadsPairs() {
+    final List<LatLng> points = PathSimplifier.toLatLngs(new double[] {37.5, 127.0, 37.6, 127.1});
+
+    assertEquals(2, points.size());
+    assertEquals(37.5, points.get(0).latitude, 0);
+    assertEquals(127.0, points.get(0).longitude, 0);
+    assertEquals(37.6, points.get(1).latitude, 0);
+    assertEquals(127.1, points.get(1).longitude, 0);
+  }
+
+  @Test
+  public void projectMapsToWorldUnits() {
+    final double[] x = new double[2];
+    final double[] y = new double[2];
+
+    PathSimplifier.project(new double[] {0, 0, 0, 180}, x, y);
+
+    assertEquals(0.5, x[0], 1e-12);
+    assertEquals(0.5, y[0], 1e-12);
+    assertEquals(1, x[1], 1e-12);
+  }
+
+  @Test
+  public void simplifyDropsPointsWithinTheTolerance() {
+    final double[] x = {0, 1, 2, 3, 4};
+    final double[] y = {0, 0.05, -0.05, 0.05, 0};
+
+    final boolean[] keep = PathSimplifier.simplify(x, y, 0.1);
+
+    assertTrue(keep[0]);
+    assertFalse(keep[1]);
+    assertFalse(keep[2]);
+    assertFalse(keep[3]);
+    assertTrue(keep[4]);
+  }
+
+  @Test
+  public void simplifyKeepsPointsBeyondTheTolerance() {
+    final double[] x = {0, 1, 2, 3, 4};
+    final double[] y = {0, 0, 0.5, 0, 0};
+
+    final boolean[] keep = PathSimplifier.simplify(x, y, 0.1);
+
+    assertTrue(keep[2]);
+    // Farther than the tolerance from the line to the kept peak.
+    assertTrue(keep[1]);
+    assertTrue(keep[3]);
+  }
+
+  @Test
+  public void simplifyKeepsTheEndsOfAStraightLine() {
+    final boolean[] keep =
+        PathSimplifier.simplify(new double[] {0, 1, 2}, new double[] {0, 1, 2}, 0);
+
+    assertTrue(keep[0]);
+    assertFalse(keep[1]);
+    assertTrue(keep[2]);
+  }
+
+  @Test
+  public void simplifyHandlesLongPaths() {
+    // A zigzag keeps every point, which nests the ranges deeper than the initial stack.
+    final int count = 100000;
+    final double[] x = new double[count];
+    final double[] y = new double[count];
+    for (int i = 0; i < count; i++) {
+      x[i] = i;
+      y[i] = (i % 2) * (1 + i * 1e-3);
+    }
+
+    final boolean[] keep = PathSimplifier.simplify(x, y, 0.5);
+
+    for (int i = 0; i < count; i++) {
+      assertTrue("point " + i, keep[i]);
+    }
+  }
+}
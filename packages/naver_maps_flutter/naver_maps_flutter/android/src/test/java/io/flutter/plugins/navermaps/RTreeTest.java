@@ -0,0 +1,111 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class RTreeTest {
+
+  @Test
+  public void searchFindsIntersectingBoxes() {
+    final RTree<String> tree = new RTree<>();
+    tree.insert("a", 0, 0, 1, 1);
+    tree.insert("b", 2, 2, 3, 3);
+    tree.insert("point", 5, 5, 5, 5);
+
+    assertEquals(Collections.singletonList("a"), search(tree, 0.5, 0.5, 1.5, 1.5));
+    // Touching edges intersect.
+    assertEquals(Collections.singletonList("b"), search(tree, 3, 3, 4, 4));
+    assertEquals(Collections.singletonList("point"), search(tree, 4, 4, 6, 6));
+    assertTrue(search(tree, 10, 10, 11, 11).isEmpty());
+  }
+
+  @Test
+  public void insertingAgainMovesTheValue() {
+    final RTree<String> tree = new RTree<>();
+    tree.insert("a", 0, 0, 1, 1);
+
+    tree.insert("a", 10, 10, 11, 11);
+
+    assertEquals(1, tree.size());
+    assertTrue(search(tree, 0, 0, 1, 1).isEmpty());
+    assertEquals(Collections.singletonList("a"), search(tree, 10, 10, 11, 11));
+  }
+
+  @Test
+  public void removeAndClear() {
+    final RTree<String> tree = new RTree<>();
+    tree.insert("a", 0, 0, 1, 1);
+    tree.insert("b", 0, 0, 1, 1);
+
+    assertTrue(tree.remove("a"));
+    assertFalse(tree.remove("a"));
+    assertFalse(tree.contains("a"));
+    assertEquals(Collections.singletonList("b"), search(tree, 0, 0, 1, 1));
+
+    tree.clear();
+    assertEquals(0, tree.size());
+    assertTrue(search(tree, 0, 0, 1, 1).isEmpty());
+  }
+
+  @Test
+  public void matchesABruteForceSearchThroughSplitsAndRemovals() {
+    final Random random = new Random(42);
+    final RTree<Integer> tree = new RTree<>();
+    final Map<Integer, double[]> boxes = new HashMap<>();
+    for (int step = 0; step < 5000; step++) {
+      final int value = random.nextInt(1000);
+      if (random.nextInt(4) == 0) {
+        assertEquals(boxes.remove(value) != null, tree.remove(value));
+      } else {
+        final double x = random.nextDouble() * 100;
+        final double y = random.nextDouble() * 100;
+        final double[] box = {x, y, x + random.nextDouble() * 5, y + random.nextDouble() * 5};
+        boxes.put(value, box);
+        tree.insert(value, box[0], box[1], box[2], box[3]);
+      }
+      if (step % 250 == 0) {
+        assertEquals(boxes.size(), tree.size());
+        for (int query = 0; query < 20; query++) {
+          final double x = random.nextDouble() * 100;
+          final double y = random.nextDouble() * 100;
+          final double[] region = {x, y, x + 10, y + 10};
+          final List<Integer> expected = new ArrayList<>();
+          for (Map.Entry<Integer, double[]> entry : boxes.entrySet()) {
+            final double[] box = entry.getValue();
+            if (box[0] <= region[2]
+                && box[2] >= region[0]
+                && box[1] <= region[3]
+                && box[3] >= region[1]) {
+              expected.add(entry.getKey());
+            }
+          }
+          final List<Integer> found = new ArrayList<>();
+          tree.search(region[0], region[1], region[2], region[3], found);
+          Collections.sort(expected);
+          Collections.sort(found);
+          assertEquals(expected, found);
+        }
+      }
+    }
+  }
+
+  private static List<String> search(
+      RTree<String> tree, double minX, double minY, double maxX, double maxY) {
+    final List<String> out = new ArrayList<>();
+    tree.search(minX, minY, maxX, maxY, out);
+    return out;
+  }
+}
@@ -0,0 +1,152 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.navermaps;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.naver.maps.model.Tile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TileDiskCacheTest {
+
+  private File directory;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("tile_disk_cache").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    deleteRecursively(directory);
+  }
+
+  @Test
+  public void getReturnsPutTile() throws InterruptedException {
+    final TileDiskCache cache = new TileDiskCache(directory);
+    cache.put("overlay", 1, 2, 3, new Tile(256, 256, new byte[] {1, 2, 3}));
+
+    final Tile tile = get(cache, "overlay", 1, 2, 3, 0);
+
+    assertNotNull(tile);
+    assertEquals(256, tile.width);
+    assertEquals(256, tile.height);
+    assertArrayEquals(new byte[] {1, 2, 3}, tile.data);
+    assertNull(get(cache, "overlay", 2, 2, 3, 0));
+    assertNull(get(cache, "other", 1, 2, 3, 0));
+  }
+
+  @Test
+  public void tilesOutliveTheCache() throws InterruptedException {
+    final TileDiskCache cache = new TileDiskCache(directory);
+    cache.put("overlay", 1, 2, 3, new Tile(256, 256, new byte[] {4, 5}));
+    // Waits for the write, as the executor runs tasks in order.
+    get(cache, "overlay", 1, 2, 3, 0);
+
+    final Tile tile = get(new TileDiskCache(directory), "overlay", 1, 2, 3, 0);
+
+    assertNotNull(tile);
+    assertArrayEquals(new byte[] {4, 5}, tile.data);
+  }
+
+  @Test
+  public void invalidateDropsTheTilesOfAnOverlay() throws InterruptedException {
+    final TileDiskCache cache = new TileDiskCache(directory);
+    cache.put("overlay", 1, 2, 3, new Tile(256, 256, new byte[] {1}));
+    cache.put("other", 1, 2, 3, new Tile(256, 256, new byte[] {2}));
+
+    cache.invalidate("overlay");
+
+    assertNull(get(cache, "overlay", 1, 2, 3, 0));
+    assertNotNull(get(cache, "other", 1, 2, 3, 0));
+    assertNull(get(new TileDiskCache(directory), "overlay", 1, 2, 3, 0));
+  }
+
+  @Test
+  public void tilesExpireAfterMaxAge() throws InterruptedException {
+    final TileDiskCache cache = new TileDiskCache(directory);
+    cache.put("overlay", 1, 2, 3, new Tile(256, 256, new byte[] {1}));
+    get(cache, "overlay", 1, 2, 3, 0);
+    Thread.sleep(20);
+
+    assertNull(get(cache, "overlay", 1, 2, 3, 10));
+  }
+
+  @Test
+  public void readsDontGrowTheCachePastMaxSize() throws InterruptedException {
+    final long maxSize = 8 * 1024;
+    final TileDiskCache cache = new TileDiskCache(directory);
+    cache.setMaxSize(maxSize);
+    for (int x = 0; x < 4; x++) {
+      cache.put("overlay", x, 0, 1, new Tile(256, 256, new byte[500]));
+    }
+    // Every read of a tile from an older segment appends it to the newest one.
+    for (int i = 0; i < 200; i++) {
+      get(cache, "overlay", i % 4, 0, 1, 0);
+    }
+
+    long size = 0;
+    for (File file : directory.listFiles()) {
+      if (file.getName().endsWith(".dat")) {
+        size += file.length();
+      }
+    }
+    // The newest segment may go over its share by one record.
+    assertTrue("cache size " + size, size <= maxSize + 1024);
+  }
+
+  @Test
+  public void loadingIsRetriedAfterAFailure() throws IOException, InterruptedException {
+    final File file = new File(directory, "not_a_directory");
+    assertTrue(file.createNewFile());
+    final TileDiskCache cache = new TileDiskCache(file);
+
+    assertNull(get(cache, "overlay", 1, 2, 3, 0));
+
+    assertTrue(file.delete());
+    cache.put("overlay", 1, 2, 3, new Tile(256, 256, new byte[] {7}));
+    assertNotNull(get(cache, "overlay", 1, 2, 3, 0));
+  }
+
+  private static Tile get(TileDiskCache cache, String tileOverlayId, int x, int y, int zoom,
+      long maxAgeMillis) throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final Tile[] result = new Tile[1];
+    cache.get(
+        tileOverlayId,
+        x,
+        y,
+        zoom,
+        maxAgeMillis,
+        tile -> {
+          result[0] = tile;
+          latch.countDown();
+        });
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    return result[0];
+  }
+
+  private static void deleteRecursively(File file) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
+}
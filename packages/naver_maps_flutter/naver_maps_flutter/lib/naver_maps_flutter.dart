@@ -21,6 +21,7 @@ export 'package:naver_maps_flutter_platform_interface/naver_maps_flutter_platfor
         ArgumentCallbacks,
         ArgumentCallback,
         BitmapDescriptor,
+        CameraMoveThrottle,
         CameraPosition,
         CameraPositionCallback,
         CameraTargetBounds,
@@ -28,25 +29,37 @@ export 'package:naver_maps_flutter_platform_interface/naver_maps_flutter_platfor
         Cap,
         Circle,
         CircleId,
+        HeatmapGradient,
+        HeatmapOptions,
         InfoWindow,
         JointType,
         LatLng,
         LatLngBounds,
+        LocalTileSource,
         MapStyleException,
         MapType,
         Marker,
+        MarkerClustering,
         MarkerId,
+        MarkerLoadProgressEvent,
         MinMaxZoomPreference,
+        OverlayQueryRegion,
+        OverlayQueryResult,
+        OverlayQueryType,
         PatternItem,
         Polygon,
         PolygonId,
         Polyline,
         PolylineId,
         ScreenCoordinate,
+        SnapshotFormat,
+        SnapshotOptions,
+        SnapshotPixels,
         Tile,
         TileOverlayId,
         TileOverlay,
         TileProvider;
 
 part 'src/controller.dart';
-part 'src/naver_map.dart';
\ No newline at end of file
+part 'src/naver_map.dart';
+part 'src/static_map.dart';
\ No newline at end of file
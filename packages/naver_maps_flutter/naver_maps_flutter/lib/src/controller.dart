@@ -110,10 +110,21 @@ class NaverMapController {
   /// The returned [Future] completes after listeners have been notified.
   Future<void> _updateMarkers(MarkerUpdates markerUpdates) {
     assert(markerUpdates != null);
+    if (defaultTargetPlatform == TargetPlatform.android &&
+        markerUpdates.markersToAdd.length +
+                markerUpdates.markersToChange.length >=
+            _kBinaryMarkerUpdateThreshold) {
+      return NaverMapsFlutterPlatform.instance
+          .updateMarkersBinary(markerUpdates, mapId: mapId);
+    }
     return NaverMapsFlutterPlatform.instance
         .updateMarkers(markerUpdates, mapId: mapId);
   }
 
+  // Updates of at least this many markers are packed into a buffer on
+  // Android, where decoding a map per marker dominates large updates.
+  static const int _kBinaryMarkerUpdateThreshold = 100;
+
   /// Updates polygon configuration.
   ///
   /// Change listeners are notified once the update has been made on the
@@ -161,6 +172,20 @@ class NaverMapController {
         .updateTileOverlays(newTileOverlays: newTileOverlays, mapId: mapId);
   }
 
+  /// Adds a large set of [markers] in chunks of [chunkSize] without holding
+  /// up the map; see [onMarkerLoadProgress] for progress.
+  ///
+  /// Streamed markers are not part of the [NaverMap.markers] set, so they are
+  /// not updated or removed by later changes to it.
+  Future<void> streamMarkers(Iterable<Marker> markers, {int chunkSize = 500}) {
+    return NaverMapsFlutterPlatform.instance
+        .streamMarkers(markers, mapId: mapId, chunkSize: chunkSize);
+  }
+
+  /// Progress of [streamMarkers] and of adding the initial markers.
+  Stream<MarkerLoadProgressEvent> get onMarkerLoadProgress =>
+      NaverMapsFlutterPlatform.instance.onMarkerLoadProgress(mapId: mapId);
+
   /// Clears the tile cache so that all tiles will be requested again from the
   /// [TileProvider].
   ///
@@ -174,6 +199,36 @@ class NaverMapController {
         .clearTileCache(tileOverlayId, mapId: mapId);
   }
 
+  /// Replaces the points of the heatmap [TileOverlay] with [tileOverlayId].
+  ///
+  /// [points] are packed as `[latitude, longitude, weight, ...]`.
+  Future<void> setHeatmapPoints(
+      TileOverlayId tileOverlayId, Float64List points) {
+    return NaverMapsFlutterPlatform.instance
+        .setHeatmapPoints(tileOverlayId, points, mapId: mapId);
+  }
+
+  /// Adds [points], packed like in [setHeatmapPoints], to the points of the
+  /// heatmap [TileOverlay] with [tileOverlayId].
+  ///
+  /// Only the tiles that the new points reach are rendered again.
+  Future<void> appendHeatmapPoints(
+      TileOverlayId tileOverlayId, Float64List points) {
+    return NaverMapsFlutterPlatform.instance
+        .setHeatmapPoints(tileOverlayId, points, mapId: mapId, append: true);
+  }
+
+  /// Sets the size, in bytes, of the disk cache of the tile overlays with
+  /// [TileOverlay.diskCache].
+  ///
+  /// The cache is shared by every map; the oldest tiles are dropped once it
+  /// grows past [maxSize]. The default is 64 MiB. Android only.
+  Future<void> setTileDiskCacheMaxSize(int maxSize) {
+    assert(maxSize > 0);
+    return NaverMapsFlutterPlatform.instance
+        .setTileDiskCacheMaxSize(maxSize, mapId: mapId);
+  }
+
   /// Starts an animated change of the map camera position.
   ///
   /// The returned [Future] completes after the change has been started on the
@@ -282,8 +337,82 @@ class NaverMapController {
   }
 
   /// Returns the image bytes of the map
-  Future<Uint8List?> takeSnapshot() {
-    return NaverMapsFlutterPlatform.instance.takeSnapshot(mapId: mapId);
+  ///
+  /// On Android, [options] can crop, scale down and encode the snapshot in
+  /// another format; this is done off the main thread.
+  Future<Uint8List?> takeSnapshot({SnapshotOptions? options}) {
+    return NaverMapsFlutterPlatform.instance
+        .takeSnapshot(mapId: mapId, options: options);
+  }
+
+  /// Returns the unencoded pixels of the map, cropped and scaled down as set
+  /// by [options]. Android only.
+  ///
+  /// This skips encoding, for snapshots that are decoded or processed right
+  /// away.
+  Future<SnapshotPixels?> takeSnapshotPixels({SnapshotOptions? options}) {
+    return NaverMapsFlutterPlatform.instance
+        .takeSnapshotPixels(mapId: mapId, options: options);
+  }
+
+  /// Returns platform-side performance counters of the map, such as per-method
+  /// call counts and latencies, resetting them if [reset] is true.
+  Future<Map<String, Object?>> getStats({bool reset = false}) {
+    return NaverMapsFlutterPlatform.instance
+        .getStats(mapId: mapId, reset: reset);
+  }
+
+  /// Returns the counters of the process-wide cache of decoded marker icons:
+  /// `hitCount`, `missCount`, `evictionCount`, `size` and `maxSize`.
+  /// Android only.
+  Future<Map<String, Object?>> getIconCacheStats() {
+    return NaverMapsFlutterPlatform.instance.getIconCacheStats(mapId: mapId);
+  }
+
+  /// Returns the process-wide counts of overlay property writes that were
+  /// `applied` and that were `skipped` because they changed nothing,
+  /// resetting them if [reset] is true. Android only.
+  Future<Map<String, Object?>> getPropertyWriteStats({bool reset = false}) {
+    return NaverMapsFlutterPlatform.instance
+        .getPropertyWriteStats(mapId: mapId, reset: reset);
+  }
+
+  /// Returns the process-wide counters of the pool of pre-warmed map views,
+  /// resetting them if [reset] is true. Android only.
+  ///
+  /// See [NaverMapsFlutterPlatform.getMapViewPoolStats] for the counters.
+  Future<Map<String, Object?>> getMapViewPoolStats({bool reset = false}) {
+    return NaverMapsFlutterPlatform.instance
+        .getMapViewPoolStats(mapId: mapId, reset: reset);
+  }
+
+  /// Moves each marker of [tracks] along its track, e.g. to follow vehicles
+  /// from periodic location updates.
+  ///
+  /// See [NaverMapsFlutterPlatform.animateMarkers].
+  Future<void> animateMarkers(List<MarkerTrack> tracks,
+      {bool rotateToHeading = false}) {
+    return NaverMapsFlutterPlatform.instance.animateMarkers(tracks,
+        mapId: mapId, rotateToHeading: rotateToHeading);
+  }
+
+  /// Returns the ids of the map's objects of [types] that lie at least partly
+  /// in [region], e.g. for a lasso selection, without keeping their geometry
+  /// in Dart.
+  ///
+  /// At most [limit] ids are returned, unless it is 0.
+  Future<OverlayQueryResult> queryOverlays(
+    OverlayQueryRegion region, {
+    Set<OverlayQueryType> types = const <OverlayQueryType>{
+      OverlayQueryType.marker,
+      OverlayQueryType.polygon,
+      OverlayQueryType.polyline,
+      OverlayQueryType.circle,
+    },
+    int limit = 0,
+  }) {
+    return NaverMapsFlutterPlatform.instance
+        .queryOverlays(region, mapId: mapId, types: types, limit: limit);
   }
 
   /// Disposes of the platform resources
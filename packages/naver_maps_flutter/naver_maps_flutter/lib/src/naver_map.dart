@@ -58,6 +58,9 @@ class NaverMap extends StatefulWidget {
     this.zoomControlsEnabled = true,
     this.zoomGesturesEnabled = true,
     this.liteModeEnabled = false,
+    this.cameraMoveThrottle = const CameraMoveThrottle(),
+    this.markerClustering = MarkerClustering.disabled,
+    this.virtualizeOverlays = false,
     this.tiltGesturesEnabled = true,
     this.myLocationEnabled = false,
     this.myLocationButtonEnabled = true,
@@ -138,6 +141,16 @@ class NaverMap extends StatefulWidget {
   final Set<Marker> markersToRemove;
   final Set<Marker> markersToChange;
 
+  /// How [markers] are grouped into clusters. Android only.
+  final MarkerClustering markerClustering;
+
+  final bool virtualizeOverlays;
+
+  /// True if only the markers, polygons and polylines near the visible region
+  /// are kept on the map, the others being added back as the camera reaches
+  /// them. This keeps large sets of overlays cheap to pan around. Android only.
+  final bool virtualizeOverlays;
+
   /// Polygons to be placed on the map.
   final Set<Polygon> polygons;
 
@@ -163,10 +176,13 @@ class NaverMap extends StatefulWidget {
   /// Called repeatedly as the camera continues to move after an
   /// onCameraMoveStarted call.
   ///
-  /// This may be called as often as once every frame and should
-  /// not perform expensive operations.
+  /// This may be called as often as once every frame, or as limited by
+  /// [cameraMoveThrottle], and should not perform expensive operations.
   final CameraPositionCallback? onCameraMove;
 
+  /// Limits how often [onCameraMove] is called. Android only.
+  final CameraMoveThrottle cameraMoveThrottle;
+
   /// Called when camera movement has ended, there are no pending
   /// animations and the user has stopped interacting with the map.
   final VoidCallback? onCameraIdle;
@@ -458,6 +474,9 @@ class _NaverMapOptions {
         scrollGesturesEnabled = map.scrollGesturesEnabled,
         tiltGesturesEnabled = map.tiltGesturesEnabled,
         trackCameraPosition = map.onCameraMove != null,
+        cameraMoveThrottle = map.cameraMoveThrottle,
+        markerClustering = map.markerClustering,
+        virtualizeOverlays = map.virtualizeOverlays,
         zoomControlsEnabled = map.zoomControlsEnabled,
         zoomGesturesEnabled = map.zoomGesturesEnabled,
         liteModeEnabled = map.liteModeEnabled,
@@ -487,6 +506,10 @@ class _NaverMapOptions {
 
   final bool trackCameraPosition;
 
+  final CameraMoveThrottle cameraMoveThrottle;
+
+  final MarkerClustering markerClustering;
+
   final bool zoomControlsEnabled;
 
   final bool zoomGesturesEnabled;
@@ -519,6 +542,9 @@ class _NaverMapOptions {
       'zoomGesturesEnabled': zoomGesturesEnabled,
       'liteModeEnabled': liteModeEnabled,
       'trackCameraPosition': trackCameraPosition,
+      'cameraMoveThrottle': cameraMoveThrottle.toJson(),
+      'markerClustering': markerClustering.toJson(),
+      'virtualizeOverlays': virtualizeOverlays,
       'myLocationEnabled': myLocationEnabled,
       'myLocationButtonEnabled': myLocationButtonEnabled,
       'padding': <double>[
@@ -0,0 +1,50 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of naver_maps_flutter;
+
+/// Renders static map images, such as thumbnails in a list, on a single map
+/// engine shared by all of them instead of a [NaverMap] each.
+///
+/// Results are cached by camera, markers and size, so showing the same
+/// static map again doesn't render it again.
+class StaticMapRenderer {
+  StaticMapRenderer._();
+
+  /// Returns the PNG bytes of a static map of [size] logical pixels at
+  /// [cameraPosition] with [markers].
+  static Future<Uint8List?> render({
+    required CameraPosition cameraPosition,
+    required Size size,
+    Set<Marker> markers = const <Marker>{},
+  }) {
+    return NaverMapsFlutterPlatform.instance.renderStaticMap(
+      cameraPosition: cameraPosition,
+      size: size,
+      markers: markers,
+    );
+  }
+
+  /// Draws a static map into a new texture and returns its id, to be shown
+  /// with a [Texture] widget.
+  ///
+  /// The texture must be released with [releaseTexture] once it's no longer
+  /// shown.
+  static Future<int> renderTexture({
+    required CameraPosition cameraPosition,
+    required Size size,
+    Set<Marker> markers = const <Marker>{},
+  }) {
+    return NaverMapsFlutterPlatform.instance.renderStaticMapTexture(
+      cameraPosition: cameraPosition,
+      size: size,
+      markers: markers,
+    );
+  }
+
+  /// Releases a texture returned by [renderTexture].
+  static Future<void> releaseTexture(int textureId) {
+    return NaverMapsFlutterPlatform.instance.releaseStaticMapTexture(textureId);
+  }
+}
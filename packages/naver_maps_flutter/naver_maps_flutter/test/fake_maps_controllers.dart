@@ -13,7 +13,7 @@ class FakePlatformNaverMap {
       : cameraPosition =
             CameraPosition.fromMap(params['initialCameraPosition']),
         channel = MethodChannel(
-            'plugins.flutter.io/google_maps_$id', const StandardMethodCodec()) {
+            'plugins.flutter.io/naver_maps_$id', const StandardMethodCodec()) {
     channel.setMockMethodCallHandler(onMethodCall);
     updateOptions(params['options']);
     updateMarkers(params);
@@ -51,6 +51,10 @@ class FakePlatformNaverMap {
 
   bool? trackCameraPosition;
 
+  List<dynamic>? markerClustering;
+
+  bool? virtualizeOverlays;
+
   bool? myLocationEnabled;
 
   bool? trafficEnabled;
@@ -199,6 +203,7 @@ class FakePlatformNaverMap {
       final bool geodesic = polygonData['geodesic'];
       final List<LatLng> points = _deserializePoints(polygonData['points']);
       final List<List<LatLng>> holes = _deserializeHoles(polygonData['holes']);
+      final double simplifyTolerance = polygonData['simplifyTolerance'];
 
       result.add(Polygon(
         polygonId: PolygonId(polygonId),
@@ -206,6 +211,7 @@ class FakePlatformNaverMap {
         geodesic: geodesic,
         points: points,
         holes: holes,
+        simplifyTolerance: simplifyTolerance,
       ));
     }
 
@@ -213,6 +219,13 @@ class FakePlatformNaverMap {
   }
 
   List<LatLng> _deserializePoints(List<dynamic> points) {
+    // Packed latitude, longitude pairs on Android.
+    if (points is Float64List) {
+      return <LatLng>[
+        for (int i = 0; i < points.length; i += 2)
+          LatLng(points[i], points[i + 1]),
+      ];
+    }
     return points.map<LatLng>((dynamic list) {
       return LatLng(list[0], list[1]);
     }).toList();
@@ -220,9 +233,7 @@ class FakePlatformNaverMap {
 
   List<List<LatLng>> _deserializeHoles(List<dynamic> holes) {
     return holes.map<List<LatLng>>((dynamic hole) {
-      return hole.map<LatLng>((dynamic list) {
-        return LatLng(list[0], list[1]);
-      }).toList();
+      return _deserializePoints(hole);
     }).toList();
   }
 
@@ -258,12 +269,14 @@ class FakePlatformNaverMap {
       final bool visible = polylineData['visible'];
       final bool geodesic = polylineData['geodesic'];
       final List<LatLng> points = _deserializePoints(polylineData['points']);
+      final double simplifyTolerance = polylineData['simplifyTolerance'];
 
       result.add(Polyline(
         polylineId: PolylineId(polylineId),
         visible: visible,
         geodesic: geodesic,
         points: points,
+        simplifyTolerance: simplifyTolerance,
       ));
     }
 
@@ -401,6 +414,12 @@ class FakePlatformNaverMap {
     if (options.containsKey('trackCameraPosition')) {
       trackCameraPosition = options['trackCameraPosition'];
     }
+    if (options.containsKey('markerClustering')) {
+      markerClustering = options['markerClustering'];
+    }
+    if (options.containsKey('virtualizeOverlays')) {
+      virtualizeOverlays = options['virtualizeOverlays'];
+    }
     if (options.containsKey('zoomGesturesEnabled')) {
       zoomGesturesEnabled = options['zoomGesturesEnabled'];
     }
@@ -200,6 +200,15 @@ class TestNaverMapsFlutterPlatform extends NaverMapsFlutterPlatform {
   @override
   Future<Uint8List?> takeSnapshot({
     required int mapId,
+    SnapshotOptions? options,
+  }) async {
+    return null;
+  }
+
+  @override
+  Future<SnapshotPixels?> takeSnapshotPixels({
+    required int mapId,
+    SnapshotOptions? options,
   }) async {
     return null;
   }
@@ -588,6 +588,63 @@ void main() {
     expect(platformNaverMap.buildingsEnabled, true);
   });
 
+  testWidgets('Can update markerClustering', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: NaverMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformNaverMap platformNaverMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformNaverMap.markerClustering, <Object>[false, 60, 2, 16.0]);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: NaverMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          markerClustering:
+              MarkerClustering(gridSize: 80, minClusterSize: 3, maxZoom: 14),
+        ),
+      ),
+    );
+
+    expect(platformNaverMap.markerClustering, <Object>[true, 80, 3, 14.0]);
+  });
+
+  testWidgets('Can update virtualizeOverlays', (WidgetTester tester) async {
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: NaverMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+        ),
+      ),
+    );
+
+    final FakePlatformNaverMap platformNaverMap =
+        fakePlatformViewsController.lastCreatedView!;
+
+    expect(platformNaverMap.virtualizeOverlays, false);
+
+    await tester.pumpWidget(
+      const Directionality(
+        textDirection: TextDirection.ltr,
+        child: NaverMap(
+          initialCameraPosition: CameraPosition(target: LatLng(10.0, 15.0)),
+          virtualizeOverlays: true,
+        ),
+      ),
+    );
+
+    expect(platformNaverMap.virtualizeOverlays, true);
+  });
+
   testWidgets(
     'Default Android widget is AndroidView',
     (WidgetTester tester) async {
@@ -122,6 +122,21 @@ void main() {
     expect(platformNaverMap.polygonsToAdd.isEmpty, true);
   });
 
+  testWidgets("Updating a polygon's simplifyTolerance",
+      (WidgetTester tester) async {
+    final Polygon p1 = Polygon(polygonId: PolygonId("polygon_1"));
+    final Polygon p2 =
+        Polygon(polygonId: PolygonId("polygon_1"), simplifyTolerance: 2.5);
+
+    await tester.pumpWidget(_mapWithPolygons(<Polygon>{p1}));
+    await tester.pumpWidget(_mapWithPolygons(<Polygon>{p2}));
+
+    final FakePlatformNaverMap platformNaverMap =
+        fakePlatformViewsController.lastCreatedView!;
+    expect(platformNaverMap.polygonsToChange.length, 1);
+    expect(platformNaverMap.polygonsToChange.first.simplifyTolerance, 2.5);
+  });
+
   testWidgets("Mutate a polygon", (WidgetTester tester) async {
     final Polygon p1 = Polygon(
       polygonId: PolygonId("polygon_1"),
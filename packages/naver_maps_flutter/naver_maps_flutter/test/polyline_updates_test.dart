@@ -116,6 +116,21 @@ void main() {
     expect(update.geodesic, true);
   });
 
+  testWidgets("Updating a polyline's simplifyTolerance",
+      (WidgetTester tester) async {
+    final Polyline p1 = Polyline(polylineId: PolylineId("polyline_1"));
+    final Polyline p2 =
+        Polyline(polylineId: PolylineId("polyline_1"), simplifyTolerance: 2.5);
+
+    await tester.pumpWidget(_mapWithPolylines(<Polyline>{p1}));
+    await tester.pumpWidget(_mapWithPolylines(<Polyline>{p2}));
+
+    final FakePlatformNaverMap platformNaverMap =
+        fakePlatformViewsController.lastCreatedView!;
+    expect(platformNaverMap.polylinesToChange.length, 1);
+    expect(platformNaverMap.polylinesToChange.first.simplifyTolerance, 2.5);
+  });
+
   testWidgets("Mutate a polyline", (WidgetTester tester) async {
     final Polyline p1 = Polyline(
       polylineId: PolylineId("polyline_1"),
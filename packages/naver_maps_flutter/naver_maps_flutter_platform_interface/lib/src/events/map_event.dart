@@ -112,6 +112,19 @@ class MarkerDragEndEvent extends _PositionedMapEvent<MarkerId> {
       : super(mapId, position, markerId);
 }
 
+/// An event fired as markers loaded through `streamMarkers` or passed to the
+/// map at creation are added to the map.
+class MarkerLoadProgressEvent extends MapEvent<int> {
+  /// The number of markers in the current load, or -1 if it isn't known.
+  final int total;
+
+  /// Build a MarkerLoadProgress Event triggered from the map represented by `mapId`.
+  ///
+  /// The `value` of this event is the number of markers loaded so far.
+  MarkerLoadProgressEvent(int mapId, int loaded, this.total)
+      : super(mapId, loaded);
+}
+
 /// An event fired when a [Polyline] is tapped.
 class PolylineTapEvent extends MapEvent<PolylineId> {
   /// Build an PolylineTap Event triggered from the map represented by `mapId`.
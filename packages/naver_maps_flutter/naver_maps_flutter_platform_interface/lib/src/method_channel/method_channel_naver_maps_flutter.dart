@@ -3,6 +3,8 @@
 // found in the LICENSE file.
 
 import 'dart:async';
+import 'dart:convert';
+import 'dart:math';
 import 'dart:typed_data';
 
 import 'package:flutter/foundation.dart';
@@ -51,6 +53,10 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
   // Every method call passes the int mapId
   final Map<int, MethodChannel> _channels = {};
 
+  // Shared by all static maps.
+  static const MethodChannel _staticMapChannel =
+      MethodChannel('plugins.flutter.io/naver_maps_static');
+
   /// Accesses the MethodChannel associated to the passed mapId.
   MethodChannel channel(int mapId) {
     MethodChannel? channel = _channels[mapId];
@@ -71,6 +77,16 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
       channel = MethodChannel('plugins.flutter.io/naver_maps_$mapId');
       channel.setMethodCallHandler(
           (MethodCall call) => _handleMethodCall(call, mapId));
+      BasicMessageChannel<ByteData>(
+        'plugins.flutter.io/naver_maps_events_$mapId',
+        const BinaryCodec(),
+      ).setMessageHandler((ByteData? events) async {
+        if (events != null) {
+          _handleEvents(events, mapId);
+        }
+        // Android doesn't wait for a reply.
+        return ByteData(0);
+      });
       _channels[mapId] = channel;
     }
     return channel;
@@ -119,6 +135,11 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
     return _events(mapId).whereType<MarkerTapEvent>();
   }
 
+  @override
+  Stream<MarkerLoadProgressEvent> onMarkerLoadProgress({required int mapId}) {
+    return _events(mapId).whereType<MarkerLoadProgressEvent>();
+  }
+
   @override
   Stream<InfoWindowTapEvent> onInfoWindowTap({required int mapId}) {
     return _events(mapId).whereType<InfoWindowTapEvent>();
@@ -154,6 +175,20 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
     return _events(mapId).whereType<MapLongPressEvent>();
   }
 
+  /// Decodes the position of `camera#onMove`: Android sends it packed as
+  /// `[latitude, longitude, zoom, tilt, bearing]`, iOS as `{position: ...}`.
+  static CameraPosition _cameraPositionFromMove(dynamic arguments) {
+    if (arguments is Float64List) {
+      return CameraPosition(
+        target: LatLng(arguments[0], arguments[1]),
+        zoom: arguments[2],
+        tilt: arguments[3],
+        bearing: arguments[4],
+      );
+    }
+    return CameraPosition.fromMap(arguments['position'])!;
+  }
+
   Future<dynamic> _handleMethodCall(MethodCall call, int mapId) async {
     switch (call.method) {
       case 'camera#onMoveStarted':
@@ -162,7 +197,7 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
       case 'camera#onMove':
         _mapEventStreamController.add(CameraMoveEvent(
           mapId,
-          CameraPosition.fromMap(call.arguments['position'])!,
+          _cameraPositionFromMove(call.arguments),
         ));
         break;
       case 'camera#onIdle':
@@ -174,6 +209,13 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
           MarkerId(call.arguments['markerId']),
         ));
         break;
+      case 'markers#onLoadProgress':
+        _mapEventStreamController.add(MarkerLoadProgressEvent(
+          mapId,
+          call.arguments['loaded'],
+          call.arguments['total'],
+        ));
+        break;
       case 'marker#onDragEnd':
         _mapEventStreamController.add(MarkerDragEndEvent(
           mapId,
@@ -233,11 +275,156 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
           call.arguments['zoom'],
         );
         return tile.toJson();
+      case 'tileOverlay#getTiles':
+        final Map<TileOverlayId, TileOverlay>? tileOverlaysForThisMap =
+            _tileOverlays[mapId];
+        final String tileOverlayId = call.arguments['tileOverlayId'];
+        final TileOverlay? tileOverlay =
+            tileOverlaysForThisMap?[TileOverlayId(tileOverlayId)];
+        final Int32List coordinates = call.arguments['tiles'];
+        final TileProvider? tileProvider = tileOverlay?.tileProvider;
+        final List<Tile> tiles = await Future.wait(<Future<Tile>>[
+          for (int i = 0; i + 2 < coordinates.length; i += 3)
+            tileProvider == null
+                ? Future<Tile>.value(TileProvider.noTile)
+                : tileProvider.getTile(
+                    coordinates[i], coordinates[i + 1], coordinates[i + 2]),
+        ]);
+        return _packTiles(tiles);
       default:
         throw MissingPluginException();
     }
   }
 
+  /// Dispatches a batch of events sent by the Android `MapEventBus`, in order.
+  ///
+  /// The batch is big-endian: per event, a type byte followed by its payload.
+  /// Each event is handled like the method call that would carry it.
+  void _handleEvents(ByteData events, int mapId) {
+    int offset = 0;
+    double readDouble() {
+      final double value = events.getFloat64(offset);
+      offset += 8;
+      return value;
+    }
+
+    String readString() {
+      final int length = events.getInt32(offset);
+      offset += 4;
+      final String value = utf8.decode(events.buffer
+          .asUint8List(events.offsetInBytes + offset, length));
+      offset += length;
+      return value;
+    }
+
+    List<double> readPoint() => <double>[readDouble(), readDouble()];
+
+    while (offset < events.lengthInBytes) {
+      final int type = events.getUint8(offset++);
+      final String method;
+      Object? arguments;
+      switch (type) {
+        case 0:
+          method = 'camera#onMoveStarted';
+          arguments = <String, Object>{
+            'isGesture': events.getUint8(offset++) != 0,
+          };
+          break;
+        case 1:
+          method = 'camera#onMove';
+          arguments = Float64List.fromList(
+              <double>[for (int i = 0; i < 5; i++) readDouble()]);
+          break;
+        case 2:
+          method = 'camera#onIdle';
+          break;
+        case 3:
+          method = 'map#onTap';
+          arguments = <String, Object>{'position': readPoint()};
+          break;
+        case 4:
+          method = 'map#onLongPress';
+          arguments = <String, Object>{'position': readPoint()};
+          break;
+        case 5:
+          method = 'marker#onTap';
+          arguments = <String, Object>{'markerId': readString()};
+          break;
+        case 6:
+          method = 'marker#onDragEnd';
+          arguments = <String, Object>{
+            'markerId': readString(),
+            'position': readPoint(),
+          };
+          break;
+        case 7:
+          method = 'infoWindow#onTap';
+          arguments = <String, Object>{'markerId': readString()};
+          break;
+        case 8:
+          method = 'polyline#onTap';
+          arguments = <String, Object>{'polylineId': readString()};
+          break;
+        case 9:
+          method = 'polygon#onTap';
+          arguments = <String, Object>{'polygonId': readString()};
+          break;
+        case 10:
+          method = 'circle#onTap';
+          arguments = <String, Object>{'circleId': readString()};
+          break;
+        case 11:
+          method = 'marker#onTap';
+          final String markerId = readString();
+          final int memberCount = events.getInt32(offset);
+          offset += 4;
+          arguments = <String, Object>{
+            'markerId': markerId,
+            'clusterMarkerIds': <String>[
+              for (int i = 0; i < memberCount; i++) readString()
+            ],
+            'position': readPoint(),
+          };
+          break;
+        default:
+          // An unknown type has an unknown size; the rest can't be read.
+          return;
+      }
+      _handleMethodCall(MethodCall(method, arguments), mapId);
+    }
+  }
+
+  /// Packs [tiles] into the buffer expected by `tileOverlay#getTiles`.
+  ///
+  /// The buffer is big-endian: the tile count, then a (width, height, offset,
+  /// length) int32 record per tile, then the payloads. A tile without data has
+  /// a length of -1.
+  static Uint8List _packTiles(List<Tile> tiles) {
+    final int headerSize = 4 + tiles.length * 16;
+    int size = headerSize;
+    for (final Tile tile in tiles) {
+      size += tile.data?.length ?? 0;
+    }
+    final Uint8List bytes = Uint8List(size);
+    final ByteData header = ByteData.view(bytes.buffer);
+    header.setInt32(0, tiles.length);
+    int offset = headerSize;
+    for (int i = 0; i < tiles.length; i++) {
+      final Tile tile = tiles[i];
+      final Uint8List? data = tile.data;
+      final int record = 4 + i * 16;
+      header.setInt32(record, tile.width);
+      header.setInt32(record + 4, tile.height);
+      header.setInt32(record + 8, offset);
+      header.setInt32(record + 12, data?.length ?? -1);
+      if (data != null) {
+        bytes.setRange(offset, offset + data.length, data);
+        offset += data.length;
+      }
+    }
+    return bytes;
+  }
+
   @override
   Future<void> updateMapOptions(
     Map<String, dynamic> optionsUpdate, {
@@ -264,6 +451,160 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
     );
   }
 
+  @override
+  Future<void> updateMarkersBinary(
+    MarkerUpdates markerUpdates, {
+    required int mapId,
+  }) {
+    assert(markerUpdates != null);
+    final List<Object> icons = <Object>[];
+    final Uint8List markers = _packMarkers(markerUpdates, icons);
+    return channel(mapId).invokeMethod<void>(
+      'markers#updateBinary',
+      <String, Object>{
+        'markers': markers,
+        'icons': icons,
+      },
+    );
+  }
+
+  // Field and flag bits of a marker record, see MarkerBinaryReader.java.
+  static const int _kMarkerAllFields = 0xfff;
+  static const int _kMarkerConsumeTapEvents = 1;
+  static const int _kMarkerDraggable = 1 << 1;
+  static const int _kMarkerFlat = 1 << 2;
+  static const int _kMarkerVisible = 1 << 3;
+  static const int _kMarkerRecordSize = 68;
+
+  /// Packs [markerUpdates] into the buffer expected by `markers#updateBinary`,
+  /// adding the JSON of each distinct icon to [icons].
+  ///
+  /// The buffer is big-endian: the format version, a string table of UTF-8
+  /// strings prefixed by their length, the add, change and remove counts, a
+  /// [_kMarkerRecordSize] byte record per added then changed marker, and the
+  /// string index of each removed marker id. Records carry every field of
+  /// their marker.
+  static Uint8List _packMarkers(
+      MarkerUpdates markerUpdates, List<Object> icons) {
+    final List<Marker> records = <Marker>[
+      ...markerUpdates.markersToAdd,
+      ...markerUpdates.markersToChange,
+    ];
+    final Map<String, int> stringIndexes = <String, int>{};
+    final List<Uint8List> strings = <Uint8List>[];
+    int stringsSize = 0;
+    int stringIndex(String? string) {
+      if (string == null) {
+        return -1;
+      }
+      return stringIndexes.putIfAbsent(string, () {
+        final Uint8List bytes = Uint8List.fromList(utf8.encode(string));
+        strings.add(bytes);
+        stringsSize += 4 + bytes.length;
+        return strings.length - 1;
+      });
+    }
+
+    // Markers usually share a few descriptors, so identical ones are sent once.
+    final Map<BitmapDescriptor, int> iconIndexes =
+        Map<BitmapDescriptor, int>.identity();
+    final Int32List indexes = Int32List(records.length * 4);
+    for (int i = 0; i < records.length; i++) {
+      final Marker marker = records[i];
+      indexes[i * 4] = stringIndex(marker.markerId.value);
+      indexes[i * 4 + 1] = iconIndexes.putIfAbsent(marker.icon, () {
+        icons.add(marker.icon.toJson());
+        return icons.length - 1;
+      });
+      indexes[i * 4 + 2] = stringIndex(marker.infoWindow.title);
+      indexes[i * 4 + 3] = stringIndex(marker.infoWindow.snippet);
+    }
+    final List<int> removeIndexes = markerUpdates.markerIdsToRemove
+        .map((MarkerId markerId) => stringIndex(markerId.value))
+        .toList();
+
+    final ByteData data = ByteData(4 +
+        4 +
+        stringsSize +
+        12 +
+        records.length * _kMarkerRecordSize +
+        removeIndexes.length * 4);
+    final Uint8List bytes = data.buffer.asUint8List();
+    data.setInt32(0, 1);
+    data.setInt32(4, strings.length);
+    int offset = 8;
+    for (final Uint8List string in strings) {
+      data.setInt32(offset, string.length);
+      bytes.setRange(offset + 4, offset + 4 + string.length, string);
+      offset += 4 + string.length;
+    }
+    data.setInt32(offset, markerUpdates.markersToAdd.length);
+    data.setInt32(offset + 4, markerUpdates.markersToChange.length);
+    data.setInt32(offset + 8, removeIndexes.length);
+    offset += 12;
+    for (int i = 0; i < records.length; i++) {
+      final Marker marker = records[i];
+      final int flags =
+          (marker.consumeTapEvents ? _kMarkerConsumeTapEvents : 0) |
+              (marker.draggable ? _kMarkerDraggable : 0) |
+              (marker.flat ? _kMarkerFlat : 0) |
+              (marker.visible ? _kMarkerVisible : 0);
+      data.setInt32(offset, indexes[i * 4]);
+      data.setInt32(offset + 4, _kMarkerAllFields);
+      data.setInt32(offset + 8, flags);
+      data.setFloat64(offset + 12, marker.position.latitude);
+      data.setFloat64(offset + 20, marker.position.longitude);
+      data.setFloat32(offset + 28, marker.alpha);
+      data.setFloat32(offset + 32, marker.anchor.dx);
+      data.setFloat32(offset + 36, marker.anchor.dy);
+      data.setFloat32(offset + 40, marker.rotation);
+      data.setFloat32(offset + 44, marker.zIndex);
+      data.setFloat32(offset + 48, marker.infoWindow.anchor.dx);
+      data.setFloat32(offset + 52, marker.infoWindow.anchor.dy);
+      data.setInt32(offset + 56, indexes[i * 4 + 1]);
+      data.setInt32(offset + 60, indexes[i * 4 + 2]);
+      data.setInt32(offset + 64, indexes[i * 4 + 3]);
+      offset += _kMarkerRecordSize;
+    }
+    for (final int index in removeIndexes) {
+      data.setInt32(offset, index);
+      offset += 4;
+    }
+    return bytes;
+  }
+
+  @override
+  Future<void> streamMarkers(
+    Iterable<Marker> markers, {
+    required int mapId,
+    int chunkSize = 500,
+  }) async {
+    assert(chunkSize > 0);
+    final BasicMessageChannel<Object?> channel = BasicMessageChannel<Object?>(
+      'plugins.flutter.io/naver_maps_marker_stream_$mapId',
+      const StandardMessageCodec(),
+    );
+    final List<Marker> all = markers.toList();
+    for (int start = 0; start < all.length; start += chunkSize) {
+      final Map<String, Object> message = <String, Object>{
+        'markers': all
+            .sublist(start, min(start + chunkSize, all.length))
+            .map((Marker marker) => marker.toJson())
+            .toList(),
+      };
+      if (start == 0) {
+        message['total'] = all.length;
+      }
+      // The reply comes once the chunk has been applied, which paces the sends.
+      final Map<Object?, Object?>? reply =
+          await channel.send(message) as Map<Object?, Object?>?;
+      final Object? error = reply?['error'];
+      if (error != null) {
+        throw PlatformException(code: 'error', message: error as String);
+      }
+    }
+  }
+
   @override
   Future<void> updatePolygons(
     PolygonUpdates polygonUpdates, {
@@ -330,6 +671,32 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
     });
   }
 
+  @override
+  Future<void> setHeatmapPoints(
+    TileOverlayId tileOverlayId,
+    Float64List points, {
+    required int mapId,
+    bool append = false,
+  }) {
+    return channel(mapId)
+        .invokeMethod<void>('tileOverlays#setHeatmapPoints', <String, Object>{
+      'tileOverlayId': tileOverlayId.value,
+      'points': points,
+      'append': append,
+    });
+  }
+
+  @override
+  Future<void> setTileDiskCacheMaxSize(
+    int maxSize, {
+    required int mapId,
+  }) {
+    return channel(mapId).invokeMethod<void>(
+        'tileOverlays#setDiskCacheMaxSize', <String, Object>{
+      'maxSize': maxSize,
+    });
+  }
+
   @override
   Future<void> animateCamera(
     CameraUpdate cameraUpdate, {
@@ -398,6 +765,20 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
     return LatLng(latLng[0], latLng[1]);
   }
 
+  @override
+  Future<void> animateMarkers(
+    List<MarkerTrack> tracks, {
+    required int mapId,
+    bool rotateToHeading = false,
+  }) {
+    return channel(mapId).invokeMethod<void>('markers#animate', <String, Object>{
+      'markerIds':
+          tracks.map((MarkerTrack track) => track.markerId.value).toList(),
+      'tracks': tracks.map((MarkerTrack track) => track.toPacked()).toList(),
+      'rotateToHeading': rotateToHeading,
+    });
+  }
+
   @override
   Future<void> showMarkerInfoWindow(
     MarkerId markerId, {
@@ -438,8 +819,150 @@ class MethodChannelNaverMapsFlutter extends NaverMapsFlutterPlatform {
   @override
   Future<Uint8List?> takeSnapshot({
     required int mapId,
+    SnapshotOptions? options,
   }) {
-    return channel(mapId).invokeMethod<Uint8List>('map#takeSnapshot');
+    return channel(mapId).invokeMethod<Uint8List>(
+        'map#takeSnapshot',
+        options != null
+            ? <String, Object>{'options': options.toJson()}
+            : null);
+  }
+
+  @override
+  Future<SnapshotPixels?> takeSnapshotPixels({
+    required int mapId,
+    SnapshotOptions? options,
+  }) async {
+    final Map<String, Object> json = options != null
+        ? Map<String, Object>.of(options.toJson() as Map<String, Object>)
+        : <String, Object>{};
+    json['format'] = 'rgba';
+    final Map<dynamic, dynamic>? pixels = await channel(mapId)
+        .invokeMethod<Map<dynamic, dynamic>>(
+            'map#takeSnapshot', <String, Object>{'options': json});
+    return pixels != null ? SnapshotPixels.fromJson(pixels) : null;
+  }
+
+  @override
+  Future<Map<String, Object?>> getStats({
+    required int mapId,
+    bool reset = false,
+  }) async {
+    final Map<String, Object?>? stats = await channel(mapId)
+        .invokeMapMethod<String, Object?>(
+            'map#getStats', <String, Object>{'reset': reset});
+    return stats ?? <String, Object?>{};
+  }
+
+  @override
+  Future<Map<String, Object?>> getIconCacheStats({required int mapId}) async {
+    final Map<String, Object?>? stats = await channel(mapId)
+        .invokeMapMethod<String, Object?>('map#getIconCacheStats');
+    return stats ?? <String, Object?>{};
+  }
+
+  @override
+  Future<Map<String, Object?>> getPropertyWriteStats({
+    required int mapId,
+    bool reset = false,
+  }) async {
+    final Map<String, Object?>? stats = await channel(mapId)
+        .invokeMapMethod<String, Object?>(
+            'map#getPropertyWriteStats', <String, Object>{'reset': reset});
+    return stats ?? <String, Object?>{};
+  }
+
+  @override
+  Future<Map<String, Object?>> getMapViewPoolStats({
+    required int mapId,
+    bool reset = false,
+  }) async {
+    final Map<String, Object?>? stats = await channel(mapId)
+        .invokeMapMethod<String, Object?>(
+            'map#getMapViewPoolStats', <String, Object>{'reset': reset});
+    return stats ?? <String, Object?>{};
+  }
+
+  @override
+  Future<OverlayQueryResult> queryOverlays(
+    OverlayQueryRegion region, {
+    required int mapId,
+    Set<OverlayQueryType> types = const <OverlayQueryType>{
+      OverlayQueryType.marker,
+      OverlayQueryType.polygon,
+      OverlayQueryType.polyline,
+      OverlayQueryType.circle,
+    },
+    int limit = 0,
+  }) async {
+    final Map<String, Object?>? result = await channel(mapId)
+        .invokeMapMethod<String, Object?>('map#queryOverlays', <String, Object>{
+      'region': region.toJson(),
+      'types': types.map(_overlayQueryTypeName).toList(),
+      'limit': limit,
+    });
+    return result != null
+        ? OverlayQueryResult.fromJson(result)
+        : const OverlayQueryResult();
+  }
+
+  static String _overlayQueryTypeName(OverlayQueryType type) {
+    switch (type) {
+      case OverlayQueryType.marker:
+        return 'markers';
+      case OverlayQueryType.polygon:
+        return 'polygons';
+      case OverlayQueryType.polyline:
+        return 'polylines';
+      case OverlayQueryType.circle:
+        return 'circles';
+    }
+  }
+
+  Map<String, Object> _staticMapArguments(
+    CameraPosition cameraPosition,
+    Size size,
+    Set<Marker> markers,
+  ) {
+    return <String, Object>{
+      'cameraPosition': cameraPosition.toMap(),
+      'size': <double>[size.width, size.height],
+      'markers': markers.map((Marker marker) => marker.toJson()).toList(),
+    };
+  }
+
+  @override
+  Future<Uint8List?> renderStaticMap({
+    required CameraPosition cameraPosition,
+    required Size size,
+    Set<Marker> markers = const <Marker>{},
+  }) {
+    return _staticMapChannel.invokeMethod<Uint8List>(
+      'staticMap#render',
+      _staticMapArguments(cameraPosition, size, markers),
+    );
+  }
+
+  @override
+  Future<int> renderStaticMapTexture({
+    required CameraPosition cameraPosition,
+    required Size size,
+    Set<Marker> markers = const <Marker>{},
+  }) async {
+    final Map<String, Object> arguments =
+        _staticMapArguments(cameraPosition, size, markers);
+    arguments['texture'] = true;
+    final Map<Object?, Object?>? texture = await _staticMapChannel
+        .invokeMapMethod<Object?, Object?>('staticMap#render', arguments);
+    return texture!['textureId']! as int;
+  }
+
+  @override
+  Future<void> releaseStaticMapTexture(int textureId) {
+    return _staticMapChannel.invokeMethod<void>(
+      'staticMap#releaseTexture',
+      <String, Object>{'textureId': textureId},
+    );
   }
 
   /// Set [GoogleMapsFlutterPlatform] to use [AndroidViewSurface] to build the Google Maps widget.
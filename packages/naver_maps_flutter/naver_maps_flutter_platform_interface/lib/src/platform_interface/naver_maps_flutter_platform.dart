@@ -76,6 +76,48 @@ abstract class NaverMapsFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('updateMarkers() has not been implemented.');
   }
 
+  /// Updates marker configuration like [updateMarkers], through a packed
+  /// buffer instead of a map per marker.
+  ///
+  /// Decoding the buffer doesn't box any value, which matters for updates of
+  /// thousands of markers. Only Android implements it.
+  Future<void> updateMarkersBinary(
+    MarkerUpdates markerUpdates, {
+    required int mapId,
+  }) {
+    throw UnimplementedError(
+        'updateMarkersBinary() has not been implemented.');
+  }
+
+  /// Adds [markers] to the map in chunks of [chunkSize].
+  ///
+  /// The chunks are applied across frames, so the map stays interactive while
+  /// a large set loads. Progress is reported through [onMarkerLoadProgress].
+  ///
+  /// The returned [Future] completes after the last chunk has been applied.
+  Future<void> streamMarkers(
+    Iterable<Marker> markers, {
+    required int mapId,
+    int chunkSize = 500,
+  }) {
+    throw UnimplementedError('streamMarkers() has not been implemented.');
+  }
+
+  /// Moves each marker of [tracks] along its track, interpolating positions on
+  /// the platform side at the display's frame rate.
+  ///
+  /// Starting a track for a moving marker replaces its running one. If
+  /// [rotateToHeading] is set, markers are rotated to face their direction of
+  /// travel. Clustered or off screen markers jump to the end of their track.
+  /// Only Android implements it.
+  Future<void> animateMarkers(
+    List<MarkerTrack> tracks, {
+    required int mapId,
+    bool rotateToHeading = false,
+  }) {
+    throw UnimplementedError('animateMarkers() has not been implemented.');
+  }
+
   /// Updates polygon configuration.
   ///
   /// Change listeners are notified once the update has been made on the
@@ -142,6 +184,29 @@ abstract class NaverMapsFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('clearTileCache() has not been implemented.');
   }
 
+  /// Sets the points of the heatmap tile overlay [tileOverlayId], packed as
+  /// `[latitude, longitude, weight, ...]`, or appends them to its points if
+  /// [append] is true.
+  Future<void> setHeatmapPoints(
+    TileOverlayId tileOverlayId,
+    Float64List points, {
+    required int mapId,
+    bool append = false,
+  }) {
+    throw UnimplementedError('setHeatmapPoints() has not been implemented.');
+  }
+
+  /// Sets the size, in bytes, past which the oldest tiles are dropped from the
+  /// disk cache of the tile overlays with [TileOverlay.diskCache]. The cache
+  /// is shared by every map; the default is 64 MiB.
+  Future<void> setTileDiskCacheMaxSize(
+    int maxSize, {
+    required int mapId,
+  }) {
+    throw UnimplementedError(
+        'setTileDiskCacheMaxSize() has not been implemented.');
+  }
+
   /// Starts an animated change of the map camera position.
   ///
   /// The returned [Future] completes after the change has been started on the
@@ -266,15 +331,125 @@ abstract class NaverMapsFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('getZoomLevel() has not been implemented.');
   }
 
-  /// Returns the image bytes of the map.
+  /// Returns the image bytes of the map, cropped, scaled and encoded as set
+  /// by [options].
   ///
   /// Returns null if a snapshot cannot be created.
   Future<Uint8List?> takeSnapshot({
     required int mapId,
+    SnapshotOptions? options,
   }) {
     throw UnimplementedError('takeSnapshot() has not been implemented.');
   }
 
+  /// Returns the unencoded pixels of the map, cropped and scaled as set by
+  /// [options], whose format is ignored.
+  ///
+  /// Returns null if a snapshot cannot be created.
+  Future<SnapshotPixels?> takeSnapshotPixels({
+    required int mapId,
+    SnapshotOptions? options,
+  }) {
+    throw UnimplementedError('takeSnapshotPixels() has not been implemented.');
+  }
+
+  /// Returns platform-side performance counters of the map, such as per-method
+  /// call counts and latencies. The format is platform specific.
+  ///
+  /// If [reset] is true, the counters are reset after being read.
+  Future<Map<String, Object?>> getStats({
+    required int mapId,
+    bool reset = false,
+  }) {
+    throw UnimplementedError('getStats() has not been implemented.');
+  }
+
+  /// Returns the counters of the process-wide cache of decoded marker icons:
+  /// `hitCount`, `missCount`, `evictionCount`, `size` and `maxSize`.
+  /// Android only.
+  Future<Map<String, Object?>> getIconCacheStats({required int mapId}) {
+    throw UnimplementedError('getIconCacheStats() has not been implemented.');
+  }
+
+  /// Returns the process-wide counts of overlay property writes that were
+  /// `applied` and that were `skipped` because they changed nothing.
+  /// Android only.
+  ///
+  /// If [reset] is true, the counters are reset after being read.
+  Future<Map<String, Object?>> getPropertyWriteStats({
+    required int mapId,
+    bool reset = false,
+  }) {
+    throw UnimplementedError(
+        'getPropertyWriteStats() has not been implemented.');
+  }
+
+  /// Returns the process-wide counters of the pool of pre-warmed map views:
+  /// pool `hits` and `misses`, and the count and total milliseconds from
+  /// creating a map to it being ready, for pooled and newly created views.
+  /// Android only.
+  ///
+  /// If [reset] is true, the counters are reset after being read.
+  Future<Map<String, Object?>> getMapViewPoolStats({
+    required int mapId,
+    bool reset = false,
+  }) {
+    throw UnimplementedError(
+        'getMapViewPoolStats() has not been implemented.');
+  }
+
+  /// Returns the ids of the map's objects of [types] that lie at least partly
+  /// in [region], looked up on the platform side without Dart copies of the
+  /// geometry.
+  ///
+  /// At most [limit] ids are returned, unless it is 0; the result is marked
+  /// as truncated if more objects matched.
+  Future<OverlayQueryResult> queryOverlays(
+    OverlayQueryRegion region, {
+    required int mapId,
+    Set<OverlayQueryType> types = const <OverlayQueryType>{
+      OverlayQueryType.marker,
+      OverlayQueryType.polygon,
+      OverlayQueryType.polyline,
+      OverlayQueryType.circle,
+    },
+    int limit = 0,
+  }) {
+    throw UnimplementedError('queryOverlays() has not been implemented.');
+  }
+
+  /// Returns the image bytes of a static map of [size] logical pixels at
+  /// [cameraPosition] with [markers], without creating a map view.
+  ///
+  /// Static maps are rendered one after another on a single shared map, and
+  /// results are cached by camera, markers and size.
+  Future<Uint8List?> renderStaticMap({
+    required CameraPosition cameraPosition,
+    required Size size,
+    Set<Marker> markers = const <Marker>{},
+  }) {
+    throw UnimplementedError('renderStaticMap() has not been implemented.');
+  }
+
+  /// Like [renderStaticMap], but draws the static map into a new texture and
+  /// returns its id, to be shown with a [Texture] widget.
+  ///
+  /// The texture must be released with [releaseStaticMapTexture].
+  Future<int> renderStaticMapTexture({
+    required CameraPosition cameraPosition,
+    required Size size,
+    Set<Marker> markers = const <Marker>{},
+  }) {
+    throw UnimplementedError(
+        'renderStaticMapTexture() has not been implemented.');
+  }
+
+  /// Releases a texture returned by [renderStaticMapTexture].
+  Future<void> releaseStaticMapTexture(int textureId) {
+    throw UnimplementedError(
+        'releaseStaticMapTexture() has not been implemented.');
+  }
+
   // The following are the 11 possible streams of data from the native side
   // into the plugin
 
@@ -298,6 +473,11 @@ abstract class NaverMapsFlutterPlatform extends PlatformInterface {
     throw UnimplementedError('onMarkerTap() has not been implemented.');
   }
 
+  /// More of the markers being loaded have been added to the map.
+  Stream<MarkerLoadProgressEvent> onMarkerLoadProgress({required int mapId}) {
+    throw UnimplementedError('onMarkerLoadProgress() has not been implemented.');
+  }
+
   /// An [InfoWindow] has been tapped.
   Stream<InfoWindowTapEvent> onInfoWindowTap({required int mapId}) {
     throw UnimplementedError('onInfoWindowTap() has not been implemented.');
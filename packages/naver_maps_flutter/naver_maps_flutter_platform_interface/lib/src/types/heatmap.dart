@@ -0,0 +1,99 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:ui' show Color, hashList, hashValues;
+
+import 'package:flutter/foundation.dart' show listEquals;
+import 'package:meta/meta.dart' show immutable;
+
+/// Colors that intensities of a heatmap are mapped to.
+@immutable
+class HeatmapGradient {
+  /// Creates a gradient that fades in to [colors] first color at its start
+  /// point, then blends from each color to the next.
+  ///
+  /// [startPoints] are fractions of the maximum intensity, in increasing
+  /// order, one per color.
+  const HeatmapGradient({required this.colors, required this.startPoints})
+      : assert(colors.length == startPoints.length);
+
+  /// The colors of the gradient.
+  final List<Color> colors;
+
+  /// The intensity, as a fraction of the maximum, at which each color starts.
+  final List<double> startPoints;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() {
+    return <String, Object>{
+      'colors': colors.map((Color color) => color.value).toList(),
+      'startPoints': startPoints,
+    };
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    return other is HeatmapGradient &&
+        listEquals(colors, other.colors) &&
+        listEquals(startPoints, other.startPoints);
+  }
+
+  @override
+  int get hashCode => hashValues(hashList(colors), hashList(startPoints));
+}
+
+/// Turns a [TileOverlay] into a heatmap of weighted points, rendered on the
+/// platform side.
+///
+/// The points are set with `NaverMapController.setHeatmapPoints` and added to
+/// with `NaverMapController.appendHeatmapPoints`.
+@immutable
+class HeatmapOptions {
+  /// Creates heatmap options.
+  const HeatmapOptions({
+    this.radius = 20,
+    this.gradient,
+    this.maxIntensity = 0,
+  })  : assert(radius > 0),
+        assert(maxIntensity >= 0);
+
+  /// The radius, in logical pixels, that each point spreads its weight over.
+  final int radius;
+
+  /// The colors of the heatmap, or null for green to red.
+  final HeatmapGradient? gradient;
+
+  /// The intensity that maps to the last color of the gradient.
+  ///
+  /// If 0, it is estimated from the points for each zoom level, and kept while
+  /// points are only appended.
+  final double maxIntensity;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() {
+    final Map<String, Object> json = <String, Object>{
+      'radius': radius,
+      'maxIntensity': maxIntensity,
+    };
+    if (gradient != null) {
+      json['gradient'] = gradient!.toJson();
+    }
+    return json;
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    return other is HeatmapOptions &&
+        radius == other.radius &&
+        gradient == other.gradient &&
+        maxIntensity == other.maxIntensity;
+  }
+
+  @override
+  int get hashCode => hashValues(radius, gradient, maxIntensity);
+}
@@ -0,0 +1,71 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:ui' show hashValues;
+
+import 'package:meta/meta.dart' show immutable;
+
+/// Local files that a [TileOverlay] reads its tiles from on the platform
+/// side, e.g. imagery for offline use.
+///
+/// Tiles are served without calling into Dart, so the overlay's
+/// [TileOverlay.tileProvider] is not used.
+@immutable
+class LocalTileSource {
+  /// Tiles from an [MBTiles](https://github.com/mapbox/mbtiles-spec) file at
+  /// [path].
+  const LocalTileSource.mbtiles(this.path)
+      : isMbtiles = true,
+        extension = null,
+        tms = true;
+
+  /// Tiles from a directory at [path] that holds a `z/x/y.extension` file per
+  /// tile.
+  ///
+  /// Rows are numbered from the north, as in [Tile] requests, unless [tms] is
+  /// true, in which case they are numbered from the south.
+  const LocalTileSource.directory(
+    this.path, {
+    String this.extension = 'png',
+    this.tms = false,
+  }) : isMbtiles = false;
+
+  /// The path of the MBTiles file or of the tile directory.
+  final String path;
+
+  /// Whether [path] is an MBTiles file.
+  final bool isMbtiles;
+
+  /// The file extension of the tiles in a directory.
+  final String? extension;
+
+  /// Whether rows are numbered from the south.
+  final bool tms;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() {
+    if (isMbtiles) {
+      return <String, Object>{'mbtiles': path};
+    }
+    return <String, Object>{
+      'directory': path,
+      'extension': extension!,
+      'tms': tms,
+    };
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    return other is LocalTileSource &&
+        path == other.path &&
+        isMbtiles == other.isMbtiles &&
+        extension == other.extension &&
+        tms == other.tms;
+  }
+
+  @override
+  int get hashCode => hashValues(path, isMbtiles, extension, tms);
+}
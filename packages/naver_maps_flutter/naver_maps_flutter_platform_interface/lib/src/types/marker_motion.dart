@@ -0,0 +1,54 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+
+import 'package:meta/meta.dart' show immutable;
+
+import 'types.dart';
+
+/// A point that a moving marker reaches at [offset] from the start of its
+/// motion.
+@immutable
+class MarkerTrackPoint {
+  /// Creates a point of a [MarkerTrack].
+  const MarkerTrackPoint(this.position, this.offset);
+
+  /// Where the marker is at [offset].
+  final LatLng position;
+
+  /// The time from the start of the motion at which the marker is at
+  /// [position].
+  final Duration offset;
+}
+
+/// The timed path along which a marker moves, see
+/// [NaverMapsFlutterPlatform.animateMarkers].
+///
+/// The motion starts from the marker's current position, so a single point
+/// moves the marker to it over the point's offset.
+@immutable
+class MarkerTrack {
+  /// Creates a track of at least one point, in increasing offset order.
+  MarkerTrack(this.markerId, this.points) : assert(points.isNotEmpty);
+
+  /// The marker that moves.
+  final MarkerId markerId;
+
+  /// The points that the marker passes through.
+  final List<MarkerTrackPoint> points;
+
+  /// Converts the points to latitude, longitude and offset in milliseconds
+  /// triples.
+  Float64List toPacked() {
+    final Float64List packed = Float64List(points.length * 3);
+    for (int i = 0; i < points.length; i++) {
+      final MarkerTrackPoint point = points[i];
+      packed[i * 3] = point.position.latitude;
+      packed[i * 3 + 1] = point.position.longitude;
+      packed[i * 3 + 2] = point.offset.inMicroseconds / 1000;
+    }
+    return packed;
+  }
+}
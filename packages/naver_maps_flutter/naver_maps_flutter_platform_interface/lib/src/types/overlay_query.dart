@@ -0,0 +1,108 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:convert' show utf8;
+import 'dart:typed_data';
+
+import 'package:meta/meta.dart' show immutable;
+
+import 'types.dart';
+
+/// The kinds of map objects that an overlay query can return.
+enum OverlayQueryType {
+  /// [Marker]s, matched by position.
+  marker,
+
+  /// [Polygon]s, matched if any part of their area is in the region.
+  polygon,
+
+  /// [Polyline]s, matched if any part of their path is in the region.
+  polyline,
+
+  /// [Circle]s, matched if any part of their area is in the region.
+  circle,
+}
+
+/// A region of the map to query the objects in.
+@immutable
+class OverlayQueryRegion {
+  /// A rectangle between two corners.
+  OverlayQueryRegion.bounds(LatLngBounds bounds)
+      : _json = <String, Object>{'bounds': bounds.toJson()};
+
+  /// A polygon of at least three [points], e.g. a lasso selection.
+  OverlayQueryRegion.polygon(List<LatLng> points)
+      : assert(points.length >= 3),
+        _json = <String, Object>{
+          'polygon': points.map((LatLng point) => point.toJson()).toList(),
+        };
+
+  /// All points within [radius] meters of [center].
+  OverlayQueryRegion.circle(LatLng center, double radius)
+      : _json = <String, Object>{
+          'circle': <Object>[center.toJson(), radius],
+        };
+
+  final Map<String, Object> _json;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() => _json;
+}
+
+/// The ids of the map objects found by an overlay query.
+@immutable
+class OverlayQueryResult {
+  /// Creates a result with the given ids.
+  const OverlayQueryResult({
+    this.markerIds = const <MarkerId>[],
+    this.polygonIds = const <PolygonId>[],
+    this.polylineIds = const <PolylineId>[],
+    this.circleIds = const <CircleId>[],
+    this.truncated = false,
+  });
+
+  /// Decodes a result whose ids are packed as UTF-8 strings, each followed by
+  /// a 0 byte, per object kind.
+  factory OverlayQueryResult.fromJson(Map<String, Object?> json) {
+    return OverlayQueryResult(
+      markerIds: _unpack(json['markers'])
+          .map((String id) => MarkerId(id))
+          .toList(),
+      polygonIds: _unpack(json['polygons'])
+          .map((String id) => PolygonId(id))
+          .toList(),
+      polylineIds: _unpack(json['polylines'])
+          .map((String id) => PolylineId(id))
+          .toList(),
+      circleIds: _unpack(json['circles'])
+          .map((String id) => CircleId(id))
+          .toList(),
+      truncated: json['truncated'] as bool? ?? false,
+    );
+  }
+
+  /// The markers in the region.
+  final List<MarkerId> markerIds;
+
+  /// The polygons in the region.
+  final List<PolygonId> polygonIds;
+
+  /// The polylines in the region.
+  final List<PolylineId> polylineIds;
+
+  /// The circles in the region.
+  final List<CircleId> circleIds;
+
+  /// Whether more objects than the query's limit are in the region.
+  final bool truncated;
+
+  static List<String> _unpack(Object? packed) {
+    if (packed == null || (packed as Uint8List).isEmpty) {
+      return const <String>[];
+    }
+    final List<String> ids = utf8.decode(packed).split('\u0000');
+    // Every id is followed by a 0 byte, so the last part is empty.
+    return ids.sublist(0, ids.length - 1);
+  }
+}
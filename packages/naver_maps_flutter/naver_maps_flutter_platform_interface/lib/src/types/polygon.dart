@@ -2,8 +2,11 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:typed_data';
+
 import 'package:collection/collection.dart';
-import 'package:flutter/foundation.dart' show listEquals, VoidCallback;
+import 'package:flutter/foundation.dart'
+    show defaultTargetPlatform, listEquals, TargetPlatform, VoidCallback;
 import 'package:flutter/material.dart' show Color, Colors;
 import 'package:meta/meta.dart' show immutable;
 
@@ -33,8 +36,9 @@ class Polygon implements MapsObject {
     this.strokeWidth = 10,
     this.visible = true,
     this.zIndex = 0,
+    this.simplifyTolerance = 0,
     this.onTap,
-  });
+  }) : assert(simplifyTolerance >= 0);
 
   /// Uniquely identifies a [Polygon].
   final PolygonId polygonId;
@@ -90,6 +94,13 @@ class Polygon implements MapsObject {
   /// earlier, and thus appearing to be closer to the surface of the Earth.
   final int zIndex;
 
+  /// How far, in logical pixels, the drawn outline may stray from [points] when
+  /// they are simplified for the current zoom level. Android only.
+  ///
+  /// The default of 0 only simplifies polygons of many points, by half a logical
+  /// pixel. A positive tolerance simplifies the polygon at any size.
+  final double simplifyTolerance;
+
   /// Callbacks to receive tap events for polygon placed on this map.
   final VoidCallback? onTap;
 
@@ -105,6 +116,7 @@ class Polygon implements MapsObject {
     int? strokeWidthParam,
     bool? visibleParam,
     int? zIndexParam,
+    double? simplifyToleranceParam,
     VoidCallback? onTapParam,
   }) {
     return Polygon(
@@ -119,6 +131,7 @@ class Polygon implements MapsObject {
       visible: visibleParam ?? visible,
       onTap: onTapParam ?? onTap,
       zIndex: zIndexParam ?? zIndex,
+      simplifyTolerance: simplifyToleranceParam ?? simplifyTolerance,
     );
   }
 
@@ -145,6 +158,7 @@ class Polygon implements MapsObject {
     addIfPresent('strokeWidth', strokeWidth);
     addIfPresent('visible', visible);
     addIfPresent('zIndex', zIndex);
+    addIfPresent('simplifyTolerance', simplifyTolerance);
 
     if (points != null) {
       json['points'] = _pointsToJson();
@@ -171,13 +185,17 @@ class Polygon implements MapsObject {
         visible == typedOther.visible &&
         strokeColor == typedOther.strokeColor &&
         strokeWidth == typedOther.strokeWidth &&
-        zIndex == typedOther.zIndex;
+        zIndex == typedOther.zIndex &&
+        simplifyTolerance == typedOther.simplifyTolerance;
   }
 
   @override
   int get hashCode => polygonId.hashCode;
 
   Object _pointsToJson() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return _packPoints(points);
+    }
     final List<Object> result = <Object>[];
     for (final LatLng point in points) {
       result.add(point.toJson());
@@ -185,7 +203,21 @@ class Polygon implements MapsObject {
     return result;
   }
 
-  List<List<Object>> _holesToJson() {
+  // Android reads packed latitude, longitude pairs in one pass, without
+  // boxing each coordinate.
+  static Float64List _packPoints(List<LatLng> points) {
+    final Float64List packed = Float64List(points.length * 2);
+    for (int i = 0; i < points.length; i++) {
+      packed[i * 2] = points[i].latitude;
+      packed[i * 2 + 1] = points[i].longitude;
+    }
+    return packed;
+  }
+
+  List<Object> _holesToJson() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return holes.map(_packPoints).toList();
+    }
     final List<List<Object>> result = <List<Object>>[];
     for (final List<LatLng> hole in holes) {
       final List<Object> jsonHole = <Object>[];
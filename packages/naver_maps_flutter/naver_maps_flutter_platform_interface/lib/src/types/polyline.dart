@@ -2,7 +2,10 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
-import 'package:flutter/foundation.dart' show listEquals, VoidCallback;
+import 'dart:typed_data';
+
+import 'package:flutter/foundation.dart'
+    show defaultTargetPlatform, listEquals, TargetPlatform, VoidCallback;
 import 'package:flutter/material.dart' show Color, Colors;
 import 'package:meta/meta.dart' show immutable;
 
@@ -36,8 +39,9 @@ class Polyline implements MapsObject {
     this.visible = true,
     this.width = 10,
     this.zIndex = 0,
+    this.simplifyTolerance = 0,
     this.onTap,
-  });
+  }) : assert(simplifyTolerance >= 0);
 
   /// Uniquely identifies a [Polyline].
   final PolylineId polylineId;
@@ -112,6 +116,13 @@ class Polyline implements MapsObject {
   /// earlier, and thus appearing to be closer to the surface of the Earth.
   final int zIndex;
 
+  /// How far, in logical pixels, the drawn line may stray from [points] when
+  /// they are simplified for the current zoom level. Android only.
+  ///
+  /// The default of 0 only simplifies polylines of many points, by half a logical
+  /// pixel. A positive tolerance simplifies the polyline at any size.
+  final double simplifyTolerance;
+
   /// Callbacks to receive tap events for polyline placed on this map.
   final VoidCallback? onTap;
 
@@ -129,6 +140,7 @@ class Polyline implements MapsObject {
     bool? visibleParam,
     int? widthParam,
     int? zIndexParam,
+    double? simplifyToleranceParam,
     VoidCallback? onTapParam,
   }) {
     return Polyline(
@@ -145,6 +157,7 @@ class Polyline implements MapsObject {
       width: widthParam ?? width,
       onTap: onTapParam ?? onTap,
       zIndex: zIndexParam ?? zIndex,
+      simplifyTolerance: simplifyToleranceParam ?? simplifyTolerance,
     );
   }
 
@@ -177,6 +190,7 @@ class Polyline implements MapsObject {
     addIfPresent('visible', visible);
     addIfPresent('width', width);
     addIfPresent('zIndex', zIndex);
+    addIfPresent('simplifyTolerance', simplifyTolerance);
 
     if (points != null) {
       json['points'] = _pointsToJson();
@@ -205,13 +219,17 @@ class Polyline implements MapsObject {
         endCap == typedOther.endCap &&
         visible == typedOther.visible &&
         width == typedOther.width &&
-        zIndex == typedOther.zIndex;
+        zIndex == typedOther.zIndex &&
+        simplifyTolerance == typedOther.simplifyTolerance;
   }
 
   @override
   int get hashCode => polylineId.hashCode;
 
   Object _pointsToJson() {
+    if (defaultTargetPlatform == TargetPlatform.android) {
+      return _packPoints(points);
+    }
     final List<Object> result = <Object>[];
     for (final LatLng point in points) {
       result.add(point.toJson());
@@ -219,6 +237,17 @@ class Polyline implements MapsObject {
     return result;
   }
 
+  // Android reads packed latitude, longitude pairs in one pass, without
+  // boxing each coordinate.
+  static Float64List _packPoints(List<LatLng> points) {
+    final Float64List packed = Float64List(points.length * 2);
+    for (int i = 0; i < points.length; i++) {
+      packed[i * 2] = points[i].latitude;
+      packed[i * 2 + 1] = points[i].longitude;
+    }
+    return packed;
+  }
+
   Object _patternToJson() {
     final List<Object> result = <Object>[];
     for (final PatternItem patternItem in patterns) {
@@ -0,0 +1,133 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:typed_data';
+import 'dart:ui' show hashValues, Rect;
+
+import 'package:meta/meta.dart' show immutable;
+
+/// The image format of a map snapshot.
+enum SnapshotFormat {
+  /// Lossless PNG, the default.
+  png,
+
+  /// Lossy JPEG, with no alpha channel.
+  jpeg,
+
+  /// Lossy WebP.
+  webpLossy,
+
+  /// Lossless WebP.
+  ///
+  /// Android only encodes lossless WebP from API 29; before that, the
+  /// snapshot is a PNG.
+  webpLossless,
+}
+
+/// How a map snapshot is cropped, scaled and encoded on the platform side.
+/// Android only; iOS always returns the whole map as PNG.
+@immutable
+class SnapshotOptions {
+  /// Creates immutable snapshot options.
+  ///
+  /// [AssertionError] is thrown if [quality] isn't in 0..100 or [scale] isn't
+  /// in (0, 1].
+  const SnapshotOptions({
+    this.format = SnapshotFormat.png,
+    this.quality = 100,
+    this.scale = 1.0,
+    this.region,
+  })  : assert(quality >= 0 && quality <= 100),
+        assert(scale > 0 && scale <= 1);
+
+  /// The image format. Ignored by `takeSnapshotPixels`.
+  final SnapshotFormat format;
+
+  /// The quality, from 0 to 100, of the lossy formats.
+  final int quality;
+
+  /// The factor the snapshot is scaled down by, e.g. 0.5 for a thumbnail of
+  /// half the size of the map.
+  final double scale;
+
+  /// The part of the map to keep, in logical pixels, or null for all of it.
+  final Rect? region;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() {
+    final Map<String, Object> json = <String, Object>{
+      'format': _formatName(format),
+      'quality': quality,
+      'scale': scale,
+    };
+    final Rect? region = this.region;
+    if (region != null) {
+      json['region'] = <double>[
+        region.left,
+        region.top,
+        region.width,
+        region.height,
+      ];
+    }
+    return json;
+  }
+
+  static String _formatName(SnapshotFormat format) {
+    switch (format) {
+      case SnapshotFormat.png:
+        return 'png';
+      case SnapshotFormat.jpeg:
+        return 'jpeg';
+      case SnapshotFormat.webpLossy:
+        return 'webpLossy';
+      case SnapshotFormat.webpLossless:
+        return 'webpLossless';
+    }
+  }
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (other.runtimeType != runtimeType) return false;
+    return other is SnapshotOptions &&
+        format == other.format &&
+        quality == other.quality &&
+        scale == other.scale &&
+        region == other.region;
+  }
+
+  @override
+  int get hashCode => hashValues(format, quality, scale, region);
+}
+
+/// The unencoded pixels of a map snapshot, premultiplied RGBA with 8 bits per
+/// channel.
+class SnapshotPixels {
+  /// Creates a snapshot of [width] by [height] pixels.
+  const SnapshotPixels(this.width, this.height, this.rowBytes, this.pixels);
+
+  /// Deserializes the reply of a `map#takeSnapshot` in the `rgba` format.
+  ///
+  /// Mainly for internal use.
+  static SnapshotPixels fromJson(Map<dynamic, dynamic> json) {
+    return SnapshotPixels(
+      json['width'],
+      json['height'],
+      json['rowBytes'],
+      json['pixels'],
+    );
+  }
+
+  /// The width in pixels.
+  final int width;
+
+  /// The height in pixels.
+  final int height;
+
+  /// The bytes per row of [pixels], which may exceed `width * 4`.
+  final int rowBytes;
+
+  /// The pixels, row after row.
+  final Uint8List pixels;
+}
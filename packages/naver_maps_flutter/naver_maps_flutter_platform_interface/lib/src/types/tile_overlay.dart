@@ -55,6 +55,10 @@ class TileOverlay implements MapsObject {
     this.zIndex = 0,
     this.visible = true,
     this.tileSize = 256,
+    this.heatmap,
+    this.localTileSource,
+    this.diskCache = false,
+    this.cacheMaxAge,
   }) : assert(transparency >= 0.0 && transparency <= 1.0);
 
   /// Uniquely identifies a [TileOverlay].
@@ -88,6 +92,26 @@ class TileOverlay implements MapsObject {
   /// would give on a non-retina device.
   final int tileSize;
 
+  /// If set, the tiles are a heatmap of the points set on the platform side,
+  /// and [tileProvider] is not used. Android only.
+  final HeatmapOptions? heatmap;
+
+  /// If set, the tiles are read from local files on the platform side, and
+  /// [tileProvider] is not used. Android only.
+  final LocalTileSource? localTileSource;
+
+  /// Whether the tiles from [tileProvider] are kept in an on-disk cache shared
+  /// by every map of the app, and served from it in later sessions. The
+  /// default is false. Android only.
+  ///
+  /// Call `NaverMapController.clearTileCache` when the tiles change. The size
+  /// of the cache is set with `NaverMapController.setTileDiskCacheMaxSize`.
+  final bool diskCache;
+
+  /// How long tiles are served from the disk cache before they are requested
+  /// from [tileProvider] again. Tiles never expire if null. Android only.
+  final Duration? cacheMaxAge;
+
   /// Creates a new [TileOverlay] object whose values are the same as this instance,
   /// unless overwritten by the specified parameters.
   TileOverlay copyWith({
@@ -97,6 +121,10 @@ class TileOverlay implements MapsObject {
     int? zIndexParam,
     bool? visibleParam,
     int? tileSizeParam,
+    HeatmapOptions? heatmapParam,
+    LocalTileSource? localTileSourceParam,
+    bool? diskCacheParam,
+    Duration? cacheMaxAgeParam,
   }) {
     return TileOverlay(
       tileOverlayId: tileOverlayId,
@@ -106,6 +134,10 @@ class TileOverlay implements MapsObject {
       zIndex: zIndexParam ?? zIndex,
       visible: visibleParam ?? visible,
       tileSize: tileSizeParam ?? tileSize,
+      heatmap: heatmapParam ?? heatmap,
+      localTileSource: localTileSourceParam ?? localTileSource,
+      diskCache: diskCacheParam ?? diskCache,
+      cacheMaxAge: cacheMaxAgeParam ?? cacheMaxAge,
     );
   }
 
@@ -127,6 +159,10 @@ class TileOverlay implements MapsObject {
     addIfPresent('zIndex', zIndex);
     addIfPresent('visible', visible);
     addIfPresent('tileSize', tileSize);
+    addIfPresent('heatmap', heatmap?.toJson());
+    addIfPresent('localTileSource', localTileSource?.toJson());
+    addIfPresent('diskCache', diskCache);
+    addIfPresent('cacheMaxAge', cacheMaxAge?.inMilliseconds);
 
     return json;
   }
@@ -143,10 +179,24 @@ class TileOverlay implements MapsObject {
         transparency == other.transparency &&
         zIndex == other.zIndex &&
         visible == other.visible &&
-        tileSize == other.tileSize;
+        tileSize == other.tileSize &&
+        heatmap == other.heatmap &&
+        localTileSource == other.localTileSource &&
+        diskCache == other.diskCache &&
+        cacheMaxAge == other.cacheMaxAge;
   }
 
   @override
-  int get hashCode => hashValues(tileOverlayId, fadeIn, tileProvider,
-      transparency, zIndex, visible, tileSize);
+  int get hashCode => hashValues(
+      tileOverlayId,
+      fadeIn,
+      tileProvider,
+      transparency,
+      zIndex,
+      visible,
+      tileSize,
+      heatmap,
+      localTileSource,
+      diskCache,
+      cacheMaxAge);
 }
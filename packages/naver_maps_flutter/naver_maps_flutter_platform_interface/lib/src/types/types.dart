@@ -9,18 +9,23 @@ export 'camera.dart';
 export 'cap.dart';
 export 'circle_updates.dart';
 export 'circle.dart';
+export 'heatmap.dart';
 export 'joint_type.dart';
+export 'local_tile_source.dart';
 export 'location.dart';
 export 'maps_object_updates.dart';
 export 'maps_object.dart';
+export 'marker_motion.dart';
 export 'marker_updates.dart';
 export 'marker.dart';
+export 'overlay_query.dart';
 export 'pattern_item.dart';
 export 'polygon_updates.dart';
 export 'polygon.dart';
 export 'polyline_updates.dart';
 export 'polyline.dart';
 export 'screen_coordinate.dart';
+export 'snapshot.dart';
 export 'tile.dart';
 export 'tile_overlay.dart';
 export 'tile_provider.dart';
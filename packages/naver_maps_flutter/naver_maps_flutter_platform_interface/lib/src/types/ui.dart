@@ -105,6 +105,120 @@ class MinMaxZoomPreference {
   }
 }
 
+/// Limits how often `onCameraMove` is called while the camera moves. Android
+/// only; iOS reports every camera change.
+///
+/// Positions are sent at most [maxRate] times per second, and only if the
+/// camera moved by at least one of the deltas since the last one that was
+/// sent. The position the camera settles on is always sent before
+/// `onCameraIdle`.
+class CameraMoveThrottle {
+  /// Creates an immutable camera move throttle.
+  ///
+  /// [AssertionError] will be thrown if a delta is negative.
+  const CameraMoveThrottle({
+    this.maxRate = 30,
+    this.minTargetDelta = 0,
+    this.minZoomDelta = 0,
+    this.minBearingDelta = 0,
+  }) : assert(minTargetDelta >= 0 && minZoomDelta >= 0 && minBearingDelta >= 0);
+
+  /// The most camera positions sent per second; every change is sent if it
+  /// isn't positive.
+  final double maxRate;
+
+  /// The change, in degrees of latitude or longitude, of the camera target
+  /// that is too small to be sent.
+  final double minTargetDelta;
+
+  /// The change of zoom level that is too small to be sent.
+  final double minZoomDelta;
+
+  /// The change, in degrees, of bearing that is too small to be sent.
+  final double minBearingDelta;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() =>
+      <double>[maxRate, minTargetDelta, minZoomDelta, minBearingDelta];
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (runtimeType != other.runtimeType) return false;
+    final CameraMoveThrottle typedOther = other as CameraMoveThrottle;
+    return maxRate == typedOther.maxRate &&
+        minTargetDelta == typedOther.minTargetDelta &&
+        minZoomDelta == typedOther.minZoomDelta &&
+        minBearingDelta == typedOther.minBearingDelta;
+  }
+
+  @override
+  int get hashCode =>
+      hashValues(maxRate, minTargetDelta, minZoomDelta, minBearingDelta);
+
+  @override
+  String toString() {
+    return 'CameraMoveThrottle(maxRate: $maxRate, '
+        'minTargetDelta: $minTargetDelta, minZoomDelta: $minZoomDelta, '
+        'minBearingDelta: $minBearingDelta)';
+  }
+}
+
+/// Groups nearby markers into cluster markers, on the platform side. Android
+/// only.
+///
+/// The map is divided into cells of [gridSize] logical pixels; the markers of
+/// a cell are shown as one cluster marker when there are at least
+/// [minClusterSize] of them. Markers are never clustered above [maxZoom].
+class MarkerClustering {
+  /// Creates an immutable marker clustering configuration.
+  const MarkerClustering({
+    this.enabled = true,
+    this.gridSize = 60,
+    this.minClusterSize = 2,
+    this.maxZoom = 16,
+  })  : assert(gridSize > 0),
+        assert(minClusterSize > 1);
+
+  /// Markers are never clustered.
+  static const MarkerClustering disabled = MarkerClustering(enabled: false);
+
+  /// Whether markers are clustered.
+  final bool enabled;
+
+  /// The size, in logical pixels, of the cells markers are clustered in.
+  final int gridSize;
+
+  /// The fewest markers of a cell that are shown as a cluster.
+  final int minClusterSize;
+
+  /// The highest zoom level at which markers are clustered.
+  final double maxZoom;
+
+  /// Converts this object to something serializable in JSON.
+  Object toJson() => <Object>[enabled, gridSize, minClusterSize, maxZoom];
+
+  @override
+  bool operator ==(Object other) {
+    if (identical(this, other)) return true;
+    if (runtimeType != other.runtimeType) return false;
+    final MarkerClustering typedOther = other as MarkerClustering;
+    return enabled == typedOther.enabled &&
+        gridSize == typedOther.gridSize &&
+        minClusterSize == typedOther.minClusterSize &&
+        maxZoom == typedOther.maxZoom;
+  }
+
+  @override
+  int get hashCode => hashValues(enabled, gridSize, minClusterSize, maxZoom);
+
+  @override
+  String toString() {
+    return 'MarkerClustering(enabled: $enabled, gridSize: $gridSize, '
+        'minClusterSize: $minClusterSize, maxZoom: $maxZoom)';
+  }
+}
+
 /// Exception when a map style is invalid or was unable to be set.
 ///
 /// See also: `setStyle` on [GoogleMapController] for why this exception
@@ -2,12 +2,27 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:convert' show utf8;
+import 'dart:typed_data';
+import 'dart:ui' show Rect;
+
+import 'package:flutter/foundation.dart';
 import 'package:flutter/services.dart';
 import 'package:flutter_test/flutter_test.dart';
 
 import 'package:naver_maps_flutter_platform_interface/src/method_channel/method_channel_naver_maps_flutter.dart';
 import 'package:naver_maps_flutter_platform_interface/naver_maps_flutter_platform_interface.dart';
 
+class _TestTileProvider extends TileProvider {
+  @override
+  Future<Tile> getTile(int x, int y, int? zoom) async {
+    if (x == 0) {
+      return TileProvider.noTile;
+    }
+    return Tile(256, 256, Uint8List.fromList(<int>[x, y, zoom!]));
+  }
+}
+
 void main() {
   TestWidgetsFlutterBinding.ensureInitialized();
 
@@ -33,6 +48,20 @@ void main() {
       });
     }
 
+    /// Delivers [method] to Dart as if the platform side of map [mapId] had
+    /// called it, and returns the encoded reply.
+    Future<ByteData?> sendPlatformMethodCall(
+        int mapId, String method, dynamic arguments) async {
+      ByteData? reply;
+      await ServicesBinding.instance!.defaultBinaryMessenger
+          .handlePlatformMessage(
+              'plugins.flutter.io/naver_maps_$mapId',
+              const StandardMethodCodec()
+                  .encodeMethodCall(MethodCall(method, arguments)),
+              (ByteData? data) => reply = data);
+      return reply;
+    }
+
     // Calls each method that uses invokeMethod with a return type other than
     // void to ensure that the casting/nullability handling succeeds.
     //
@@ -68,5 +97,531 @@ void main() {
         'map#takeSnapshot',
       ]);
     });
+
+    test('camera#onMove decodes the packed Android position', () async {
+      const int mapId = 2;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      maps.ensureChannelInitialized(mapId);
+      final Future<CameraMoveEvent> event =
+          maps.onCameraMove(mapId: mapId).first;
+
+      await sendPlatformMethodCall(mapId, 'camera#onMove',
+          Float64List.fromList(<double>[37.5, 127.0, 14.0, 30.0, 90.0]));
+
+      expect(
+          (await event).value,
+          const CameraPosition(
+              target: LatLng(37.5, 127.0), zoom: 14, tilt: 30, bearing: 90));
+    });
+
+    test('camera#onMove decodes the iOS position map', () async {
+      const int mapId = 3;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      maps.ensureChannelInitialized(mapId);
+      final Future<CameraMoveEvent> event =
+          maps.onCameraMove(mapId: mapId).first;
+
+      await sendPlatformMethodCall(mapId, 'camera#onMove', <String, Object>{
+        'position': <String, Object>{
+          'target': <double>[37.5, 127.0],
+          'zoom': 14.0,
+          'tilt': 30.0,
+          'bearing': 90.0,
+        },
+      });
+
+      expect(
+          (await event).value,
+          const CameraPosition(
+              target: LatLng(37.5, 127.0), zoom: 14, tilt: 30, bearing: 90));
+    });
+
+    test('takeSnapshot sends the snapshot options', () async {
+      const int mapId = 4;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return Uint8List.fromList(<int>[1, 2, 3]);
+      });
+
+      final Uint8List? bytes = await maps.takeSnapshot(
+          mapId: mapId,
+          options: const SnapshotOptions(
+              format: SnapshotFormat.webpLossy,
+              quality: 80,
+              scale: 0.5,
+              region: Rect.fromLTWH(10, 20, 100, 50)));
+
+      expect(bytes, <int>[1, 2, 3]);
+      expect(call.method, 'map#takeSnapshot');
+      expect(call.arguments, <String, Object>{
+        'options': <String, Object>{
+          'format': 'webpLossy',
+          'quality': 80,
+          'scale': 0.5,
+          'region': <double>[10, 20, 100, 50],
+        },
+      });
+    });
+
+    test('takeSnapshotPixels asks for rgba and decodes the pixels', () async {
+      const int mapId = 5;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return <String, Object>{
+          'width': 1,
+          'height': 2,
+          'rowBytes': 4,
+          'pixels': Uint8List(8),
+        };
+      });
+
+      final SnapshotPixels? pixels = await maps.takeSnapshotPixels(
+          mapId: mapId, options: const SnapshotOptions(scale: 0.25));
+
+      expect(call.arguments['options']['format'], 'rgba');
+      expect(call.arguments['options']['scale'], 0.25);
+      expect(pixels!.width, 1);
+      expect(pixels.height, 2);
+      expect(pixels.rowBytes, 4);
+      expect(pixels.pixels.length, 8);
+    });
+
+    test('setTileDiskCacheMaxSize sends maxSize', () async {
+      const int mapId = 1;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return null;
+      });
+
+      await maps.setTileDiskCacheMaxSize(1024, mapId: mapId);
+
+      expect(call.method, 'tileOverlays#setDiskCacheMaxSize');
+      expect(call.arguments, <String, Object>{'maxSize': 1024});
+    });
+
+    test('getIconCacheStats returns the icon cache counters', () async {
+      const int mapId = 6;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        return <String, Object>{'hitCount': 3, 'missCount': 1};
+      });
+
+      final Map<String, Object?> stats =
+          await maps.getIconCacheStats(mapId: mapId);
+
+      expect(log, <String>['map#getIconCacheStats']);
+      expect(stats, <String, Object>{'hitCount': 3, 'missCount': 1});
+    });
+
+    test('getPropertyWriteStats sends reset', () async {
+      const int mapId = 7;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return <String, Object>{'applied': 5, 'skipped': 2};
+      });
+
+      final Map<String, Object?> stats =
+          await maps.getPropertyWriteStats(mapId: mapId, reset: true);
+
+      expect(call.method, 'map#getPropertyWriteStats');
+      expect(call.arguments, <String, Object>{'reset': true});
+      expect(stats, <String, Object>{'applied': 5, 'skipped': 2});
+    });
+
+    test('getMapViewPoolStats sends reset', () async {
+      const int mapId = 8;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return <String, Object>{'hits': 4, 'misses': 1};
+      });
+
+      final Map<String, Object?> stats =
+          await maps.getMapViewPoolStats(mapId: mapId);
+
+      expect(call.method, 'map#getMapViewPoolStats');
+      expect(call.arguments, <String, Object>{'reset': false});
+      expect(stats, <String, Object>{'hits': 4, 'misses': 1});
+    });
+
+    test('tileOverlay#getTiles packs the tiles of a batch', () async {
+      const int mapId = 9;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async => null);
+      await maps.updateTileOverlays(newTileOverlays: <TileOverlay>{
+        TileOverlay(
+            tileOverlayId: const TileOverlayId('tiles'),
+            tileProvider: _TestTileProvider()),
+      }, mapId: mapId);
+
+      final ByteData? reply = await sendPlatformMethodCall(
+          mapId, 'tileOverlay#getTiles', <String, Object>{
+        'tileOverlayId': 'tiles',
+        'tiles': Int32List.fromList(<int>[1, 2, 3, 0, 5, 3]),
+      });
+
+      final Uint8List packed =
+          const StandardMethodCodec().decodeEnvelope(reply!) as Uint8List;
+      final ByteData header =
+          ByteData.view(packed.buffer, packed.offsetInBytes);
+      expect(header.getInt32(0), 2);
+      // The first tile's payload follows the two 16 byte records.
+      expect(header.getInt32(4), 256);
+      expect(header.getInt32(8), 256);
+      expect(header.getInt32(12), 36);
+      expect(header.getInt32(16), 3);
+      expect(packed.sublist(36, 39), <int>[1, 2, 3]);
+      // The second tile has no data.
+      expect(header.getInt32(20), -1);
+      expect(header.getInt32(24), -1);
+      expect(header.getInt32(32), -1);
+      expect(packed.length, 39);
+    });
+
+    test('event batches are dispatched in order', () async {
+      const int mapId = 10;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async => null);
+      final List<MarkerId> markerTaps = <MarkerId>[];
+      final List<LatLng> mapTaps = <LatLng>[];
+      maps
+          .onMarkerTap(mapId: mapId)
+          .listen((MarkerTapEvent event) => markerTaps.add(event.value));
+      maps
+          .onTap(mapId: mapId)
+          .listen((MapTapEvent event) => mapTaps.add(event.position));
+
+      // Big-endian, like the Android MapEventBus.
+      final List<int> batch = <int>[];
+      void addInt32(int value) =>
+          batch.addAll((ByteData(4)..setInt32(0, value)).buffer.asUint8List());
+      void addDouble(double value) => batch
+          .addAll((ByteData(8)..setFloat64(0, value)).buffer.asUint8List());
+      void addString(String value) {
+        final List<int> bytes = utf8.encode(value);
+        addInt32(bytes.length);
+        batch.addAll(bytes);
+      }
+
+      batch.add(5);
+      addString('marker');
+      batch.add(3);
+      addDouble(37.5);
+      addDouble(127.0);
+      batch.add(11);
+      addString('cluster');
+      addInt32(2);
+      addString('member1');
+      addString('member2');
+      addDouble(37.0);
+      addDouble(126.5);
+      batch.add(2);
+      await ServicesBinding.instance!.defaultBinaryMessenger
+          .handlePlatformMessage(
+              'plugins.flutter.io/naver_maps_events_$mapId',
+              ByteData.view(Uint8List.fromList(batch).buffer),
+              (ByteData? data) {});
+      await Future<void>.delayed(Duration.zero);
+
+      expect(markerTaps, <MarkerId>[MarkerId('marker'), MarkerId('cluster')]);
+      expect(mapTaps, <LatLng>[LatLng(37.5, 127.0)]);
+    });
+
+    test('queryOverlays sends the region and unpacks the ids', () async {
+      const int mapId = 11;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return <String, Object>{
+          'markers': Uint8List.fromList(utf8.encode('m1\u0000m2\u0000')),
+          'circles': Uint8List(0),
+          'truncated': true,
+        };
+      });
+
+      final OverlayQueryResult result = await maps.queryOverlays(
+        OverlayQueryRegion.circle(LatLng(37.5, 127.0), 100),
+        mapId: mapId,
+        types: <OverlayQueryType>{
+          OverlayQueryType.marker,
+          OverlayQueryType.circle,
+        },
+        limit: 2,
+      );
+
+      expect(call.method, 'map#queryOverlays');
+      expect(call.arguments, <String, Object>{
+        'region': <String, Object>{
+          'circle': <Object>[
+            <double>[37.5, 127.0],
+            100.0,
+          ],
+        },
+        'types': <String>['markers', 'circles'],
+        'limit': 2,
+      });
+      expect(result.markerIds, <MarkerId>[MarkerId('m1'), MarkerId('m2')]);
+      expect(result.polygonIds, isEmpty);
+      expect(result.circleIds, isEmpty);
+      expect(result.truncated, true);
+    });
+
+    test('OverlayQueryRegion serializes bounds and polygons', () {
+      expect(
+          OverlayQueryRegion.bounds(LatLngBounds(
+                  southwest: LatLng(37.0, 126.0),
+                  northeast: LatLng(38.0, 127.0)))
+              .toJson(),
+          <String, Object>{
+            'bounds': <Object>[
+              <double>[37.0, 126.0],
+              <double>[38.0, 127.0],
+            ],
+          });
+      expect(
+          OverlayQueryRegion.polygon(<LatLng>[
+            LatLng(37.0, 126.0),
+            LatLng(38.0, 126.0),
+            LatLng(38.0, 127.0),
+          ]).toJson(),
+          <String, Object>{
+            'polygon': <Object>[
+              <double>[37.0, 126.0],
+              <double>[38.0, 126.0],
+              <double>[38.0, 127.0],
+            ],
+          });
+    });
+
+    test('setHeatmapPoints sends the packed points', () async {
+      const int mapId = 12;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return null;
+      });
+
+      await maps.setHeatmapPoints(const TileOverlayId('heatmap'),
+          Float64List.fromList(<double>[37.5, 127.0, 2.0]),
+          mapId: mapId, append: true);
+
+      expect(call.method, 'tileOverlays#setHeatmapPoints');
+      expect(call.arguments['tileOverlayId'], 'heatmap');
+      expect(call.arguments['points'], <double>[37.5, 127.0, 2.0]);
+      expect(call.arguments['append'], true);
+    });
+
+    test('streamMarkers sends the markers in chunks', () async {
+      const int mapId = 13;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      final List<Map<Object?, Object?>> chunks = <Map<Object?, Object?>>[];
+      const BasicMessageChannel<Object?>(
+        'plugins.flutter.io/naver_maps_marker_stream_$mapId',
+        StandardMessageCodec(),
+      ).setMockMessageHandler((Object? message) async {
+        chunks.add(message as Map<Object?, Object?>);
+        return null;
+      });
+
+      await maps.streamMarkers(<Marker>[
+        for (int i = 0; i < 5; i++) Marker(markerId: MarkerId('$i')),
+      ], mapId: mapId, chunkSize: 2);
+
+      expect(chunks.length, 3);
+      // Only the first chunk carries the total, for the progress events.
+      expect(chunks[0]['total'], 5);
+      expect(chunks[1].containsKey('total'), false);
+      expect(
+          chunks
+              .expand((Map<Object?, Object?> chunk) => chunk['markers'] as List)
+              .map((dynamic marker) => marker['markerId'])
+              .toList(),
+          <String>['0', '1', '2', '3', '4']);
+    });
+
+    test('streamMarkers throws the error of a chunk', () async {
+      const int mapId = 14;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      const BasicMessageChannel<Object?>(
+        'plugins.flutter.io/naver_maps_marker_stream_$mapId',
+        StandardMessageCodec(),
+      ).setMockMessageHandler((Object? message) async {
+        return <String, Object>{'error': 'Unable to interpret bytes'};
+      });
+
+      expect(
+          maps.streamMarkers(<Marker>[Marker(markerId: MarkerId('0'))],
+              mapId: mapId),
+          throwsA(isA<PlatformException>()));
+    });
+
+    test('updateMarkersBinary packs the marker updates', () async {
+      const int mapId = 15;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return null;
+      });
+
+      await maps.updateMarkersBinary(
+          MarkerUpdates.from(<Marker>{
+            Marker(markerId: MarkerId('same')),
+            Marker(markerId: MarkerId('gone')),
+          }, <Marker>{
+            Marker(markerId: MarkerId('same'), alpha: 0.5),
+            Marker(
+              markerId: MarkerId('new'),
+              position: LatLng(37.5, 127.0),
+              infoWindow: InfoWindow(title: 'hi'),
+              flat: true,
+            ),
+          }),
+          mapId: mapId);
+
+      expect(call.method, 'markers#updateBinary');
+      // Both markers share the default icon.
+      expect(call.arguments['icons'],
+          <Object>[BitmapDescriptor.defaultMarker.toJson()]);
+      final Uint8List packed = call.arguments['markers'] as Uint8List;
+      final ByteData data = ByteData.view(packed.buffer, packed.offsetInBytes);
+      expect(data.getInt32(0), 1);
+      final List<String> strings = <String>[];
+      int offset = 8;
+      for (int i = 0; i < data.getInt32(4); i++) {
+        final int length = data.getInt32(offset);
+        strings.add(
+            utf8.decode(packed.sublist(offset + 4, offset + 4 + length)));
+        offset += 4 + length;
+      }
+      expect(strings, <String>['new', 'hi', 'same', 'gone']);
+      expect(data.getInt32(offset), 1);
+      expect(data.getInt32(offset + 4), 1);
+      expect(data.getInt32(offset + 8), 1);
+      offset += 12;
+      expect(packed.length, offset + 2 * 68 + 4);
+
+      // The added marker.
+      expect(data.getInt32(offset), 0);
+      expect(data.getInt32(offset + 4), 0xfff);
+      // Flat and visible.
+      expect(data.getInt32(offset + 8), 4 | 8);
+      expect(data.getFloat64(offset + 12), 37.5);
+      expect(data.getFloat64(offset + 20), 127.0);
+      expect(data.getFloat32(offset + 28), 1.0);
+      expect(data.getFloat32(offset + 32), 0.5);
+      expect(data.getFloat32(offset + 36), 1.0);
+      expect(data.getInt32(offset + 56), 0);
+      expect(data.getInt32(offset + 60), 1);
+      expect(data.getInt32(offset + 64), -1);
+      // The changed marker.
+      offset += 68;
+      expect(data.getInt32(offset), 2);
+      expect(data.getFloat32(offset + 28), 0.5);
+      expect(data.getInt32(offset + 56), 0);
+      expect(data.getInt32(offset + 60), -1);
+      // The removed marker id.
+      expect(data.getInt32(offset + 68), 3);
+    });
+
+    test('animateMarkers sends packed tracks', () async {
+      const int mapId = 16;
+      final MethodChannelNaverMapsFlutter maps =
+          MethodChannelNaverMapsFlutter();
+      late MethodCall call;
+      configureMockMap(maps, mapId: mapId,
+          handler: (MethodCall methodCall) async {
+        call = methodCall;
+        return null;
+      });
+
+      await maps.animateMarkers(<MarkerTrack>[
+        MarkerTrack(MarkerId('bus'), <MarkerTrackPoint>[
+          MarkerTrackPoint(LatLng(37.5, 127.0), Duration(milliseconds: 500)),
+          MarkerTrackPoint(LatLng(37.6, 127.1), Duration(seconds: 1)),
+        ]),
+        MarkerTrack(MarkerId('taxi'), <MarkerTrackPoint>[
+          MarkerTrackPoint(LatLng(37.4, 126.9), Duration(microseconds: 2500)),
+        ]),
+      ], mapId: mapId, rotateToHeading: true);
+
+      expect(call.method, 'markers#animate');
+      expect(call.arguments['markerIds'], <String>['bus', 'taxi']);
+      final List<Object?> tracks = call.arguments['tracks'] as List<Object?>;
+      expect(tracks[0], isA<Float64List>());
+      expect(tracks[0],
+          <double>[37.5, 127.0, 500.0, 37.6, 127.1, 1000.0]);
+      expect(tracks[1], <double>[37.4, 126.9, 2.5]);
+      expect(call.arguments['rotateToHeading'], true);
+    });
+
+    test('polyline and polygon points are packed on Android', () {
+      debugDefaultTargetPlatformOverride = TargetPlatform.android;
+      addTearDown(() => debugDefaultTargetPlatformOverride = null);
+      final Polygon polygon = Polygon(
+        polygonId: PolygonId('area'),
+        points: <LatLng>[LatLng(37.5, 127.0), LatLng(37.6, 127.1)],
+        holes: <List<LatLng>>[
+          <LatLng>[LatLng(37.55, 127.05)],
+        ],
+      );
+      final Polyline polyline = Polyline(
+        polylineId: PolylineId('track'),
+        points: <LatLng>[LatLng(37.5, 127.0)],
+      );
+
+      final Map<String, Object> polygonJson =
+          polygon.toJson() as Map<String, Object>;
+      expect(polygonJson['points'], isA<Float64List>());
+      expect(polygonJson['points'], <double>[37.5, 127.0, 37.6, 127.1]);
+      expect(polygonJson['holes'], <Object>[
+        <double>[37.55, 127.05],
+      ]);
+      expect((polyline.toJson() as Map<String, Object>)['points'],
+          isA<Float64List>());
+
+      // Other platforms keep the list of pairs.
+      debugDefaultTargetPlatformOverride = TargetPlatform.iOS;
+      expect((polyline.toJson() as Map<String, Object>)['points'], <Object>[
+        <double>[37.5, 127.0],
+      ]);
+    });
   });
 }
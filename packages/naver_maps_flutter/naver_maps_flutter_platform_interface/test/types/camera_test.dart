@@ -19,4 +19,15 @@ void main() {
 
     expect(cameraPosition, cameraPositionFromJson);
   });
+
+  test('CameraMoveThrottle toJson', () {
+    const throttle = CameraMoveThrottle(
+        maxRate: 10,
+        minTargetDelta: 0.0001,
+        minZoomDelta: 0.05,
+        minBearingDelta: 1);
+
+    expect(throttle.toJson(), <double>[10, 0.0001, 0.05, 1]);
+    expect(const CameraMoveThrottle().toJson(), <double>[30, 0, 0, 0]);
+  });
 }
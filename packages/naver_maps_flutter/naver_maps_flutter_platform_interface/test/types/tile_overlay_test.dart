@@ -2,7 +2,7 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
-import 'dart:ui' show hashValues;
+import 'dart:ui' show Color, hashValues;
 
 import 'package:flutter_test/flutter_test.dart';
 import 'package:naver_maps_flutter_platform_interface/naver_maps_flutter_platform_interface.dart';
@@ -50,9 +50,29 @@ void main() {
         'zIndex': 1,
         'visible': false,
         'tileSize': 128,
+        'diskCache': false,
       });
     });
 
+    test('toJson sends the disk cache options', () async {
+      const TileOverlay tileOverlay = TileOverlay(
+          tileOverlayId: TileOverlayId('id'),
+          diskCache: true,
+          cacheMaxAge: Duration(hours: 1));
+      final Map<String, Object> json =
+          tileOverlay.toJson() as Map<String, Object>;
+      expect(json['diskCache'], true);
+      expect(json['cacheMaxAge'], 3600000);
+    });
+
+    test('toJson omits cacheMaxAge when tiles never expire', () async {
+      const TileOverlay tileOverlay =
+          TileOverlay(tileOverlayId: TileOverlayId('id'), diskCache: true);
+      final Map<String, Object> json =
+          tileOverlay.toJson() as Map<String, Object>;
+      expect(json.containsKey('cacheMaxAge'), false);
+    });
+
     test('invalid transparency throws', () async {
       expect(
           () => TileOverlay(
@@ -101,6 +121,11 @@ void main() {
       expect(tileOverlay1, tileOverlaySameValues);
       expect(tileOverlay1, isNot(tileOverlayDifferentId));
       expect(tileOverlay1, isNot(tileOverlayDifferentProvider));
+      expect(tileOverlay1, isNot(tileOverlay1.copyWith(diskCacheParam: true)));
+      expect(
+          tileOverlay1,
+          isNot(tileOverlay1.copyWith(
+              cacheMaxAgeParam: const Duration(minutes: 5))));
     });
 
     test('clone', () async {
@@ -113,7 +138,9 @@ void main() {
           transparency: 0.1,
           zIndex: 1,
           visible: false,
-          tileSize: 128);
+          tileSize: 128,
+          diskCache: true,
+          cacheMaxAge: const Duration(days: 1));
       expect(tileOverlay, tileOverlay.clone());
     });
 
@@ -137,7 +164,106 @@ void main() {
               tileOverlay.transparency,
               tileOverlay.zIndex,
               tileOverlay.visible,
-              tileOverlay.tileSize));
+              tileOverlay.tileSize,
+              tileOverlay.heatmap,
+              tileOverlay.localTileSource,
+              tileOverlay.diskCache,
+              tileOverlay.cacheMaxAge));
+    });
+  });
+
+  group('heatmap tests', () {
+    test('toJson returns correct format', () async {
+      const HeatmapOptions heatmap = HeatmapOptions(
+          radius: 30,
+          maxIntensity: 5,
+          gradient: HeatmapGradient(
+              colors: <Color>[Color(0xff00ff00), Color(0xffff0000)],
+              startPoints: <double>[0.2, 1.0]));
+      expect(heatmap.toJson(), <String, Object>{
+        'radius': 30,
+        'maxIntensity': 5.0,
+        'gradient': <String, Object>{
+          'colors': <int>[0xff00ff00, 0xffff0000],
+          'startPoints': <double>[0.2, 1.0],
+        },
+      });
+    });
+
+    test('toJson omits the default gradient', () async {
+      expect(const HeatmapOptions().toJson(), <String, Object>{
+        'radius': 20,
+        'maxIntensity': 0.0,
+      });
+    });
+
+    test('tile overlay toJson sends the heatmap', () async {
+      const TileOverlay tileOverlay = TileOverlay(
+          tileOverlayId: TileOverlayId('id'),
+          heatmap: HeatmapOptions(radius: 10));
+      final Map<String, Object> json =
+          tileOverlay.toJson() as Map<String, Object>;
+      expect(json['heatmap'], <String, Object>{
+        'radius': 10,
+        'maxIntensity': 0.0,
+      });
+    });
+
+    test('equality', () async {
+      const TileOverlay tileOverlay =
+          TileOverlay(tileOverlayId: TileOverlayId('id'));
+      expect(const HeatmapOptions(radius: 10),
+          const HeatmapOptions(radius: 10));
+      expect(const HeatmapOptions(radius: 10),
+          isNot(const HeatmapOptions(radius: 11)));
+      expect(
+          tileOverlay,
+          isNot(tileOverlay.copyWith(
+              heatmapParam: const HeatmapOptions(radius: 10))));
+    });
+  });
+
+  group('local tile source tests', () {
+    test('toJson returns correct format for MBTiles', () async {
+      expect(const LocalTileSource.mbtiles('/data/tiles.mbtiles').toJson(),
+          <String, Object>{'mbtiles': '/data/tiles.mbtiles'});
+    });
+
+    test('toJson returns correct format for directories', () async {
+      expect(const LocalTileSource.directory('/data/tiles').toJson(),
+          <String, Object>{
+            'directory': '/data/tiles',
+            'extension': 'png',
+            'tms': false,
+          });
+      expect(
+          const LocalTileSource.directory('/data/tiles',
+                  extension: 'jpg', tms: true)
+              .toJson(),
+          <String, Object>{
+            'directory': '/data/tiles',
+            'extension': 'jpg',
+            'tms': true,
+          });
+    });
+
+    test('tile overlay toJson sends the local tile source', () async {
+      const TileOverlay tileOverlay = TileOverlay(
+          tileOverlayId: TileOverlayId('id'),
+          localTileSource: LocalTileSource.mbtiles('/data/tiles.mbtiles'));
+      final Map<String, Object> json =
+          tileOverlay.toJson() as Map<String, Object>;
+      expect(json['localTileSource'],
+          <String, Object>{'mbtiles': '/data/tiles.mbtiles'});
+    });
+
+    test('equality', () async {
+      expect(const LocalTileSource.directory('/data/tiles'),
+          const LocalTileSource.directory('/data/tiles'));
+      expect(const LocalTileSource.directory('/data/tiles'),
+          isNot(const LocalTileSource.directory('/data/tiles', tms: true)));
+      expect(const LocalTileSource.mbtiles('/data/tiles'),
+          isNot(const LocalTileSource.directory('/data/tiles')));
     });
   });
 }